@@ -0,0 +1,52 @@
+package org.ikasan.dashboard.benchmark;
+
+import org.apache.commons.io.IOUtils;
+import org.ikasan.dashboard.ui.visualisation.adapter.service.ModuleVisjsAdapter;
+import org.ikasan.dashboard.ui.visualisation.model.flow.Module;
+import org.ikasan.spec.metadata.ModuleMetaData;
+import org.ikasan.topology.metadata.JsonFlowMetaDataProvider;
+import org.ikasan.topology.metadata.JsonModuleMetaDataProvider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+
+/**
+ * Helper for loading the module json shipped with the dashboard test resources.
+ */
+public class BenchmarkData
+{
+    public static final String MODULE_JSON = "/data/graph/module.json";
+    public static final String MODULE_ONE_JSON = "/data/graph/module-one.json";
+    public static final String MODULE_FOUR_JSON = "/data/graph/module-four.json";
+
+    private static JsonModuleMetaDataProvider jsonModuleMetaDataProvider
+        = new JsonModuleMetaDataProvider(new JsonFlowMetaDataProvider());
+
+    private BenchmarkData()
+    {
+    }
+
+    public static String loadDataFile(String fileName) throws IOException
+    {
+        try(InputStream inputStream = BenchmarkData.class.getResourceAsStream(fileName))
+        {
+            if(inputStream == null)
+            {
+                throw new IOException(String.format("Could not find benchmark data file [%s]", fileName));
+            }
+
+            return IOUtils.toString(inputStream, "UTF-8");
+        }
+    }
+
+    public static ModuleMetaData loadModuleMetaData(String fileName) throws IOException
+    {
+        return jsonModuleMetaDataProvider.deserialiseModule(loadDataFile(fileName));
+    }
+
+    public static Module loadModule(String fileName) throws IOException
+    {
+        return new ModuleVisjsAdapter().adapt(loadModuleMetaData(fileName), new ArrayList<>());
+    }
+}
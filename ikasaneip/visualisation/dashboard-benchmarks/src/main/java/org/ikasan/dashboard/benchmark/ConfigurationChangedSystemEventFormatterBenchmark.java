@@ -0,0 +1,67 @@
+package org.ikasan.dashboard.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.ikasan.dashboard.ui.administration.util.ConfigurationChangedSystemEventFormatter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting of configuration changed system events, including the json diff of the old and new configuration.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigurationChangedSystemEventFormatterBenchmark
+{
+    @Param({"5", "100"})
+    public int parameters;
+
+    private String configurationUpdated;
+    private String configurationDeleted;
+
+    @Setup
+    public void setup()
+    {
+        String oldConfig = this.configuration(false);
+        String newConfig = this.configuration(true);
+
+        this.configurationUpdated = "Configuration Updated OldConfig [" + oldConfig + "] NewConfig [" + newConfig + "]";
+        this.configurationDeleted = "Configuration Deleted OldConfig [" + oldConfig + "]";
+    }
+
+    @Benchmark
+    public String formatUpdated() throws JsonProcessingException
+    {
+        return ConfigurationChangedSystemEventFormatter.format(this.configurationUpdated);
+    }
+
+    @Benchmark
+    public String formatDeleted() throws JsonProcessingException
+    {
+        return ConfigurationChangedSystemEventFormatter.format(this.configurationDeleted);
+    }
+
+    private String configuration(boolean changed)
+    {
+        StringBuilder sb = new StringBuilder("{\"configurationId\":\"test-tradeTradeConsumerFlowexceptionBroker\",")
+            .append("\"description\":null,\"parameters\":[");
+
+        for(int i=0; i<this.parameters; i++)
+        {
+            if(i > 0)
+            {
+                sb.append(',');
+            }
+
+            // every other parameter changes between the old and new configuration
+            sb.append("{\"id\":").append(i).append(",\"name\":\"parameter").append(i).append("\",\"value\":")
+                .append(changed && i % 2 == 0).append(",\"description\":null}");
+        }
+
+        return sb.append("]}").toString();
+    }
+}
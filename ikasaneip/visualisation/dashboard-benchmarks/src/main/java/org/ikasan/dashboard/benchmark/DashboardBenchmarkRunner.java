@@ -0,0 +1,46 @@
+package org.ikasan.dashboard.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point for the dashboard benchmarks jar.
+ *
+ * Runs every benchmark in this package, or those matching the JMH command line options supplied, and writes
+ * the results as JSON so that they can be compared between releases, e.g.
+ *
+ * <pre>
+ *     mvn -Pbenchmarks package
+ *     java -Dbenchmark.result=dashboard-3.2.0.json -jar dashboard-benchmarks/target/benchmarks.jar
+ *     java -jar dashboard-benchmarks/target/benchmarks.jar FlowStateCache -f 1 -wi 3 -i 5
+ * </pre>
+ */
+public class DashboardBenchmarkRunner
+{
+    public static final String RESULT_FILE_PROPERTY = "benchmark.result";
+    public static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException
+    {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+        OptionsBuilder optionsBuilder = new OptionsBuilder();
+        if(commandLineOptions.getIncludes().isEmpty())
+        {
+            optionsBuilder.include(DashboardBenchmarkRunner.class.getPackage().getName() + ".*Benchmark");
+        }
+
+        Options options = optionsBuilder
+            .parent(commandLineOptions)
+            .resultFormat(ResultFormatType.JSON)
+            .result(System.getProperty(RESULT_FILE_PROPERTY, DEFAULT_RESULT_FILE))
+            .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,66 @@
+package org.ikasan.dashboard.benchmark;
+
+import com.vaadin.flow.shared.Registration;
+import org.ikasan.dashboard.broadcast.FlowState;
+import org.ikasan.dashboard.broadcast.FlowStateBroadcaster;
+import org.ikasan.dashboard.broadcast.State;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fan out of a single flow state change to N registered listeners, measured until every listener has been
+ * notified.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlowStateBroadcasterBenchmark
+{
+    @Param({"1", "10", "100", "1000"})
+    public int listeners;
+
+    private AtomicLong notifications;
+    private List<Registration> registrations;
+    private FlowState flowState;
+
+    @Setup
+    public void setup()
+    {
+        this.notifications = new AtomicLong();
+        this.registrations = new ArrayList<>();
+        this.flowState = new FlowState("moduleName", "flowName", State.RUNNING_STATE);
+
+        for(int i=0; i<this.listeners; i++)
+        {
+            this.registrations.add(FlowStateBroadcaster.register(flowState -> this.notifications.incrementAndGet()));
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        this.registrations.forEach(Registration::remove);
+    }
+
+    @Benchmark
+    public long broadcast()
+    {
+        long expected = this.notifications.get() + this.listeners;
+
+        FlowStateBroadcaster.broadcast(this.flowState);
+
+        while(this.notifications.get() < expected)
+        {
+            Thread.onSpinWait();
+        }
+
+        return expected;
+    }
+}
@@ -0,0 +1,75 @@
+package org.ikasan.dashboard.benchmark;
+
+import org.ikasan.dashboard.broadcast.FlowState;
+import org.ikasan.dashboard.broadcast.State;
+import org.ikasan.dashboard.cache.FlowStateCache;
+import org.ikasan.dashboard.ui.visualisation.model.flow.Flow;
+import org.ikasan.dashboard.ui.visualisation.model.flow.Module;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contended reads and writes of the flow state cache, as seen when modules report state changes while many
+ * operators have module views open.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlowStateCacheBenchmark
+{
+    private static final State[] STATES = {State.RUNNING_STATE, State.RECOVERING_STATE, State.STOPPED_STATE
+        , State.STOPPED_IN_ERROR_STATE, State.PAUSED_STATE};
+
+    @Param({"100", "10000"})
+    public int flows;
+
+    private Module[] modules;
+    private Flow[] flowArray;
+
+    @Setup
+    public void setup()
+    {
+        this.modules = new Module[this.flows];
+        this.flowArray = new Flow[this.flows];
+
+        for(int i=0; i<this.flows; i++)
+        {
+            // ten flows per module
+            this.modules[i] = new Module("http://localhost/module" + (i / 10), "module" + (i / 10), "description"
+                , "1.0", new HashMap<>(), new HashMap<>());
+            this.flowArray[i] = new Flow("flow" + i, null, null, null, null);
+
+            // populate every entry so that gets never fall through to the module REST call
+            FlowStateCache.instance().put(new FlowState(this.modules[i].getName(), this.flowArray[i].getName()
+                , State.RUNNING_STATE));
+        }
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(2)
+    public void put()
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int index = random.nextInt(this.flows);
+
+        FlowStateCache.instance().put(new FlowState(this.modules[index].getName(), this.flowArray[index].getName()
+            , STATES[random.nextInt(STATES.length)]));
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(6)
+    public FlowState get()
+    {
+        int index = ThreadLocalRandom.current().nextInt(this.flows);
+
+        return FlowStateCache.instance().get(this.modules[index], this.flowArray[index]);
+    }
+}
@@ -0,0 +1,72 @@
+package org.ikasan.dashboard.benchmark;
+
+import org.ikasan.dashboard.broadcast.FlowState;
+import org.ikasan.dashboard.broadcast.State;
+import org.ikasan.dashboard.cache.FlowStateCache;
+import org.ikasan.dashboard.cache.FlowStateSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Writing a snapshot of the flow state cache, as done every interval, and reading it back, as done on start up.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlowStateSnapshotBenchmark
+{
+    private static final State[] STATES = {State.RUNNING_STATE, State.RECOVERING_STATE, State.STOPPED_STATE
+        , State.STOPPED_IN_ERROR_STATE, State.PAUSED_STATE};
+
+    @Param({"50000"})
+    public int flows;
+
+    private Path directory;
+    private FlowStateSnapshot flowStateSnapshot;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        FlowStateCache flowStateCache = FlowStateCache.instance();
+        for(int i=0; i<this.flows; i++)
+        {
+            // ten flows per module
+            flowStateCache.put(new FlowState("module" + (i / 10), "flow" + i, STATES[i % STATES.length]));
+        }
+
+        this.directory = Files.createTempDirectory("flow-state-snapshot");
+        this.flowStateSnapshot = new FlowStateSnapshot(this.directory.resolve("flow-state.snapshot"), flowStateCache);
+        this.flowStateSnapshot.write();
+    }
+
+    @TearDown
+    public void teardown() throws IOException
+    {
+        try(Stream<Path> files = Files.walk(this.directory))
+        {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void write() throws IOException
+    {
+        this.flowStateSnapshot.write();
+    }
+
+    @Benchmark
+    public List<FlowStateSnapshot.Entry> read() throws IOException
+    {
+        return this.flowStateSnapshot.read();
+    }
+}
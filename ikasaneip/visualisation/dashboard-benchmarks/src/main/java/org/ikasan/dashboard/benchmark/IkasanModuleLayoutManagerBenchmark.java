@@ -0,0 +1,57 @@
+package org.ikasan.dashboard.benchmark;
+
+import com.vaadin.flow.component.UI;
+import org.ikasan.dashboard.ui.visualisation.layout.IkasanModuleLayoutManager;
+import org.ikasan.dashboard.ui.visualisation.model.flow.Module;
+import org.ikasan.vaadin.visjs.network.NetworkDiagram;
+import org.ikasan.vaadin.visjs.network.options.Options;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Layout of a whole module onto a network diagram.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IkasanModuleLayoutManagerBenchmark
+{
+    @Param({BenchmarkData.MODULE_JSON, BenchmarkData.MODULE_FOUR_JSON})
+    public String moduleJson;
+
+    private Module module;
+    private NetworkDiagram networkDiagram;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+        // the network diagram registers its javascript with the current UI
+        UI.setCurrent(new UI());
+        this.module = BenchmarkData.loadModule(this.moduleJson);
+    }
+
+    @Setup(Level.Iteration)
+    public void createNetworkDiagram()
+    {
+        // a detached diagram queues its draw commands until attached, so start each iteration with a fresh one
+        this.networkDiagram = new NetworkDiagram(Options.builder().withAutoResize(false).build());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        UI.setCurrent(null);
+    }
+
+    @Benchmark
+    public Module layout()
+    {
+        new IkasanModuleLayoutManager(this.module, this.networkDiagram, null).layout();
+        return this.module;
+    }
+}
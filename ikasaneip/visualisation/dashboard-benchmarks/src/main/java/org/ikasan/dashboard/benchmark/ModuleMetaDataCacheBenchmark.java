@@ -0,0 +1,90 @@
+package org.ikasan.dashboard.benchmark;
+
+import org.ikasan.dashboard.cache.ModuleMetaDataCache;
+import org.ikasan.spec.metadata.ModuleMetaData;
+import org.ikasan.spec.metadata.ModuleMetaDataService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bulk resubmission of events raised by a handful of modules, finding the url of the module of each event either
+ * from Solr every time or through the module metadata cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModuleMetaDataCacheBenchmark
+{
+    @Param({"100", "1000"})
+    public int events;
+
+    @Param({"10"})
+    public int modules;
+
+    /** round trip of a module metadata search of Solr */
+    @Param({"500"})
+    public long lookupLatencyMicros;
+
+    private ModuleMetaDataService moduleMetaDataService;
+    private String[] moduleNames;
+
+    @Setup
+    public void setup()
+    {
+        Map<String, ModuleMetaData> moduleMetaData = new HashMap<>();
+        for(int i=0; i<this.modules; i++)
+        {
+            ModuleMetaData metaData = Mockito.mock(ModuleMetaData.class);
+            Mockito.when(metaData.getName()).thenReturn("module" + i);
+            Mockito.when(metaData.getUrl()).thenReturn("http://localhost:8080/module" + i);
+            moduleMetaData.put("module" + i, metaData);
+        }
+
+        this.moduleMetaDataService = Mockito.mock(ModuleMetaDataService.class);
+        Mockito.when(this.moduleMetaDataService.findById(Mockito.anyString())).thenAnswer(invocation ->
+        {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(this.lookupLatencyMicros));
+            return moduleMetaData.get(invocation.getArgument(0));
+        });
+
+        this.moduleNames = new String[this.events];
+        for(int i=0; i<this.events; i++)
+        {
+            this.moduleNames[i] = "module" + (i % this.modules);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void invalidate()
+    {
+        // each bulk action starts from a cold cache
+        ModuleMetaDataCache.instance().invalidateAll();
+    }
+
+    @Benchmark
+    public void uncached(Blackhole blackhole)
+    {
+        for(String moduleName: this.moduleNames)
+        {
+            blackhole.consume(this.moduleMetaDataService.findById(moduleName).getUrl());
+        }
+    }
+
+    @Benchmark
+    public void cached(Blackhole blackhole)
+    {
+        for(String moduleName: this.moduleNames)
+        {
+            blackhole.consume(ModuleMetaDataCache.instance().getUrl(moduleName, this.moduleMetaDataService));
+        }
+    }
+}
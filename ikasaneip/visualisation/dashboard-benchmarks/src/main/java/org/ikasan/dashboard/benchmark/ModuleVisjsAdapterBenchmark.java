@@ -0,0 +1,43 @@
+package org.ikasan.dashboard.benchmark;
+
+import org.ikasan.dashboard.ui.visualisation.adapter.service.ModuleVisjsAdapter;
+import org.ikasan.dashboard.ui.visualisation.model.flow.Module;
+import org.ikasan.spec.metadata.ConfigurationMetaData;
+import org.ikasan.spec.metadata.ModuleMetaData;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptation of module metadata into the visualisation graph, performed every time a module is opened.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModuleVisjsAdapterBenchmark
+{
+    @Param({BenchmarkData.MODULE_JSON, BenchmarkData.MODULE_ONE_JSON, BenchmarkData.MODULE_FOUR_JSON})
+    public String moduleJson;
+
+    private ModuleMetaData moduleMetaData;
+    private List<ConfigurationMetaData> configurationMetaData;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        this.moduleMetaData = BenchmarkData.loadModuleMetaData(this.moduleJson);
+        this.configurationMetaData = new ArrayList<>();
+    }
+
+    @Benchmark
+    public Module adapt()
+    {
+        return new ModuleVisjsAdapter().adapt(this.moduleMetaData, this.configurationMetaData);
+    }
+}
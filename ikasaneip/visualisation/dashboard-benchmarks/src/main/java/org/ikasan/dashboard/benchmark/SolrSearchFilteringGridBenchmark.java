@@ -0,0 +1,128 @@
+package org.ikasan.dashboard.benchmark;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.html.Label;
+import org.ikasan.dashboard.ui.search.component.SolrSearchFilteringGrid;
+import org.ikasan.dashboard.ui.search.component.filter.SearchFilter;
+import org.ikasan.dashboard.ui.util.SecurityConstants;
+import org.ikasan.security.model.IkasanPrincipal;
+import org.ikasan.security.model.Role;
+import org.ikasan.security.model.RoleModule;
+import org.ikasan.security.model.User;
+import org.ikasan.security.service.authentication.IkasanAuthentication;
+import org.ikasan.solr.model.IkasanSolrDocument;
+import org.ikasan.solr.model.IkasanSolrDocumentSearchResults;
+import org.ikasan.spec.solr.SolrGeneralService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction of the Solr query parameters made by the search grid for every page and count request, against a
+ * stubbed Solr service so that only the dashboard side of the query is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SolrSearchFilteringGridBenchmark
+{
+    @Param({"true", "false"})
+    public boolean admin;
+
+    @Param({"10", "1000"})
+    public int accessibleModules;
+
+    @Param({"true", "false"})
+    public boolean moduleNameFilter;
+
+    private SolrSearchFilteringGrid solrSearchFilteringGrid;
+    private IkasanAuthentication authentication;
+    private SearchFilter searchFilter;
+    private List<String> types;
+    private Method getResults;
+
+    @Setup
+    public void setup() throws Exception
+    {
+        UI.setCurrent(new UI());
+
+        // stub only mocks do not record invocations, which would otherwise grow for the life of the benchmark
+        SolrGeneralService<IkasanSolrDocument, IkasanSolrDocumentSearchResults> solrGeneralService
+            = Mockito.mock(SolrGeneralService.class, Mockito.withSettings().stubOnly());
+
+        this.searchFilter = new SearchFilter();
+        if(this.moduleNameFilter)
+        {
+            this.searchFilter.setModuleNameFilter("module1");
+        }
+        this.searchFilter.setComponentNameFilter("component");
+        this.searchFilter.setEventIdFilter("event");
+
+        this.solrSearchFilteringGrid = new SolrSearchFilteringGrid(solrGeneralService, this.searchFilter, new Label());
+
+        this.authentication = this.createAuthentication();
+
+        this.types = new ArrayList<>();
+        this.types.add("wiretap");
+        this.types.add("error");
+
+        this.getResults = SolrSearchFilteringGrid.class.getDeclaredMethod("getResults", IkasanAuthentication.class
+            , SearchFilter.class, long.class, long.class, String.class, int.class, int.class, List.class, boolean.class
+            , String.class, String.class);
+        this.getResults.setAccessible(true);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        UI.setCurrent(null);
+    }
+
+    @Benchmark
+    public Object getResults() throws Exception
+    {
+        return this.getResults.invoke(this.solrSearchFilteringGrid, this.authentication, this.searchFilter
+            , 0L, System.currentTimeMillis(), "searchTerm", 0, 50, this.types, false, null, null);
+    }
+
+    private IkasanAuthentication createAuthentication()
+    {
+        Set<RoleModule> roleModules = new HashSet<>();
+        for(int i=0; i<this.accessibleModules; i++)
+        {
+            RoleModule roleModule = Mockito.mock(RoleModule.class, Mockito.withSettings().stubOnly());
+            Mockito.when(roleModule.getModuleName()).thenReturn("module" + i);
+            roleModules.add(roleModule);
+        }
+
+        Role role = Mockito.mock(Role.class, Mockito.withSettings().stubOnly());
+        Mockito.when(role.getRoleModules()).thenReturn(roleModules);
+
+        Set<Role> roles = new HashSet<>();
+        roles.add(role);
+
+        IkasanPrincipal principal = Mockito.mock(IkasanPrincipal.class, Mockito.withSettings().stubOnly());
+        Mockito.when(principal.getRoles()).thenReturn(roles);
+
+        Set<IkasanPrincipal> principals = new HashSet<>();
+        principals.add(principal);
+
+        User user = Mockito.mock(User.class, Mockito.withSettings().stubOnly());
+        Mockito.when(user.getPrincipals()).thenReturn(principals);
+
+        IkasanAuthentication ikasanAuthentication = Mockito.mock(IkasanAuthentication.class, Mockito.withSettings().stubOnly());
+        Mockito.when(ikasanAuthentication.getPrincipal()).thenReturn(user);
+        Mockito.when(ikasanAuthentication.hasGrantedAuthority(SecurityConstants.ALL_AUTHORITY)).thenReturn(this.admin);
+
+        return ikasanAuthentication;
+    }
+}
@@ -0,0 +1,45 @@
+package org.ikasan.dashboard.benchmark;
+
+import org.ikasan.dashboard.ui.visualisation.correlate.XpathCorrelator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Correlation of business stream events by xpath over payloads of increasing size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class XpathCorrelatorBenchmark
+{
+    @Param({"10", "1000", "10000"})
+    public int trades;
+
+    private String payload;
+    private XpathCorrelator correlator;
+
+    @Setup
+    public void setup()
+    {
+        StringBuilder sb = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?><trades>");
+        for(int i=0; i<this.trades; i++)
+        {
+            sb.append("<trade><id>").append(i).append("</id><book>book").append(i % 10)
+                .append("</book><notional>").append(i * 1000).append("</notional></trade>");
+        }
+        sb.append("<correlation><id>correlation-id</id></correlation></trades>");
+
+        this.payload = sb.toString();
+        this.correlator = new XpathCorrelator("/trades/correlation/id");
+    }
+
+    @Benchmark
+    public String correlate()
+    {
+        return this.correlator.correlate(this.payload);
+    }
+}
@@ -0,0 +1,98 @@
+package org.ikasan.dashboard.benchmark.solr;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Growable array of latency samples in nanoseconds. Instances are confined to a single worker thread while the
+ * load runs and merged once it has finished, so no synchronisation is required.
+ */
+public class LatencySamples
+{
+    private long[] samples = new long[1024];
+    private int size = 0;
+    private long errors = 0;
+
+    public void add(long nanos)
+    {
+        if(this.size == this.samples.length)
+        {
+            this.samples = Arrays.copyOf(this.samples, this.size * 2);
+        }
+        this.samples[this.size++] = nanos;
+    }
+
+    public void error()
+    {
+        this.errors++;
+    }
+
+    public void addAll(LatencySamples latencySamples)
+    {
+        for(int i=0; i<latencySamples.size; i++)
+        {
+            this.add(latencySamples.samples[i]);
+        }
+        this.errors += latencySamples.errors;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public long getErrors()
+    {
+        return errors;
+    }
+
+    /**
+     * Summarise the samples as throughput and latency percentiles in milliseconds.
+     *
+     * @param elapsedNanos the length of the measurement period
+     * @return
+     */
+    public Map<String, Object> summarise(long elapsedNanos)
+    {
+        long[] sorted = Arrays.copyOf(this.samples, this.size);
+        Arrays.sort(sorted);
+
+        double total = 0;
+        for(long sample: sorted)
+        {
+            total += sample;
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", this.size);
+        summary.put("errors", this.errors);
+        summary.put("throughput", this.size / (elapsedNanos / (double)TimeUnit.SECONDS.toNanos(1)));
+        summary.put("mean", this.size == 0 ? 0d : millis(total / this.size));
+        summary.put("p50", millis(percentile(sorted, 50)));
+        summary.put("p90", millis(percentile(sorted, 90)));
+        summary.put("p99", millis(percentile(sorted, 99)));
+        summary.put("p999", millis(percentile(sorted, 99.9)));
+        summary.put("max", this.size == 0 ? 0d : millis(sorted[sorted.length - 1]));
+        return summary;
+    }
+
+    /**
+     * Nearest rank percentile of the sorted samples.
+     */
+    private static long percentile(long[] sorted, double percentile)
+    {
+        if(sorted.length == 0)
+        {
+            return 0;
+        }
+        int rank = (int)Math.ceil((percentile / 100d) * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+
+    private static double millis(double nanos)
+    {
+        return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
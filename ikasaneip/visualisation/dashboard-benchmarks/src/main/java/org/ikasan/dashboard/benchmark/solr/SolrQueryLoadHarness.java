@@ -0,0 +1,395 @@
+package org.ikasan.dashboard.benchmark.solr;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.commons.io.FileUtils;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.embedded.EmbeddedSolrServer;
+import org.apache.solr.client.solrj.request.CoreAdminRequest;
+import org.apache.solr.core.NodeConfig;
+import org.apache.solr.core.SolrResourceLoader;
+import org.ikasan.solr.dao.SolrGeneralDaoImpl;
+import org.ikasan.solr.model.IkasanSolrDocument;
+import org.ikasan.solr.model.IkasanSolrDocumentSearchResults;
+import org.ikasan.solr.service.SolrGeneralServiceImpl;
+import org.ikasan.spec.solr.SolrGeneralService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repeatable Solr query load test for the dashboard.
+ *
+ * Starts an embedded Solr core using the minimal configset shipped with the dashboard tests, seeds it with
+ * synthetic wiretap, error, exclusion and replay documents and replays a weighted mix of the search grid and
+ * business stream queries from a number of concurrent threads, reporting throughput and p50/p99 latency per
+ * query type. All settings are system properties, e.g.
+ *
+ * <pre>
+ *     mvn -Pbenchmarks package
+ *     java -Dloadtest.documents=5000000 -Dloadtest.threads=16 -Dloadtest.solr.home=/data/solr-load \
+ *         -cp dashboard-benchmarks/target/benchmarks.jar org.ikasan.dashboard.benchmark.solr.SolrQueryLoadHarness
+ * </pre>
+ *
+ * When loadtest.solr.home is supplied the index is kept between runs and only topped up to the requested number
+ * of documents, otherwise a temporary index is seeded and removed on completion.
+ */
+public class SolrQueryLoadHarness
+{
+    private static Logger logger = LoggerFactory.getLogger(SolrQueryLoadHarness.class);
+
+    public static final String CORE_NAME = "ikasan";
+    public static final String CONFIGSET = "minimal";
+
+    private static final String DATA_SET_PROPERTIES = "synthetic-data.properties";
+    private static final String[] CONFIGSET_RESOURCES = {"conf/schema.xml", "conf/solrconfig.xml"
+        , "stopwords.txt", "synonyms.txt"};
+
+    private final Path solrHome;
+    private final boolean temporarySolrHome;
+    private final int threads;
+    private final long warmupSeconds;
+    private final long durationSeconds;
+    private final Map<SolrQueryType, Integer> mix;
+
+    private final long documents;
+    private final int modules;
+    private final int flowsPerModule;
+    private final int days;
+    private final int batchSize;
+
+    public static void main(String[] args) throws Exception
+    {
+        SolrQueryLoadHarness harness = new SolrQueryLoadHarness();
+        Map<String, Object> results = harness.run();
+
+        String resultFile = System.getProperty("loadtest.result", "solr-load-result.json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(resultFile), results);
+        logger.info("Results written to {}.", resultFile);
+    }
+
+    /**
+     * Constructor, configured from the loadtest system properties.
+     */
+    public SolrQueryLoadHarness() throws IOException
+    {
+        String solrHomeProperty = System.getProperty("loadtest.solr.home");
+        this.temporarySolrHome = solrHomeProperty == null;
+        this.solrHome = this.temporarySolrHome ? Files.createTempDirectory("ikasan-solr-load")
+            : Paths.get(solrHomeProperty);
+
+        this.documents = Long.getLong("loadtest.documents", 2000000L);
+        this.modules = Integer.getInteger("loadtest.modules", 200);
+        this.flowsPerModule = Integer.getInteger("loadtest.flows", 10);
+        this.days = Integer.getInteger("loadtest.days", 7);
+        this.batchSize = Integer.getInteger("loadtest.batch", 5000);
+        this.threads = Integer.getInteger("loadtest.threads", 8);
+        this.warmupSeconds = Long.getLong("loadtest.warmup", 30L);
+        this.durationSeconds = Long.getLong("loadtest.duration", 120L);
+        this.mix = parseMix(System.getProperty("loadtest.mix"));
+    }
+
+    /**
+     * Seed the core if required and replay the query mix.
+     *
+     * @return the configuration of the run and the latency summary of each query type
+     */
+    public Map<String, Object> run() throws Exception
+    {
+        try
+        {
+            Files.createDirectories(this.solrHome);
+            Path configSets = this.installConfigSet();
+
+            NodeConfig config = new NodeConfig.NodeConfigBuilder("loadtest", new SolrResourceLoader(this.solrHome))
+                .setConfigSetBaseDirectory(configSets.toString()).build();
+
+            try (EmbeddedSolrServer server = new EmbeddedSolrServer(config, CORE_NAME))
+            {
+                SyntheticSolrDocuments data = this.prepare(server);
+
+                SolrGeneralDaoImpl dao = new SolrGeneralDaoImpl();
+                dao.setSolrClient(server);
+                SolrGeneralService<IkasanSolrDocument, IkasanSolrDocumentSearchResults> solrGeneralService
+                    = new SolrGeneralServiceImpl(dao);
+
+                logger.info("Warming up for {}s with {} threads.", this.warmupSeconds, this.threads);
+                this.replay(solrGeneralService, data, this.warmupSeconds);
+
+                logger.info("Measuring for {}s with {} threads.", this.durationSeconds, this.threads);
+                long start = System.nanoTime();
+                Map<SolrQueryType, LatencySamples> samples = this.replay(solrGeneralService, data, this.durationSeconds);
+                long elapsed = System.nanoTime() - start;
+
+                return this.report(samples, elapsed);
+            }
+        }
+        finally
+        {
+            if(this.temporarySolrHome)
+            {
+                FileUtils.deleteQuietly(this.solrHome.toFile());
+            }
+        }
+    }
+
+    /**
+     * Create the core if it does not already exist and top it up to the requested number of documents.
+     */
+    private SyntheticSolrDocuments prepare(EmbeddedSolrServer server) throws Exception
+    {
+        if(!Files.exists(this.solrHome.resolve(CORE_NAME).resolve("core.properties")))
+        {
+            CoreAdminRequest.Create createRequest = new CoreAdminRequest.Create();
+            createRequest.setCoreName(CORE_NAME);
+            createRequest.setConfigSet(CONFIGSET);
+            server.request(createRequest);
+        }
+
+        SyntheticSolrDocuments data = new SyntheticSolrDocuments(this.documents, this.modules, this.flowsPerModule
+            , this.dataSetEndTime(), this.days);
+
+        long existing = server.query(CORE_NAME, new SolrQuery("*:*").setRows(0)).getResults().getNumFound();
+        if(existing < this.documents)
+        {
+            logger.info("Core holds {} documents, seeding up to {}.", existing, this.documents);
+            data.seed(server, CORE_NAME, existing, this.batchSize);
+        }
+        else
+        {
+            logger.info("Core already holds {} documents.", existing);
+        }
+
+        return data;
+    }
+
+    /**
+     * The documents are generated relative to a fixed end time, recorded alongside a persistent index so that
+     * topping it up on a later day generates the same documents and the query windows still fall within the data.
+     */
+    private long dataSetEndTime() throws IOException
+    {
+        Path propertiesFile = this.solrHome.resolve(DATA_SET_PROPERTIES);
+        Properties properties = new Properties();
+
+        if(Files.exists(propertiesFile))
+        {
+            try(InputStream inputStream = Files.newInputStream(propertiesFile))
+            {
+                properties.load(inputStream);
+            }
+
+            if(Integer.parseInt(properties.getProperty("modules")) != this.modules
+                || Integer.parseInt(properties.getProperty("flows")) != this.flowsPerModule
+                || Integer.parseInt(properties.getProperty("days")) != this.days)
+            {
+                throw new IllegalStateException(String.format("Solr home [%s] was seeded with a different data set %s, " +
+                    "remove it or use another loadtest.solr.home.", this.solrHome, properties));
+            }
+            return Long.parseLong(properties.getProperty("endTime"));
+        }
+
+        long endTime = LocalDate.now(ZoneOffset.UTC).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        properties.setProperty("endTime", String.valueOf(endTime));
+        properties.setProperty("modules", String.valueOf(this.modules));
+        properties.setProperty("flows", String.valueOf(this.flowsPerModule));
+        properties.setProperty("days", String.valueOf(this.days));
+
+        try(OutputStream outputStream = Files.newOutputStream(propertiesFile))
+        {
+            properties.store(outputStream, "Ikasan dashboard Solr load test data set");
+        }
+        return endTime;
+    }
+
+    /**
+     * Copy the minimal configset from the dashboard test resources on the classpath into the solr home so that the
+     * harness runs from the shaded benchmarks jar as well as the IDE.
+     */
+    private Path installConfigSet() throws IOException
+    {
+        Path configSets = this.solrHome.resolve("configsets");
+
+        for(String resource: CONFIGSET_RESOURCES)
+        {
+            String resourcePath = "/solr/configsets/" + CONFIGSET + "/" + resource;
+            try(InputStream inputStream = SolrQueryLoadHarness.class.getResourceAsStream(resourcePath))
+            {
+                if(inputStream == null)
+                {
+                    throw new IOException(String.format("Could not find Solr configset resource [%s]", resourcePath));
+                }
+
+                Path target = configSets.resolve(CONFIGSET).resolve(resource);
+                Files.createDirectories(target.getParent());
+                Files.copy(inputStream, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        return configSets;
+    }
+
+    /**
+     * Run the query mix from each thread until the duration has elapsed.
+     */
+    private Map<SolrQueryType, LatencySamples> replay(SolrGeneralService<IkasanSolrDocument
+        , IkasanSolrDocumentSearchResults> solrGeneralService, SyntheticSolrDocuments data, long seconds) throws Exception
+    {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        SolrQueryType[] schedule = this.schedule();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(this.threads);
+        try
+        {
+            List<Future<Map<SolrQueryType, LatencySamples>>> futures = new ArrayList<>();
+            for(int i=0; i<this.threads; i++)
+            {
+                long seed = i;
+                futures.add(executorService.submit(() ->
+                {
+                    Random random = new Random(seed);
+                    Map<SolrQueryType, LatencySamples> samples = new EnumMap<>(SolrQueryType.class);
+
+                    while(System.nanoTime() < deadline)
+                    {
+                        SolrQueryType queryType = schedule[random.nextInt(schedule.length)];
+                        LatencySamples queryTypeSamples = samples.computeIfAbsent(queryType, type -> new LatencySamples());
+
+                        long start = System.nanoTime();
+                        try
+                        {
+                            queryType.execute(solrGeneralService, data, random);
+                            queryTypeSamples.add(System.nanoTime() - start);
+                        }
+                        catch (Exception e)
+                        {
+                            logger.debug(String.format("Query type [%s] failed.", queryType), e);
+                            queryTypeSamples.error();
+                        }
+                    }
+                    return samples;
+                }));
+            }
+
+            Map<SolrQueryType, LatencySamples> merged = new EnumMap<>(SolrQueryType.class);
+            for(Future<Map<SolrQueryType, LatencySamples>> future: futures)
+            {
+                future.get().forEach((queryType, samples) ->
+                    merged.computeIfAbsent(queryType, type -> new LatencySamples()).addAll(samples));
+            }
+            return merged;
+        }
+        finally
+        {
+            executorService.shutdownNow();
+        }
+    }
+
+    private Map<String, Object> report(Map<SolrQueryType, LatencySamples> samples, long elapsedNanos)
+    {
+        Map<String, Object> configuration = new LinkedHashMap<>();
+        configuration.put("documents", this.documents);
+        configuration.put("modules", this.modules);
+        configuration.put("flowsPerModule", this.flowsPerModule);
+        configuration.put("days", this.days);
+        configuration.put("threads", this.threads);
+        configuration.put("warmupSeconds", this.warmupSeconds);
+        configuration.put("durationSeconds", this.durationSeconds);
+        configuration.put("mix", this.mix);
+
+        LatencySamples all = new LatencySamples();
+        Map<String, Object> queries = new LinkedHashMap<>();
+        samples.forEach((queryType, queryTypeSamples) ->
+        {
+            queries.put(queryType.name(), queryTypeSamples.summarise(elapsedNanos));
+            all.addAll(queryTypeSamples);
+        });
+        queries.put("ALL", all.summarise(elapsedNanos));
+
+        logger.info(String.format("%-18s %10s %8s %10s %10s %10s %10s %10s", "query", "count", "errors", "ops/s"
+            , "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        queries.forEach((name, summary) ->
+        {
+            Map<String, Object> values = (Map<String, Object>) summary;
+            logger.info(String.format("%-18s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f", name, values.get("count")
+                , values.get("errors"), values.get("throughput"), values.get("p50"), values.get("p99")
+                , values.get("p999"), values.get("max")));
+        });
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("configuration", configuration);
+        results.put("queries", queries);
+        return results;
+    }
+
+    /**
+     * Expand the weights into an array of query types so a query can be drawn with a single random index.
+     */
+    private SolrQueryType[] schedule()
+    {
+        List<SolrQueryType> schedule = new ArrayList<>();
+        this.mix.forEach((queryType, weight) ->
+        {
+            for(int i=0; i<weight; i++)
+            {
+                schedule.add(queryType);
+            }
+        });
+
+        if(schedule.isEmpty())
+        {
+            throw new IllegalArgumentException("loadtest.mix must give at least one query type a weight greater than 0!");
+        }
+        return schedule.toArray(new SolrQueryType[0]);
+    }
+
+    /**
+     * Parse a query mix of the form GRID_ADMIN:3,BUSINESS_STREAM:1, falling back to the default weights for any
+     * query type not mentioned when no mix is supplied.
+     */
+    static Map<SolrQueryType, Integer> parseMix(String mix)
+    {
+        Map<SolrQueryType, Integer> weights = new EnumMap<>(SolrQueryType.class);
+
+        if(mix == null || mix.trim().isEmpty())
+        {
+            for(SolrQueryType queryType: SolrQueryType.values())
+            {
+                weights.put(queryType, queryType.getDefaultWeight());
+            }
+            return weights;
+        }
+
+        for(String entry: mix.split(","))
+        {
+            String[] nameAndWeight = entry.trim().split(":");
+            if(nameAndWeight.length != 2)
+            {
+                throw new IllegalArgumentException(String.format("Invalid loadtest.mix entry [%s], expected TYPE:weight.", entry));
+            }
+            weights.put(SolrQueryType.valueOf(nameAndWeight[0].trim()), Integer.parseInt(nameAndWeight[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,166 @@
+package org.ikasan.dashboard.benchmark.solr;
+
+import org.apache.solr.client.solrj.util.ClientUtils;
+import org.ikasan.solr.model.IkasanSolrDocument;
+import org.ikasan.solr.model.IkasanSolrDocumentSearchResults;
+import org.ikasan.spec.solr.SolrGeneralService;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The queries issued by the dashboard against Solr, reproduced with the same shape of parameters as the
+ * SolrSearchFilteringGrid and BusinessStreamVisualisation send.
+ */
+public enum SolrQueryType
+{
+    /**
+     * Search grid page for a user holding the all authority, free text search over every entity type.
+     */
+    GRID_ADMIN(3)
+    {
+        @Override
+        public void execute(SolrGeneralService<IkasanSolrDocument, IkasanSolrDocumentSearchResults> solrGeneralService
+            , SyntheticSolrDocuments data, Random random)
+        {
+            long[] window = window(data, random);
+            solrGeneralService.search(null, null, null, null, searchTerm(random)
+                , window[0], window[1], 0, PAGE_SIZE, allTypes(), false, null, null);
+        }
+    },
+
+    /**
+     * Search grid page for a user restricted to the modules granted by their roles.
+     */
+    GRID_USER(3)
+    {
+        @Override
+        public void execute(SolrGeneralService<IkasanSolrDocument, IkasanSolrDocumentSearchResults> solrGeneralService
+            , SyntheticSolrDocuments data, Random random)
+        {
+            Set<String> moduleNames = new HashSet<>();
+            int offset = random.nextInt(data.getModules());
+            for(int i=0; i<Math.min(ACCESSIBLE_MODULES, data.getModules()); i++)
+            {
+                moduleNames.add(data.moduleName((offset + i) % data.getModules()));
+            }
+
+            long[] window = window(data, random);
+            solrGeneralService.search(moduleNames, null, null, null, searchTerm(random)
+                , window[0], window[1], 0, PAGE_SIZE, allTypes(), false, null, null);
+        }
+    },
+
+    /**
+     * Search grid page with the module, flow and component name column filters populated, each of which the grid
+     * sends as a leading and trailing wildcard.
+     */
+    GRID_NAME_FILTERS(2)
+    {
+        @Override
+        public void execute(SolrGeneralService<IkasanSolrDocument, IkasanSolrDocumentSearchResults> solrGeneralService
+            , SyntheticSolrDocuments data, Random random)
+        {
+            String moduleName = data.moduleName(random.nextInt(data.getModules()));
+            String flowName = data.flowName(random.nextInt(data.getFlowsPerModule()));
+
+            long[] window = window(data, random);
+            solrGeneralService.search(wildcard(moduleName.substring(moduleName.length() - 3))
+                , wildcard(flowName.substring(flowName.length() - 2)), wildcard("Conv"), null, null
+                , window[0], window[1], 0, PAGE_SIZE, allTypes(), false, null, null);
+        }
+    },
+
+    /**
+     * Search grid page filtered on part of an event id.
+     */
+    GRID_EVENT_ID(1)
+    {
+        @Override
+        public void execute(SolrGeneralService<IkasanSolrDocument, IkasanSolrDocumentSearchResults> solrGeneralService
+            , SyntheticSolrDocuments data, Random random)
+        {
+            String eventId = "*" + ClientUtils.escapeQueryChars(data.eventId(random.nextInt((int)Math.min(Integer.MAX_VALUE
+                , data.getDocuments() / 3)))) + "*";
+
+            solrGeneralService.search(null, null, null, eventId, null
+                , data.getEndTime() - data.getTimeSpan(), data.getEndTime(), 0, PAGE_SIZE, allTypes(), false, null, null);
+        }
+    },
+
+    /**
+     * A business stream search, which issues a count query per flow in the stream and per entity type.
+     */
+    BUSINESS_STREAM(1)
+    {
+        @Override
+        public void execute(SolrGeneralService<IkasanSolrDocument, IkasanSolrDocumentSearchResults> solrGeneralService
+            , SyntheticSolrDocuments data, Random random)
+        {
+            long[] window = window(data, random);
+            String searchTerm = searchTerm(random);
+
+            for(int i=0; i<BUSINESS_STREAM_FLOWS; i++)
+            {
+                String moduleName = data.moduleName(random.nextInt(data.getModules()));
+                String flowName = data.flowName(random.nextInt(data.getFlowsPerModule()));
+
+                for(String type: SyntheticSolrDocuments.TYPES)
+                {
+                    solrGeneralService.search(Set.of(moduleName), Set.of(flowName), searchTerm, window[0], window[1]
+                        , 0, Arrays.asList(type), false, null, null);
+                }
+            }
+        }
+    };
+
+    private static final int PAGE_SIZE = 50;
+    private static final int ACCESSIBLE_MODULES = 20;
+    private static final int BUSINESS_STREAM_FLOWS = 6;
+
+    private final int defaultWeight;
+
+    SolrQueryType(int defaultWeight)
+    {
+        this.defaultWeight = defaultWeight;
+    }
+
+    public int getDefaultWeight()
+    {
+        return defaultWeight;
+    }
+
+    public abstract void execute(SolrGeneralService<IkasanSolrDocument, IkasanSolrDocumentSearchResults> solrGeneralService
+        , SyntheticSolrDocuments data, Random random);
+
+    private static String searchTerm(Random random)
+    {
+        return SyntheticSolrDocuments.VOCABULARY[random.nextInt(SyntheticSolrDocuments.VOCABULARY.length)];
+    }
+
+    /**
+     * The grid defaults to searching the last day, so pick a one day window somewhere in the data set.
+     */
+    private static long[] window(SyntheticSolrDocuments data, Random random)
+    {
+        long day = TimeUnit.DAYS.toMillis(1);
+        long end = data.getEndTime() - (long)(random.nextDouble() * Math.max(0, data.getTimeSpan() - day));
+        return new long[]{end - day, end};
+    }
+
+    private static Set<String> wildcard(String value)
+    {
+        Set<String> values = new HashSet<>();
+        values.add("*" + ClientUtils.escapeQueryChars(value) + "*");
+        return values;
+    }
+
+    private static List<String> allTypes()
+    {
+        return Arrays.asList(SyntheticSolrDocuments.TYPES);
+    }
+}
@@ -0,0 +1,220 @@
+package org.ikasan.dashboard.benchmark.solr;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrInputDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deterministic generator of wiretap, error, exclusion and replay documents shaped like those written by the
+ * Ikasan modules, used to seed the embedded Solr core for the query load harness.
+ *
+ * Every document is derived from its index alone, so an index that has already been partially seeded can be
+ * topped up from where it left off and will hold the same documents as one seeded in a single pass.
+ */
+public class SyntheticSolrDocuments
+{
+    private static Logger logger = LoggerFactory.getLogger(SyntheticSolrDocuments.class);
+
+    public static final String WIRETAP = "wiretap";
+    public static final String ERROR = "error";
+    public static final String EXCLUSION = "exclusion";
+    public static final String REPLAY = "replay";
+
+    public static final String[] TYPES = {WIRETAP, ERROR, EXCLUSION, REPLAY};
+
+    public static final String[] VOCABULARY = {"order", "invoice", "trade", "settlement", "payment", "customer"
+        , "account", "position", "price", "instrument", "booking", "confirmation", "allocation", "amendment"
+        , "cancellation", "valuation"};
+
+    private static final String[] COMPONENTS = {"Consumer", "Converter", "Filter", "Router", "Splitter", "Broker"
+        , "Producer"};
+
+    private final long documents;
+    private final int modules;
+    private final int flowsPerModule;
+    private final long endTime;
+    private final long timeSpan;
+
+    /**
+     * Constructor
+     *
+     * @param documents the number of documents in the data set
+     * @param modules the number of distinct modules the documents are spread across
+     * @param flowsPerModule the number of flows in each module
+     * @param endTime the timestamp of the most recent document
+     * @param days the number of days of history the documents are spread across
+     */
+    public SyntheticSolrDocuments(long documents, int modules, int flowsPerModule, long endTime, int days)
+    {
+        if(documents < 1)
+        {
+            throw new IllegalArgumentException("documents must be greater than 0!");
+        }
+        if(modules < 1)
+        {
+            throw new IllegalArgumentException("modules must be greater than 0!");
+        }
+        if(flowsPerModule < 1)
+        {
+            throw new IllegalArgumentException("flowsPerModule must be greater than 0!");
+        }
+        if(days < 1)
+        {
+            throw new IllegalArgumentException("days must be greater than 0!");
+        }
+        this.documents = documents;
+        this.modules = modules;
+        this.flowsPerModule = flowsPerModule;
+        this.endTime = endTime;
+        this.timeSpan = TimeUnit.DAYS.toMillis(days);
+    }
+
+    /**
+     * Add the documents from the given index onwards to the core, committing once at the end.
+     *
+     * @param solrClient
+     * @param coreName
+     * @param fromIndex
+     * @param batchSize
+     */
+    public void seed(SolrClient solrClient, String coreName, long fromIndex, int batchSize)
+        throws IOException, SolrServerException
+    {
+        long start = System.currentTimeMillis();
+        List<SolrInputDocument> batch = new ArrayList<>(batchSize);
+
+        for(long i=fromIndex; i<this.documents; i++)
+        {
+            batch.add(this.document(i));
+
+            if(batch.size() == batchSize)
+            {
+                solrClient.add(coreName, batch);
+                batch = new ArrayList<>(batchSize);
+
+                if((i + 1) % (batchSize * 100L) == 0)
+                {
+                    logger.info("Seeded {} of {} documents.", i + 1, this.documents);
+                }
+            }
+        }
+
+        if(!batch.isEmpty())
+        {
+            solrClient.add(coreName, batch);
+        }
+
+        solrClient.commit(coreName);
+
+        logger.info("Seeded {} documents in {}ms.", this.documents - fromIndex, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Create the document at the given index.
+     *
+     * Roughly 80% of the documents are wiretaps, 10% errors and 5% each exclusions and replays. Each event passes
+     * through three components of its flow so that event id searches return more than one document.
+     *
+     * @param index
+     * @return
+     */
+    public SolrInputDocument document(long index)
+    {
+        Random random = new Random(index);
+
+        long event = index / 3;
+        String moduleName = this.moduleName((int)(event % this.modules));
+        String flowName = this.flowName((int)((event / this.modules) % this.flowsPerModule));
+        String componentName = COMPONENTS[(int)(index % COMPONENTS.length)];
+        long timestamp = this.endTime - (long)(random.nextDouble() * this.timeSpan);
+
+        int bucket = random.nextInt(100);
+        String type = bucket < 80 ? WIRETAP : bucket < 90 ? ERROR : bucket < 95 ? EXCLUSION : REPLAY;
+
+        SolrInputDocument document = new SolrInputDocument();
+        document.addField("id", type + "-" + index);
+        document.addField("type", type);
+        document.addField("moduleName", moduleName);
+        document.addField("flowName", flowName);
+        document.addField("componentName", componentName);
+        document.addField("event", this.eventId(event));
+        document.addField("payload", this.payload(random, index));
+        document.addField("timestamp", timestamp);
+        document.addField("expiry", timestamp + this.timeSpan);
+
+        if(type.equals(ERROR) || type.equals(EXCLUSION))
+        {
+            document.addField("errorUri", "errorUri-" + event);
+            document.addField("errorMessage", "Failed to process " + VOCABULARY[random.nextInt(VOCABULARY.length)]);
+            document.addField("exceptionClass", "java.lang.RuntimeException");
+        }
+
+        if(type.equals(REPLAY))
+        {
+            document.addField("relatedEventId", this.eventId(event));
+        }
+
+        return document;
+    }
+
+    public long getDocuments()
+    {
+        return documents;
+    }
+
+    public int getModules()
+    {
+        return modules;
+    }
+
+    public int getFlowsPerModule()
+    {
+        return flowsPerModule;
+    }
+
+    public long getEndTime()
+    {
+        return endTime;
+    }
+
+    public long getTimeSpan()
+    {
+        return timeSpan;
+    }
+
+    public String moduleName(int module)
+    {
+        return String.format("synthetic-module-%04d", module);
+    }
+
+    public String flowName(int flow)
+    {
+        return String.format("Synthetic Flow %03d", flow);
+    }
+
+    public String eventId(long event)
+    {
+        return "evt-" + event;
+    }
+
+    private String payload(Random random, long index)
+    {
+        StringBuilder payload = new StringBuilder("<message id=\"").append(index).append("\">");
+        for(int i=0; i<20; i++)
+        {
+            String word = VOCABULARY[random.nextInt(VOCABULARY.length)];
+            payload.append('<').append(word).append('>')
+                .append(word).append('-').append(random.nextInt(100000))
+                .append("</").append(word).append('>');
+        }
+        return payload.append("</message>").toString();
+    }
+}
@@ -1,10 +1,33 @@
 package org.ikasan.dashboard.beans;
 
+import org.apache.solr.client.solrj.SolrClient;
 import org.ikasan.business.stream.metadata.dao.SolrBusinessStreamMetadataDao;
 import org.ikasan.business.stream.metadata.service.SolrBusinessStreamMetaDataServiceImpl;
 import org.ikasan.configuration.metadata.dao.SolrComponentConfigurationMetadataDao;
 import org.ikasan.configuration.metadata.service.SolrComponentConfigurationMetadataServiceImpl;
+import org.ikasan.dashboard.cache.CacheInvalidatingBatchInsert;
+import org.ikasan.dashboard.cache.FlowConfigurationCache;
+import org.ikasan.dashboard.cache.ModuleMetaDataCache;
 import org.ikasan.dashboard.cache.FlowStateCache;
+import org.ikasan.dashboard.cache.FlowStateHistory;
+import org.ikasan.dashboard.cache.FlowStateSnapshot;
+import org.ikasan.dashboard.cache.ModuleVisualisationCache;
+import org.ikasan.dashboard.control.BulkFlowControlService;
+import org.ikasan.dashboard.control.BusinessStreamFlowControl;
+import org.ikasan.dashboard.ingest.BufferedBatchInsert;
+import org.ikasan.dashboard.ingest.ChangeDetectingBatchInsert;
+import org.ikasan.dashboard.ingest.IngestSpool;
+import org.ikasan.dashboard.metrics.ModuleRestClientMetricsPostProcessor;
+import org.ikasan.dashboard.solr.ContentHashInvalidatingModuleMetadataService;
+import org.ikasan.dashboard.solr.ContentHashStore;
+import org.ikasan.dashboard.solr.CursorMarkSolrClient;
+import org.ikasan.dashboard.solr.FilterQuerySolrClient;
+import org.ikasan.dashboard.solr.SolrClientFactory;
+import org.ikasan.dashboard.solr.SubstringSearchMigration;
+import org.ikasan.dashboard.solr.SummaryProjectionSolrClient;
+import org.ikasan.dashboard.solr.TimePartitionSolrClient;
+import org.ikasan.dashboard.task.DashboardTaskExecutor;
+import org.ikasan.dashboard.trace.SlowTraceBuffer;
 import org.ikasan.dashboard.ui.util.DashboardCacheAdapter;
 import org.ikasan.error.reporting.dao.SolrErrorReportingServiceDao;
 import org.ikasan.error.reporting.service.SolrErrorReportingServiceImpl;
@@ -25,6 +48,8 @@ import org.ikasan.spec.cache.FlowStateCacheAdapter;
 import org.ikasan.spec.exclusion.ExclusionEvent;
 import org.ikasan.spec.hospital.service.HospitalAuditService;
 import org.ikasan.spec.metadata.BusinessStreamMetaDataService;
+import org.ikasan.spec.metadata.ConfigurationMetaData;
+import org.ikasan.spec.metadata.ModuleMetaData;
 import org.ikasan.spec.metadata.ModuleMetaDataProvider;
 import org.ikasan.spec.persistence.BatchInsert;
 import org.ikasan.spec.replay.ReplayEvent;
@@ -38,10 +63,12 @@ import org.ikasan.topology.metadata.JsonModuleMetaDataProvider;
 import org.ikasan.wiretap.dao.SolrWiretapDao;
 import org.ikasan.wiretap.service.SolrWiretapServiceImpl;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import javax.annotation.Resource;
+import java.nio.file.Paths;
 
 @Configuration
 public class DashboardComponentFactory
@@ -55,15 +82,170 @@ public class DashboardComponentFactory
     @Value("${solr.password}")
     private String solrPassword;
 
+    @Value("${solr.client.max.connections:128}")
+    private int solrMaxConnections;
+
+    @Value("${solr.client.max.connections.per.route:64}")
+    private int solrMaxConnectionsPerRoute;
+
+    @Value("${solr.client.keep.alive.millis:30000}")
+    private long solrKeepAliveMillis;
+
+    @Value("${solr.client.connection.timeout.millis:15000}")
+    private int solrConnectionTimeoutMillis;
+
+    @Value("${solr.client.socket.timeout.millis:120000}")
+    private int solrSocketTimeoutMillis;
+
+    @Value("${solr.client.compression:true}")
+    private boolean solrCompression;
+
+    @Value("${solr.client.http2:false}")
+    private boolean solrHttp2;
+
+    @Value("${dashboard.search.summary.snippet.length:200}")
+    private int searchSummarySnippetLength;
+
+    @Value("${dashboard.search.partition.enabled:false}")
+    private boolean searchPartitionEnabled;
+
+    @Value("${dashboard.search.partition.refresh.millis:60000}")
+    private long searchPartitionRefreshMillis;
+
+    @Value("${dashboard.search.substring.enabled:false}")
+    private boolean searchSubstringEnabled;
+
+    @Value("${dashboard.search.substring.reindex:false}")
+    private boolean searchSubstringReindex;
+
+    @Value("${dashboard.search.substring.reindex.batch.size:500}")
+    private int searchSubstringReindexBatchSize;
+
+    @Value("${dashboard.ingest.capacity:10000}")
+    private int ingestCapacity;
+
+    @Value("${dashboard.ingest.batch.size:500}")
+    private int ingestBatchSize;
+
+    @Value("${dashboard.ingest.flush.interval.millis:1000}")
+    private long ingestFlushIntervalMillis;
+
+    @Value("${dashboard.ingest.spool.enabled:true}")
+    private boolean ingestSpoolEnabled;
+
+    @Value("${dashboard.ingest.spool.dir:ingest-spool}")
+    private String ingestSpoolDirectory;
+
+    @Value("${dashboard.ingest.spool.sync:false}")
+    private boolean ingestSpoolSync;
+
+    @Value("${dashboard.flow.state.snapshot.enabled:true}")
+    private boolean flowStateSnapshotEnabled;
+
+    @Value("${dashboard.flow.state.snapshot.file:flow-state.snapshot}")
+    private String flowStateSnapshotFile;
+
+    @Value("${dashboard.flow.state.snapshot.interval.millis:60000}")
+    private long flowStateSnapshotIntervalMillis;
+
+    @Value("${dashboard.flow.state.history.capacity:256}")
+    private int flowStateHistoryCapacity;
+
+    @Value("${dashboard.flow.state.history.memory.budget.bytes:16777216}")
+    private long flowStateHistoryMemoryBudgetBytes;
+
+    @Value("${dashboard.flow.state.flapping.window.millis:600000}")
+    private long flowStateFlappingWindowMillis;
+
+    @Value("${dashboard.flow.state.flapping.threshold:20}")
+    private int flowStateFlappingThreshold;
+
+    @Value("${dashboard.trace.slow.threshold.millis:500}")
+    private long slowTraceThresholdMillis;
+
+    @Value("${dashboard.trace.buffer.size:200}")
+    private int slowTraceBufferSize;
+
+    @Value("${dashboard.task.threads:16}")
+    private int taskThreads;
+
+    @Value("${dashboard.task.per.user:4}")
+    private int taskPerUser;
+
+    @Value("${dashboard.task.shutdown.timeout.millis:30000}")
+    private long taskShutdownTimeoutMillis;
+
+    @Value("${dashboard.flow.control.threads:32}")
+    private int flowControlThreads;
+
+    @Value("${dashboard.flow.control.module.concurrency:8}")
+    private int flowControlModuleConcurrency;
+
+    @Value("${dashboard.flow.control.layer.timeout.millis:60000}")
+    private long flowControlLayerTimeoutMillis;
+
+    @Value("${dashboard.module.metadata.cache.expiry.seconds:300}")
+    private long moduleMetaDataCacheExpirySeconds;
+
+    @Value("${dashboard.module.metadata.cache.maximum.size:1000}")
+    private long moduleMetaDataCacheMaximumSize;
+
+    @Value("${dashboard.metadata.change.detection.enabled:true}")
+    private boolean metaDataChangeDetectionEnabled;
+
+    @Value("${dashboard.flow.configuration.cache.expiry.seconds:30}")
+    private long flowConfigurationCacheExpirySeconds;
+
+    @Value("${dashboard.flow.configuration.cache.threads:8}")
+    private int flowConfigurationCacheThreads;
+
     @Resource
     private ModuleControlRestServiceImpl moduleControlRestService;
 
 
+    /**
+     * The Solr client shared by every Solr DAO created below, closed by the container on shutdown.
+     */
+    @Bean
+    public SolrClientFactory solrClientFactory()
+    {
+        SolrClientFactory solrClientFactory = new SolrClientFactory(solrUrl);
+        solrClientFactory.setMaxConnections(solrMaxConnections);
+        solrClientFactory.setMaxConnectionsPerRoute(solrMaxConnectionsPerRoute);
+        solrClientFactory.setKeepAliveMillis(solrKeepAliveMillis);
+        solrClientFactory.setConnectionTimeoutMillis(solrConnectionTimeoutMillis);
+        solrClientFactory.setSocketTimeoutMillis(solrSocketTimeoutMillis);
+        solrClientFactory.setCompression(solrCompression);
+        solrClientFactory.setHttp2(solrHttp2);
+
+        return solrClientFactory;
+    }
+
+    /**
+     * The search service, whose queries are restricted to summary fields and a payload snippet when made by the
+     * search result grids, and carry the modules the user can access as a separate filter query. Searches of a time
+     * window only go to the partitions overlapping it when the core is a time routed alias, and exports page through
+     * their results with a Solr cursor.
+     */
     @Bean
     public SolrGeneralServiceImpl solrSearchService()
     {
+        SolrClient searchClient = solrClientFactory().getSolrClient();
+        if(searchPartitionEnabled)
+        {
+            TimePartitionSolrClient timePartitionSolrClient = new TimePartitionSolrClient(searchClient
+                , SolrClientFactory.CORE, solrUsername, solrPassword);
+            timePartitionSolrClient.setRefreshIntervalMillis(searchPartitionRefreshMillis);
+            searchClient = timePartitionSolrClient;
+        }
+
+        SummaryProjectionSolrClient solrClient = new SummaryProjectionSolrClient(new FilterQuerySolrClient(
+            new CursorMarkSolrClient(searchClient)));
+        solrClient.setSnippetLength(searchSummarySnippetLength);
+
         SolrGeneralDaoImpl dao = new SolrGeneralDaoImpl();
-        dao.initStandalone(solrUrl, 30);
+        dao.setDaysToKeep(30);
+        dao.setSolrClient(solrClient);
         SolrGeneralServiceImpl service = new SolrGeneralServiceImpl(dao);
         service.setSolrUsername(solrUsername);
         service.setSolrPassword(solrPassword);
@@ -71,11 +253,36 @@ public class DashboardComponentFactory
         return service;
     }
 
+    /**
+     * Adds the n-gram companion fields for the search filters to the Solr core when the dashboard starts, after which
+     * the filters are routed to them rather than using leading wildcards.
+     */
+    @Bean
+    public SubstringSearchMigration substringSearchMigration()
+    {
+        SubstringSearchMigration substringSearchMigration = new SubstringSearchMigration(
+            solrClientFactory().getSolrClient(), solrUsername, solrPassword);
+        substringSearchMigration.setReindex(searchSubstringReindex);
+        substringSearchMigration.setBatchSize(searchSubstringReindexBatchSize);
+        if(searchSubstringEnabled)
+        {
+            substringSearchMigration.start();
+        }
+
+        return substringSearchMigration;
+    }
+
     @Bean("wiretapEventBatchInsert")
-    public BatchInsert<WiretapEvent> solrWiretapService()
+    public BatchInsert<WiretapEvent> wiretapEventBatchInsert()
+    {
+        return this.createIngestBuffer("wiretap", this.createSolrWiretapServiceImpl());
+    }
+
+    private SolrWiretapServiceImpl createSolrWiretapServiceImpl()
     {
         SolrWiretapDao dao = new SolrWiretapDao();
-        dao.initStandalone(solrUrl, 30);
+        dao.setDaysToKeep(30);
+        dao.setSolrClient(solrClientFactory().getSolrClient());
         SolrWiretapServiceImpl service = new SolrWiretapServiceImpl(dao);
         service.setSolrUsername(solrUsername);
         service.setSolrPassword(solrPassword);
@@ -84,10 +291,17 @@ public class DashboardComponentFactory
     }
 
     @Bean("errorOccurrenceBatchInsert")
+    public BatchInsert errorOccurrenceBatchInsert()
+    {
+        return this.createIngestBuffer("errorOccurrence", this.solrErrorReportingService());
+    }
+
+    @Bean
     public SolrErrorReportingServiceImpl solrErrorReportingService()
     {
         SolrErrorReportingServiceDao dao = new SolrErrorReportingServiceDao();
-        dao.initStandalone(solrUrl, 30);
+        dao.setDaysToKeep(30);
+        dao.setSolrClient(solrClientFactory().getSolrClient());
         SolrErrorReportingServiceImpl service = new SolrErrorReportingServiceImpl(dao);
         service.setSolrUsername(solrUsername);
         service.setSolrPassword(solrPassword);
@@ -96,10 +310,16 @@ public class DashboardComponentFactory
     }
 
     @Bean("exclusionEventBatchInsert")
-    public BatchInsert<ExclusionEvent> solrExclusionService()
+    public BatchInsert<ExclusionEvent> exclusionEventBatchInsert()
+    {
+        return this.createIngestBuffer("exclusion", this.createSolrExclusionServiceImpl());
+    }
+
+    private SolrExclusionServiceImpl createSolrExclusionServiceImpl()
     {
         SolrExclusionEventDao dao = new SolrExclusionEventDao();
-        dao.initStandalone(solrUrl, 30);
+        dao.setDaysToKeep(30);
+        dao.setSolrClient(solrClientFactory().getSolrClient());
         SolrExclusionServiceImpl service = new SolrExclusionServiceImpl(dao);
         service.setSolrUsername(solrUsername);
         service.setSolrPassword(solrPassword);
@@ -108,10 +328,16 @@ public class DashboardComponentFactory
     }
 
     @Bean("replayEventBatchInsert")
-    public BatchInsert<ReplayEvent> solrReplayService()
+    public BatchInsert<ReplayEvent> replayEventBatchInsert()
+    {
+        return this.createIngestBuffer("replay", this.createSolrReplayServiceImpl());
+    }
+
+    private SolrReplayServiceImpl createSolrReplayServiceImpl()
     {
         SolrReplayDao dao = new SolrReplayDao();
-        dao.initStandalone(solrUrl, 30);
+        dao.setDaysToKeep(30);
+        dao.setSolrClient(solrClientFactory().getSolrClient());
 
         SolrReplayServiceImpl service = new SolrReplayServiceImpl(dao);
         service.setSolrUsername(solrUsername);
@@ -120,6 +346,23 @@ public class DashboardComponentFactory
         return service;
     }
 
+    /**
+     * Put an ingest buffer in front of the BatchInsert a module event type is written to Solr with, so that module
+     * pushes are not held up by Solr. The buffer is closed by the container on shutdown.
+     */
+    private <T> BufferedBatchInsert<T> createIngestBuffer(String type, BatchInsert<T> delegate)
+    {
+        IngestSpool spool = this.ingestSpoolEnabled ? new IngestSpool(Paths.get(this.ingestSpoolDirectory, type), this.ingestSpoolSync) : null;
+
+        BufferedBatchInsert<T> bufferedBatchInsert = new BufferedBatchInsert<>(type, delegate, spool);
+        bufferedBatchInsert.setCapacity(this.ingestCapacity);
+        bufferedBatchInsert.setBatchSize(this.ingestBatchSize);
+        bufferedBatchInsert.setFlushIntervalMillis(this.ingestFlushIntervalMillis);
+        bufferedBatchInsert.start();
+
+        return bufferedBatchInsert;
+    }
+
     @Bean
     public BatchInsert replayAuditService()
     {
@@ -129,7 +372,8 @@ public class DashboardComponentFactory
     private SolrReplayAuditServiceImpl createSolrReplayAuditServiceImpl()
     {
         SolrReplayAuditDao dao = new SolrReplayAuditDao();
-        dao.initStandalone(solrUrl, 30);
+        dao.setDaysToKeep(30);
+        dao.setSolrClient(solrClientFactory().getSolrClient());
 
         SolrReplayAuditServiceImpl service = new SolrReplayAuditServiceImpl(dao);
         service.setSolrUsername(solrUsername);
@@ -142,7 +386,8 @@ public class DashboardComponentFactory
     public HospitalAuditService hospitalAuditService()
     {
         SolrHospitalDao dao = new SolrHospitalDao();
-        dao.initStandalone(solrUrl, 30);
+        dao.setDaysToKeep(30);
+        dao.setSolrClient(solrClientFactory().getSolrClient());
 
         SolrHospitalServiceImpl service = new SolrHospitalServiceImpl(dao);
         service.setSolrUsername(solrUsername);
@@ -154,9 +399,41 @@ public class DashboardComponentFactory
     @Bean
     public BatchInsert moduleMetadataBatchInsert()
     {
-        return this.createSolrModuleMetadataServiceImpl();
+        BatchInsert<ModuleMetaData> batchInsert = new CacheInvalidatingBatchInsert<ModuleMetaData>(
+            this.createSolrModuleMetadataServiceImpl(), moduleMetaData ->
+            {
+                moduleMetaData.forEach(metaData -> ModuleVisualisationCache.instance().invalidate(metaData.getName()));
+                this.moduleMetaDataCache().invalidate(moduleMetaData);
+            });
+
+        return this.metaDataChangeDetectionEnabled ? new ChangeDetectingBatchInsert<ModuleMetaData>(
+            ContentHashStore.MODULE_METADATA, batchInsert, ModuleMetaData::getName, this.contentHashStore())
+            : batchInsert;
     }
 
+    /**
+     * The hashes of the metadata last written for each module, so that metadata pushed again unchanged is not written.
+     */
+    @Bean
+    public ContentHashStore contentHashStore()
+    {
+        ContentHashStore contentHashStore = ContentHashStore.instance();
+        contentHashStore.configure(solrClientFactory().getSolrClient(), solrUsername, solrPassword);
+        return contentHashStore;
+    }
+
+    @Bean
+    public ModuleMetaDataCache moduleMetaDataCache()
+    {
+        ModuleMetaDataCache moduleMetaDataCache = ModuleMetaDataCache.instance();
+        moduleMetaDataCache.configure(this.moduleMetaDataCacheExpirySeconds, this.moduleMetaDataCacheMaximumSize);
+        return moduleMetaDataCache;
+    }
+
+    /**
+     * The module metadata service, forgetting the content hash of the metadata of a module deleted so that the module
+     * pushing it again unchanged writes it again.
+     */
     @Bean
     public SolrModuleMetadataServiceImpl moduleMetadataService()
     {
@@ -166,9 +443,11 @@ public class DashboardComponentFactory
     private SolrModuleMetadataServiceImpl createSolrModuleMetadataServiceImpl()
     {
         SolrModuleMetadataDao dao = new SolrModuleMetadataDao();
-        dao.initStandalone(solrUrl, 30);
+        dao.setDaysToKeep(30);
+        dao.setSolrClient(solrClientFactory().getSolrClient());
 
-        SolrModuleMetadataServiceImpl service = new SolrModuleMetadataServiceImpl(dao);
+        SolrModuleMetadataServiceImpl service = new ContentHashInvalidatingModuleMetadataService(dao
+            , this.contentHashStore());
         service.setSolrUsername(solrUsername);
         service.setSolrPassword(solrPassword);
 
@@ -179,7 +458,8 @@ public class DashboardComponentFactory
     public BusinessStreamMetaDataService businessStreamMetaDataService()
     {
         SolrBusinessStreamMetadataDao dao = new SolrBusinessStreamMetadataDao();
-        dao.initStandalone(solrUrl, 30);
+        dao.setDaysToKeep(30);
+        dao.setSolrClient(solrClientFactory().getSolrClient());
 
         SolrBusinessStreamMetaDataServiceImpl service = new SolrBusinessStreamMetaDataServiceImpl(dao);
         service.setSolrUsername(solrUsername);
@@ -198,7 +478,8 @@ public class DashboardComponentFactory
     private SolrSystemEventServiceImpl createSolrSystemEventServiceImpl()
     {
         SolrSystemEventDao dao = new SolrSystemEventDao();
-        dao.initStandalone(solrUrl, 30);
+        dao.setDaysToKeep(30);
+        dao.setSolrClient(solrClientFactory().getSolrClient());
 
         SolrSystemEventServiceImpl service = new SolrSystemEventServiceImpl(dao);
         service.setSolrUsername(solrUsername);
@@ -216,13 +497,21 @@ public class DashboardComponentFactory
     @Bean
     public BatchInsert configurationMetadataBatchInsert()
     {
-        return createSolrComponentConfigurationMetadataServiceImpl();
+        // configuration metadata is not keyed by module so drop all cached module visualisations
+        BatchInsert<ConfigurationMetaData> batchInsert = new CacheInvalidatingBatchInsert<ConfigurationMetaData>(
+            createSolrComponentConfigurationMetadataServiceImpl()
+            , configurationMetaData -> ModuleVisualisationCache.instance().invalidateAll());
+
+        return this.metaDataChangeDetectionEnabled ? new ChangeDetectingBatchInsert<ConfigurationMetaData>(
+            ContentHashStore.CONFIGURATION_METADATA, batchInsert, ConfigurationMetaData::getConfigurationId
+            , this.contentHashStore()) : batchInsert;
     }
 
     private SolrComponentConfigurationMetadataServiceImpl createSolrComponentConfigurationMetadataServiceImpl()
     {
         SolrComponentConfigurationMetadataDao dao = new SolrComponentConfigurationMetadataDao();
-        dao.initStandalone(solrUrl, 30);
+        dao.setDaysToKeep(30);
+        dao.setSolrClient(solrClientFactory().getSolrClient());
 
         SolrComponentConfigurationMetadataServiceImpl service = new SolrComponentConfigurationMetadataServiceImpl(dao);
         service.setSolrUsername(solrUsername);
@@ -245,6 +534,98 @@ public class DashboardComponentFactory
         return flowStateCache;
     }
 
+    /**
+     * Loads the flow states last known before a restart into the flow state cache and writes a snapshot of the cache
+     * from time to time, a last snapshot being written when the container closes it on shutdown.
+     */
+    @Bean
+    public FlowStateSnapshot flowStateSnapshot()
+    {
+        FlowStateSnapshot flowStateSnapshot = new FlowStateSnapshot(Paths.get(this.flowStateSnapshotFile)
+            , this.flowStateCache());
+        if(this.flowStateSnapshotEnabled)
+        {
+            flowStateSnapshot.load();
+            flowStateSnapshot.start(this.flowStateSnapshotIntervalMillis);
+        }
+        return flowStateSnapshot;
+    }
+
+    @Bean
+    public FlowStateHistory flowStateHistory()
+    {
+        FlowStateHistory flowStateHistory = FlowStateHistory.instance();
+        flowStateHistory.configure(this.flowStateHistoryCapacity, this.flowStateHistoryMemoryBudgetBytes);
+        flowStateHistory.setFlappingWindowMillis(this.flowStateFlappingWindowMillis);
+        flowStateHistory.setFlappingThreshold(this.flowStateFlappingThreshold);
+        return flowStateHistory;
+    }
+
+    /**
+     * Static so that the post processor is created before, and can proxy, the module REST client beans.
+     */
+    @Bean
+    public static BeanPostProcessor moduleRestClientMetricsPostProcessor()
+    {
+        return new ModuleRestClientMetricsPostProcessor();
+    }
+
+    @Bean
+    public SlowTraceBuffer slowTraceBuffer()
+    {
+        SlowTraceBuffer slowTraceBuffer = SlowTraceBuffer.instance();
+        slowTraceBuffer.setCapacity(this.slowTraceBufferSize);
+        slowTraceBuffer.setSlowThresholdMillis(this.slowTraceThresholdMillis);
+        return slowTraceBuffer;
+    }
+
+    /**
+     * The executor of background UI work, closed by the container on shutdown.
+     */
+    @Bean
+    public DashboardTaskExecutor dashboardTaskExecutor()
+    {
+        DashboardTaskExecutor dashboardTaskExecutor = DashboardTaskExecutor.instance();
+        dashboardTaskExecutor.setGlobalLimit(this.taskThreads);
+        dashboardTaskExecutor.setUserLimit(this.taskPerUser);
+        dashboardTaskExecutor.setShutdownTimeoutMillis(this.taskShutdownTimeoutMillis);
+        return dashboardTaskExecutor;
+    }
+
+    /**
+     * Makes the module REST calls of flow control actions on many flows in parallel, closed by the container on
+     * shutdown.
+     */
+    @Bean
+    public BulkFlowControlService bulkFlowControlService()
+    {
+        BulkFlowControlService bulkFlowControlService = BulkFlowControlService.instance();
+        bulkFlowControlService.setThreads(this.flowControlThreads);
+        bulkFlowControlService.setModuleConcurrency(this.flowControlModuleConcurrency);
+        return bulkFlowControlService;
+    }
+
+    @Bean
+    public BusinessStreamFlowControl businessStreamFlowControl()
+    {
+        BusinessStreamFlowControl businessStreamFlowControl = new BusinessStreamFlowControl(this.moduleControlRestService
+            , this.moduleMetadataService(), this.bulkFlowControlService());
+        businessStreamFlowControl.setLayerTimeoutMillis(this.flowControlLayerTimeoutMillis);
+        return businessStreamFlowControl;
+    }
+
+    /**
+     * Loads the flow configuration of modules ahead of it being shown, closed by the container on shutdown.
+     */
+    @Bean
+    public FlowConfigurationCache flowConfigurationCache()
+    {
+        FlowConfigurationCache flowConfigurationCache = FlowConfigurationCache.instance();
+        flowConfigurationCache.configure(this.flowConfigurationCacheExpirySeconds, FlowConfigurationCache.DEFAULT_MAXIMUM_SIZE);
+        flowConfigurationCache.setThreads(this.flowConfigurationCacheThreads);
+        return flowConfigurationCache;
+    }
+
     @Bean
     public ModuleMetaDataProvider<String> moduleMetaDataProvider() {
         return new JsonModuleMetaDataProvider(new JsonFlowMetaDataProvider());
@@ -1,5 +1,6 @@
 package org.ikasan.dashboard.beans;
 
+import org.ikasan.dashboard.ingest.IngestSpool;
 import org.ikasan.dashboard.ui.util.SystemEventLogger;
 import org.ikasan.security.dao.HibernateSecurityDao;
 import org.ikasan.security.dao.HibernateUserDao;
@@ -15,6 +16,7 @@ import org.ikasan.systemevent.dao.HibernateSystemEventDao;
 import org.ikasan.systemevent.service.SystemEventServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.ImportResource;
@@ -22,11 +24,16 @@ import org.springframework.orm.hibernate5.LocalSessionFactoryBean;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import javax.annotation.Resource;
 import javax.sql.DataSource;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Configuration
 @ImportResource( {
@@ -35,6 +42,9 @@ import java.util.Properties;
 } )
 public class IkasanSecurityConfiguration
 {
+    /** how long system events are kept */
+    private static final long SYSTEM_EVENT_EXPIRY_MINUTES = 10800L;
+
     @Autowired
     @Qualifier("ikasan.ds")
     private DataSource ikasands;
@@ -42,6 +52,28 @@ public class IkasanSecurityConfiguration
     @Resource
     private Map platformHibernateProperties;
 
+    @Autowired
+    @Qualifier("transactionManager")
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${dashboard.audit.async:true}")
+    private boolean auditAsync;
+
+    @Value("${dashboard.audit.sync.subjects:}")
+    private String[] auditSyncSubjects;
+
+    @Value("${dashboard.audit.capacity:10000}")
+    private int auditCapacity;
+
+    @Value("${dashboard.audit.batch.size:100}")
+    private int auditBatchSize;
+
+    @Value("${dashboard.audit.flush.interval.millis:500}")
+    private long auditFlushIntervalMillis;
+
+    @Value("${dashboard.audit.dead.letter.dir:audit-dead-letter}")
+    private String auditDeadLetterDirectory;
+
     @Bean public PasswordEncoder passwordEncoder()
     {
         return PasswordEncoderFactories.createDelegatingPasswordEncoder();
@@ -73,16 +105,43 @@ public class IkasanSecurityConfiguration
         return new UserServiceImpl(userDao(), securityService(), passwordEncoder());
     }
 
+    /**
+     * The audit logger, writing all but the security critical system events from a background thread when async.
+     */
     @Bean
     SystemEventLogger systemEventLogger()
     {
-        return new SystemEventLogger(systemEventService());
+        SystemEventLogger systemEventLogger = new SystemEventLogger(systemEventDao(), SYSTEM_EVENT_EXPIRY_MINUTES
+            , transactionManager);
+        systemEventLogger.setCapacity(auditCapacity);
+        systemEventLogger.setBatchSize(auditBatchSize);
+        systemEventLogger.setFlushIntervalMillis(auditFlushIntervalMillis);
+        if(!auditDeadLetterDirectory.isEmpty())
+        {
+            systemEventLogger.setDeadLetterSpool(new IngestSpool(Paths.get(auditDeadLetterDirectory), true));
+        }
+
+        Set<String> syncSubjects = Arrays.stream(auditSyncSubjects)
+            .map(String::trim)
+            .filter(subject -> !subject.isEmpty())
+            .collect(Collectors.toSet());
+        if(!syncSubjects.isEmpty())
+        {
+            systemEventLogger.setSynchronousSubjects(syncSubjects);
+        }
+
+        if(auditAsync)
+        {
+            systemEventLogger.start();
+        }
+
+        return systemEventLogger;
     }
 
     @Bean
     public SystemEventService systemEventService()
     {
-        return new SystemEventServiceImpl(systemEventDao(), 10800L);
+        return new SystemEventServiceImpl(systemEventDao(), SYSTEM_EVENT_EXPIRY_MINUTES);
     }
 
     private SystemEventDao systemEventDao(){
@@ -1,18 +1,32 @@
 package org.ikasan.dashboard.broadcast;
 
 import com.vaadin.flow.shared.Registration;
+import org.ikasan.dashboard.metrics.DashboardMetrics;
 
 import java.util.LinkedList;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 public class FlowStateBroadcaster
 {
-    static Executor executor = Executors.newSingleThreadExecutor();
+    // single threaded, as Executors.newSingleThreadExecutor(), but exposing the queue for the queue depth gauge
+    static ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS
+        , new LinkedBlockingQueue<>());
 
     static LinkedList<Consumer<FlowState>> listeners = new LinkedList<>();
 
+    static
+    {
+        DashboardMetrics.registerBroadcaster("flowState", executor, FlowStateBroadcaster::listenerCount);
+    }
+
+    static synchronized int listenerCount()
+    {
+        return listeners.size();
+    }
+
     public static synchronized Registration register(Consumer<FlowState> listener)
     {
         listeners.add(listener);
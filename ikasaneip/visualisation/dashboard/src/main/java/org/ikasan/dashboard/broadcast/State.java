@@ -27,6 +27,10 @@ public class State
     public static State START_PAUSE_STATE = new State(START_PAUSE, START_PAUSE_COLOUR);
     public static State UNKNOWN_STATE = new State(UNKNOWN, STOPPED_COLOUR);
 
+    // the position of each flow state is its ordinal, so new states are only ever added to the end
+    private static final String[] FLOW_STATES = {UNKNOWN, RUNNING, STOPPED, STOPPED_IN_ERROR, RECOVERING, PAUSED
+        , START_PAUSE};
+
     private String flowState;
     private String stateColour;
 
@@ -48,6 +52,19 @@ public class State
         return UNKNOWN_STATE;
     }
 
+    /**
+     * @param ordinal the ordinal of a state
+     * @return the state, or the unknown state if there is none with the ordinal
+     */
+    public static State getState(int ordinal)
+    {
+        if(ordinal < 0 || ordinal >= FLOW_STATES.length)
+        {
+            return UNKNOWN_STATE;
+        }
+        return getState(FLOW_STATES[ordinal]);
+    }
+
     private State(String flowState, String stateColour)
     {
         this.flowState = flowState;
@@ -64,6 +81,21 @@ public class State
         return stateColour;
     }
 
+    /**
+     * @return a number standing for the state, for holding states compactly
+     */
+    public byte getOrdinal()
+    {
+        for(byte ordinal = 0; ordinal < FLOW_STATES.length; ordinal++)
+        {
+            if(FLOW_STATES[ordinal].equals(this.flowState))
+            {
+                return ordinal;
+            }
+        }
+        return 0;
+    }
+
     @Override
     public boolean equals(Object o)
     {
@@ -0,0 +1,45 @@
+package org.ikasan.dashboard.cache;
+
+import org.ikasan.spec.persistence.BatchInsert;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * BatchInsert decorator that notifies the dashboard caches once the delegate has written the entities,
+ * so that any cached view of those entities is dropped.
+ *
+ * @param <T>
+ */
+public class CacheInvalidatingBatchInsert<T> implements BatchInsert<T>
+{
+    private BatchInsert<T> delegate;
+    private Consumer<List<T>> invalidator;
+
+    /**
+     * Constructor
+     *
+     * @param delegate
+     * @param invalidator
+     */
+    public CacheInvalidatingBatchInsert(BatchInsert<T> delegate, Consumer<List<T>> invalidator)
+    {
+        this.delegate = delegate;
+        if(this.delegate == null)
+        {
+            throw new IllegalArgumentException("delegate cannot be null!");
+        }
+        this.invalidator = invalidator;
+        if(this.invalidator == null)
+        {
+            throw new IllegalArgumentException("invalidator cannot be null!");
+        }
+    }
+
+    @Override
+    public void insert(List<T> entities)
+    {
+        this.delegate.insert(entities);
+        this.invalidator.accept(entities);
+    }
+}
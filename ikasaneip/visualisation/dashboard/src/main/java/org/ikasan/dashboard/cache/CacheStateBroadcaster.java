@@ -2,18 +2,34 @@ package org.ikasan.dashboard.cache;
 
 import com.vaadin.flow.shared.Registration;
 import org.ikasan.dashboard.broadcast.FlowState;
+import org.ikasan.dashboard.metrics.DashboardMetrics;
 
 import java.util.LinkedList;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 public class CacheStateBroadcaster
 {
-    static Executor executor = Executors.newSingleThreadExecutor();
+    static ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS
+        , new LinkedBlockingQueue<>());
 
     static LinkedList<Consumer<FlowState>> listeners = new LinkedList<>();
 
+    static LinkedList<Consumer<List<FlowState>>> batchListeners = new LinkedList<>();
+
+    static
+    {
+        DashboardMetrics.registerBroadcaster("cacheState", executor, CacheStateBroadcaster::listenerCount);
+    }
+
+    static synchronized int listenerCount()
+    {
+        return listeners.size() + batchListeners.size();
+    }
+
     public static synchronized Registration register(Consumer<FlowState> listener)
     {
         listeners.add(listener);
@@ -27,11 +43,58 @@ public class CacheStateBroadcaster
         };
     }
 
+    /**
+     * Register a listener told of the flow states changed together in one call, e.g. one that redraws the whole
+     * of a module whichever of its flows has changed.
+     *
+     * @param listener
+     * @return the registration
+     */
+    public static synchronized Registration registerBatch(Consumer<List<FlowState>> listener)
+    {
+        batchListeners.add(listener);
+
+        return () ->
+        {
+            synchronized (CacheStateBroadcaster.class)
+            {
+                batchListeners.remove(listener);
+            }
+        };
+    }
+
     public static synchronized void broadcast(FlowState message)
     {
         for (Consumer<FlowState> listener : listeners)
         {
             executor.execute(() -> listener.accept(message));
         }
+        for (Consumer<List<FlowState>> listener : batchListeners)
+        {
+            executor.execute(() -> listener.accept(List.of(message)));
+        }
+    }
+
+    /**
+     * Broadcast flow states changed together, each listener being told of all of them in a single task.
+     *
+     * @param messages the flow states
+     */
+    public static synchronized void broadcast(List<FlowState> messages)
+    {
+        if(messages.isEmpty())
+        {
+            return;
+        }
+
+        List<FlowState> batch = List.copyOf(messages);
+        for (Consumer<FlowState> listener : listeners)
+        {
+            executor.execute(() -> batch.forEach(listener));
+        }
+        for (Consumer<List<FlowState>> listener : batchListeners)
+        {
+            executor.execute(() -> listener.accept(batch));
+        }
     }
 }
@@ -0,0 +1,107 @@
+package org.ikasan.dashboard.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.apache.solr.client.solrj.util.ClientUtils;
+import org.ikasan.solr.model.IkasanSolrDocumentSearchResults;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Application wide cache of the documents of an event life, as found when an event link is followed.
+ *
+ * Event links are typically followed by several people at once from a busy incident channel, so the documents found
+ * for an event life identifier are held for a short while, keyed by the module access of the user and the document
+ * types searched, so that repeated clicks are answered without going back to Solr.
+ */
+public class EventLifeIdCache
+{
+    public static final String EVENT_ID_FIELD = "event";
+    public static final String RELATED_EVENT_ID_FIELD = "relatedEventId";
+
+    public static final long DEFAULT_EXPIRY_SECONDS = 30;
+    public static final long DEFAULT_MAXIMUM_SIZE = 1000;
+
+    /** the most documents of an event life held, longer lives are paged from Solr */
+    public static final int MAXIMUM_DOCUMENTS = 1000;
+
+    private static EventLifeIdCache INSTANCE;
+
+    public static EventLifeIdCache instance()
+    {
+        if(INSTANCE == null)
+        {
+            synchronized (EventLifeIdCache.class)
+            {
+                if(INSTANCE == null)
+                {
+                    INSTANCE = new EventLifeIdCache(DEFAULT_EXPIRY_SECONDS, DEFAULT_MAXIMUM_SIZE);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private Cache<String, IkasanSolrDocumentSearchResults> cache;
+
+    protected EventLifeIdCache(long expirySeconds, long maximumSize)
+    {
+        this.cache = CacheBuilder.newBuilder()
+            .expireAfterWrite(expirySeconds, TimeUnit.SECONDS)
+            .maximumSize(maximumSize)
+            .build();
+    }
+
+    /**
+     * Build the filter query matching the documents of an event life exactly, on the indexed event and related
+     * event id rather than as a free text search of the whole document.
+     *
+     * @param eventLifeId the event life identifier
+     * @return the filter query
+     */
+    public static String toFilterQuery(String eventLifeId)
+    {
+        String term = ClientUtils.escapeQueryChars(eventLifeId);
+
+        return EVENT_ID_FIELD + ":" + term + " OR " + RELATED_EVENT_ID_FIELD + ":" + term;
+    }
+
+    /**
+     * Get the documents of an event life, only searching Solr if they have not been found recently.
+     *
+     * @param moduleAccessFilterQuery the filter query of the modules the user can access, or null for all modules
+     * @param types the document types searched
+     * @param eventLifeId the event life identifier
+     * @param search the search for the documents, in timestamp order
+     * @return the documents
+     */
+    public IkasanSolrDocumentSearchResults get(String moduleAccessFilterQuery, List<String> types, String eventLifeId
+        , Supplier<IkasanSolrDocumentSearchResults> search)
+    {
+        String key = String.join("|", String.valueOf(moduleAccessFilterQuery), String.valueOf(types), eventLifeId);
+
+        try
+        {
+            return this.cache.get(key, search::get);
+        }
+        catch (ExecutionException | UncheckedExecutionException e)
+        {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                : new RuntimeException(e.getCause());
+        }
+    }
+
+    public void invalidate()
+    {
+        this.cache.invalidateAll();
+    }
+
+    public long size()
+    {
+        return this.cache.size();
+    }
+}
@@ -0,0 +1,225 @@
+package org.ikasan.dashboard.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.ikasan.dashboard.ui.visualisation.model.flow.Module;
+import org.ikasan.spec.metadata.ConfigurationMetaData;
+import org.ikasan.spec.metadata.ConfigurationParameterMetaData;
+import org.ikasan.spec.module.client.ConfigurationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Application wide cache of the flow configuration of modules, as shown when a flow of a module is visualised.
+ *
+ * The configuration of every flow of a module is loaded from the module in parallel, off the UI thread, as soon as
+ * the module is opened, so that switching between its flows is answered from the cache rather than waiting on a call
+ * to the module. The configuration is held for a short while only, as it can be changed on the module directly, and is
+ * dropped for a module as soon as it is changed from the dashboard. Each caller is handed a future completed once the
+ * configuration is loaded, a flow whose configuration is already being loaded not being loaded again. Failed loads
+ * are not cached.
+ */
+public class FlowConfigurationCache implements Closeable
+{
+    private static Logger logger = LoggerFactory.getLogger(FlowConfigurationCache.class);
+
+    public static final long DEFAULT_EXPIRY_SECONDS = 30;
+    public static final long DEFAULT_MAXIMUM_SIZE = 2000;
+    public static final int DEFAULT_THREADS = 8;
+
+    private static FlowConfigurationCache INSTANCE;
+
+    public static FlowConfigurationCache instance()
+    {
+        if(INSTANCE == null)
+        {
+            synchronized (FlowConfigurationCache.class)
+            {
+                if(INSTANCE == null)
+                {
+                    INSTANCE = new FlowConfigurationCache(DEFAULT_EXPIRY_SECONDS, DEFAULT_MAXIMUM_SIZE);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private volatile Cache<String, CompletableFuture<Optional<ConfigurationMetaData<List<ConfigurationParameterMetaData>>>>> cache;
+    private ThreadPoolExecutor executor;
+
+    protected FlowConfigurationCache(long expirySeconds, long maximumSize)
+    {
+        this.configure(expirySeconds, maximumSize);
+
+        AtomicInteger threads = new AtomicInteger();
+        ThreadFactory threadFactory = runnable ->
+        {
+            Thread thread = new Thread(runnable, "flow-configuration-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        this.executor = new ThreadPoolExecutor(DEFAULT_THREADS, DEFAULT_THREADS, 60L, TimeUnit.SECONDS
+            , new LinkedBlockingQueue<>(), threadFactory);
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Replace the cache with an empty one of the expiry and maximum size given.
+     *
+     * @param expirySeconds how long the configuration of a flow is held for
+     * @param maximumSize the most flows held
+     */
+    public void configure(long expirySeconds, long maximumSize)
+    {
+        this.cache = CacheBuilder.newBuilder()
+            .expireAfterWrite(expirySeconds, TimeUnit.SECONDS)
+            .maximumSize(maximumSize)
+            .build();
+    }
+
+    /**
+     * Start loading the configuration of every flow of a module not already held.
+     *
+     * @param module the module
+     * @param configurationService the module REST client loading the configuration
+     */
+    public void prefetch(Module module, ConfigurationService configurationService)
+    {
+        module.getFlows().forEach(flow -> this.get(module, flow.getName(), configurationService));
+    }
+
+    /**
+     * Get the configuration of a flow, loading it from the module if it is not held.
+     *
+     * @param module the module
+     * @param flowName the flow
+     * @param configurationService the module REST client loading the configuration
+     * @return completed with the configuration of the flow, empty if the module has none, or exceptionally if it
+     * could not be loaded
+     */
+    public CompletableFuture<Optional<ConfigurationMetaData<List<ConfigurationParameterMetaData>>>> get(Module module
+        , String flowName, ConfigurationService configurationService)
+    {
+        Cache<String, CompletableFuture<Optional<ConfigurationMetaData<List<ConfigurationParameterMetaData>>>>> cache = this.cache;
+        String key = key(module.getName(), flowName);
+
+        CompletableFuture<Optional<ConfigurationMetaData<List<ConfigurationParameterMetaData>>>> load
+            = new CompletableFuture<>();
+        CompletableFuture<Optional<ConfigurationMetaData<List<ConfigurationParameterMetaData>>>> configuration;
+        try
+        {
+            configuration = cache.get(key, () -> load);
+        }
+        catch (ExecutionException e)
+        {
+            // the loader only returns the future
+            throw new IllegalStateException(e.getCause());
+        }
+
+        if(configuration == load)
+        {
+            // failed loads are dropped before the callers are told, so that a caller trying again loads the flow again
+            Runnable forget = () -> cache.asMap().remove(key, load);
+            try
+            {
+                this.executor.execute(() -> this.load(module, flowName, configurationService, load, forget));
+            }
+            catch (RejectedExecutionException e)
+            {
+                forget.run();
+                load.completeExceptionally(e);
+            }
+        }
+
+        return configuration;
+    }
+
+    private void load(Module module, String flowName, ConfigurationService configurationService
+        , CompletableFuture<Optional<ConfigurationMetaData<List<ConfigurationParameterMetaData>>>> load, Runnable forget)
+    {
+        try
+        {
+            ConfigurationMetaData<List<ConfigurationParameterMetaData>> flowConfiguration = configurationService
+                .getFlowConfiguration(module.getUrl(), module.getName(), flowName);
+
+            load.complete(Optional.ofNullable(flowConfiguration));
+        }
+        catch (RuntimeException e)
+        {
+            logger.warn(String.format("Could not load the configuration of flow [%s] of module [%s].", flowName
+                , module.getName()), e);
+            forget.run();
+            load.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Drop the configuration of every flow of a module, so that it is next loaded from the module.
+     *
+     * @param moduleName the name of the module
+     */
+    public void invalidate(String moduleName)
+    {
+        logger.debug("Invalidating flow configuration cache for module [{}].", moduleName);
+        String prefix = key(moduleName, "");
+        this.cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    public void invalidateAll()
+    {
+        this.cache.invalidateAll();
+    }
+
+    public long size()
+    {
+        return this.cache.size();
+    }
+
+    public void setThreads(int threads)
+    {
+        if(threads > this.executor.getMaximumPoolSize())
+        {
+            this.executor.setMaximumPoolSize(threads);
+            this.executor.setCorePoolSize(threads);
+        }
+        else
+        {
+            this.executor.setCorePoolSize(threads);
+            this.executor.setMaximumPoolSize(threads);
+        }
+    }
+
+    /**
+     * Interrupt the loads being made, those not yet made are failed.
+     */
+    @Override
+    public void close()
+    {
+        this.executor.shutdownNow();
+
+        RejectedExecutionException shutdown = new RejectedExecutionException("Flow configuration cache has been shut down!");
+        List<CompletableFuture<Optional<ConfigurationMetaData<List<ConfigurationParameterMetaData>>>>> configurations
+            = new ArrayList<>(this.cache.asMap().values());
+        this.cache.invalidateAll();
+        configurations.forEach(configuration -> configuration.completeExceptionally(shutdown));
+    }
+
+    private static String key(String moduleName, String flowName)
+    {
+        return moduleName + "|" + flowName;
+    }
+}
@@ -11,8 +11,18 @@ import org.ikasan.spec.metadata.ModuleMetaData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 public class FlowStateCache implements Consumer<FlowState>
@@ -37,28 +47,179 @@ public class FlowStateCache implements Consumer<FlowState>
     }
 
     private ConcurrentHashMap<String, FlowState> cache;
+    private ConcurrentHashMap<String, Long> timestamps;
+    private Map<String, FlowStateChange> lastChanges;
+    private Set<String> stale;
+    private Set<String> refreshing;
+    private ThreadPoolExecutor refresher;
     private ModuleControlRestServiceImpl moduleControlRestService;
 
-    private FlowStateCache()
+    protected FlowStateCache()
     {
         cache = new ConcurrentHashMap<>();
+        timestamps = new ConcurrentHashMap<>();
+        lastChanges = new HashMap<>();
+        stale = ConcurrentHashMap.newKeySet();
+        refreshing = ConcurrentHashMap.newKeySet();
+        refresher = new ThreadPoolExecutor(2, 2, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable ->
+        {
+            Thread thread = new Thread(runnable, "flow-state-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.allowCoreThreadTimeOut(true);
         FlowStateBroadcaster.register(this);
     }
 
-    public void put(FlowState flowState)
+    /**
+     * Apply a flow state that is not numbered, e.g. one read back from the module or set by a control action. It is
+     * taken as the state of the flow as it stands, the last numbered change of the flow being kept so that numbered
+     * changes made before it and arriving late are still dropped.
+     *
+     * @param flowState the flow state
+     */
+    public synchronized void put(FlowState flowState)
     {
-        String key = flowState.getModuleName() + flowState.getFlowName();
-        this.cache.put(key, flowState);
+        this.apply(Map.of(flowState.getModuleName() + flowState.getFlowName(), flowState), Map.of()
+            , List.of(flowState));
 
         CacheStateBroadcaster.broadcast(flowState);
     }
 
+    /**
+     * Apply a single numbered flow state change, dropped as for putAll if it is no later than the last change applied
+     * to its flow.
+     *
+     * @param change the flow state change
+     * @return whether the change was applied
+     */
+    public boolean put(FlowStateChange change)
+    {
+        return this.putAll(List.of(change)).isEmpty();
+    }
+
+    /**
+     * Apply a batch of numbered flow state changes together, with a single broadcast of the flow states changed.
+     *
+     * A change no later than the last change applied to its flow has arrived out of order and is dropped. Of the
+     * changes of the batch to the same flow only the latest is broadcast.
+     *
+     * @param changes the flow state changes
+     * @return the changes dropped as out of order
+     */
+    public synchronized List<FlowStateChange> putAll(List<FlowStateChange> changes)
+    {
+        List<FlowStateChange> ordered = new ArrayList<>(changes);
+        ordered.sort(Comparator.comparingLong(FlowStateChange::getEpoch)
+            .thenComparingLong(FlowStateChange::getSequence));
+
+        List<FlowStateChange> dropped = new ArrayList<>();
+        List<FlowStateChange> applied = new ArrayList<>();
+        Map<String, FlowStateChange> latest = new LinkedHashMap<>();
+        for(FlowStateChange change: ordered)
+        {
+            String key = change.getModuleName() + change.getFlowName();
+            FlowStateChange last = latest.getOrDefault(key, this.lastChanges.get(key));
+            if(last != null && !change.isAfter(last))
+            {
+                dropped.add(change);
+                continue;
+            }
+
+            // the latest change to a flow in the batch stands for those before it
+            latest.remove(key);
+            latest.put(key, change);
+            applied.add(change);
+        }
+
+        Map<String, FlowState> flowStates = new LinkedHashMap<>();
+        latest.forEach((key, change) -> flowStates.put(key, new FlowState(change.getModuleName()
+            , change.getFlowName(), State.getState(change.getState()))));
+
+        // every change is recorded in the history, so that a flow flapping within a batch is seen
+        List<FlowState> history = new ArrayList<>(applied.size());
+        applied.forEach(change -> history.add(new FlowState(change.getModuleName(), change.getFlowName()
+            , State.getState(change.getState()))));
+
+        this.apply(flowStates, latest, history);
+
+        CacheStateBroadcaster.broadcast(new ArrayList<>(flowStates.values()));
+
+        return dropped;
+    }
+
+    /**
+     * Cache the flow states, recording the numbered changes they came from and each state in the history.
+     */
+    private void apply(Map<String, FlowState> flowStates, Map<String, FlowStateChange> changes
+        , List<FlowState> history)
+    {
+        this.cache.putAll(flowStates);
+        this.lastChanges.putAll(changes);
+        long now = System.currentTimeMillis();
+        flowStates.keySet().forEach(key -> this.timestamps.put(key, now));
+        this.stale.removeAll(flowStates.keySet());
+
+        history.forEach(flowState -> FlowStateHistory.instance().append(flowState.getModuleName()
+            , flowState.getFlowName(), flowState.getState(), now));
+    }
+
+    /**
+     * Load flow states last known before a restart, each being marked as stale until the module confirms it. Flow
+     * states already cached are left as they are.
+     *
+     * @param entries the flow states of a snapshot
+     * @return the number of flow states loaded
+     */
+    public synchronized int load(List<FlowStateSnapshot.Entry> entries)
+    {
+        int loaded = 0;
+        for(FlowStateSnapshot.Entry entry: entries)
+        {
+            String key = entry.getModuleName() + entry.getFlowName();
+            if(this.cache.putIfAbsent(key, entry.toFlowState()) == null)
+            {
+                this.timestamps.put(key, entry.getTimestamp());
+                this.stale.add(key);
+                loaded++;
+            }
+        }
+
+        return loaded;
+    }
+
+    /**
+     * @return the flow states cached, along with when each was cached
+     */
+    public List<FlowStateSnapshot.Entry> snapshot()
+    {
+        List<FlowStateSnapshot.Entry> entries = new ArrayList<>(this.cache.size());
+        this.cache.forEach((key, flowState) -> entries.add(new FlowStateSnapshot.Entry(flowState
+            , this.timestamps.getOrDefault(key, 0L))));
+
+        return entries;
+    }
+
+    /**
+     * @param moduleName
+     * @param flowName
+     * @return whether the cached state of the flow was loaded from a snapshot and is yet to be confirmed
+     */
+    public boolean isStale(String moduleName, String flowName)
+    {
+        return this.stale.contains(moduleName + flowName);
+    }
+
     public FlowState get(Module module, Flow flow)
     {
         if(!this.contains(module, flow))
         {
             refreshFromSource(module.getName(), flow.getName(), module.getUrl());
         }
+        else
+        {
+            refreshIfStale(module.getName(), flow.getName(), module.getUrl());
+        }
 
         return this.cache.get(module.getName()+flow.getName());
     }
@@ -69,6 +230,10 @@ public class FlowStateCache implements Consumer<FlowState>
         {
             refreshFromSource(module.getName(), flowName, module.getUrl());
         }
+        else
+        {
+            refreshIfStale(module.getName(), flowName, module.getUrl());
+        }
 
         return this.cache.get(module.getName()+flowName);
     }
@@ -97,6 +262,31 @@ public class FlowStateCache implements Consumer<FlowState>
         this.moduleControlRestService = moduleControlRestService;
     }
 
+    /**
+     * Ask the module for the state of a flow loaded from a snapshot in the background, the stale state being used
+     * meanwhile and the confirmed state being broadcast when it arrives.
+     */
+    private void refreshIfStale(String moduleName, String flowName, String contextUrl)
+    {
+        String key = moduleName + flowName;
+        if(!this.stale.contains(key) || !this.refreshing.add(key))
+        {
+            return;
+        }
+
+        this.refresher.execute(() ->
+        {
+            try
+            {
+                refreshFromSource(moduleName, flowName, contextUrl);
+            }
+            finally
+            {
+                this.refreshing.remove(key);
+            }
+        });
+    }
+
     private FlowState refreshFromSource(String moduleName, String flowName, String contextUrl)
     {
         Optional<FlowDto> flowDto;
@@ -115,7 +305,7 @@ public class FlowStateCache implements Consumer<FlowState>
         if(flowDto.isPresent())
         {
             state = new FlowState(moduleName, flowName, State.getState(flowDto.get().getState()));
-            FlowStateCache.instance().put(state);
+            this.put(state);
         }
 
         return state;
@@ -0,0 +1,110 @@
+package org.ikasan.dashboard.cache;
+
+/**
+ * A change of state of a flow reported by a module, numbered so that changes arriving out of order can be dropped.
+ *
+ * The sequence number counts up across all of the flows of a module. A module numbering its changes afresh when it
+ * restarts gives each run a later epoch, e.g. the time it started, so that its changes are not taken as stale.
+ */
+public class FlowStateChange
+{
+    private String moduleName;
+    private String flowName;
+    private String state;
+    private long epoch;
+    private long sequence;
+
+    public FlowStateChange()
+    {
+    }
+
+    /**
+     * Constructor
+     *
+     * @param moduleName
+     * @param flowName
+     * @param state
+     * @param epoch
+     * @param sequence
+     */
+    public FlowStateChange(String moduleName, String flowName, String state, long epoch, long sequence)
+    {
+        this.moduleName = moduleName;
+        this.flowName = flowName;
+        this.state = state;
+        this.epoch = epoch;
+        this.sequence = sequence;
+    }
+
+    /**
+     * @param other another change of the same module
+     * @return whether this change was made after the other
+     */
+    public boolean isAfter(FlowStateChange other)
+    {
+        return this.epoch != other.epoch ? this.epoch > other.epoch : this.sequence > other.sequence;
+    }
+
+    public String getModuleName()
+    {
+        return moduleName;
+    }
+
+    public void setModuleName(String moduleName)
+    {
+        this.moduleName = moduleName;
+    }
+
+    public String getFlowName()
+    {
+        return flowName;
+    }
+
+    public void setFlowName(String flowName)
+    {
+        this.flowName = flowName;
+    }
+
+    public String getState()
+    {
+        return state;
+    }
+
+    public void setState(String state)
+    {
+        this.state = state;
+    }
+
+    public long getEpoch()
+    {
+        return epoch;
+    }
+
+    public void setEpoch(long epoch)
+    {
+        this.epoch = epoch;
+    }
+
+    public long getSequence()
+    {
+        return sequence;
+    }
+
+    public void setSequence(long sequence)
+    {
+        this.sequence = sequence;
+    }
+
+    @Override
+    public String toString()
+    {
+        final StringBuffer sb = new StringBuffer("FlowStateChange{");
+        sb.append("moduleName='").append(moduleName).append('\'');
+        sb.append(", flowName='").append(flowName).append('\'');
+        sb.append(", state='").append(state).append('\'');
+        sb.append(", epoch=").append(epoch);
+        sb.append(", sequence=").append(sequence);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,432 @@
+package org.ikasan.dashboard.cache;
+
+import org.ikasan.dashboard.broadcast.State;
+import org.ikasan.dashboard.metrics.DashboardMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The recent changes of state of each flow, so that a flow bouncing between states can be seen and alerted on.
+ *
+ * The changes of a flow are held in a ring buffer of primitive arrays, the time of each change and the ordinal of the
+ * state changed to, the oldest being overwritten once the buffer is full. The buffers are allocated whole, so the
+ * memory held is fixed by the number of flows. Once a new flow would take the buffers past the memory budget, the
+ * flow least recently changed or looked at is forgotten.
+ *
+ * A flow is flapping when it has changed state at least the threshold number of times within the flapping window.
+ */
+public class FlowStateHistory
+{
+    private static Logger logger = LoggerFactory.getLogger(FlowStateHistory.class);
+
+    public static final int DEFAULT_CAPACITY = 256;
+    public static final long DEFAULT_MEMORY_BUDGET_BYTES = 16L * 1024 * 1024;
+    public static final long DEFAULT_FLAPPING_WINDOW_MILLIS = 10 * 60 * 1000;
+    public static final int DEFAULT_FLAPPING_THRESHOLD = 20;
+
+    /** allowance for the buffer and array headers, the map entry and the key of each flow */
+    static final int FLOW_OVERHEAD_BYTES = 160;
+
+    private static FlowStateHistory INSTANCE;
+
+    public static FlowStateHistory instance()
+    {
+        if(INSTANCE == null)
+        {
+            synchronized (FlowStateHistory.class)
+            {
+                if(INSTANCE == null)
+                {
+                    INSTANCE = new FlowStateHistory(DEFAULT_CAPACITY, DEFAULT_MEMORY_BUDGET_BYTES);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private int capacity;
+    private long memoryBudgetBytes;
+    private int maxFlows;
+    private long flappingWindowMillis = DEFAULT_FLAPPING_WINDOW_MILLIS;
+    private int flappingThreshold = DEFAULT_FLAPPING_THRESHOLD;
+    private Map<String, Ring> rings;
+    private Set<String> flapping = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor
+     *
+     * @param capacity the number of changes held for each flow
+     * @param memoryBudgetBytes the most memory the changes of all of the flows are held in
+     */
+    public FlowStateHistory(int capacity, long memoryBudgetBytes)
+    {
+        this.configure(capacity, memoryBudgetBytes);
+    }
+
+    /**
+     * Size the history, forgetting the changes held.
+     *
+     * @param capacity the number of changes held for each flow
+     * @param memoryBudgetBytes the most memory the changes of all of the flows are held in
+     */
+    public synchronized void configure(int capacity, long memoryBudgetBytes)
+    {
+        if(capacity < 1)
+        {
+            throw new IllegalArgumentException("capacity must be at least 1!");
+        }
+        if(memoryBudgetBytes < bytesPerFlow(capacity))
+        {
+            throw new IllegalArgumentException("memoryBudgetBytes must hold the changes of at least one flow!");
+        }
+
+        this.capacity = capacity;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.maxFlows = (int) Math.min(Integer.MAX_VALUE, memoryBudgetBytes / bytesPerFlow(capacity));
+        this.rings = new LinkedHashMap<>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Ring> eldest)
+            {
+                if(this.size() > maxFlows)
+                {
+                    flapping.remove(eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.flapping.clear();
+    }
+
+    /**
+     * Record a flow being in a state, nothing being recorded if the flow was already in that state.
+     *
+     * @param moduleName
+     * @param flowName
+     * @param state
+     * @param timestamp the time of the change in epoch millis
+     * @return whether a change of state was recorded
+     */
+    public boolean append(String moduleName, String flowName, State state, long timestamp)
+    {
+        String key = key(moduleName, flowName);
+        Ring ring;
+        synchronized (this)
+        {
+            ring = this.rings.computeIfAbsent(key, k -> new Ring(this.capacity));
+        }
+
+        if(!ring.append(timestamp, state.getOrdinal()))
+        {
+            return false;
+        }
+
+        int changes = ring.countSince(timestamp - this.flappingWindowMillis);
+        if(changes >= this.flappingThreshold)
+        {
+            if(this.flapping.add(key))
+            {
+                logger.warn("Flow [{}] of module [{}] is flapping, having changed state {} times in the last {} seconds."
+                    , flowName, moduleName, changes, this.flappingWindowMillis / 1000);
+                DashboardMetrics.countFlowStateFlapping(moduleName);
+            }
+        }
+        else
+        {
+            this.flapping.remove(key);
+        }
+
+        return true;
+    }
+
+    /**
+     * @param moduleName
+     * @param flowName
+     * @return a copy of the changes of state held for the flow, which is empty if there are none
+     */
+    public Transitions get(String moduleName, String flowName)
+    {
+        Ring ring;
+        synchronized (this)
+        {
+            ring = this.rings.get(key(moduleName, flowName));
+        }
+
+        return ring == null ? new Transitions(new long[0], new byte[0]) : ring.copy();
+    }
+
+    /**
+     * @param moduleName
+     * @param flowName
+     * @param now the current time in epoch millis
+     * @return whether the flow has changed state the threshold number of times within the flapping window
+     */
+    public boolean isFlapping(String moduleName, String flowName, long now)
+    {
+        String key = key(moduleName, flowName);
+        if(!this.flapping.contains(key))
+        {
+            return false;
+        }
+
+        // a flow that has since settled stays marked as flapping until it next changes, so count again
+        if(this.get(moduleName, flowName).countSince(now - this.flappingWindowMillis) < this.flappingThreshold)
+        {
+            this.flapping.remove(key);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of flows changes are held for
+     */
+    public synchronized int size()
+    {
+        return this.rings.size();
+    }
+
+    /**
+     * @return the memory held by the changes of all of the flows
+     */
+    public synchronized long getFootprintBytes()
+    {
+        long footprint = 0;
+        for(Ring ring: this.rings.values())
+        {
+            footprint += ring.getFootprintBytes();
+        }
+        return footprint;
+    }
+
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    public long getMemoryBudgetBytes()
+    {
+        return memoryBudgetBytes;
+    }
+
+    public int getMaxFlows()
+    {
+        return maxFlows;
+    }
+
+    public long getFlappingWindowMillis()
+    {
+        return flappingWindowMillis;
+    }
+
+    public void setFlappingWindowMillis(long flappingWindowMillis)
+    {
+        this.flappingWindowMillis = flappingWindowMillis;
+    }
+
+    public int getFlappingThreshold()
+    {
+        return flappingThreshold;
+    }
+
+    public void setFlappingThreshold(int flappingThreshold)
+    {
+        this.flappingThreshold = flappingThreshold;
+    }
+
+    static long bytesPerFlow(int capacity)
+    {
+        return (long) capacity * (Long.BYTES + Byte.BYTES) + FLOW_OVERHEAD_BYTES;
+    }
+
+    private static String key(String moduleName, String flowName)
+    {
+        return moduleName + flowName;
+    }
+
+    /**
+     * The ring buffer of the changes of a flow.
+     */
+    static class Ring
+    {
+        private long[] timestamps;
+        private byte[] states;
+        private long appended;
+
+        Ring(int capacity)
+        {
+            this.timestamps = new long[capacity];
+            this.states = new byte[capacity];
+        }
+
+        synchronized boolean append(long timestamp, byte state)
+        {
+            if(this.appended > 0 && this.states[index(this.appended - 1)] == state)
+            {
+                return false;
+            }
+
+            int index = index(this.appended);
+            this.timestamps[index] = timestamp;
+            this.states[index] = state;
+            this.appended++;
+            return true;
+        }
+
+        synchronized int countSince(long since)
+        {
+            int count = 0;
+            for(long i = this.appended - 1; i >= Math.max(0, this.appended - this.states.length); i--)
+            {
+                if(this.timestamps[index(i)] < since)
+                {
+                    break;
+                }
+                count++;
+            }
+            return count;
+        }
+
+        synchronized Transitions copy()
+        {
+            int size = (int) Math.min(this.appended, this.states.length);
+            long[] timestamps = new long[size];
+            byte[] states = new byte[size];
+            for(int i = 0; i < size; i++)
+            {
+                int index = index(this.appended - size + i);
+                timestamps[i] = this.timestamps[index];
+                states[i] = this.states[index];
+            }
+            return new Transitions(timestamps, states);
+        }
+
+        synchronized long getAppended()
+        {
+            return appended;
+        }
+
+        long getFootprintBytes()
+        {
+            return (long) this.timestamps.length * Long.BYTES + this.states.length + FLOW_OVERHEAD_BYTES;
+        }
+
+        private int index(long position)
+        {
+            return (int) (position % this.states.length);
+        }
+    }
+
+    /**
+     * The changes of state of a flow, oldest first.
+     */
+    public static class Transitions
+    {
+        private long[] timestamps;
+        private byte[] states;
+
+        Transitions(long[] timestamps, byte[] states)
+        {
+            this.timestamps = timestamps;
+            this.states = states;
+        }
+
+        public int size()
+        {
+            return this.states.length;
+        }
+
+        public long getTimestamp(int index)
+        {
+            return this.timestamps[index];
+        }
+
+        public State getState(int index)
+        {
+            return State.getState(this.states[index]);
+        }
+
+        /**
+         * @param since epoch millis
+         * @return the number of changes at or after the time
+         */
+        public int countSince(long since)
+        {
+            int count = 0;
+            for(int i = this.timestamps.length - 1; i >= 0 && this.timestamps[i] >= since; i--)
+            {
+                count++;
+            }
+            return count;
+        }
+
+        /**
+         * @param time epoch millis
+         * @return the state the flow was in at the time, or null if that is before the changes held
+         */
+        public State stateAt(long time)
+        {
+            for(int i = this.timestamps.length - 1; i >= 0; i--)
+            {
+                if(this.timestamps[i] <= time)
+                {
+                    return State.getState(this.states[i]);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @param from epoch millis
+         * @param to epoch millis
+         * @return the share of the time between from and to the flow was known to be running, from 0 to 1
+         */
+        public double uptime(long from, long to)
+        {
+            if(to <= from)
+            {
+                return 0;
+            }
+
+            long running = 0;
+            for(int i = 0; i < this.timestamps.length; i++)
+            {
+                long start = Math.max(from, this.timestamps[i]);
+                long end = Math.min(to, i + 1 < this.timestamps.length ? this.timestamps[i + 1] : to);
+                if(end > start && State.getState(this.states[i]).equals(State.RUNNING_STATE))
+                {
+                    running += end - start;
+                }
+            }
+            return (double) running / (to - from);
+        }
+
+        /**
+         * Divide the time between from and to into buckets, e.g. the bars of a sparkline.
+         *
+         * @param from epoch millis
+         * @param to epoch millis
+         * @param buckets the number of buckets
+         * @return the number of changes within each bucket
+         */
+        public int[] countByBucket(long from, long to, int buckets)
+        {
+            int[] counts = new int[buckets];
+            long width = Math.max(1, (to - from) / buckets);
+            for(long timestamp: this.timestamps)
+            {
+                if(timestamp >= from && timestamp < to)
+                {
+                    counts[(int) Math.min(buckets - 1, (timestamp - from) / width)]++;
+                }
+            }
+            return counts;
+        }
+    }
+}
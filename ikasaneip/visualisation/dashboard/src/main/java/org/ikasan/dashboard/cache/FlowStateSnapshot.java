@@ -0,0 +1,308 @@
+package org.ikasan.dashboard.cache;
+
+import org.ikasan.dashboard.broadcast.FlowState;
+import org.ikasan.dashboard.broadcast.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A snapshot of the flow state cache written to a local file from time to time, so that a restarted dashboard starts
+ * with the flow states it last knew of rather than asking every module for the state of every flow.
+ *
+ * The snapshot is written under a temporary name and then renamed over the last snapshot, so that a snapshot is only
+ * ever read whole. It ends with a checksum of its content, a snapshot that is cut short or does not match its checksum
+ * being set aside rather than loaded.
+ */
+public class FlowStateSnapshot implements Closeable
+{
+    private static Logger logger = LoggerFactory.getLogger(FlowStateSnapshot.class);
+
+    public static final long DEFAULT_INTERVAL_MILLIS = 60000;
+    public static final String FAILED_FILE_SUFFIX = ".failed";
+
+    private static final int MAGIC = 0x464C5353;
+    private static final int VERSION = 1;
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private Path file;
+    private FlowStateCache flowStateCache;
+    private ScheduledExecutorService writer;
+
+    /**
+     * Constructor
+     *
+     * @param file the snapshot file, its directory being created if it does not exist
+     * @param flowStateCache the cache the snapshot is taken of and loaded into
+     */
+    public FlowStateSnapshot(Path file, FlowStateCache flowStateCache)
+    {
+        this.file = file;
+        if(this.file == null)
+        {
+            throw new IllegalArgumentException("file cannot be null!");
+        }
+        this.flowStateCache = flowStateCache;
+        if(this.flowStateCache == null)
+        {
+            throw new IllegalArgumentException("flowStateCache cannot be null!");
+        }
+
+        try
+        {
+            if(this.file.toAbsolutePath().getParent() != null)
+            {
+                Files.createDirectories(this.file.toAbsolutePath().getParent());
+            }
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException("Could not create flow state snapshot directory for " + this.file, e);
+        }
+    }
+
+    /**
+     * Load the last snapshot into the cache, the flow states loaded being marked as stale.
+     *
+     * @return the number of flow states loaded
+     */
+    public int load()
+    {
+        try
+        {
+            List<Entry> entries = this.read();
+            int loaded = this.flowStateCache.load(entries);
+            logger.info("Loaded {} flow states from snapshot {}.", loaded, this.file);
+            return loaded;
+        }
+        catch (NoSuchFileException e)
+        {
+            return 0;
+        }
+        catch (IOException e)
+        {
+            logger.warn("Could not read flow state snapshot {}, setting it aside. {}", this.file, e.getMessage());
+            try
+            {
+                Files.move(this.file, this.file.resolveSibling(this.file.getFileName() + FAILED_FILE_SUFFIX)
+                    , StandardCopyOption.REPLACE_EXISTING);
+            }
+            catch (IOException ex)
+            {
+                logger.warn("Could not set aside flow state snapshot {}. {}", this.file, ex.getMessage());
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Write a snapshot of the cache over the last snapshot.
+     *
+     * @throws IOException
+     */
+    public synchronized void write() throws IOException
+    {
+        List<Entry> entries = this.flowStateCache.snapshot();
+        Path temp = this.file.resolveSibling(this.file.getFileName() + TEMP_FILE_SUFFIX);
+
+        try(FileOutputStream fileOutputStream = new FileOutputStream(temp.toFile()))
+        {
+            CheckedOutputStream checkedOutputStream = new CheckedOutputStream(fileOutputStream, new CRC32());
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(checkedOutputStream));
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(entries.size());
+            for(Entry entry: entries)
+            {
+                output.writeUTF(entry.getModuleName());
+                output.writeUTF(entry.getFlowName());
+                output.writeUTF(entry.getState());
+                output.writeLong(entry.getTimestamp());
+            }
+            output.flush();
+
+            // the checksum is of everything before it so is written past the checked stream
+            long checksum = checkedOutputStream.getChecksum().getValue();
+            new DataOutputStream(fileOutputStream).writeLong(checksum);
+            fileOutputStream.getFD().sync();
+        }
+
+        Files.move(temp, this.file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        logger.debug("Wrote {} flow states to snapshot {}.", entries.size(), this.file);
+    }
+
+    /**
+     * Read the flow states held in the last snapshot.
+     *
+     * @return the flow states
+     * @throws NoSuchFileException if there is no snapshot
+     * @throws IOException if the snapshot cannot be read or is incomplete or corrupt
+     */
+    public List<Entry> read() throws IOException
+    {
+        try(InputStream inputStream = Files.newInputStream(this.file))
+        {
+            CheckedInputStream checkedInputStream = new CheckedInputStream(new BufferedInputStream(inputStream)
+                , new CRC32());
+            DataInputStream input = new DataInputStream(checkedInputStream);
+            if(input.readInt() != MAGIC || input.readInt() != VERSION)
+            {
+                throw new IOException("Not a flow state snapshot");
+            }
+
+            int size = input.readInt();
+            if(size < 0)
+            {
+                throw new IOException("Invalid number of flow states " + size);
+            }
+
+            List<Entry> entries = new ArrayList<>(Math.min(size, 100000));
+            for(int i = 0; i < size; i++)
+            {
+                entries.add(new Entry(input.readUTF(), input.readUTF(), input.readUTF(), input.readLong()));
+            }
+
+            long checksum = checkedInputStream.getChecksum().getValue();
+            if(new DataInputStream(checkedInputStream).readLong() != checksum)
+            {
+                throw new IOException("Checksum does not match the flow states");
+            }
+
+            return entries;
+        }
+        catch (EOFException e)
+        {
+            throw new IOException("Snapshot is incomplete", e);
+        }
+    }
+
+    /**
+     * Write a snapshot of the cache every interval until closed.
+     *
+     * @param intervalMillis
+     */
+    public synchronized void start(long intervalMillis)
+    {
+        if(this.writer != null)
+        {
+            return;
+        }
+
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "flow-state-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.writer.scheduleWithFixedDelay(() ->
+        {
+            try
+            {
+                this.write();
+            }
+            catch (Exception e)
+            {
+                logger.warn("Could not write flow state snapshot {}. {}", this.file, e.getMessage());
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop writing snapshots, writing a last one of the cache as it is.
+     */
+    @Override
+    public synchronized void close()
+    {
+        if(this.writer == null)
+        {
+            return;
+        }
+
+        this.writer.shutdownNow();
+        this.writer = null;
+        try
+        {
+            this.write();
+        }
+        catch (IOException e)
+        {
+            logger.warn("Could not write flow state snapshot {}. {}", this.file, e.getMessage());
+        }
+    }
+
+    public Path getFile()
+    {
+        return file;
+    }
+
+    /**
+     * A flow state held in a snapshot, along with when it was cached.
+     */
+    public static class Entry
+    {
+        private String moduleName;
+        private String flowName;
+        private String state;
+        private long timestamp;
+
+        public Entry(String moduleName, String flowName, String state, long timestamp)
+        {
+            this.moduleName = moduleName;
+            this.flowName = flowName;
+            this.state = state;
+            this.timestamp = timestamp;
+        }
+
+        public Entry(FlowState flowState, long timestamp)
+        {
+            this(flowState.getModuleName(), flowState.getFlowName(), flowState.getState().getFlowState(), timestamp);
+        }
+
+        public FlowState toFlowState()
+        {
+            return new FlowState(this.moduleName, this.flowName, State.getState(this.state));
+        }
+
+        public String getModuleName()
+        {
+            return moduleName;
+        }
+
+        public String getFlowName()
+        {
+            return flowName;
+        }
+
+        public String getState()
+        {
+            return state;
+        }
+
+        public long getTimestamp()
+        {
+            return timestamp;
+        }
+    }
+}
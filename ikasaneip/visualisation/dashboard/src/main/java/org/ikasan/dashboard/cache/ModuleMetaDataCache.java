@@ -0,0 +1,166 @@
+package org.ikasan.dashboard.cache;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.ikasan.dashboard.metrics.DashboardMetrics;
+import org.ikasan.spec.metadata.ModuleMetaData;
+import org.ikasan.spec.metadata.ModuleMetaDataService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Application wide cache of module metadata, keyed by module name.
+ *
+ * Actions on events and flows look a module up by name to find its url on every action, so the metadata found is
+ * held for a while rather than searched for in Solr each time. The metadata of a module is dropped as soon as new
+ * metadata is written for it, so a module redeployed to a new url is not called at the old one. Modules not found
+ * are not cached, so a module is found as soon as its metadata is first written.
+ *
+ * Concurrent lookups of a module not held wait on a single search. Metadata found by a search that was under way when
+ * the cache was invalidated is not kept, as it may predate the metadata written.
+ */
+public class ModuleMetaDataCache
+{
+    private static Logger logger = LoggerFactory.getLogger(ModuleMetaDataCache.class);
+
+    public static final long DEFAULT_EXPIRY_SECONDS = 300;
+    public static final long DEFAULT_MAXIMUM_SIZE = 1000;
+
+    private static ModuleMetaDataCache INSTANCE;
+
+    public static ModuleMetaDataCache instance()
+    {
+        if(INSTANCE == null)
+        {
+            synchronized (ModuleMetaDataCache.class)
+            {
+                if(INSTANCE == null)
+                {
+                    INSTANCE = new ModuleMetaDataCache(DEFAULT_EXPIRY_SECONDS, DEFAULT_MAXIMUM_SIZE);
+                    DashboardMetrics.registerModuleMetaDataCache(INSTANCE);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private volatile Cache<String, ModuleMetaData> cache;
+    private AtomicLong generation = new AtomicLong();
+
+    protected ModuleMetaDataCache(long expirySeconds, long maximumSize)
+    {
+        this.configure(expirySeconds, maximumSize);
+    }
+
+    /**
+     * Replace the cache with an empty one of the expiry and maximum size given.
+     *
+     * @param expirySeconds how long the metadata of a module is held for
+     * @param maximumSize the most modules held
+     */
+    public void configure(long expirySeconds, long maximumSize)
+    {
+        this.generation.incrementAndGet();
+        this.cache = CacheBuilder.newBuilder()
+            .expireAfterWrite(expirySeconds, TimeUnit.SECONDS)
+            .maximumSize(maximumSize)
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Get the metadata of a module, only going to the module metadata service if it is not held.
+     *
+     * @param moduleName the name of the module
+     * @param moduleMetaDataService the service finding the module if it is not held
+     * @return the module metadata, or null if there is no such module
+     */
+    public ModuleMetaData get(String moduleName, ModuleMetaDataService moduleMetaDataService)
+    {
+        Cache<String, ModuleMetaData> cache = this.cache;
+        long generation = this.generation.get();
+
+        ModuleMetaData moduleMetaData;
+        try
+        {
+            moduleMetaData = cache.get(moduleName, () -> moduleMetaDataService.findById(moduleName));
+        }
+        catch (CacheLoader.InvalidCacheLoadException e)
+        {
+            // there is no such module
+            return null;
+        }
+        catch (ExecutionException | UncheckedExecutionException e)
+        {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new UncheckedExecutionException(e.getCause());
+        }
+
+        if(this.generation.get() != generation)
+        {
+            // invalidated while being found, what was found may already be out of date
+            cache.asMap().remove(moduleName, moduleMetaData);
+        }
+
+        return moduleMetaData;
+    }
+
+    /**
+     * Get the url of a module, only going to the module metadata service if the module is not held.
+     *
+     * @param moduleName the name of the module
+     * @param moduleMetaDataService the service finding the module if it is not held
+     * @return the url of the module, or null if there is no such module
+     */
+    public String getUrl(String moduleName, ModuleMetaDataService moduleMetaDataService)
+    {
+        ModuleMetaData moduleMetaData = this.get(moduleName, moduleMetaDataService);
+
+        return moduleMetaData == null ? null : moduleMetaData.getUrl();
+    }
+
+    /**
+     * Drop the metadata of modules whose metadata has been written.
+     *
+     * @param moduleMetaData the metadata written
+     */
+    public void invalidate(List<ModuleMetaData> moduleMetaData)
+    {
+        moduleMetaData.forEach(metaData -> this.invalidate(metaData.getName()));
+    }
+
+    public void invalidate(String moduleName)
+    {
+        logger.debug("Invalidating module metadata cache for module [{}].", moduleName);
+        this.generation.incrementAndGet();
+        this.cache.invalidate(moduleName);
+    }
+
+    public void invalidateAll()
+    {
+        this.generation.incrementAndGet();
+        this.cache.invalidateAll();
+    }
+
+    public long size()
+    {
+        return this.cache.size();
+    }
+
+    /**
+     * @return the hits and misses of the cache since it was last configured
+     */
+    public CacheStats stats()
+    {
+        return this.cache.stats();
+    }
+}
@@ -0,0 +1,123 @@
+package org.ikasan.dashboard.cache;
+
+import org.ikasan.dashboard.ui.visualisation.adapter.service.ModuleVisjsAdapter;
+import org.ikasan.dashboard.ui.visualisation.model.flow.Module;
+import org.ikasan.spec.metadata.ConfigurationMetaData;
+import org.ikasan.spec.metadata.ConfigurationMetaDataService;
+import org.ikasan.spec.metadata.ModuleMetaData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Application wide cache of the inputs required to adapt a module into its visualisation graph.
+ *
+ * The adapted {@link Module} graph carries per session state (layout coordinates, wiretap statuses,
+ * recording and startup flags) so it cannot be shared between UIs. Instead an immutable template, holding
+ * the configuration metadata resolved from Solr, is cached against the module name and version, and each caller is
+ * handed a freshly adapted graph built from that template. The template of a module is dropped whenever its metadata
+ * is written or deleted, so a module pushing changed metadata under the same version is not left with a stale
+ * template.
+ */
+public class ModuleVisualisationCache
+{
+    private Logger logger = LoggerFactory.getLogger(ModuleVisualisationCache.class);
+
+    private static ModuleVisualisationCache INSTANCE;
+
+    public static ModuleVisualisationCache instance()
+    {
+        if(INSTANCE == null)
+        {
+            synchronized (ModuleVisualisationCache.class)
+            {
+                if(INSTANCE == null)
+                {
+                    INSTANCE = new ModuleVisualisationCache();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private ConcurrentHashMap<String, ModuleTemplate> cache;
+
+    private ModuleVisualisationCache()
+    {
+        this.cache = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get a module graph for the module metadata, only going to Solr for the configuration metadata
+     * if the module has not been seen before, its version has changed or its metadata has since been written.
+     *
+     * @param moduleMetaData
+     * @param configurationMetaDataService
+     * @return
+     */
+    public Module get(ModuleMetaData moduleMetaData, ConfigurationMetaDataService configurationMetaDataService)
+    {
+        ModuleTemplate template = this.cache.get(moduleMetaData.getName());
+
+        if(template == null || !Objects.equals(template.version, moduleMetaData.getVersion()))
+        {
+            logger.debug("Module visualisation cache miss for module [{}].", moduleMetaData.getName());
+            template = new ModuleTemplate(moduleMetaData.getVersion()
+                , this.loadConfigurationMetaData(moduleMetaData, configurationMetaDataService));
+            this.cache.put(moduleMetaData.getName(), template);
+        }
+
+        return new ModuleVisjsAdapter().adapt(moduleMetaData, template.configurationMetaData);
+    }
+
+    public boolean contains(ModuleMetaData moduleMetaData)
+    {
+        ModuleTemplate template = this.cache.get(moduleMetaData.getName());
+        return template != null && Objects.equals(template.version, moduleMetaData.getVersion());
+    }
+
+    public void invalidate(String moduleName)
+    {
+        logger.debug("Invalidating module visualisation cache for module [{}].", moduleName);
+        this.cache.remove(moduleName);
+    }
+
+    public void invalidateAll()
+    {
+        logger.debug("Invalidating module visualisation cache.");
+        this.cache.clear();
+    }
+
+    private List<ConfigurationMetaData> loadConfigurationMetaData(ModuleMetaData moduleMetaData
+        , ConfigurationMetaDataService configurationMetaDataService)
+    {
+        List<String> configurationIds = moduleMetaData.getFlows().stream()
+            .map(flowMetaData -> flowMetaData.getFlowElements()).flatMap(List::stream)
+            .map(flowElementMetaData -> flowElementMetaData.getConfigurationId())
+            .filter(Objects::nonNull)
+            .distinct()
+            .collect(Collectors.toList());
+
+        List<ConfigurationMetaData> configurationMetaData = configurationMetaDataService.findByIdList(configurationIds);
+
+        return configurationMetaData == null ? Collections.emptyList()
+            : Collections.unmodifiableList(configurationMetaData);
+    }
+
+    private static class ModuleTemplate
+    {
+        private final String version;
+        private final List<ConfigurationMetaData> configurationMetaData;
+
+        private ModuleTemplate(String version, List<ConfigurationMetaData> configurationMetaData)
+        {
+            this.version = version;
+            this.configurationMetaData = configurationMetaData;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package org.ikasan.dashboard.control;
+
+import org.ikasan.spec.module.client.ModuleControlService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Changes the state of many flows of a module at once, making the module REST calls in parallel rather than one
+ * flow after another so that starting or stopping a module of many flows takes a few round trips rather than one per
+ * flow.
+ *
+ * At most the module concurrency limit of calls are made to a module at once, however many flow control actions are
+ * being performed on it. Every flow is attempted whatever happens to the others, the outcome of each being collected
+ * into a result for the caller to report once all have finished.
+ */
+public class BulkFlowControlService implements Closeable
+{
+    private static Logger logger = LoggerFactory.getLogger(BulkFlowControlService.class);
+
+    public static final int DEFAULT_MODULE_CONCURRENCY = 8;
+    public static final int DEFAULT_THREADS = 32;
+
+    private static BulkFlowControlService INSTANCE;
+
+    public static BulkFlowControlService instance()
+    {
+        if(INSTANCE == null)
+        {
+            synchronized (BulkFlowControlService.class)
+            {
+                if(INSTANCE == null)
+                {
+                    INSTANCE = new BulkFlowControlService();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private ThreadPoolExecutor executor;
+    private int moduleConcurrency = DEFAULT_MODULE_CONCURRENCY;
+    private Map<String, ModuleCalls> moduleCalls = new HashMap<>();
+
+    protected BulkFlowControlService()
+    {
+        AtomicInteger threads = new AtomicInteger();
+        ThreadFactory threadFactory = runnable ->
+        {
+            Thread thread = new Thread(runnable, "flow-control-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        this.executor = new ThreadPoolExecutor(DEFAULT_THREADS, DEFAULT_THREADS, 60L, TimeUnit.SECONDS
+            , new LinkedBlockingQueue<>(), threadFactory);
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Change the state of a flow once fewer than the module concurrency limit of calls are being made to its module.
+     *
+     * @param moduleControlService the module REST client
+     * @param moduleUrl the url of the module
+     * @param moduleName the name of the module
+     * @param flowName the flow changed
+     * @param action the flow control action, e.g. start or stop
+     * @return whether the module changed the state of the flow, completed exceptionally if the call failed
+     */
+    public CompletableFuture<Boolean> changeFlowState(ModuleControlService moduleControlService, String moduleUrl
+        , String moduleName, String flowName, String action)
+    {
+        FlowStateCall call = new FlowStateCall(moduleName, () ->
+            moduleControlService.changeFlowState(moduleUrl, moduleName, flowName, action));
+
+        // calls beyond the limit wait in a queue of the module rather than hold a pool thread
+        synchronized (this)
+        {
+            ModuleCalls moduleCalls = this.moduleCalls.computeIfAbsent(moduleName, name -> new ModuleCalls());
+            if(moduleCalls.inFlight < this.moduleConcurrency)
+            {
+                moduleCalls.inFlight++;
+                this.execute(call);
+            }
+            else
+            {
+                moduleCalls.waiting.addLast(call);
+            }
+        }
+
+        return call.result;
+    }
+
+    private synchronized void next(String moduleName)
+    {
+        ModuleCalls moduleCalls = this.moduleCalls.get(moduleName);
+        if(moduleCalls == null)
+        {
+            // closed
+            return;
+        }
+        FlowStateCall call = moduleCalls.waiting.pollFirst();
+        if(call != null)
+        {
+            this.execute(call);
+        }
+        else if(--moduleCalls.inFlight == 0)
+        {
+            this.moduleCalls.remove(moduleName);
+        }
+    }
+
+    private void execute(FlowStateCall call)
+    {
+        try
+        {
+            this.executor.execute(call);
+        }
+        catch (RejectedExecutionException e)
+        {
+            call.result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Change the state of flows of a module, waiting for every flow to be changed or to fail.
+     *
+     * @param moduleControlService the module REST client
+     * @param moduleUrl the url of the module
+     * @param moduleName the name of the module
+     * @param flowNames the flows changed
+     * @param action the flow control action, e.g. start or stop
+     * @return the outcome of each flow
+     * @throws InterruptedException if interrupted before all of the flows were changed, the calls already made are
+     * left to finish
+     */
+    public Result changeFlowStates(ModuleControlService moduleControlService, String moduleUrl, String moduleName
+        , Collection<String> flowNames, String action) throws InterruptedException
+    {
+        Map<String, Future<Boolean>> calls = new LinkedHashMap<>();
+        for(String flowName: flowNames)
+        {
+            calls.put(flowName, this.changeFlowState(moduleControlService, moduleUrl, moduleName, flowName, action));
+        }
+
+        Result result = new Result();
+        for(Map.Entry<String, Future<Boolean>> call: calls.entrySet())
+        {
+            try
+            {
+                if(Boolean.TRUE.equals(call.getValue().get()))
+                {
+                    result.succeeded.add(call.getKey());
+                }
+                else
+                {
+                    result.failed.put(call.getKey(), "The module did not " + action + " the flow");
+                }
+            }
+            catch (ExecutionException e)
+            {
+                logger.warn(String.format("Could not %s flow [%s] of module [%s].", action, call.getKey(), moduleName)
+                    , e.getCause());
+                result.failed.put(call.getKey(), String.valueOf(e.getCause().getMessage()));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Interrupt the calls being made and fail those not yet made.
+     */
+    @Override
+    public void close()
+    {
+        List<FlowStateCall> notMade = new ArrayList<>();
+        synchronized (this)
+        {
+            this.executor.shutdownNow().forEach(call -> notMade.add((FlowStateCall) call));
+            this.moduleCalls.values().forEach(moduleCalls -> notMade.addAll(moduleCalls.waiting));
+            this.moduleCalls.clear();
+        }
+
+        RejectedExecutionException shutdown = new RejectedExecutionException("Flow control has been shut down!");
+        notMade.forEach(call -> call.result.completeExceptionally(shutdown));
+    }
+
+    public int getModuleConcurrency()
+    {
+        return moduleConcurrency;
+    }
+
+    /**
+     * Set the most calls made to a module at once.
+     *
+     * @param moduleConcurrency the most calls made to a module at once
+     */
+    public synchronized void setModuleConcurrency(int moduleConcurrency)
+    {
+        this.moduleConcurrency = moduleConcurrency;
+    }
+
+    public void setThreads(int threads)
+    {
+        if(threads > this.executor.getMaximumPoolSize())
+        {
+            this.executor.setMaximumPoolSize(threads);
+            this.executor.setCorePoolSize(threads);
+        }
+        else
+        {
+            this.executor.setCorePoolSize(threads);
+            this.executor.setMaximumPoolSize(threads);
+        }
+    }
+
+    private static class ModuleCalls
+    {
+        private int inFlight = 0;
+        private Deque<FlowStateCall> waiting = new ArrayDeque<>();
+    }
+
+    private class FlowStateCall implements Runnable
+    {
+        private final String moduleName;
+        private final Supplier<Boolean> call;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        private FlowStateCall(String moduleName, Supplier<Boolean> call)
+        {
+            this.moduleName = moduleName;
+            this.call = call;
+        }
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                this.result.complete(this.call.get());
+            }
+            catch (RuntimeException e)
+            {
+                this.result.completeExceptionally(e);
+            }
+            finally
+            {
+                next(this.moduleName);
+            }
+        }
+    }
+
+    /**
+     * The outcome of changing the state of each flow.
+     */
+    public static class Result
+    {
+        private List<String> succeeded = new ArrayList<>();
+        private Map<String, String> failed = new LinkedHashMap<>();
+
+        /**
+         * @return the flows whose state was changed, in the order given
+         */
+        public List<String> getSucceeded()
+        {
+            return Collections.unmodifiableList(succeeded);
+        }
+
+        /**
+         * @return the flows whose state was not changed, in the order given, with the reason why
+         */
+        public Map<String, String> getFailed()
+        {
+            return Collections.unmodifiableMap(failed);
+        }
+
+        public boolean hasFailures()
+        {
+            return !this.failed.isEmpty();
+        }
+    }
+}
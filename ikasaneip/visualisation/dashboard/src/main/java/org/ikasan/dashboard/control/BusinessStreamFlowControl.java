@@ -0,0 +1,344 @@
+package org.ikasan.dashboard.control;
+
+import org.ikasan.dashboard.broadcast.FlowState;
+import org.ikasan.dashboard.broadcast.FlowStateBroadcaster;
+import org.ikasan.dashboard.broadcast.State;
+import org.ikasan.dashboard.cache.ModuleMetaDataCache;
+import org.ikasan.dashboard.ui.visualisation.model.business.stream.BusinessStream;
+import org.ikasan.dashboard.ui.visualisation.model.business.stream.Flow;
+import org.ikasan.spec.metadata.ModuleMetaDataService;
+import org.ikasan.spec.module.client.ModuleControlService;
+import org.ikasan.vaadin.visjs.network.Edge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Starts or stops every flow of a business stream in the order of the dependencies between them.
+ *
+ * A flow depends on the flows upstream of it, those with a path of edges to it through destinations and integrated
+ * systems but no other flow. The flows are ordered into layers, each layer depending only on the layers before it.
+ * A stream is stopped upstream first, so that no flow is left receiving events from a flow still running, and started
+ * downstream first, so that every flow is running before the flows feeding it. The flows of a layer are changed in
+ * parallel across their modules, with the module concurrency limit of the BulkFlowControlService.
+ *
+ * Should any flow of a layer fail or not be changed within the layer timeout, the later layers are not attempted.
+ */
+public class BusinessStreamFlowControl
+{
+    private static Logger logger = LoggerFactory.getLogger(BusinessStreamFlowControl.class);
+
+    public static final long DEFAULT_LAYER_TIMEOUT_MILLIS = 60000;
+
+    public static final String START = "start";
+    public static final String STOP = "stop";
+
+    public enum Outcome
+    {
+        SUCCEEDED,
+        FAILED,
+        TIMED_OUT,
+        NOT_ATTEMPTED
+    }
+
+    private ModuleControlService moduleControlService;
+    private ModuleMetaDataService moduleMetaDataService;
+    private BulkFlowControlService bulkFlowControlService;
+    private long layerTimeoutMillis = DEFAULT_LAYER_TIMEOUT_MILLIS;
+
+    /**
+     * Constructor
+     *
+     * @param moduleControlService the module REST client
+     * @param moduleMetaDataService the service finding the url of each module
+     * @param bulkFlowControlService the service making the module REST calls in parallel
+     */
+    public BusinessStreamFlowControl(ModuleControlService moduleControlService, ModuleMetaDataService moduleMetaDataService
+        , BulkFlowControlService bulkFlowControlService)
+    {
+        this.moduleControlService = moduleControlService;
+        if(this.moduleControlService == null)
+        {
+            throw new IllegalArgumentException("moduleControlService cannot be null!");
+        }
+        this.moduleMetaDataService = moduleMetaDataService;
+        if(this.moduleMetaDataService == null)
+        {
+            throw new IllegalArgumentException("moduleMetaDataService cannot be null!");
+        }
+        this.bulkFlowControlService = bulkFlowControlService;
+        if(this.bulkFlowControlService == null)
+        {
+            throw new IllegalArgumentException("bulkFlowControlService cannot be null!");
+        }
+    }
+
+    /**
+     * Order the flows of a business stream into layers, upstream first.
+     *
+     * @param businessStream the business stream
+     * @return the layers of flows, each depending only on the flows of the layers before it
+     * @throws IllegalArgumentException if flows of the stream depend on each other in a cycle
+     */
+    public static List<List<Flow>> getLayers(BusinessStream businessStream)
+    {
+        Map<String, Flow> flows = new LinkedHashMap<>();
+        businessStream.getFlows().forEach(flow -> flows.put(flow.getId(), flow));
+
+        Map<String, List<String>> successors = new HashMap<>();
+        for(Edge edge: businessStream.getEdges())
+        {
+            successors.computeIfAbsent(edge.getFrom(), from -> new ArrayList<>()).add(edge.getTo());
+        }
+
+        // the flows directly downstream of each flow, through any number of destinations and integrated systems
+        Map<String, Set<String>> downstream = new HashMap<>();
+        Map<String, Integer> upstreamCount = new HashMap<>();
+        flows.keySet().forEach(id -> upstreamCount.put(id, 0));
+        for(String id: flows.keySet())
+        {
+            Set<String> downstreamFlows = new LinkedHashSet<>();
+            Set<String> visited = new HashSet<>();
+            Deque<String> toVisit = new ArrayDeque<>(successors.getOrDefault(id, Collections.emptyList()));
+            while(!toVisit.isEmpty())
+            {
+                String node = toVisit.pop();
+                if(!visited.add(node))
+                {
+                    continue;
+                }
+                if(flows.containsKey(node))
+                {
+                    downstreamFlows.add(node);
+                }
+                else
+                {
+                    toVisit.addAll(successors.getOrDefault(node, Collections.emptyList()));
+                }
+            }
+
+            downstream.put(id, downstreamFlows);
+            downstreamFlows.forEach(flow -> upstreamCount.merge(flow, 1, Integer::sum));
+        }
+
+        List<List<Flow>> layers = new ArrayList<>();
+        List<String> layer = upstreamCount.entrySet().stream().filter(entry -> entry.getValue() == 0)
+            .map(Map.Entry::getKey).collect(Collectors.toList());
+        int ordered = 0;
+        while(!layer.isEmpty())
+        {
+            layers.add(layer.stream().map(flows::get).collect(Collectors.toList()));
+            ordered += layer.size();
+
+            List<String> next = new ArrayList<>();
+            for(String id: layer)
+            {
+                for(String downstreamFlow: downstream.get(id))
+                {
+                    if(upstreamCount.merge(downstreamFlow, -1, Integer::sum) == 0)
+                    {
+                        next.add(downstreamFlow);
+                    }
+                }
+            }
+            layer = next;
+        }
+
+        if(ordered < flows.size())
+        {
+            List<String> unordered = upstreamCount.entrySet().stream().filter(entry -> entry.getValue() > 0)
+                .map(entry -> flows.get(entry.getKey()).getModuleName() + "." + flows.get(entry.getKey()).getFlowName())
+                .sorted().collect(Collectors.toList());
+            throw new IllegalArgumentException(String.format("The business stream flows %s are in, or downstream of, " +
+                "a cycle of flows depending on each other!", unordered));
+        }
+
+        // keep each layer in the order the flows were given
+        List<String> order = new ArrayList<>(flows.keySet());
+        layers.forEach(flowLayer -> flowLayer.sort((first, second) ->
+            Integer.compare(order.indexOf(first.getId()), order.indexOf(second.getId()))));
+
+        return layers;
+    }
+
+    /**
+     * Stop the flows of a business stream, upstream first.
+     *
+     * @param businessStream the business stream
+     * @param listener told the outcome of each flow as it is known, from the flow control threads
+     * @return true if every flow was stopped
+     * @throws InterruptedException if interrupted, the layers not yet started are not attempted
+     */
+    public boolean stop(BusinessStream businessStream, Consumer<FlowResult> listener) throws InterruptedException
+    {
+        return this.perform(getLayers(businessStream), STOP, State.STOPPED_STATE, listener);
+    }
+
+    /**
+     * Start the flows of a business stream, downstream first.
+     *
+     * @param businessStream the business stream
+     * @param listener told the outcome of each flow as it is known, from the flow control threads
+     * @return true if every flow was started
+     * @throws InterruptedException if interrupted, the layers not yet started are not attempted
+     */
+    public boolean start(BusinessStream businessStream, Consumer<FlowResult> listener) throws InterruptedException
+    {
+        List<List<Flow>> layers = getLayers(businessStream);
+        Collections.reverse(layers);
+
+        return this.perform(layers, START, State.RUNNING_STATE, listener);
+    }
+
+    private boolean perform(List<List<Flow>> layers, String action, State state, Consumer<FlowResult> listener)
+        throws InterruptedException
+    {
+        Map<String, String> moduleUrls = new HashMap<>();
+        boolean succeeded = true;
+
+        for(List<Flow> layer: layers)
+        {
+            if(!succeeded)
+            {
+                layer.forEach(flow -> listener.accept(new FlowResult(flow, Outcome.NOT_ATTEMPTED, null)));
+                continue;
+            }
+
+            Map<Flow, AtomicBoolean> reported = new LinkedHashMap<>();
+            List<CompletableFuture<Boolean>> calls = new ArrayList<>();
+            for(Flow flow: layer)
+            {
+                AtomicBoolean flowReported = new AtomicBoolean(false);
+                reported.put(flow, flowReported);
+
+                String moduleUrl = moduleUrls.computeIfAbsent(flow.getModuleName(), this::getModuleUrl);
+                if(moduleUrl == null)
+                {
+                    this.report(listener, flowReported, new FlowResult(flow, Outcome.FAILED
+                        , "The module " + flow.getModuleName() + " could not be found"));
+                    continue;
+                }
+
+                CompletableFuture<Boolean> call = this.bulkFlowControlService.changeFlowState(this.moduleControlService
+                    , moduleUrl, flow.getModuleName(), flow.getFlowName(), action);
+                call.whenComplete((changed, throwable) ->
+                {
+                    if(throwable != null)
+                    {
+                        logger.warn(String.format("Could not %s flow [%s] of module [%s].", action, flow.getFlowName()
+                            , flow.getModuleName()), throwable);
+                        this.report(listener, flowReported, new FlowResult(flow, Outcome.FAILED, String.valueOf(throwable.getMessage())));
+                    }
+                    else if(Boolean.TRUE.equals(changed))
+                    {
+                        FlowStateBroadcaster.broadcast(new FlowState(flow.getModuleName(), flow.getFlowName(), state));
+                        this.report(listener, flowReported, new FlowResult(flow, Outcome.SUCCEEDED, null));
+                    }
+                    else
+                    {
+                        this.report(listener, flowReported, new FlowResult(flow, Outcome.FAILED
+                            , "The module did not " + action + " the flow"));
+                    }
+                });
+                calls.add(call);
+            }
+
+            try
+            {
+                CompletableFuture.allOf(calls.toArray(new CompletableFuture[0])).get(this.layerTimeoutMillis, TimeUnit.MILLISECONDS);
+            }
+            catch (ExecutionException e)
+            {
+                // reported as each call completed
+            }
+            catch (TimeoutException e)
+            {
+                logger.warn("Flows of the business stream did not {} within {}ms.", action, this.layerTimeoutMillis);
+                // the calls are left to finish, their outcome is no longer reported
+                reported.forEach((flow, flowReported) ->
+                    this.report(listener, flowReported, new FlowResult(flow, Outcome.TIMED_OUT, null)));
+            }
+
+            succeeded = calls.size() == layer.size() && calls.stream().allMatch(call -> call.isDone()
+                && !call.isCompletedExceptionally() && Boolean.TRUE.equals(call.getNow(false)));
+        }
+
+        return succeeded;
+    }
+
+    private String getModuleUrl(String moduleName)
+    {
+        return ModuleMetaDataCache.instance().getUrl(moduleName, this.moduleMetaDataService);
+    }
+
+    private void report(Consumer<FlowResult> listener, AtomicBoolean reported, FlowResult flowResult)
+    {
+        if(reported.compareAndSet(false, true))
+        {
+            listener.accept(flowResult);
+        }
+    }
+
+    public long getLayerTimeoutMillis()
+    {
+        return layerTimeoutMillis;
+    }
+
+    public void setLayerTimeoutMillis(long layerTimeoutMillis)
+    {
+        this.layerTimeoutMillis = layerTimeoutMillis;
+    }
+
+    /**
+     * The outcome of starting or stopping a flow.
+     */
+    public static class FlowResult
+    {
+        private final Flow flow;
+        private final Outcome outcome;
+        private final String message;
+
+        public FlowResult(Flow flow, Outcome outcome, String message)
+        {
+            this.flow = flow;
+            this.outcome = outcome;
+            this.message = message;
+        }
+
+        public Flow getFlow()
+        {
+            return flow;
+        }
+
+        public Outcome getOutcome()
+        {
+            return outcome;
+        }
+
+        /**
+         * @return why the flow failed, or null
+         */
+        public String getMessage()
+        {
+            return message;
+        }
+    }
+}
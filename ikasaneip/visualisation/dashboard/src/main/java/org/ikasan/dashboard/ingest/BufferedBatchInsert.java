@@ -0,0 +1,473 @@
+package org.ikasan.dashboard.ingest;
+
+import org.ikasan.dashboard.metrics.DashboardMetrics;
+import org.ikasan.spec.persistence.BatchInsert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * BatchInsert decorator that accepts the entities pushed by modules into a bounded in memory queue and writes them
+ * to the delegate from a background thread, so that module pushes no longer wait on Solr.
+ *
+ * Queued entities are written in batches once the batch size is reached or the flush interval has passed since the
+ * first of them was queued. When the queue is full pushes are rejected with an IngestBufferFullException so that
+ * modules back off and push again later. Failed writes are retried with a growing interval, and with a spool each
+ * push is also written to local disk before it is accepted, so that entities survive a Solr outage or restart.
+ *
+ * A batch Solr rejects is written again push by push so that only the pushes Solr still rejects are dead lettered,
+ * to a dead letter file in the spool, rather than holding up every later batch.
+ *
+ * @param <T>
+ */
+public class BufferedBatchInsert<T> implements BatchInsert<T>, Closeable
+{
+    private static Logger logger = LoggerFactory.getLogger(BufferedBatchInsert.class);
+
+    public static final int DEFAULT_CAPACITY = 10000;
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+    public static final long MAX_RETRY_INTERVAL_MILLIS = 30000;
+
+    private String type;
+    private BatchInsert<T> delegate;
+    private IngestSpool spool;
+
+    private int capacity = DEFAULT_CAPACITY;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private long flushIntervalMillis = DEFAULT_FLUSH_INTERVAL_MILLIS;
+
+    private LinkedBlockingQueue<Chunk<T>> chunks = new LinkedBlockingQueue<>();
+    private AtomicInteger queued = new AtomicInteger();
+    private AtomicInteger spooled = new AtomicInteger();
+
+    private volatile boolean running = false;
+    private CountDownLatch stopped = new CountDownLatch(1);
+    private Thread flusher;
+
+    /**
+     * Constructor
+     *
+     * @param type the event type, used to name the flusher thread and tag the metrics
+     * @param delegate the BatchInsert writing to Solr
+     * @param spool the write ahead spool, or null to hold pushed entities in memory only
+     */
+    public BufferedBatchInsert(String type, BatchInsert<T> delegate, IngestSpool spool)
+    {
+        this.type = type;
+        if(this.type == null)
+        {
+            throw new IllegalArgumentException("type cannot be null!");
+        }
+        this.delegate = delegate;
+        if(this.delegate == null)
+        {
+            throw new IllegalArgumentException("delegate cannot be null!");
+        }
+        this.spool = spool;
+    }
+
+    /**
+     * Queue any entities left in the spool by the previous run and start the flusher thread.
+     */
+    public synchronized void start()
+    {
+        if(this.running)
+        {
+            return;
+        }
+
+        this.recover();
+
+        DashboardMetrics.registerIngestBuffer(this.type, this);
+
+        this.running = true;
+        this.flusher = new Thread(this::flush, "ingest-" + this.type);
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    @Override
+    public void insert(List<T> entities)
+    {
+        if(entities == null || entities.isEmpty())
+        {
+            return;
+        }
+
+        DashboardMetrics.countIngest(DashboardMetrics.INGEST_RECEIVED, this.type, entities.size());
+
+        if(!this.reserve(entities.size()))
+        {
+            DashboardMetrics.countIngest(DashboardMetrics.INGEST_REJECTED, this.type, entities.size());
+            throw new IngestBufferFullException(String.format("The %s ingest buffer is full, %d entities are waiting to be written to Solr."
+                , this.type, this.queued.get()));
+        }
+
+        Path spoolFile = null;
+        if(this.spool != null)
+        {
+            try
+            {
+                spoolFile = this.spool.write(entities);
+                this.spooled.incrementAndGet();
+            }
+            catch (IOException | RuntimeException e)
+            {
+                logger.warn(String.format("Could not spool %d %s entities, they are held in memory only until written to Solr."
+                    , entities.size(), this.type), e);
+            }
+        }
+
+        this.chunks.add(new Chunk<>(new ArrayList<>(entities), spoolFile));
+    }
+
+    /**
+     * Reserve room in the queue. A push larger than the capacity is still accepted when the queue is empty, so
+     * that it is not rejected forever.
+     */
+    private boolean reserve(int size)
+    {
+        while(true)
+        {
+            int current = this.queued.get();
+            if(current > 0 && current + size > this.capacity)
+            {
+                return false;
+            }
+            if(this.queued.compareAndSet(current, current + size))
+            {
+                return true;
+            }
+        }
+    }
+
+    private void recover()
+    {
+        if(this.spool == null)
+        {
+            return;
+        }
+
+        // pushes accepted before the buffer was started are already queued
+        Set<Path> queuedFiles = this.chunks.stream().map(chunk -> chunk.spoolFile).collect(Collectors.toSet());
+
+        try
+        {
+            for(Path file: this.spool.list())
+            {
+                if(queuedFiles.contains(file))
+                {
+                    continue;
+                }
+
+                try
+                {
+                    List<T> entities = this.spool.read(file);
+                    this.queued.addAndGet(entities.size());
+                    this.spooled.incrementAndGet();
+                    this.chunks.add(new Chunk<>(entities, file));
+                }
+                catch (IOException | RuntimeException e)
+                {
+                    logger.error(String.format("Could not recover %s spool file %s, it has been set aside.", this.type, file), e);
+                    this.spool.setAside(file);
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            logger.error(String.format("Could not recover the %s ingest spool %s.", this.type, this.spool.getDirectory()), e);
+        }
+
+        logger.info("{} {} entities queued from the ingest spool.", this.queued.get(), this.type);
+    }
+
+    private void flush()
+    {
+        try
+        {
+            while(this.running)
+            {
+                List<Chunk<T>> batch = this.nextBatch();
+                if(!batch.isEmpty() && !this.writeWithRetry(batch))
+                {
+                    // shutting down, anything spooled is written on the next start
+                    return;
+                }
+            }
+
+            // a last attempt to write whatever is still queued on shutdown
+            List<Chunk<T>> remaining = new ArrayList<>();
+            this.chunks.drainTo(remaining);
+            if(!remaining.isEmpty())
+            {
+                this.write(remaining);
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Wait for the first chunk and then gather further chunks until the batch size is reached or the flush
+     * interval has passed.
+     */
+    private List<Chunk<T>> nextBatch() throws InterruptedException
+    {
+        List<Chunk<T>> batch = new ArrayList<>();
+
+        Chunk<T> chunk = this.chunks.poll(this.flushIntervalMillis, TimeUnit.MILLISECONDS);
+        if(chunk == null)
+        {
+            return batch;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.flushIntervalMillis);
+        int size = 0;
+        while(chunk != null)
+        {
+            batch.add(chunk);
+            size += chunk.entities.size();
+
+            long remaining = deadline - System.nanoTime();
+            if(size >= this.batchSize || remaining <= 0)
+            {
+                break;
+            }
+            chunk = this.chunks.poll(remaining, TimeUnit.NANOSECONDS);
+        }
+
+        return batch;
+    }
+
+    /**
+     * Write a batch, retrying it with a growing interval for as long as the failure may pass, e.g. Solr being
+     * unavailable, as the pushes are held in the spool meanwhile. A batch Solr rejects is written again push by push
+     * and the pushes that Solr still rejects are dead lettered.
+     *
+     * @return false if the buffer was closed while waiting to retry
+     */
+    private boolean writeWithRetry(List<Chunk<T>> batch) throws InterruptedException
+    {
+        long retryIntervalMillis = this.flushIntervalMillis;
+        while(true)
+        {
+            WriteResult result = this.write(batch);
+            if(result == WriteResult.WRITTEN)
+            {
+                return true;
+            }
+
+            if(result == WriteResult.PERMANENT_FAILURE)
+            {
+                if(batch.size() == 1)
+                {
+                    this.deadLetter(batch.get(0));
+                    return true;
+                }
+
+                for(Chunk<T> chunk: batch)
+                {
+                    if(!this.writeWithRetry(List.of(chunk)))
+                    {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            if(this.stopped.await(retryIntervalMillis, TimeUnit.MILLISECONDS))
+            {
+                return false;
+            }
+            retryIntervalMillis = Math.min(retryIntervalMillis * 2, MAX_RETRY_INTERVAL_MILLIS);
+        }
+    }
+
+    private WriteResult write(List<Chunk<T>> batch)
+    {
+        List<T> entities = new ArrayList<>();
+        batch.forEach(chunk -> entities.addAll(chunk.entities));
+
+        try
+        {
+            this.delegate.insert(entities);
+        }
+        catch (RuntimeException e)
+        {
+            DashboardMetrics.countIngest(DashboardMetrics.INGEST_WRITE_FAILURES, this.type, 1);
+            if(WriteFailures.isPermanent(e))
+            {
+                logger.warn(String.format("Solr rejected %d %s entities.", entities.size(), this.type), e);
+                return WriteResult.PERMANENT_FAILURE;
+            }
+            logger.warn(String.format("Could not write %d %s entities to Solr, the write will be retried.", entities.size(), this.type), e);
+            return WriteResult.FAILURE;
+        }
+
+        for(Chunk<T> chunk: batch)
+        {
+            if(chunk.spoolFile != null)
+            {
+                try
+                {
+                    this.spool.delete(chunk.spoolFile);
+                }
+                catch (IOException e)
+                {
+                    logger.warn(String.format("Could not delete %s spool file %s, its entities will be written again on restart."
+                        , this.type, chunk.spoolFile), e);
+                }
+                this.spooled.decrementAndGet();
+            }
+        }
+
+        this.queued.addAndGet(-entities.size());
+        DashboardMetrics.countIngest(DashboardMetrics.INGEST_WRITTEN, this.type, entities.size());
+        return WriteResult.WRITTEN;
+    }
+
+    private void deadLetter(Chunk<T> chunk)
+    {
+        try
+        {
+            if(chunk.spoolFile != null)
+            {
+                Path file = this.spool.deadLetter(chunk.spoolFile);
+                this.spooled.decrementAndGet();
+                logger.error("{} {} entities could not be written to Solr and have been dead lettered to {}."
+                    , chunk.entities.size(), this.type, file);
+            }
+            else if(this.spool != null)
+            {
+                Path file = this.spool.deadLetter(chunk.entities);
+                logger.error("{} {} entities could not be written to Solr and have been dead lettered to {}."
+                    , chunk.entities.size(), this.type, file);
+            }
+            else
+            {
+                logger.error("{} {} entities could not be written to Solr and have been dropped as there is no spool."
+                    , chunk.entities.size(), this.type);
+            }
+        }
+        catch (IOException e)
+        {
+            logger.error(String.format("Could not dead letter %d %s entities, they have been dropped."
+                , chunk.entities.size(), this.type), e);
+        }
+
+        this.queued.addAndGet(-chunk.entities.size());
+        DashboardMetrics.countIngest(DashboardMetrics.INGEST_DEAD_LETTERED, this.type, chunk.entities.size());
+    }
+
+    /**
+     * Stop the flusher thread, waiting up to the maximum retry interval for it to write what is still queued.
+     */
+    @Override
+    public synchronized void close()
+    {
+        if(!this.running)
+        {
+            return;
+        }
+
+        this.running = false;
+        this.stopped.countDown();
+
+        try
+        {
+            this.flusher.join(MAX_RETRY_INTERVAL_MILLIS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        if(this.queued.get() > 0)
+        {
+            logger.warn("{} {} entities were not written to Solr before shutdown.", this.queued.get(), this.type);
+        }
+    }
+
+    public String getType()
+    {
+        return type;
+    }
+
+    /**
+     * @return the number of entities waiting to be written to Solr
+     */
+    public int getQueued()
+    {
+        return queued.get();
+    }
+
+    /**
+     * @return the number of pushes held in the spool
+     */
+    public int getSpooled()
+    {
+        return spooled.get();
+    }
+
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity)
+    {
+        this.capacity = capacity;
+    }
+
+    public int getBatchSize()
+    {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize)
+    {
+        this.batchSize = batchSize;
+    }
+
+    public long getFlushIntervalMillis()
+    {
+        return flushIntervalMillis;
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis)
+    {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    private enum WriteResult
+    {
+        WRITTEN, FAILURE, PERMANENT_FAILURE
+    }
+
+    private static class Chunk<T>
+    {
+        private final List<T> entities;
+        private final Path spoolFile;
+
+        private Chunk(List<T> entities, Path spoolFile)
+        {
+            this.entities = entities;
+            this.spoolFile = spoolFile;
+        }
+    }
+}
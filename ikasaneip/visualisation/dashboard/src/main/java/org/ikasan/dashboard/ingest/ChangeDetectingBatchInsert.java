@@ -0,0 +1,137 @@
+package org.ikasan.dashboard.ingest;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.hash.Hashing;
+import org.ikasan.dashboard.metrics.DashboardMetrics;
+import org.ikasan.dashboard.solr.ContentHashStore;
+import org.ikasan.spec.persistence.BatchInsert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * BatchInsert decorator that only passes on the metadata pushed by modules that differs from the metadata last
+ * written, as modules push all of their metadata every time they start whether or not it has changed.
+ *
+ * Each entity is hashed over a canonical JSON form of its content, its properties and map entries ordered by name, and
+ * is passed on to the delegate only if the hash differs from the one last recorded under its key. Unchanged entities
+ * are dropped, and with them the cache invalidations the delegate would have made. The hashes are recorded once the
+ * delegate has written the entities. Entities that cannot be hashed are always passed on.
+ *
+ * @param <T>
+ */
+public class ChangeDetectingBatchInsert<T> implements BatchInsert<T>
+{
+    private static Logger logger = LoggerFactory.getLogger(ChangeDetectingBatchInsert.class);
+
+    public static final String APPLIED = "applied";
+    public static final String SKIPPED = "skipped";
+
+    private String type;
+    private BatchInsert<T> delegate;
+    private Function<T, String> key;
+    private ContentHashStore contentHashStore;
+
+    private ObjectMapper objectMapper = new ObjectMapper()
+        .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+        .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+        .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+
+    /**
+     * Constructor
+     *
+     * @param type the kind of metadata, used to key the hashes and tag the metrics
+     * @param delegate the BatchInsert writing to Solr
+     * @param key the key of an entity, e.g. the name of the module
+     * @param contentHashStore the hashes of the entities last written
+     */
+    public ChangeDetectingBatchInsert(String type, BatchInsert<T> delegate, Function<T, String> key
+        , ContentHashStore contentHashStore)
+    {
+        this.type = type;
+        if(this.type == null)
+        {
+            throw new IllegalArgumentException("type cannot be null!");
+        }
+        this.delegate = delegate;
+        if(this.delegate == null)
+        {
+            throw new IllegalArgumentException("delegate cannot be null!");
+        }
+        this.key = key;
+        if(this.key == null)
+        {
+            throw new IllegalArgumentException("key cannot be null!");
+        }
+        this.contentHashStore = contentHashStore;
+        if(this.contentHashStore == null)
+        {
+            throw new IllegalArgumentException("contentHashStore cannot be null!");
+        }
+    }
+
+    @Override
+    public void insert(List<T> entities)
+    {
+        List<T> changed = new ArrayList<>();
+        Map<String, String> hashes = new HashMap<>();
+
+        for(T entity: entities)
+        {
+            String key = this.key.apply(entity);
+            String hash = this.hash(entity);
+
+            if(key != null && hash != null)
+            {
+                if(hash.equals(this.contentHashStore.get(this.type, key)) || hash.equals(hashes.get(key)))
+                {
+                    continue;
+                }
+                hashes.put(key, hash);
+            }
+            changed.add(entity);
+        }
+
+        int skipped = entities.size() - changed.size();
+        if(skipped > 0)
+        {
+            logger.debug("Skipping {} unchanged {} of {}.", skipped, this.type, entities.size());
+            DashboardMetrics.countMetaDataIngest(this.type, SKIPPED, skipped);
+        }
+        if(changed.isEmpty())
+        {
+            return;
+        }
+
+        this.delegate.insert(changed);
+        this.contentHashStore.put(this.type, hashes);
+        DashboardMetrics.countMetaDataIngest(this.type, APPLIED, changed.size());
+    }
+
+    /**
+     * @param entity the entity
+     * @return the SHA-256 hash of the canonical JSON form of the entity, or null if it could not be serialised
+     */
+    protected String hash(T entity)
+    {
+        try
+        {
+            // maps held by the entity are ordered by key once turned into plain maps and lists
+            Object canonical = this.objectMapper.convertValue(entity, Object.class);
+            return Hashing.sha256().hashBytes(this.objectMapper.writeValueAsBytes(canonical)).toString();
+        }
+        catch (Exception e)
+        {
+            logger.debug("Could not hash {} [{}], it will be written. {}", this.type, this.key.apply(entity)
+                , e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.ikasan.dashboard.ingest;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Raised to a module pushing events when the ingest buffer for the event type is full, telling it to back off and
+ * push the events again later. The push is answered with a 503 rather than the 500 of an unexpected failure.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class IngestBufferFullException extends RuntimeException
+{
+    public IngestBufferFullException(String message)
+    {
+        super(message);
+    }
+}
@@ -0,0 +1,228 @@
+package org.ikasan.dashboard.ingest;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Write ahead spool of the entities pushed to an ingest buffer. Each push is written to its own file in the spool
+ * directory before it is accepted and the file is deleted once the entities have been written to Solr, so any files
+ * left in the directory on start up hold entities that still need writing.
+ *
+ * Entities are stored as JSON by field along with their class name, as the event types are plain model classes that
+ * do not all expose setters.
+ */
+public class IngestSpool
+{
+    public static final String SPOOL_FILE_SUFFIX = ".json";
+    public static final String FAILED_FILE_SUFFIX = ".failed";
+    public static final String DEAD_LETTER_FILE_SUFFIX = ".deadletter";
+
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final String TYPE = "type";
+    private static final String ENTITY = "entity";
+
+    private Path directory;
+    private boolean sync;
+    private ObjectMapper objectMapper;
+    private AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Constructor
+     *
+     * @param directory the spool directory, created if it does not exist
+     * @param sync whether to force each spool file to disk before the push is accepted
+     */
+    public IngestSpool(Path directory, boolean sync)
+    {
+        this.directory = directory;
+        if(this.directory == null)
+        {
+            throw new IllegalArgumentException("directory cannot be null!");
+        }
+        this.sync = sync;
+
+        try
+        {
+            Files.createDirectories(this.directory);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException("Could not create ingest spool directory " + this.directory, e);
+        }
+
+        this.objectMapper = new ObjectMapper()
+            .setVisibility(PropertyAccessor.GETTER, JsonAutoDetect.Visibility.NONE)
+            .setVisibility(PropertyAccessor.IS_GETTER, JsonAutoDetect.Visibility.NONE)
+            .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+            .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * Write the entities to a new spool file. The file is written under a temporary name and then renamed so that a
+     * partially written file is never recovered.
+     *
+     * @param entities
+     * @return the spool file
+     * @throws IOException
+     */
+    public Path write(List<?> entities) throws IOException
+    {
+        ArrayNode records = this.objectMapper.createArrayNode();
+        for(Object entity: entities)
+        {
+            ObjectNode record = records.addObject();
+            record.put(TYPE, entity.getClass().getName());
+            record.set(ENTITY, this.objectMapper.valueToTree(entity));
+        }
+
+        // named by time then sequence so that listing the directory returns the files in the order written
+        String name = String.format("%013d-%012d", System.currentTimeMillis(), this.sequence.incrementAndGet());
+        Path temp = this.directory.resolve(name + TEMP_FILE_SUFFIX);
+        Path file = this.directory.resolve(name + SPOOL_FILE_SUFFIX);
+
+        try(FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))
+        {
+            ByteBuffer buffer = ByteBuffer.wrap(this.objectMapper.writeValueAsBytes(records));
+            while(buffer.hasRemaining())
+            {
+                channel.write(buffer);
+            }
+            if(this.sync)
+            {
+                channel.force(true);
+            }
+        }
+
+        return Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read the entities held in a spool file.
+     *
+     * @param file
+     * @return the entities
+     * @throws IOException if the file cannot be read or an entity class is no longer available
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> read(Path file) throws IOException
+    {
+        JsonNode records = this.objectMapper.readTree(file.toFile());
+        if(records == null || !records.isArray())
+        {
+            throw new IOException("Spool file " + file + " does not hold a list of entities");
+        }
+
+        List<T> entities = new ArrayList<>(records.size());
+
+        for(JsonNode record: records)
+        {
+            try
+            {
+                Class<?> type = Class.forName(record.get(TYPE).asText());
+                entities.add((T) this.objectMapper.treeToValue(record.get(ENTITY), type));
+            }
+            catch (ClassNotFoundException e)
+            {
+                throw new IOException("Unknown entity type in spool file " + file, e);
+            }
+        }
+
+        return entities;
+    }
+
+    /**
+     * @return the spool files in the order they were written
+     * @throws IOException
+     */
+    public List<Path> list() throws IOException
+    {
+        try(Stream<Path> files = Files.list(this.directory))
+        {
+            return files.filter(file -> file.getFileName().toString().endsWith(SPOOL_FILE_SUFFIX))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    public void delete(Path file) throws IOException
+    {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Set aside a spool file that cannot be read, so that it is not recovered again but is kept for investigation.
+     *
+     * @param file
+     * @throws IOException
+     */
+    public void setAside(Path file) throws IOException
+    {
+        Files.move(file, file.resolveSibling(file.getFileName() + FAILED_FILE_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Set aside a spool file whose entities cannot be written, so that it is not recovered again. Removing the suffix
+     * puts the entities back in the spool to be written on the next start.
+     *
+     * @param file
+     * @return the dead letter file
+     * @throws IOException
+     */
+    public Path deadLetter(Path file) throws IOException
+    {
+        return Files.move(file, file.resolveSibling(file.getFileName() + DEAD_LETTER_FILE_SUFFIX)
+            , StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Write entities that cannot be written, and were never spooled, straight to a dead letter file.
+     *
+     * @param entities
+     * @return the dead letter file
+     * @throws IOException
+     */
+    public Path deadLetter(List<?> entities) throws IOException
+    {
+        return this.deadLetter(this.write(entities));
+    }
+
+    /**
+     * @return the dead letter files in the order they were written
+     * @throws IOException
+     */
+    public List<Path> listDeadLetters() throws IOException
+    {
+        try(Stream<Path> files = Files.list(this.directory))
+        {
+            return files.filter(file -> file.getFileName().toString().endsWith(DEAD_LETTER_FILE_SUFFIX))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    public Path getDirectory()
+    {
+        return directory;
+    }
+}
@@ -0,0 +1,36 @@
+package org.ikasan.dashboard.ingest;
+
+import org.apache.solr.common.SolrException;
+import org.springframework.dao.NonTransientDataAccessException;
+
+/**
+ * Tells the failures of a background write that will fail however often the write is retried, e.g. a document Solr
+ * rejects, from those that may pass on a later attempt, e.g. Solr or the database being unavailable.
+ */
+public final class WriteFailures
+{
+    private WriteFailures()
+    {
+    }
+
+    /**
+     * @param failure the failure of a write, or any failure it wraps
+     * @return whether writing the same entities again will fail the same way
+     */
+    public static boolean isPermanent(Throwable failure)
+    {
+        for(Throwable cause = failure; cause != null; cause = cause.getCause())
+        {
+            if(cause instanceof SolrException)
+            {
+                int code = ((SolrException) cause).code();
+                return code >= 400 && code < 500;
+            }
+            if(cause instanceof NonTransientDataAccessException)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+}
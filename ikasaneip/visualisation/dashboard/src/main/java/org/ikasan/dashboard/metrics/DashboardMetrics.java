@@ -0,0 +1,394 @@
+package org.ikasan.dashboard.metrics;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.Command;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.ikasan.dashboard.cache.ModuleMetaDataCache;
+import org.ikasan.dashboard.ingest.BufferedBatchInsert;
+import org.ikasan.dashboard.trace.OperationTrace;
+import org.ikasan.dashboard.trace.OperationTracer;
+import org.ikasan.dashboard.trace.RouteTracker;
+import org.ikasan.dashboard.ui.util.SystemEventLogger;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Micrometer instrumentation of the dashboard's calls out to Solr and the modules, and of the server push path.
+ *
+ * Most of the instrumented code is Vaadin components created per UI rather than Spring beans, so the meters are
+ * registered against the Micrometer global registry, to which Spring Boot adds the Prometheus registry backing the
+ * actuator prometheus endpoint.
+ */
+public final class DashboardMetrics
+{
+    public static final String SOLR_REQUESTS = "dashboard.solr.requests";
+    public static final String MODULE_REST_REQUESTS = "dashboard.module.rest.requests";
+    public static final String UI_ACCESS_WAIT = "dashboard.ui.access.wait";
+    public static final String UI_ACCESS_EXECUTION = "dashboard.ui.access.execution";
+    public static final String BROADCASTER_QUEUE_DEPTH = "dashboard.broadcaster.queue.depth";
+    public static final String BROADCASTER_LISTENERS = "dashboard.broadcaster.listeners";
+    public static final String SOLR_POOL_LEASED = "dashboard.solr.pool.leased";
+    public static final String SOLR_POOL_AVAILABLE = "dashboard.solr.pool.available";
+    public static final String SOLR_POOL_PENDING = "dashboard.solr.pool.pending";
+    public static final String SOLR_POOL_MAX = "dashboard.solr.pool.max";
+    public static final String INGEST_RECEIVED = "dashboard.ingest.received";
+    public static final String INGEST_REJECTED = "dashboard.ingest.rejected";
+    public static final String INGEST_WRITTEN = "dashboard.ingest.written";
+    public static final String INGEST_WRITE_FAILURES = "dashboard.ingest.write.failures";
+    public static final String INGEST_QUEUE_DEPTH = "dashboard.ingest.queue.depth";
+    public static final String INGEST_SPOOLED = "dashboard.ingest.spooled";
+    public static final String INGEST_DEAD_LETTERED = "dashboard.ingest.dead.lettered";
+    public static final String AUDIT_QUEUE_DEPTH = "dashboard.audit.queue.depth";
+    public static final String AUDIT_WRITES = "dashboard.audit.writes";
+    public static final String AUDIT_EVENTS = "dashboard.audit.events";
+    public static final String AUDIT_DEAD_LETTERED = "dashboard.audit.dead.lettered";
+    public static final String MODULE_METADATA_CACHE_REQUESTS = "dashboard.module.metadata.cache.requests";
+    public static final String MODULE_METADATA_CACHE_SIZE = "dashboard.module.metadata.cache.size";
+    public static final String METADATA_INGEST = "dashboard.metadata.ingest";
+    public static final String FLOW_STATE_INGEST = "dashboard.flow.state.ingest";
+    public static final String FLOW_STATE_FLAPPING = "dashboard.flow.state.flapping";
+
+    public static final String AUDIT_SYNCHRONOUS = "sync";
+    public static final String AUDIT_ASYNCHRONOUS = "async";
+
+    /** Module tag for Solr queries spanning more than one module */
+    public static final String ALL_MODULES = "all";
+
+    private static final String UNKNOWN = "unknown";
+
+    private static MeterRegistry registry = Metrics.globalRegistry;
+
+    private static final AtomicReference<PoolingHttpClientConnectionManager> solrConnectionPool = new AtomicReference<>();
+
+    private DashboardMetrics()
+    {
+    }
+
+    /**
+     * Time a call to Solr.
+     *
+     * @param caller the dashboard class making the call
+     * @param module the module the call relates to, or ALL_MODULES
+     * @param operation the Solr service operation
+     * @param call the call
+     * @return the result of the call
+     */
+    public static <T> T timeSolr(String caller, String module, String operation, Supplier<T> call)
+    {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try
+        {
+            return call.get();
+        }
+        catch (RuntimeException e)
+        {
+            outcome = "error";
+            throw e;
+        }
+        finally
+        {
+            long end = System.nanoTime();
+            timer(SOLR_REQUESTS, "caller", caller, "module", module, "operation", operation, "outcome", outcome)
+                .record(end - start, TimeUnit.NANOSECONDS);
+            OperationTracer.span("solr", caller + "." + operation, start, end);
+        }
+    }
+
+    /**
+     * Time a REST call to a module.
+     *
+     * @param service the REST client service
+     * @param module the module the call is made to
+     * @param operation the REST client operation
+     * @param call the call
+     * @return the result of the call
+     */
+    public static <T> T timeModuleRest(String service, String module, String operation, Callable<T> call) throws Exception
+    {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try
+        {
+            return call.call();
+        }
+        catch (Exception e)
+        {
+            outcome = "error";
+            throw e;
+        }
+        finally
+        {
+            long end = System.nanoTime();
+            timer(MODULE_REST_REQUESTS, "service", service, "module", module, "operation", operation, "outcome", outcome)
+                .record(end - start, TimeUnit.NANOSECONDS);
+            OperationTracer.span("rest", service + "." + operation + " " + module, start, end);
+        }
+    }
+
+    /**
+     * Push a command to a UI, recording how long the command waited for the session lock and how long it
+     * then held it for. The command is traced as an access operation, or as a span of the round trip it runs
+     * within when the session lock is released at the end of a request.
+     *
+     * @param ui the UI to access
+     * @param source the component pushing to the UI
+     * @param command the command to run against the UI
+     * @return the future of the access
+     */
+    public static Future<Void> access(UI ui, String source, Command command)
+    {
+        Timer.Sample waitSample = Timer.start(registry);
+
+        return ui.access(() ->
+        {
+            waitSample.stop(timer(UI_ACCESS_WAIT, "source", source));
+
+            long start = System.nanoTime();
+            boolean begun = OperationTracer.begin(OperationTrace.ACCESS, RouteTracker.route(ui));
+            if(begun)
+            {
+                OperationTracer.trigger(source);
+            }
+            try
+            {
+                timer(UI_ACCESS_EXECUTION, "source", source).record(command::execute);
+            }
+            finally
+            {
+                if(begun)
+                {
+                    OperationTracer.end();
+                }
+                else
+                {
+                    OperationTracer.span(OperationTrace.ACCESS, source, start, System.nanoTime());
+                }
+            }
+        });
+    }
+
+    /**
+     * Register gauges for the depth of a broadcaster's dispatch queue and its number of listeners.
+     *
+     * @param broadcaster the broadcaster name
+     * @param executor the executor dispatching broadcasts to listeners
+     * @param listenerCount the number of registered listeners, counted under the broadcaster's lock as the gauge
+     *                      is read from the metrics thread
+     */
+    public static void registerBroadcaster(String broadcaster, ThreadPoolExecutor executor
+        , Supplier<Number> listenerCount)
+    {
+        Gauge.builder(BROADCASTER_QUEUE_DEPTH, executor, e -> e.getQueue().size())
+            .description("Broadcasts waiting to be dispatched to listeners")
+            .tag("broadcaster", broadcaster)
+            .register(registry);
+        Gauge.builder(BROADCASTER_LISTENERS, listenerCount)
+            .description("Listeners registered with the broadcaster")
+            .tag("broadcaster", broadcaster)
+            .register(registry);
+    }
+
+    /**
+     * Register gauges for the utilisation of the shared Solr client's connection pool. The gauges follow the most
+     * recently registered pool, so they survive the shared client being closed and recreated.
+     *
+     * @param connectionManager the pooling connection manager of the shared Solr client
+     */
+    public static void registerSolrConnectionPool(PoolingHttpClientConnectionManager connectionManager)
+    {
+        if(solrConnectionPool.getAndSet(connectionManager) != null)
+        {
+            return;
+        }
+
+        Gauge.builder(SOLR_POOL_LEASED, solrConnectionPool, pool -> poolStat(pool, PoolStats::getLeased))
+            .description("Solr connections in use")
+            .register(registry);
+        Gauge.builder(SOLR_POOL_AVAILABLE, solrConnectionPool, pool -> poolStat(pool, PoolStats::getAvailable))
+            .description("Idle Solr connections held in the pool")
+            .register(registry);
+        Gauge.builder(SOLR_POOL_PENDING, solrConnectionPool, pool -> poolStat(pool, PoolStats::getPending))
+            .description("Requests waiting for a Solr connection")
+            .register(registry);
+        Gauge.builder(SOLR_POOL_MAX, solrConnectionPool, pool -> poolStat(pool, PoolStats::getMax))
+            .description("Maximum Solr connections")
+            .register(registry);
+    }
+
+    /**
+     * Register gauges for the number of entities queued in an ingest buffer and the number of pushes it holds in
+     * its spool.
+     *
+     * @param type the event type of the buffer
+     * @param buffer the ingest buffer
+     */
+    public static void registerIngestBuffer(String type, BufferedBatchInsert<?> buffer)
+    {
+        Gauge.builder(INGEST_QUEUE_DEPTH, buffer, BufferedBatchInsert::getQueued)
+            .description("Entities waiting to be written to Solr")
+            .tag("type", type)
+            .register(registry);
+        Gauge.builder(INGEST_SPOOLED, buffer, BufferedBatchInsert::getSpooled)
+            .description("Pushes held in the ingest spool")
+            .tag("type", type)
+            .register(registry);
+    }
+
+    /**
+     * Count entities passing through an ingest buffer.
+     *
+     * @param name one of the INGEST counter names
+     * @param type the event type of the buffer
+     * @param count the number of entities
+     */
+    public static void countIngest(String name, String type, int count)
+    {
+        Counter.builder(name)
+            .tag("type", type)
+            .register(registry)
+            .increment(count);
+    }
+
+    /**
+     * Register a gauge for the number of system events waiting to be written.
+     *
+     * @param systemEventLogger the system event logger
+     */
+    public static void registerAuditQueue(SystemEventLogger systemEventLogger)
+    {
+        Gauge.builder(AUDIT_QUEUE_DEPTH, systemEventLogger, SystemEventLogger::getQueued)
+            .description("System events waiting to be written")
+            .register(registry);
+    }
+
+    /**
+     * Register counters for the hits and misses of the module metadata cache, and a gauge for the modules it holds.
+     *
+     * @param moduleMetaDataCache the module metadata cache
+     */
+    public static void registerModuleMetaDataCache(ModuleMetaDataCache moduleMetaDataCache)
+    {
+        FunctionCounter.builder(MODULE_METADATA_CACHE_REQUESTS, moduleMetaDataCache, cache -> cache.stats().hitCount())
+            .description("Module metadata lookups")
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder(MODULE_METADATA_CACHE_REQUESTS, moduleMetaDataCache, cache -> cache.stats().missCount())
+            .description("Module metadata lookups")
+            .tag("result", "miss")
+            .register(registry);
+        Gauge.builder(MODULE_METADATA_CACHE_SIZE, moduleMetaDataCache, ModuleMetaDataCache::size)
+            .description("Modules held in the module metadata cache")
+            .register(registry);
+    }
+
+    /**
+     * Count metadata pushed by modules that was written or skipped as unchanged.
+     *
+     * @param type the kind of metadata
+     * @param result applied or skipped
+     * @param count the number of entities
+     */
+    public static void countMetaDataIngest(String type, String result, int count)
+    {
+        Counter.builder(METADATA_INGEST)
+            .tag("type", type)
+            .tag("result", result)
+            .register(registry)
+            .increment(count);
+    }
+
+    /**
+     * Count flow state changes pushed by modules in bulk that were applied or dropped as out of order.
+     *
+     * @param result applied or dropped
+     * @param count the number of changes
+     */
+    public static void countFlowStateIngest(String result, int count)
+    {
+        Counter.builder(FLOW_STATE_INGEST)
+            .tag("result", result)
+            .register(registry)
+            .increment(count);
+    }
+
+    /**
+     * Count a flow starting to flap between states.
+     *
+     * @param module the module of the flow
+     */
+    public static void countFlowStateFlapping(String module)
+    {
+        Counter.builder(FLOW_STATE_FLAPPING)
+            .tag("module", module)
+            .register(registry)
+            .increment();
+    }
+
+    /**
+     * Record a write of system events.
+     *
+     * @param mode AUDIT_SYNCHRONOUS or AUDIT_ASYNCHRONOUS
+     * @param events the number of events written
+     * @param outcome success or error
+     * @param nanos the time taken to write them
+     */
+    public static void recordAuditWrite(String mode, int events, String outcome, long nanos)
+    {
+        timer(AUDIT_WRITES, "mode", mode, "outcome", outcome).record(nanos, TimeUnit.NANOSECONDS);
+        Counter.builder(AUDIT_EVENTS)
+            .tag("mode", mode)
+            .tag("outcome", outcome)
+            .register(registry)
+            .increment(events);
+    }
+
+    /**
+     * Count system events that could not be written and were dead lettered.
+     *
+     * @param events the number of events
+     */
+    public static void countAuditDeadLettered(int events)
+    {
+        Counter.builder(AUDIT_DEAD_LETTERED)
+            .description("System events that could not be written")
+            .register(registry)
+            .increment(events);
+    }
+
+    private static double poolStat(AtomicReference<PoolingHttpClientConnectionManager> pool, ToIntFunction<PoolStats> stat)
+    {
+        PoolingHttpClientConnectionManager connectionManager = pool.get();
+        return connectionManager == null ? Double.NaN : stat.applyAsInt(connectionManager.getTotalStats());
+    }
+
+    private static Timer timer(String name, String... tags)
+    {
+        // micrometer rejects null tag values, e.g. a module whose url has not been resolved
+        for(int i=1; i<tags.length; i+=2)
+        {
+            if(tags[i] == null)
+            {
+                tags[i] = UNKNOWN;
+            }
+        }
+
+        return Timer.builder(name)
+            .tags(tags)
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+}
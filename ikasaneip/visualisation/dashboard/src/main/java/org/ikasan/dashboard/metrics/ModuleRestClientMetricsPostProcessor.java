@@ -0,0 +1,64 @@
+package org.ikasan.dashboard.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Wraps the module REST client beans (module control, resubmission, replay, configuration, trigger and metadata)
+ * in a proxy timing each of their calls.
+ *
+ * The clients are injected by their concrete class in places, so a class based proxy is used. Every client
+ * operation takes the url of the module it calls as its first argument, which is used as the module tag.
+ */
+public class ModuleRestClientMetricsPostProcessor implements BeanPostProcessor
+{
+    public static final String REST_CLIENT_PACKAGE = "org.ikasan.rest.client";
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException
+    {
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+
+        if(targetClass.getPackage() == null || !targetClass.getPackage().getName().equals(REST_CLIENT_PACKAGE)
+            || !targetClass.getSimpleName().endsWith("RestServiceImpl"))
+        {
+            return bean;
+        }
+
+        String service = targetClass.getSimpleName();
+
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice((MethodInterceptor) invocation ->
+        {
+            if(invocation.getMethod().getDeclaringClass() == Object.class)
+            {
+                return invocation.proceed();
+            }
+
+            Object[] arguments = invocation.getArguments();
+            String module = arguments.length > 0 && arguments[0] instanceof String ? (String) arguments[0] : null;
+
+            return DashboardMetrics.timeModuleRest(service, module, invocation.getMethod().getName(), () ->
+            {
+                try
+                {
+                    return invocation.proceed();
+                }
+                catch (Exception | Error e)
+                {
+                    throw e;
+                }
+                catch (Throwable throwable)
+                {
+                    throw new IllegalStateException(throwable);
+                }
+            });
+        });
+
+        return proxyFactory.getProxy(targetClass.getClassLoader());
+    }
+}
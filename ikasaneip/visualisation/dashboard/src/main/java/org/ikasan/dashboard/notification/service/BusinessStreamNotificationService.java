@@ -2,8 +2,10 @@ package org.ikasan.dashboard.notification.service;
 
 import org.ikasan.business.stream.metadata.model.BusinessStream;
 import org.ikasan.business.stream.metadata.model.Flow;
+import org.ikasan.dashboard.metrics.DashboardMetrics;
 import org.ikasan.dashboard.notification.model.BusinessStreamExclusion;
 import org.ikasan.dashboard.notification.model.BusinessStreamExclusions;
+import org.ikasan.dashboard.solr.TimePartitionSolrClient;
 import org.ikasan.solr.model.IkasanSolrDocument;
 import org.ikasan.solr.model.IkasanSolrDocumentSearchResults;
 import org.ikasan.spec.error.reporting.ErrorOccurrence;
@@ -44,9 +46,11 @@ public class BusinessStreamNotificationService {
             .map(Flow::getFlowName)
             .collect(Collectors.toSet());
 
-        IkasanSolrDocumentSearchResults results = this.solrGeneralService.search(moduleNames, flowNames
-            , null, startTimestamp, System.currentTimeMillis(), resultSize, List.of("exclusion")
-            ,false, null, null);
+        long endTimestamp = System.currentTimeMillis();
+        IkasanSolrDocumentSearchResults results = DashboardMetrics.timeSolr(BusinessStreamNotificationService.class.getSimpleName()
+            , DashboardMetrics.ALL_MODULES, "search", () -> TimePartitionSolrClient.window(startTimestamp, endTimestamp
+            , () -> this.solrGeneralService.search(moduleNames, flowNames, null, startTimestamp, endTimestamp
+            , resultSize, List.of("exclusion"), false, null, null)));
 
         if(results.getTotalNumberOfResults() == 0) {
             return Optional.empty();
@@ -59,7 +63,9 @@ public class BusinessStreamNotificationService {
         if(results.getResultList().size() > 0) {
             Map<String, IkasanSolrDocument> errorOccurrencesMap = results.getResultList()
                 .stream()
-                .map(ikasanDoc -> this.solrGeneralService.findByErrorUri("error", this.getErrorUri(ikasanDoc.getId())))
+                .map(ikasanDoc -> DashboardMetrics.timeSolr(BusinessStreamNotificationService.class.getSimpleName()
+                    , ikasanDoc.getModuleName(), "findByErrorUri"
+                    , () -> this.solrGeneralService.findByErrorUri("error", this.getErrorUri(ikasanDoc.getId()))))
                 .filter(Objects::nonNull)
                 .collect(Collectors.toMap(IkasanSolrDocument::getErrorUri, Function.identity()));
 
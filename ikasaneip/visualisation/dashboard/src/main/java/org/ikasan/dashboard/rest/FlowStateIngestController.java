@@ -0,0 +1,80 @@
+package org.ikasan.dashboard.rest;
+
+import org.ikasan.dashboard.cache.FlowStateCache;
+import org.ikasan.dashboard.cache.FlowStateChange;
+import org.ikasan.dashboard.metrics.DashboardMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Takes the changes of state of flows pushed by modules in bulk, applying each batch to the flow state cache together.
+ */
+@RestController
+@RequestMapping("/rest/flowStates")
+public class FlowStateIngestController
+{
+    private static Logger logger = LoggerFactory.getLogger(FlowStateIngestController.class);
+
+    public static final String APPLIED = "applied";
+    public static final String DROPPED = "dropped";
+    public static final String RECEIVED = "received";
+
+    private FlowStateCache flowStateCache;
+
+    public FlowStateIngestController()
+    {
+        this(FlowStateCache.instance());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param flowStateCache the cache the changes are applied to
+     */
+    public FlowStateIngestController(FlowStateCache flowStateCache)
+    {
+        this.flowStateCache = flowStateCache;
+        if(this.flowStateCache == null)
+        {
+            throw new IllegalArgumentException("flowStateCache cannot be null!");
+        }
+    }
+
+    @PutMapping("/bulk")
+    @PreAuthorize("hasAnyAuthority('ALL','WebServiceAdmin')")
+    public ResponseEntity<Map<String, Object>> bulk(@RequestBody List<FlowStateChange> changes)
+    {
+        for(FlowStateChange change: changes)
+        {
+            if(change == null || change.getModuleName() == null || change.getFlowName() == null
+                || change.getState() == null)
+            {
+                return new ResponseEntity<>(Map.of("error", "moduleName, flowName and state are required, "
+                    + change), HttpStatus.BAD_REQUEST);
+            }
+        }
+
+        List<FlowStateChange> dropped = this.flowStateCache.putAll(changes);
+        if(!dropped.isEmpty())
+        {
+            logger.debug("Dropped {} out of order flow state changes. {}", dropped.size(), dropped);
+        }
+
+        int applied = changes.size() - dropped.size();
+        DashboardMetrics.countFlowStateIngest(APPLIED, applied);
+        DashboardMetrics.countFlowStateIngest(DROPPED, dropped.size());
+
+        return new ResponseEntity<>(Map.of(RECEIVED, changes.size(), APPLIED, applied, DROPPED, dropped.size())
+            , HttpStatus.OK);
+    }
+}
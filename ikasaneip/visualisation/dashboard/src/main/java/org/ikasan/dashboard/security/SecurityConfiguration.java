@@ -103,6 +103,7 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter
                                                                                                 "/frontend-es6/**")
             .permitAll().antMatchers("/authenticate").permitAll()
             .antMatchers("/swagger-ui.html").permitAll()
+            .antMatchers("/actuator/health").permitAll()
             // Allow all requests by logged in users.
             .anyRequest().authenticated()
             // Configure the login page.
@@ -111,7 +112,8 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter
 
             // Configure logout
             .and().logout().logoutSuccessUrl(LOGOUT_SUCCESS_URL).and().exceptionHandling()
-            .defaultAuthenticationEntryPointFor(jwtAuthenticationEntryPoint, new AntPathRequestMatcher("/rest/**"));
+            .defaultAuthenticationEntryPointFor(jwtAuthenticationEntryPoint, new AntPathRequestMatcher("/rest/**"))
+            .defaultAuthenticationEntryPointFor(jwtAuthenticationEntryPoint, new AntPathRequestMatcher("/actuator/**"));
         /**
          * Session Management should be set to stateless for JWT token, but due to VAADIN utilising
          * cookies we cannot do that
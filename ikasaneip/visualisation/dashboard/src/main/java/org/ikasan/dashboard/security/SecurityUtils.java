@@ -12,7 +12,9 @@ import org.springframework.security.core.context.SecurityContextHolder;
 
 import javax.servlet.http.HttpServletRequest;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 /**
@@ -22,6 +24,9 @@ import java.util.stream.Stream;
  */
 public final class SecurityUtils {
 
+    /** the module access of each user, by username */
+    private static final Map<String, UserModuleAccess> MODULE_ACCESS = new ConcurrentHashMap<>();
+
     private SecurityUtils() {
         // Util methods only
     }
@@ -60,21 +65,57 @@ public final class SecurityUtils {
      */
     public static Set<String> getAccessibleModules(IkasanAuthentication authentication)
     {
-        User user = (User)authentication.getPrincipal();
+        if(authentication.hasGrantedAuthority(SecurityConstants.ALL_AUTHORITY)){
+            return new HashSet<>();
+        }
 
-        Set<String> results = new HashSet<>();
+        return new HashSet<>(getModuleAccess(authentication).getModuleNames());
+    }
 
+    /**
+     * Get the Solr filter query restricting searches to the modules available for a given user.
+     *
+     * @param authentication
+     * @return the filter query, or null if the user can access all modules
+     */
+    public static String getModuleAccessFilterQuery(IkasanAuthentication authentication)
+    {
         if(authentication.hasGrantedAuthority(SecurityConstants.ALL_AUTHORITY)){
-            return results;
+            return null;
+        }
+
+        return getModuleAccess(authentication).getFilterQuery();
+    }
+
+    /**
+     * Discard the module access worked out for each user, to be called whenever the roles of a principal or the
+     * modules of a role change.
+     */
+    public static void invalidateAccessibleModules()
+    {
+        MODULE_ACCESS.clear();
+    }
+
+    private static UserModuleAccess getModuleAccess(IkasanAuthentication authentication)
+    {
+        User user = (User)authentication.getPrincipal();
+
+        // a new login loads the user afresh, so the access of a previous login is not reused
+        UserModuleAccess moduleAccess = MODULE_ACCESS.get(authentication.getName());
+        if(moduleAccess != null && moduleAccess.getUser() == user) {
+            return moduleAccess;
         }
 
+        Set<String> results = new HashSet<>();
+
         user.getPrincipals()
             .forEach(principal -> principal.getRoles()
                 .forEach(role -> role.getRoleModules()
                     .forEach(roleModule -> results.add(roleModule.getModuleName()))));
 
-        return results;
+        moduleAccess = new UserModuleAccess(user, results);
+        MODULE_ACCESS.put(authentication.getName(), moduleAccess);
+
+        return moduleAccess;
     }
 }
-
-
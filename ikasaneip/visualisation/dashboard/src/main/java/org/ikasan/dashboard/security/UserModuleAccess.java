@@ -0,0 +1,78 @@
+package org.ikasan.dashboard.security;
+
+import org.apache.solr.client.solrj.util.ClientUtils;
+import org.ikasan.dashboard.ui.util.SearchConstants;
+import org.ikasan.security.model.User;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The modules a user has been granted access to through the roles of their principals, worked out once when they
+ * first search after logging in along with the Solr filter query restricting searches to those modules.
+ *
+ * The filter query lists the modules in name order so that users holding the same modules share the same entry in
+ * the Solr filter cache.
+ */
+public class UserModuleAccess
+{
+    public static final String MODULE_NAME_FIELD = "moduleName";
+
+    private User user;
+    private Set<String> moduleNames;
+    private String filterQuery;
+
+    /**
+     * Constructor
+     *
+     * @param user the user that logged in
+     * @param moduleNames the modules the user can access
+     */
+    public UserModuleAccess(User user, Set<String> moduleNames)
+    {
+        this.user = user;
+        if(this.user == null)
+        {
+            throw new IllegalArgumentException("user cannot be null!");
+        }
+        if(moduleNames == null)
+        {
+            throw new IllegalArgumentException("moduleNames cannot be null!");
+        }
+        this.moduleNames = Collections.unmodifiableSet(new TreeSet<>(moduleNames));
+        this.filterQuery = toFilterQuery(this.moduleNames);
+    }
+
+    /**
+     * Build the filter query matching documents belonging to any of the modules.
+     *
+     * @param moduleNames the modules
+     * @return the filter query
+     */
+    public static String toFilterQuery(Set<String> moduleNames)
+    {
+        if(moduleNames.isEmpty())
+        {
+            return MODULE_NAME_FIELD + ":" + ClientUtils.escapeQueryChars(SearchConstants.NONSENSE_STRING);
+        }
+
+        // the terms parser matches the names as they are, without the query parser escaping or boolean clauses
+        return "{!terms f=" + MODULE_NAME_FIELD + "}" + String.join(",", new TreeSet<>(moduleNames));
+    }
+
+    public User getUser()
+    {
+        return user;
+    }
+
+    public Set<String> getModuleNames()
+    {
+        return moduleNames;
+    }
+
+    public String getFilterQuery()
+    {
+        return filterQuery;
+    }
+}
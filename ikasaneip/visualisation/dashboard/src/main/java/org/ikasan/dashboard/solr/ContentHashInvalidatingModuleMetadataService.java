@@ -0,0 +1,42 @@
+package org.ikasan.dashboard.solr;
+
+import org.ikasan.dashboard.cache.ModuleMetaDataCache;
+import org.ikasan.dashboard.cache.ModuleVisualisationCache;
+import org.ikasan.module.metadata.dao.SolrModuleMetadataDao;
+import org.ikasan.module.metadata.service.SolrModuleMetadataServiceImpl;
+
+/**
+ * Module metadata service that forgets the content hash of the metadata of a module when it is deleted, so that the
+ * metadata is written again the next time the module pushes it, even unchanged. The module is dropped from the module
+ * metadata and visualisation caches as well, as they are when its metadata is written.
+ */
+public class ContentHashInvalidatingModuleMetadataService extends SolrModuleMetadataServiceImpl
+{
+    private ContentHashStore contentHashStore;
+
+    /**
+     * Constructor
+     *
+     * @param solrModuleMetadataDao the module metadata dao
+     * @param contentHashStore the store of the hashes of the metadata last written
+     */
+    public ContentHashInvalidatingModuleMetadataService(SolrModuleMetadataDao solrModuleMetadataDao
+        , ContentHashStore contentHashStore)
+    {
+        super(solrModuleMetadataDao);
+        this.contentHashStore = contentHashStore;
+        if(this.contentHashStore == null)
+        {
+            throw new IllegalArgumentException("contentHashStore cannot be null!");
+        }
+    }
+
+    @Override
+    public void deleteById(String id)
+    {
+        super.deleteById(id);
+        this.contentHashStore.remove(ContentHashStore.MODULE_METADATA, id);
+        ModuleVisualisationCache.instance().invalidate(id);
+        ModuleMetaDataCache.instance().invalidate(id);
+    }
+}
@@ -0,0 +1,289 @@
+package org.ikasan.dashboard.solr;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.SolrResponse;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.request.QueryRequest;
+import org.apache.solr.client.solrj.request.UpdateRequest;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.params.CursorMarkParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * The content hashes of the metadata last written for each module, held in memory and persisted to Solr so that they
+ * survive a restart of the dashboard.
+ *
+ * Each hash is stored on a document of its own, whose id is made from the kind of metadata and the key of the
+ * metadata, e.g. the name of the module. The hashes are read from Solr the first time they are needed. Without a Solr
+ * client the hashes are held in memory only.
+ */
+public class ContentHashStore
+{
+    private static Logger logger = LoggerFactory.getLogger(ContentHashStore.class);
+
+    public static final String CORE = SolrClientFactory.CORE;
+    public static final String TYPE = "contentHash";
+    public static final String MODULE_METADATA = "moduleMetaData";
+    public static final String CONFIGURATION_METADATA = "configurationMetaData";
+    public static final int DEFAULT_COMMIT_WITHIN_MILLIS = 10000;
+
+    private static final String ID = "id";
+    private static final String TYPE_FIELD = "type";
+    private static final String HASH = "payload";
+    private static final String TIMESTAMP = "timestamp";
+    private static final int PAGE_SIZE = 1000;
+
+    private static ContentHashStore INSTANCE;
+
+    public static ContentHashStore instance()
+    {
+        if(INSTANCE == null)
+        {
+            synchronized (ContentHashStore.class)
+            {
+                if(INSTANCE == null)
+                {
+                    INSTANCE = new ContentHashStore();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private Map<String, String> hashes = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+    private volatile SolrClient solrClient;
+    private volatile String username;
+    private volatile String password;
+    private int commitWithinMillis = DEFAULT_COMMIT_WITHIN_MILLIS;
+
+    /**
+     * Constructor for a store holding the hashes in memory only, until it is given a Solr client.
+     */
+    public ContentHashStore()
+    {
+    }
+
+    /**
+     * Constructor
+     *
+     * @param solrClient the Solr client
+     * @param username the Solr username, or null if Solr is not secured
+     * @param password the Solr password
+     */
+    public ContentHashStore(SolrClient solrClient, String username, String password)
+    {
+        this.configure(solrClient, username, password);
+    }
+
+    /**
+     * Give the store the Solr client the hashes are persisted through, the hashes being read again when next needed.
+     *
+     * @param solrClient the Solr client
+     * @param username the Solr username, or null if Solr is not secured
+     * @param password the Solr password
+     */
+    public synchronized void configure(SolrClient solrClient, String username, String password)
+    {
+        if(solrClient == null)
+        {
+            throw new IllegalArgumentException("solrClient cannot be null!");
+        }
+        this.username = username;
+        this.password = password;
+        this.solrClient = solrClient;
+        this.loaded = false;
+    }
+
+    /**
+     * @param kind the kind of metadata, e.g. moduleMetaData
+     * @param key the key of the metadata
+     * @return the hash of the metadata last written, or null if none is known
+     */
+    public String get(String kind, String key)
+    {
+        this.load();
+        return this.hashes.get(id(kind, key));
+    }
+
+    /**
+     * Record the hashes of metadata that has been written.
+     *
+     * @param kind the kind of metadata
+     * @param hashes the hashes by the key of the metadata
+     */
+    public void put(String kind, Map<String, String> hashes)
+    {
+        if(hashes.isEmpty())
+        {
+            return;
+        }
+
+        this.load();
+        Map<String, String> ids = hashes.entrySet().stream()
+            .collect(Collectors.toMap(entry -> id(kind, entry.getKey()), Map.Entry::getValue));
+        this.hashes.putAll(ids);
+
+        if(this.solrClient == null)
+        {
+            return;
+        }
+
+        try
+        {
+            UpdateRequest update = new UpdateRequest();
+            long now = System.currentTimeMillis();
+            ids.forEach((id, hash) ->
+            {
+                SolrInputDocument document = new SolrInputDocument();
+                document.setField(ID, id);
+                document.setField(TYPE_FIELD, TYPE);
+                document.setField(HASH, hash);
+                document.setField(TIMESTAMP, now);
+                update.add(document);
+            });
+            update.setCommitWithin(this.commitWithinMillis);
+            this.process(update);
+        }
+        catch (Exception e)
+        {
+            // the hashes are still known until the dashboard is restarted, after which the metadata is written again
+            logger.warn("Could not persist {} content hashes of {}. {}", ids.size(), kind, e.getMessage());
+        }
+    }
+
+    /**
+     * Forget the hash of metadata changed other than by writing the whole of it, so that it is written again when
+     * next pushed.
+     *
+     * @param kind the kind of metadata
+     * @param key the key of the metadata
+     */
+    public void remove(String kind, String key)
+    {
+        this.load();
+        String id = id(kind, key);
+        this.hashes.remove(id);
+
+        if(this.solrClient == null)
+        {
+            return;
+        }
+
+        try
+        {
+            UpdateRequest update = new UpdateRequest();
+            update.deleteById(id);
+            update.setCommitWithin(this.commitWithinMillis);
+            this.process(update);
+        }
+        catch (Exception e)
+        {
+            logger.warn("Could not remove the content hash of {} [{}]. {}", kind, key, e.getMessage());
+        }
+    }
+
+    /**
+     * @return the number of hashes held
+     */
+    public int size()
+    {
+        this.load();
+        return this.hashes.size();
+    }
+
+    private void load()
+    {
+        if(this.loaded)
+        {
+            return;
+        }
+
+        synchronized (this)
+        {
+            if(this.loaded)
+            {
+                return;
+            }
+
+            if(this.solrClient != null)
+            {
+                try
+                {
+                    this.hashes.putAll(this.read());
+                    logger.info("Read {} content hashes from Solr core [{}].", this.hashes.size(), CORE);
+                }
+                catch (Exception e)
+                {
+                    // the metadata is written again as it is pushed, putting back the hashes as it goes
+                    logger.warn("Could not read the content hashes from Solr core [{}]. {}", CORE, e.getMessage());
+                }
+            }
+            this.loaded = true;
+        }
+    }
+
+    private Map<String, String> read() throws IOException, SolrServerException
+    {
+        SolrQuery query = new SolrQuery("*:*");
+        query.addFilterQuery(TYPE_FIELD + ":" + TYPE);
+        query.setFields(ID, HASH);
+        query.setRows(PAGE_SIZE);
+        query.setSort(ID, SolrQuery.ORDER.asc);
+
+        Map<String, String> hashes = new ConcurrentHashMap<>();
+        String cursorMark = CursorMarkParams.CURSOR_MARK_START;
+        while(true)
+        {
+            query.set(CursorMarkParams.CURSOR_MARK_PARAM, cursorMark);
+            QueryResponse response = this.process(new QueryRequest(query, SolrRequest.METHOD.POST));
+            for(SolrDocument document: response.getResults())
+            {
+                hashes.put((String) document.getFieldValue(ID), String.valueOf(document.getFieldValue(HASH)));
+            }
+
+            if(cursorMark.equals(response.getNextCursorMark()))
+            {
+                break;
+            }
+            cursorMark = response.getNextCursorMark();
+        }
+
+        return hashes;
+    }
+
+    private <T extends SolrResponse> T process(SolrRequest<T> request)
+        throws IOException, SolrServerException
+    {
+        if(this.username != null)
+        {
+            request.setBasicAuthCredentials(this.username, this.password);
+        }
+        return request.process(this.solrClient, CORE);
+    }
+
+    public int getCommitWithinMillis()
+    {
+        return commitWithinMillis;
+    }
+
+    public void setCommitWithinMillis(int commitWithinMillis)
+    {
+        this.commitWithinMillis = commitWithinMillis;
+    }
+
+    private static String id(String kind, String key)
+    {
+        return TYPE + "|" + kind + "|" + key;
+    }
+}
@@ -0,0 +1,134 @@
+package org.ikasan.dashboard.solr;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.request.QueryRequest;
+import org.apache.solr.common.params.CommonParams;
+import org.apache.solr.common.params.CursorMarkParams;
+import org.apache.solr.common.params.ModifiableSolrParams;
+import org.apache.solr.common.util.NamedList;
+
+import java.util.function.Supplier;
+
+/**
+ * Solr client decorator that turns the searches made within page(...) into cursorMark searches, so that every page of
+ * a large result set is fetched at the same cost however deep into the results it is, rather than Solr collecting
+ * and discarding all of the documents ahead of the page as it does for an offset.
+ *
+ * Each page starts from where the previous page of the cursor finished. The sort of the search is extended with the
+ * id so that it is total, as Solr requires of a cursor. Searches for a count rather than documents are passed through
+ * unchanged.
+ */
+public class CursorMarkSolrClient extends DelegatingSolrClient<CursorMarkSolrClient.Cursor>
+{
+    public static final String ID_FIELD = "id";
+
+    private static final ThreadLocal<Cursor> CURSOR = new ThreadLocal<>();
+
+    /**
+     * Constructor
+     *
+     * @param delegate the shared Solr client
+     */
+    public CursorMarkSolrClient(SolrClient delegate)
+    {
+        super(delegate, CURSOR);
+    }
+
+    /**
+     * Fetch the next page of a cursor.
+     *
+     * @param cursor the cursor
+     * @param search the search for a page, run on the calling thread
+     * @return the result of the search
+     */
+    public static <T> T page(Cursor cursor, Supplier<T> search)
+    {
+        if(CURSOR.get() != null)
+        {
+            throw new IllegalStateException("A search cannot page through more than one cursor!");
+        }
+
+        return within(CURSOR, cursor, search);
+    }
+
+    @Override
+    protected ModifiableSolrParams rebuild(QueryRequest request, String collection, Cursor cursor)
+    {
+        if(request.getParams().getInt(CommonParams.ROWS, 1) == 0)
+        {
+            return null;
+        }
+
+        ModifiableSolrParams params = new ModifiableSolrParams(request.getParams());
+        params.set(CursorMarkParams.CURSOR_MARK_PARAM, cursor.getMark());
+        params.remove(CommonParams.START);
+        params.set(CommonParams.SORT, getTotalSort(params.get(CommonParams.SORT)));
+
+        return params;
+    }
+
+    @Override
+    protected void received(NamedList<Object> response, Cursor cursor)
+    {
+        cursor.next((String) response.get(CursorMarkParams.CURSOR_MARK_NEXT));
+    }
+
+    /**
+     * Extend a sort with the id, unless it already sorts by it.
+     *
+     * @param sort the sort of the search, or null if it has none
+     * @return the sort
+     */
+    protected static String getTotalSort(String sort)
+    {
+        if(sort == null || sort.isBlank())
+        {
+            return ID_FIELD + " asc";
+        }
+
+        for(String clause: sort.split(","))
+        {
+            if(clause.trim().startsWith(ID_FIELD + " "))
+            {
+                return sort;
+            }
+        }
+
+        return sort + "," + ID_FIELD + " asc";
+    }
+
+    /**
+     * The position reached in a result set paged through with a cursor.
+     */
+    public static class Cursor
+    {
+        private String mark = CursorMarkParams.CURSOR_MARK_START;
+        private boolean finished = false;
+
+        private void next(String nextMark)
+        {
+            // Solr returns the same mark once the last page has been fetched
+            if(nextMark == null || nextMark.equals(this.mark))
+            {
+                this.finished = true;
+            }
+            else
+            {
+                this.mark = nextMark;
+            }
+        }
+
+        public String getMark()
+        {
+            return mark;
+        }
+
+        /**
+         * @return whether all of the pages of the result set have been fetched
+         */
+        public boolean isFinished()
+        {
+            return finished;
+        }
+    }
+}
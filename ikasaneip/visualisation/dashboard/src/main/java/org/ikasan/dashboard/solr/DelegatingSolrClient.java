@@ -0,0 +1,137 @@
+package org.ikasan.dashboard.solr;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.request.QueryRequest;
+import org.apache.solr.common.params.ModifiableSolrParams;
+import org.apache.solr.common.util.NamedList;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * Base of the Solr client decorators that change the queries made within a scope set on the calling thread, such as
+ * the filter queries of a search, and pass every other request to the shared Solr client unchanged.
+ *
+ * Each decorator opens its scope with a static method wrapping the search, as the search services are shared and
+ * only know the Solr client they were given. Within the scope each query is rebuilt with the parameters returned by
+ * rebuild(...) and sent to the shared Solr client with the path, response parser and credentials of the original.
+ *
+ * The shared Solr client is left open when this client is closed, as it is closed by the SolrClientFactory.
+ *
+ * @param <S> the state of the scope
+ */
+public abstract class DelegatingSolrClient<S> extends SolrClient
+{
+    private SolrClient delegate;
+    private ThreadLocal<S> scope;
+
+    /**
+     * Constructor
+     *
+     * @param delegate the shared Solr client
+     * @param scope the scope on the calling thread, unset outside of it
+     */
+    protected DelegatingSolrClient(SolrClient delegate, ThreadLocal<S> scope)
+    {
+        this.delegate = delegate;
+        if(this.delegate == null)
+        {
+            throw new IllegalArgumentException("delegate cannot be null!");
+        }
+        this.scope = scope;
+        if(this.scope == null)
+        {
+            throw new IllegalArgumentException("scope cannot be null!");
+        }
+    }
+
+    /**
+     * Run a search within a scope, putting back the scope it was made within, if any, once done.
+     *
+     * @param scope the scope
+     * @param state the state of the scope for the search
+     * @param search the search, run on the calling thread
+     * @return the result of the search
+     */
+    protected static <S, T> T within(ThreadLocal<S> scope, S state, Supplier<T> search)
+    {
+        S previous = scope.get();
+        scope.set(state);
+        try
+        {
+            return search.get();
+        }
+        finally
+        {
+            if(previous == null)
+            {
+                scope.remove();
+            }
+            else
+            {
+                scope.set(previous);
+            }
+        }
+    }
+
+    @Override
+    public NamedList<Object> request(SolrRequest request, String collection) throws SolrServerException, IOException
+    {
+        S state = this.scope.get();
+        if(state == null || !(request instanceof QueryRequest) || request.getParams() == null)
+        {
+            return this.delegate.request(request, collection);
+        }
+
+        ModifiableSolrParams params = this.rebuild((QueryRequest) request, collection, state);
+        if(params == null)
+        {
+            return this.delegate.request(request, collection);
+        }
+
+        QueryRequest rebuilt = new QueryRequest(params, request.getMethod());
+        rebuilt.setPath(request.getPath());
+        rebuilt.setResponseParser(request.getResponseParser());
+        rebuilt.setBasicAuthCredentials(request.getBasicAuthUser(), request.getBasicAuthPassword());
+
+        NamedList<Object> response = this.delegate.request(rebuilt, collection);
+        this.received(response, state);
+
+        return response;
+    }
+
+    /**
+     * Rebuild the parameters of a query made within the scope.
+     *
+     * @param request the query
+     * @param collection the collection queried
+     * @param state the state of the scope
+     * @return the parameters to send in place of those of the query, or null to send the query unchanged
+     */
+    protected abstract ModifiableSolrParams rebuild(QueryRequest request, String collection, S state);
+
+    /**
+     * Take in the response to a rebuilt query before it is returned, doing nothing unless overridden.
+     *
+     * @param response the response
+     * @param state the state of the scope
+     */
+    protected void received(NamedList<Object> response, S state)
+    {
+    }
+
+    protected SolrClient getDelegate()
+    {
+        return delegate;
+    }
+
+    /**
+     * The shared Solr client is closed by the SolrClientFactory rather than here.
+     */
+    @Override
+    public void close()
+    {
+    }
+}
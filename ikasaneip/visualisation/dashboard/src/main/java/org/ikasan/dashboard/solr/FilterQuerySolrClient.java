@@ -0,0 +1,71 @@
+package org.ikasan.dashboard.solr;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.request.QueryRequest;
+import org.apache.solr.common.params.CommonParams;
+import org.apache.solr.common.params.ModifiableSolrParams;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Solr client decorator that adds filter queries to the queries made within filter(...), such as the modules a user
+ * can access.
+ *
+ * Each filter is sent as its own fq parameter rather than being folded into the main query, so that Solr caches the
+ * documents it matches once and reuses them for every query, count and page fetch carrying the same filter.
+ */
+public class FilterQuerySolrClient extends DelegatingSolrClient<List<String>>
+{
+    private static final ThreadLocal<List<String>> FILTER_QUERIES = new ThreadLocal<>();
+
+    /**
+     * Constructor
+     *
+     * @param delegate the shared Solr client
+     */
+    public FilterQuerySolrClient(SolrClient delegate)
+    {
+        super(delegate, FILTER_QUERIES);
+    }
+
+    /**
+     * Make a search restricted by filter queries.
+     *
+     * @param filterQueries the filter queries, or an empty list to leave the search unrestricted
+     * @param search the search, run on the calling thread
+     * @return the result of the search
+     */
+    public static <T> T filter(List<String> filterQueries, Supplier<T> search)
+    {
+        List<String> previous = FILTER_QUERIES.get();
+        if(filterQueries.isEmpty() || filterQueries.equals(previous))
+        {
+            return search.get();
+        }
+        if(previous != null)
+        {
+            throw new IllegalStateException("A search cannot be restricted by more than one set of filter queries!");
+        }
+
+        return within(FILTER_QUERIES, List.copyOf(filterQueries), search);
+    }
+
+    /**
+     * @return the filter queries restricting searches on the calling thread, empty if there are none
+     */
+    public static List<String> getFilterQueries()
+    {
+        List<String> filterQueries = FILTER_QUERIES.get();
+        return filterQueries == null ? List.of() : filterQueries;
+    }
+
+    @Override
+    protected ModifiableSolrParams rebuild(QueryRequest request, String collection, List<String> filterQueries)
+    {
+        ModifiableSolrParams params = new ModifiableSolrParams(request.getParams());
+        params.add(CommonParams.FQ, filterQueries.toArray(new String[0]));
+
+        return params;
+    }
+}
@@ -0,0 +1,220 @@
+package org.ikasan.dashboard.solr;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.impl.Http2SolrClient;
+import org.apache.solr.client.solrj.impl.HttpSolrClient;
+import org.ikasan.dashboard.metrics.DashboardMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the single Solr client shared by all of the dashboard's Solr DAOs, so that they draw on one tuned
+ * connection pool rather than each holding a pool of its own.
+ *
+ * By default the client is a HttpSolrClient over a pooled Apache HttpClient, whose pool utilisation is published as
+ * metrics. Alternatively a Http2SolrClient can be used, which multiplexes requests over far fewer connections.
+ */
+public class SolrClientFactory implements Closeable
+{
+    private static Logger logger = LoggerFactory.getLogger(SolrClientFactory.class);
+
+    /** the core, or alias, read and written by the Ikasan Solr DAOs */
+    public static final String CORE = "ikasan";
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 128;
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 64;
+    public static final long DEFAULT_KEEP_ALIVE_MILLIS = 30000;
+    public static final int DEFAULT_CONNECTION_TIMEOUT_MILLIS = 15000;
+    public static final int DEFAULT_SOCKET_TIMEOUT_MILLIS = 120000;
+
+    private String solrUrl;
+    private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+    private int maxConnectionsPerRoute = DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+    private long keepAliveMillis = DEFAULT_KEEP_ALIVE_MILLIS;
+    private int connectionTimeoutMillis = DEFAULT_CONNECTION_TIMEOUT_MILLIS;
+    private int socketTimeoutMillis = DEFAULT_SOCKET_TIMEOUT_MILLIS;
+    private boolean compression = true;
+    private boolean http2 = false;
+
+    private SolrClient solrClient;
+    private CloseableHttpClient httpClient;
+
+    /**
+     * Constructor
+     *
+     * @param solrUrl the base url of the Solr server
+     */
+    public SolrClientFactory(String solrUrl)
+    {
+        this.solrUrl = solrUrl;
+        if(this.solrUrl == null)
+        {
+            throw new IllegalArgumentException("solrUrl cannot be null!");
+        }
+    }
+
+    /**
+     * Get the shared Solr client, creating it on first use.
+     *
+     * @return the shared Solr client
+     */
+    public synchronized SolrClient getSolrClient()
+    {
+        if(this.solrClient == null)
+        {
+            this.solrClient = this.http2 ? this.createHttp2SolrClient() : this.createHttpSolrClient();
+        }
+        return this.solrClient;
+    }
+
+    private SolrClient createHttpSolrClient()
+    {
+        logger.info("Creating shared Solr client for {} with {} connections, {} per route.", this.solrUrl
+            , this.maxConnections, this.maxConnectionsPerRoute);
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(this.maxConnections);
+        connectionManager.setDefaultMaxPerRoute(this.maxConnectionsPerRoute);
+        // check connections that have sat idle in the pool before reusing them, in case Solr has closed them
+        connectionManager.setValidateAfterInactivity(1000);
+
+        // HttpSolrClient handles compression itself so it is disabled on the underlying client
+        this.httpClient = HttpClientBuilder.create()
+            .setConnectionManager(connectionManager)
+            .setKeepAliveStrategy((response, context) ->
+            {
+                long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                return keepAlive > 0 ? Math.min(keepAlive, this.keepAliveMillis) : this.keepAliveMillis;
+            })
+            .evictExpiredConnections()
+            .evictIdleConnections(this.keepAliveMillis, TimeUnit.MILLISECONDS)
+            .disableContentCompression()
+            .build();
+
+        DashboardMetrics.registerSolrConnectionPool(connectionManager);
+
+        return new HttpSolrClient.Builder(this.solrUrl)
+            .withHttpClient(this.httpClient)
+            .allowCompression(this.compression)
+            .withConnectionTimeout(this.connectionTimeoutMillis)
+            .withSocketTimeout(this.socketTimeoutMillis)
+            .build();
+    }
+
+    private SolrClient createHttp2SolrClient()
+    {
+        logger.info("Creating shared HTTP/2 Solr client for {}.", this.solrUrl);
+
+        Http2SolrClient http2SolrClient = new Http2SolrClient.Builder(this.solrUrl)
+            .maxConnectionsPerHost(this.maxConnectionsPerRoute)
+            .connectionTimeout(this.connectionTimeoutMillis)
+            .idleTimeout(this.socketTimeoutMillis)
+            .build();
+
+        // the jetty client requests gzip responses unless its content decoders are removed
+        if(!this.compression)
+        {
+            http2SolrClient.getHttpClient().getContentDecoderFactories().clear();
+        }
+
+        return http2SolrClient;
+    }
+
+    @Override
+    public synchronized void close() throws IOException
+    {
+        if(this.solrClient != null)
+        {
+            this.solrClient.close();
+            this.solrClient = null;
+        }
+        if(this.httpClient != null)
+        {
+            this.httpClient.close();
+            this.httpClient = null;
+        }
+    }
+
+    public String getSolrUrl()
+    {
+        return solrUrl;
+    }
+
+    public int getMaxConnections()
+    {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections)
+    {
+        this.maxConnections = maxConnections;
+    }
+
+    public int getMaxConnectionsPerRoute()
+    {
+        return maxConnectionsPerRoute;
+    }
+
+    public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute)
+    {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+    }
+
+    public long getKeepAliveMillis()
+    {
+        return keepAliveMillis;
+    }
+
+    public void setKeepAliveMillis(long keepAliveMillis)
+    {
+        this.keepAliveMillis = keepAliveMillis;
+    }
+
+    public int getConnectionTimeoutMillis()
+    {
+        return connectionTimeoutMillis;
+    }
+
+    public void setConnectionTimeoutMillis(int connectionTimeoutMillis)
+    {
+        this.connectionTimeoutMillis = connectionTimeoutMillis;
+    }
+
+    public int getSocketTimeoutMillis()
+    {
+        return socketTimeoutMillis;
+    }
+
+    public void setSocketTimeoutMillis(int socketTimeoutMillis)
+    {
+        this.socketTimeoutMillis = socketTimeoutMillis;
+    }
+
+    public boolean isCompression()
+    {
+        return compression;
+    }
+
+    public void setCompression(boolean compression)
+    {
+        this.compression = compression;
+    }
+
+    public boolean isHttp2()
+    {
+        return http2;
+    }
+
+    public void setHttp2(boolean http2)
+    {
+        this.http2 = http2;
+    }
+}
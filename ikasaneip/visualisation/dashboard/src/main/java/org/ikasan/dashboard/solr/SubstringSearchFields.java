@@ -0,0 +1,167 @@
+package org.ikasan.dashboard.solr;
+
+import org.apache.solr.client.solrj.util.ClientUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The n-gram companion fields that let the search filters match any part of a module, flow or component name or an
+ * event id without a leading wildcard.
+ *
+ * Each companion field is copied from its identifier field and indexed as the lower case n-grams of the whole value,
+ * so that a filter is looked up as a single term rather than by scanning the term dictionary of the identifier field.
+ * The n-grams are 3 to 10 characters long to keep the number of terms in the index down. Filters longer than the
+ * largest n-gram must match each of their overlapping n-grams, and the rare filters shorter than the smallest n-gram
+ * still use a wildcard on the identifier field.
+ *
+ * The filters are only routed to the companion fields once the SubstringSearchMigration has confirmed that the Solr
+ * core has them. Until the documents stored before then have been reindexed, each filter also keeps the wildcard
+ * match on the identifier field for the documents that do not yet have the companion field.
+ */
+public class SubstringSearchFields
+{
+    public static final String FIELD_TYPE = "ikasan_substring";
+    public static final String FIELD_SUFFIX = "_substring";
+    public static final int MIN_GRAM_SIZE = 3;
+    public static final int MAX_GRAM_SIZE = 10;
+
+    public static final String MODULE_NAME = "moduleName";
+    public static final String FLOW_NAME = "flowName";
+    public static final String COMPONENT_NAME = "componentName";
+    public static final String EVENT_ID = "event";
+
+    /** the identifier fields, each with the companion field it is copied to */
+    public static final Map<String, String> FIELDS = Map.of(MODULE_NAME, MODULE_NAME + FIELD_SUFFIX
+        , FLOW_NAME, FLOW_NAME + FIELD_SUFFIX
+        , COMPONENT_NAME, COMPONENT_NAME + FIELD_SUFFIX
+        , EVENT_ID, EVENT_ID + FIELD_SUFFIX);
+
+    private static volatile boolean enabled = false;
+    private static volatile boolean reindexed = false;
+
+    private SubstringSearchFields()
+    {
+        // static methods only
+    }
+
+    /**
+     * Build the query matching documents whose identifier field contains the value.
+     *
+     * @param field the identifier field
+     * @param value the value typed into the filter
+     * @return the query
+     */
+    public static String contains(String field, String value)
+    {
+        String companionField = FIELDS.get(field);
+        if(companionField == null)
+        {
+            throw new IllegalArgumentException(String.format("Field [%s] has no substring companion field!", field));
+        }
+
+        if(value.length() < MIN_GRAM_SIZE)
+        {
+            return field + ":*" + ClientUtils.escapeQueryChars(value) + "*";
+        }
+
+        String term = value.toLowerCase(Locale.ROOT);
+
+        if(term.length() <= MAX_GRAM_SIZE)
+        {
+            return companionField + ":" + ClientUtils.escapeQueryChars(term);
+        }
+
+        // the value is longer than any indexed n-gram so has to match each of the n-grams it is made from
+        List<String> grams = new ArrayList<>();
+        for(int start = 0; start + MAX_GRAM_SIZE <= term.length(); start += MAX_GRAM_SIZE - 1)
+        {
+            grams.add(term.substring(start, start + MAX_GRAM_SIZE));
+        }
+        grams.add(term.substring(term.length() - MAX_GRAM_SIZE));
+
+        return grams.stream()
+            .distinct()
+            .map(gram -> companionField + ":" + ClientUtils.escapeQueryChars(gram))
+            .collect(Collectors.joining(" AND ", "(", ")"));
+    }
+
+    /**
+     * Build the query matching documents whose identifier field contains any of the values.
+     *
+     * @param field the identifier field
+     * @param values the values
+     * @return the query
+     */
+    public static String containsAny(String field, Collection<String> values)
+    {
+        return values.stream()
+            .map(value -> contains(field, value))
+            .collect(Collectors.joining(" OR "));
+    }
+
+    /**
+     * Build the search filter query matching documents whose identifier field contains the value.
+     *
+     * @param field the identifier field
+     * @param value the value typed into the filter
+     * @return the filter query
+     */
+    public static String filter(String field, String value)
+    {
+        return filter(field, List.of(value));
+    }
+
+    /**
+     * Build the search filter query matching documents whose identifier field contains any of the values, falling
+     * back to wildcards for the documents without the companion field until they have been reindexed.
+     *
+     * @param field the identifier field
+     * @param values the values
+     * @return the filter query
+     */
+    public static String filter(String field, Collection<String> values)
+    {
+        String query = containsAny(field, values);
+        if(reindexed)
+        {
+            return query;
+        }
+
+        String wildcards = values.stream()
+            .map(value -> field + ":*" + ClientUtils.escapeQueryChars(value) + "*")
+            .collect(Collectors.joining(" OR "));
+
+        return "(" + query + ") OR (+(" + wildcards + ") -" + FIELDS.get(field) + ":[* TO *])";
+    }
+
+    /**
+     * @return whether the search filters are routed to the companion fields
+     */
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled)
+    {
+        SubstringSearchFields.enabled = enabled;
+    }
+
+    /**
+     * @return whether every document has its companion fields, so that the filters no longer fall back to wildcards
+     */
+    public static boolean isReindexed()
+    {
+        return reindexed;
+    }
+
+    public static void setReindexed(boolean reindexed)
+    {
+        SubstringSearchFields.reindexed = reindexed;
+    }
+}
@@ -0,0 +1,472 @@
+package org.ikasan.dashboard.solr;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.SolrResponse;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.impl.HttpSolrClient;
+import org.apache.solr.client.solrj.request.LukeRequest;
+import org.apache.solr.client.solrj.request.QueryRequest;
+import org.apache.solr.client.solrj.request.UpdateRequest;
+import org.apache.solr.client.solrj.request.schema.AnalyzerDefinition;
+import org.apache.solr.client.solrj.request.schema.FieldTypeDefinition;
+import org.apache.solr.client.solrj.request.schema.SchemaRequest;
+import org.apache.solr.client.solrj.response.LukeResponse;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.client.solrj.response.schema.SchemaResponse;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrException;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.luke.FieldFlag;
+import org.apache.solr.common.params.CursorMarkParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Adds the SubstringSearchFields to an existing Solr core and reindexes the documents stored before they were added.
+ *
+ * The field type, companion fields and copy fields are added through the Schema API if the core does not already have
+ * them, which needs a managed schema. Cores with a classic schema.xml need them added by hand. Once the core has them
+ * the search filters are routed to the companion fields, falling back to wildcards for the documents without them.
+ *
+ * Copy fields only apply to documents as they are indexed, so the documents already in the core have to be indexed
+ * again before the filters find them. The reindex re-adds each document holding an identifier field without its
+ * companion field, in batches ordered by id, so it can be stopped and run again and picks up where it left off. Its
+ * completion is recorded by the core itself, in that no document is left without its companion fields, so the
+ * wildcard fallback is dropped once that is so, including on later starts and by other dashboards on the same core.
+ *
+ * A document is re-added from its stored values, so a field that is indexed but neither stored nor has doc values
+ * would be lost from it. The reindex refuses to run while any such field, other than a copy field destination, is in
+ * the index. Those cores need reindexing from the source of the documents, or the field made stored, instead. Copy
+ * field destinations are left out of the re-added document as they are copied again, and the document is re-added
+ * with the version it was read at, so that a document written meanwhile is skipped rather than overwritten.
+ *
+ * The dashboard runs the schema migration when it starts if substring search is enabled, and the reindex too if asked
+ * to, but the reindex of a large core is better run offline against the core from the command line, e.g.
+ *
+ *     java -cp ikasan-dashboard.jar -Dloader.main=org.ikasan.dashboard.solr.SubstringSearchMigration
+ *         org.springframework.boot.loader.PropertiesLauncher http://localhost:8983/solr [username password]
+ */
+public class SubstringSearchMigration
+{
+    private static Logger logger = LoggerFactory.getLogger(SubstringSearchMigration.class);
+
+    public static final String CORE = SolrClientFactory.CORE;
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private static final String ID = "id";
+    private static final String VERSION = "_version_";
+
+    private SolrClient solrClient;
+    private String username;
+    private String password;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private boolean reindex = false;
+
+    /**
+     * Constructor
+     *
+     * @param solrClient the Solr client
+     * @param username the Solr username, or null if Solr is not secured
+     * @param password the Solr password
+     */
+    public SubstringSearchMigration(SolrClient solrClient, String username, String password)
+    {
+        this.solrClient = solrClient;
+        if(this.solrClient == null)
+        {
+            throw new IllegalArgumentException("solrClient cannot be null!");
+        }
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * Migrate the schema, and reindex the existing documents if asked to, on a background thread so that the
+     * dashboard does not wait on Solr to start. The search filters are routed to the companion fields once the core
+     * is known to have them, and stop falling back to wildcards once every document has them.
+     */
+    public void start()
+    {
+        Thread migration = new Thread(() ->
+        {
+            try
+            {
+                SubstringSearchFields.setReindexed(false);
+                SubstringSearchFields.setEnabled(this.migrateSchema());
+                if(!SubstringSearchFields.isEnabled())
+                {
+                    return;
+                }
+
+                if(!this.isReindexed() && this.reindex)
+                {
+                    this.reindex();
+                }
+                SubstringSearchFields.setReindexed(this.isReindexed());
+
+                if(!SubstringSearchFields.isReindexed())
+                {
+                    logger.warn("Solr core [{}] has documents without substring search fields, search filters will "
+                        + "fall back to wildcards for them until they are reindexed.", CORE);
+                }
+            }
+            catch (Exception e)
+            {
+                logger.warn("Could not migrate Solr core [{}] for substring search, search filters will use wildcards "
+                    + "for documents without substring search fields. {}", CORE, e.getMessage());
+            }
+        }, "substring-search-migration");
+        migration.setDaemon(true);
+        migration.start();
+    }
+
+    /**
+     * Add the field type, companion fields and copy fields that the core does not already have.
+     *
+     * @return whether the core has all of the companion fields
+     */
+    public boolean migrateSchema() throws IOException, SolrServerException
+    {
+        SchemaResponse.FieldTypesResponse fieldTypes = this.process(new SchemaRequest.FieldTypes());
+        boolean hasFieldType = fieldTypes.getFieldTypes().stream()
+            .anyMatch(fieldType -> SubstringSearchFields.FIELD_TYPE.equals(fieldType.getAttributes().get("name")));
+        if(!hasFieldType)
+        {
+            logger.info("Adding field type [{}] to Solr core [{}].", SubstringSearchFields.FIELD_TYPE, CORE);
+            this.process(new SchemaRequest.AddFieldType(getFieldTypeDefinition()));
+        }
+
+        Set<Object> fieldNames = this.getFieldNames();
+        Set<String> copies = this.getCopyFields();
+
+        for(Map.Entry<String, String> field: SubstringSearchFields.FIELDS.entrySet())
+        {
+            if(!fieldNames.contains(field.getValue()))
+            {
+                logger.info("Adding field [{}] to Solr core [{}].", field.getValue(), CORE);
+
+                Map<String, Object> attributes = new HashMap<>();
+                attributes.put("name", field.getValue());
+                attributes.put("type", SubstringSearchFields.FIELD_TYPE);
+                attributes.put("indexed", true);
+                attributes.put("stored", false);
+                attributes.put("multiValued", false);
+                this.process(new SchemaRequest.AddField(attributes));
+            }
+
+            if(!copies.contains(field.getKey() + ">" + field.getValue()))
+            {
+                logger.info("Adding copy field [{}] to [{}] to Solr core [{}].", field.getKey(), field.getValue(), CORE);
+                this.process(new SchemaRequest.AddCopyField(field.getKey(), List.of(field.getValue())));
+            }
+        }
+
+        return this.hasCompanionFields();
+    }
+
+    /**
+     * @return whether the core has all of the companion fields and their copy fields
+     */
+    public boolean hasCompanionFields() throws IOException, SolrServerException
+    {
+        Set<Object> fieldNames = this.getFieldNames();
+        Set<String> copies = this.getCopyFields();
+
+        return SubstringSearchFields.FIELDS.entrySet().stream()
+            .allMatch(field -> fieldNames.contains(field.getValue())
+                && copies.contains(field.getKey() + ">" + field.getValue()));
+    }
+
+    private Set<Object> getFieldNames() throws IOException, SolrServerException
+    {
+        SchemaResponse.FieldsResponse fields = this.process(new SchemaRequest.Fields());
+        return fields.getFields().stream()
+            .map(field -> field.get("name"))
+            .collect(Collectors.toSet());
+    }
+
+    private Set<String> getCopyFields() throws IOException, SolrServerException
+    {
+        SchemaResponse.CopyFieldsResponse copyFields = this.process(new SchemaRequest.CopyFields());
+        return copyFields.getCopyFields().stream()
+            .map(copyField -> copyField.get("source") + ">" + copyField.get("dest"))
+            .collect(Collectors.toSet());
+    }
+
+    /**
+     * @return whether no document holds an identifier field without its companion field
+     */
+    public boolean isReindexed() throws IOException, SolrServerException
+    {
+        SolrQuery query = getUnindexedQuery();
+        query.setRows(0);
+
+        return this.process(new QueryRequest(query, SolrRequest.METHOD.POST)).getResults().getNumFound() == 0;
+    }
+
+    /**
+     * Index again the documents holding an identifier field without its companion field, so that the copy fields
+     * are applied to them.
+     *
+     * @return the number of documents reindexed
+     * @throws IllegalStateException if the index has a field whose values cannot be read back to re-add the documents
+     */
+    public long reindex() throws IOException, SolrServerException
+    {
+        Map<String, EnumSet<FieldFlag>> indexedFields = this.getIndexedFields();
+        Set<String> copyFieldDestinations = this.getCopyFieldDestinations();
+        Set<String> unreadableFields = this.getUnreadableFields(indexedFields, copyFieldDestinations);
+        if(!unreadableFields.isEmpty())
+        {
+            throw new IllegalStateException(String.format("Solr core [%s] cannot be reindexed in place, fields %s are "
+                + "indexed but neither stored nor have doc values so would be lost!", CORE, unreadableFields));
+        }
+
+        SolrQuery query = getUnindexedQuery();
+        // doc values are only returned by the * pattern when used as stored, so those fields are asked for by name
+        query.setFields("*", VERSION);
+        indexedFields.entrySet().stream()
+            .filter(field -> !VERSION.equals(field.getKey()) && !field.getValue().contains(FieldFlag.STORED)
+                && field.getValue().contains(FieldFlag.DOC_VALUES))
+            .forEach(field -> query.addField(field.getKey()));
+        query.setRows(this.batchSize);
+        query.setSort(ID, SolrQuery.ORDER.asc);
+
+        long reindexed = 0;
+        String cursorMark = CursorMarkParams.CURSOR_MARK_START;
+
+        while(true)
+        {
+            query.set(CursorMarkParams.CURSOR_MARK_PARAM, cursorMark);
+            QueryRequest request = new QueryRequest(query, SolrRequest.METHOD.POST);
+            QueryResponse response = this.process(request);
+
+            if(!response.getResults().isEmpty())
+            {
+                reindexed += this.add(response.getResults().stream()
+                    .map(document -> toInputDocument(document, copyFieldDestinations))
+                    .collect(Collectors.toList()));
+                logger.info("Reindexed {} documents of Solr core [{}] for substring search.", reindexed, CORE);
+            }
+
+            if(cursorMark.equals(response.getNextCursorMark()))
+            {
+                break;
+            }
+            cursorMark = response.getNextCursorMark();
+        }
+
+        UpdateRequest commit = new UpdateRequest();
+        commit.setAction(UpdateRequest.ACTION.COMMIT, true, true);
+        this.process(commit);
+
+        logger.info("Finished reindexing {} documents of Solr core [{}] for substring search.", reindexed, CORE);
+
+        return reindexed;
+    }
+
+    /**
+     * Re-add documents, each only if it has not been changed since it was read.
+     *
+     * @param documents the documents, each with the version it was read at
+     * @return the number of documents re-added, leaving out those changed or deleted meanwhile
+     */
+    protected int add(List<SolrInputDocument> documents) throws IOException, SolrServerException
+    {
+        try
+        {
+            UpdateRequest update = new UpdateRequest();
+            update.add(documents);
+            this.process(update);
+            return documents.size();
+        }
+        catch (SolrException e)
+        {
+            if(e.code() != SolrException.ErrorCode.CONFLICT.code)
+            {
+                throw e;
+            }
+        }
+
+        // a batch stops at its first version conflict, so the documents are added again one at a time
+        int added = 0;
+        for(SolrInputDocument document: documents)
+        {
+            try
+            {
+                UpdateRequest update = new UpdateRequest();
+                update.add(document);
+                this.process(update);
+                added++;
+            }
+            catch (SolrException e)
+            {
+                if(e.code() != SolrException.ErrorCode.CONFLICT.code)
+                {
+                    throw e;
+                }
+                logger.debug("Skipped reindexing document [{}] of Solr core [{}] as it has been changed since read."
+                    , document.getFieldValue(ID), CORE);
+            }
+        }
+        return added;
+    }
+
+    private Set<String> getCopyFieldDestinations() throws IOException, SolrServerException
+    {
+        return this.getCopyFields().stream()
+            .map(copy -> copy.substring(copy.indexOf('>') + 1))
+            .collect(Collectors.toSet());
+    }
+
+    /**
+     * @return the fields in the index whose values a document re-added from what can be read back would lose
+     */
+    private Set<String> getUnreadableFields(Map<String, EnumSet<FieldFlag>> indexedFields
+        , Set<String> copyFieldDestinations)
+    {
+        return indexedFields.entrySet().stream()
+            .filter(field -> !VERSION.equals(field.getKey()) && !copyFieldDestinations.contains(field.getKey()))
+            .filter(field -> field.getValue().contains(FieldFlag.INDEXED) && !field.getValue().contains(FieldFlag.STORED)
+                // multi valued doc values come back sorted and without duplicates
+                && (!field.getValue().contains(FieldFlag.DOC_VALUES) || field.getValue().contains(FieldFlag.MULTI_VALUED)))
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * @return the schema flags of each field, static or dynamic, that is in the index
+     */
+    private Map<String, EnumSet<FieldFlag>> getIndexedFields() throws IOException, SolrServerException
+    {
+        LukeRequest request = new LukeRequest();
+        request.setNumTerms(0);
+        LukeResponse response = this.process(request);
+
+        return response.getFieldInfo().values().stream()
+            .collect(Collectors.toMap(LukeResponse.FieldInfo::getName
+                , field -> LukeResponse.FieldInfo.parseFlags(field.getSchema())));
+    }
+
+    private static SolrQuery getUnindexedQuery()
+    {
+        SolrQuery query = new SolrQuery("*:*");
+        query.addFilterQuery(SubstringSearchFields.FIELDS.entrySet().stream()
+            .map(field -> "(+" + field.getKey() + ":[* TO *] -" + field.getValue() + ":[* TO *])")
+            .collect(Collectors.joining(" OR ")));
+        return query;
+    }
+
+    /**
+     * @param document the document read back
+     * @param copyFieldDestinations the fields the copy fields fill in again when the document is added
+     * @return the document to add, keeping the version it was read at so that it is only added if unchanged since
+     */
+    protected static SolrInputDocument toInputDocument(SolrDocument document, Set<String> copyFieldDestinations)
+    {
+        SolrInputDocument inputDocument = new SolrInputDocument();
+        document.getFieldNames().stream()
+            .filter(name -> !copyFieldDestinations.contains(name))
+            .forEach(name -> inputDocument.setField(name, document.get(name)));
+
+        return inputDocument;
+    }
+
+    private static FieldTypeDefinition getFieldTypeDefinition()
+    {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("name", SubstringSearchFields.FIELD_TYPE);
+        attributes.put("class", "solr.TextField");
+        attributes.put("omitNorms", true);
+        attributes.put("omitTermFreqAndPositions", true);
+
+        AnalyzerDefinition indexAnalyzer = new AnalyzerDefinition();
+        indexAnalyzer.setTokenizer(Map.of("class", "solr.KeywordTokenizerFactory"));
+        List<Map<String, Object>> filters = new ArrayList<>();
+        filters.add(Map.of("class", "solr.LowerCaseFilterFactory"));
+        filters.add(Map.of("class", "solr.NGramFilterFactory"
+            , "minGramSize", String.valueOf(SubstringSearchFields.MIN_GRAM_SIZE)
+            , "maxGramSize", String.valueOf(SubstringSearchFields.MAX_GRAM_SIZE)));
+        indexAnalyzer.setFilters(filters);
+
+        AnalyzerDefinition queryAnalyzer = new AnalyzerDefinition();
+        queryAnalyzer.setTokenizer(Map.of("class", "solr.KeywordTokenizerFactory"));
+        queryAnalyzer.setFilters(List.of(Map.of("class", "solr.LowerCaseFilterFactory")));
+
+        FieldTypeDefinition fieldTypeDefinition = new FieldTypeDefinition();
+        fieldTypeDefinition.setAttributes(attributes);
+        fieldTypeDefinition.setIndexAnalyzer(indexAnalyzer);
+        fieldTypeDefinition.setQueryAnalyzer(queryAnalyzer);
+
+        return fieldTypeDefinition;
+    }
+
+    private <T extends SolrResponse> T process(SolrRequest<T> request)
+        throws IOException, SolrServerException
+    {
+        if(this.username != null)
+        {
+            request.setBasicAuthCredentials(this.username, this.password);
+        }
+        return request.process(this.solrClient, CORE);
+    }
+
+    public int getBatchSize()
+    {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize)
+    {
+        this.batchSize = batchSize;
+    }
+
+    public boolean isReindex()
+    {
+        return reindex;
+    }
+
+    /**
+     * Reindex the existing documents without companion fields once the schema has been migrated when started.
+     *
+     * @param reindex
+     */
+    public void setReindex(boolean reindex)
+    {
+        this.reindex = reindex;
+    }
+
+    /**
+     * Migrate the schema of a core and reindex its existing documents.
+     *
+     * @param args the Solr url, optionally followed by the Solr username and password
+     */
+    public static void main(String[] args) throws Exception
+    {
+        if(args.length != 1 && args.length != 3)
+        {
+            System.err.println("Usage: SubstringSearchMigration <solr url> [<username> <password>]");
+            System.exit(1);
+        }
+
+        try(SolrClient solrClient = new HttpSolrClient.Builder(args[0]).build())
+        {
+            SubstringSearchMigration migration = new SubstringSearchMigration(solrClient
+                , args.length == 3 ? args[1] : null, args.length == 3 ? args[2] : null);
+            migration.migrateSchema();
+            migration.reindex();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.ikasan.dashboard.solr;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.request.QueryRequest;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
+import org.apache.solr.common.params.CommonParams;
+import org.apache.solr.common.params.HighlightParams;
+import org.apache.solr.common.params.ModifiableSolrParams;
+import org.apache.solr.common.util.NamedList;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Solr client decorator that lets the search result grids, which only display a summary of each document, ask for
+ * just that summary.
+ *
+ * Queries made within summary(...) are restricted to the summary fields, so that the payload, raw payload and error
+ * detail of each document are not pulled back for every page of results. In their place Solr returns a snippet of
+ * the payload and error message, highlighted around the search term where it matches or otherwise the leading
+ * characters, which is set on the returned documents under the original field names. The full document is fetched
+ * by id when it is opened.
+ */
+public class SummaryProjectionSolrClient extends DelegatingSolrClient<Boolean>
+{
+    public static final String[] SUMMARY_FIELDS = {"id", "type", "moduleName", "flowName", "componentName", "event"
+        , "relatedEventId", "errorUri", "errorAction", "exceptionClass", "timestamp", "expiry"};
+    public static final String[] SNIPPET_FIELDS = {"payload", "errorMessage"};
+    public static final int DEFAULT_SNIPPET_LENGTH = 200;
+
+    private static final String RESPONSE = "response";
+    private static final String HIGHLIGHTING = "highlighting";
+
+    private static final ThreadLocal<Boolean> SUMMARY = new ThreadLocal<>();
+
+    private int snippetLength = DEFAULT_SNIPPET_LENGTH;
+
+    /**
+     * Constructor
+     *
+     * @param delegate the shared Solr client
+     */
+    public SummaryProjectionSolrClient(SolrClient delegate)
+    {
+        super(delegate, SUMMARY);
+    }
+
+    /**
+     * Make a search whose documents are restricted to the summary fields and snippets.
+     *
+     * @param search the search, run on the calling thread
+     * @return the result of the search
+     */
+    public static <T> T summary(Supplier<T> search)
+    {
+        return within(SUMMARY, Boolean.TRUE, search);
+    }
+
+    @Override
+    protected ModifiableSolrParams rebuild(QueryRequest request, String collection, Boolean summary)
+    {
+        // only queries returning documents are projected, counts are passed through as they are
+        if(request.getParams().getInt(CommonParams.ROWS, 10) == 0)
+        {
+            return null;
+        }
+
+        ModifiableSolrParams params = new ModifiableSolrParams(request.getParams());
+        params.set(CommonParams.FL, String.join(",", SUMMARY_FIELDS));
+
+        params.set(HighlightParams.HIGHLIGHT, true);
+        params.set(HighlightParams.METHOD, "original");
+        params.set(HighlightParams.FIELDS, String.join(",", SNIPPET_FIELDS));
+        params.set(HighlightParams.SNIPPETS, 1);
+        params.set(HighlightParams.FRAGSIZE, this.snippetLength);
+        params.set(HighlightParams.MAX_ALTERNATE_FIELD_LENGTH, this.snippetLength);
+        params.set(HighlightParams.SIMPLE_PRE, "");
+        params.set(HighlightParams.SIMPLE_POST, "");
+        for(String field: SNIPPET_FIELDS)
+        {
+            // documents not matching the search term get the leading characters of the field instead
+            params.set("f." + field + "." + HighlightParams.ALTERNATE_FIELD, field);
+        }
+
+        return params;
+    }
+
+    /**
+     * Set the snippets on the documents in place of the fields they were taken from.
+     */
+    @Override
+    protected void received(NamedList<Object> response, Boolean summary)
+    {
+        Object documents = response.get(RESPONSE);
+        Object highlighting = response.remove(HIGHLIGHTING);
+        if(!(documents instanceof SolrDocumentList) || !(highlighting instanceof NamedList))
+        {
+            return;
+        }
+
+        for(SolrDocument document: (SolrDocumentList) documents)
+        {
+            Object snippets = ((NamedList<?>) highlighting).get(String.valueOf(document.getFieldValue("id")));
+            if(!(snippets instanceof NamedList))
+            {
+                continue;
+            }
+
+            for(String field: SNIPPET_FIELDS)
+            {
+                Object snippet = ((NamedList<?>) snippets).get(field);
+                if(snippet instanceof List && !((List<?>) snippet).isEmpty())
+                {
+                    document.setField(field, ((List<?>) snippet).get(0));
+                }
+            }
+        }
+    }
+
+    public int getSnippetLength()
+    {
+        return snippetLength;
+    }
+
+    public void setSnippetLength(int snippetLength)
+    {
+        this.snippetLength = snippetLength;
+    }
+}
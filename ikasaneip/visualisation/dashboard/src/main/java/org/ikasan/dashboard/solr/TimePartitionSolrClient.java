@@ -0,0 +1,222 @@
+package org.ikasan.dashboard.solr;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.request.CollectionAdminRequest;
+import org.apache.solr.client.solrj.request.QueryRequest;
+import org.apache.solr.client.solrj.response.CollectionAdminResponse;
+import org.apache.solr.common.params.ModifiableSolrParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Solr client decorator that routes the searches made within window(...) to just the partitions of a time routed
+ * alias that overlap the time window searched, so that searching a recent window stays fast however much history
+ * the alias holds.
+ *
+ * A time routed alias spreads the documents written to it over collections named alias__TRA__date, each holding the
+ * documents timestamped from its date up to the date of the next one, e.g. one collection a day. Old collections are
+ * dropped by Solr once they are older than the router.autoDeleteAge of the alias, e.g.
+ *
+ *     /solr/admin/collections?action=CREATEALIAS&amp;name=ikasan&amp;router.name=time&amp;router.field=timestamp
+ *         &amp;router.start=NOW/DAY&amp;router.interval=+1DAY&amp;router.autoDeleteAge=/DAY-90DAYS
+ *         &amp;create-collection.collection.configName=ikasan&amp;create-collection.numShards=1
+ *
+ * The collections of the alias are looked up from Solr and refreshed periodically. All searches are passed through
+ * unchanged when the alias is a plain collection.
+ */
+public class TimePartitionSolrClient extends DelegatingSolrClient<long[]>
+{
+    private static Logger logger = LoggerFactory.getLogger(TimePartitionSolrClient.class);
+
+    public static final String PARTITION_SEPARATOR = "__TRA__";
+    public static final long DEFAULT_REFRESH_INTERVAL_MILLIS = 60000;
+
+    private static final String COLLECTION = "collection";
+
+    private static final DateTimeFormatter PARTITION_DATE_FORMAT = new DateTimeFormatterBuilder()
+        .appendPattern("yyyy-MM-dd[_HH[_mm[_ss]]]")
+        .parseDefaulting(ChronoField.HOUR_OF_DAY, 0)
+        .parseDefaulting(ChronoField.MINUTE_OF_HOUR, 0)
+        .parseDefaulting(ChronoField.SECOND_OF_MINUTE, 0)
+        .toFormatter();
+
+    private static final ThreadLocal<long[]> WINDOW = new ThreadLocal<>();
+
+    private String alias;
+    private String username;
+    private String password;
+    private long refreshIntervalMillis = DEFAULT_REFRESH_INTERVAL_MILLIS;
+
+    /** the partitions of the alias by the time they start from */
+    private volatile NavigableMap<Long, String> partitions = Collections.emptyNavigableMap();
+    private volatile long refreshed = 0;
+
+    /**
+     * Constructor
+     *
+     * @param delegate the shared Solr client
+     * @param alias the time routed alias searched
+     * @param username the Solr username, or null if Solr is not secured
+     * @param password the Solr password
+     */
+    public TimePartitionSolrClient(SolrClient delegate, String alias, String username, String password)
+    {
+        super(delegate, WINDOW);
+        this.alias = alias;
+        if(this.alias == null)
+        {
+            throw new IllegalArgumentException("alias cannot be null!");
+        }
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * Make a search of a time window.
+     *
+     * @param startTime the start of the window
+     * @param endTime the end of the window
+     * @param search the search, run on the calling thread
+     * @return the result of the search
+     */
+    public static <T> T window(long startTime, long endTime, Supplier<T> search)
+    {
+        return within(WINDOW, new long[]{startTime, endTime}, search);
+    }
+
+    @Override
+    protected ModifiableSolrParams rebuild(QueryRequest request, String collection, long[] window)
+    {
+        if(!this.alias.equals(collection) || request.getParams().get(COLLECTION) != null)
+        {
+            return null;
+        }
+
+        List<String> partitions = this.getPartitions(window[0], window[1]);
+        if(partitions.isEmpty())
+        {
+            return null;
+        }
+
+        ModifiableSolrParams params = new ModifiableSolrParams(request.getParams());
+        params.set(COLLECTION, String.join(",", partitions));
+
+        return params;
+    }
+
+    /**
+     * Get the partitions holding documents timestamped within a window.
+     *
+     * @param startTime the start of the window
+     * @param endTime the end of the window
+     * @return the partitions, empty if the alias is not time routed
+     */
+    protected List<String> getPartitions(long startTime, long endTime)
+    {
+        NavigableMap<Long, String> partitions = this.refreshPartitions();
+        if(partitions.isEmpty())
+        {
+            return List.of();
+        }
+
+        // the partition the window starts in, and every partition starting before the window ends
+        Long from = partitions.floorKey(Math.min(startTime, endTime));
+        Long to = partitions.floorKey(endTime);
+        if(to == null)
+        {
+            // the window ends before the oldest partition, which will find nothing in it
+            return List.of(partitions.firstEntry().getValue());
+        }
+
+        return new ArrayList<>(partitions.subMap(from == null ? partitions.firstKey() : from, true, to, true).values());
+    }
+
+    private NavigableMap<Long, String> refreshPartitions()
+    {
+        if(System.currentTimeMillis() - this.refreshed < this.refreshIntervalMillis)
+        {
+            return this.partitions;
+        }
+
+        synchronized (this)
+        {
+            if(System.currentTimeMillis() - this.refreshed < this.refreshIntervalMillis)
+            {
+                return this.partitions;
+            }
+
+            try
+            {
+                CollectionAdminRequest.ListAliases listAliases = new CollectionAdminRequest.ListAliases();
+                if(this.username != null)
+                {
+                    listAliases.setBasicAuthCredentials(this.username, this.password);
+                }
+                CollectionAdminResponse response = listAliases.process(this.getDelegate());
+
+                NavigableMap<Long, String> partitions = new TreeMap<>();
+                response.getAliasesAsLists().getOrDefault(this.alias, List.of()).forEach(partition ->
+                {
+                    Long start = this.getPartitionStart(partition);
+                    if(start != null)
+                    {
+                        partitions.put(start, partition);
+                    }
+                });
+
+                this.partitions = Collections.unmodifiableNavigableMap(partitions);
+            }
+            catch (Exception e)
+            {
+                // searches carry on across the whole alias until the partitions can be looked up
+                logger.warn("Could not look up the partitions of Solr alias [{}]. {}", this.alias, e.getMessage());
+            }
+            this.refreshed = System.currentTimeMillis();
+
+            return this.partitions;
+        }
+    }
+
+    private Long getPartitionStart(String partition)
+    {
+        String prefix = this.alias + PARTITION_SEPARATOR;
+        if(!partition.startsWith(prefix))
+        {
+            return null;
+        }
+
+        try
+        {
+            return LocalDateTime.parse(partition.substring(prefix.length()), PARTITION_DATE_FORMAT)
+                .toInstant(ZoneOffset.UTC).toEpochMilli();
+        }
+        catch (DateTimeParseException e)
+        {
+            logger.warn("Ignoring collection [{}] of Solr alias [{}] not named by date.", partition, this.alias);
+            return null;
+        }
+    }
+
+    public long getRefreshIntervalMillis()
+    {
+        return refreshIntervalMillis;
+    }
+
+    public void setRefreshIntervalMillis(long refreshIntervalMillis)
+    {
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+}
@@ -0,0 +1,347 @@
+package org.ikasan.dashboard.task;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Application wide executor of the background work started from the UI, such as replays, resubmissions, flow
+ * control and user directory synchronisation, so that a click no longer creates a thread of its own.
+ *
+ * At most the global limit of tasks run at once, each user having at most the per user limit of them running or
+ * waiting for a thread, so that one user's bulk actions cannot hold up everybody else's. A user's further tasks wait
+ * in submission order until one of their earlier tasks finishes. Tasks can be cancelled whether waiting or running,
+ * and on shutdown running tasks are given a grace period to finish before being interrupted. A running task only
+ * gives up its place once it has returned, however long it takes to respond to being interrupted.
+ */
+public class DashboardTaskExecutor implements Closeable
+{
+    private static Logger logger = LoggerFactory.getLogger(DashboardTaskExecutor.class);
+
+    public static final int DEFAULT_GLOBAL_LIMIT = 16;
+    public static final int DEFAULT_USER_LIMIT = 4;
+    public static final long DEFAULT_SHUTDOWN_TIMEOUT_MILLIS = 30000;
+
+    public static final String SYSTEM_OWNER = "system";
+
+    private static DashboardTaskExecutor INSTANCE;
+
+    public static DashboardTaskExecutor instance()
+    {
+        if(INSTANCE == null)
+        {
+            synchronized (DashboardTaskExecutor.class)
+            {
+                if(INSTANCE == null)
+                {
+                    INSTANCE = new DashboardTaskExecutor();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private ThreadPoolExecutor executor;
+    private int userLimit = DEFAULT_USER_LIMIT;
+    private long shutdownTimeoutMillis = DEFAULT_SHUTDOWN_TIMEOUT_MILLIS;
+
+    private AtomicLong ids = new AtomicLong();
+    private Map<Long, ManagedTask> tasks = new LinkedHashMap<>();
+    private Set<Long> dispatchedTasks = new HashSet<>();
+    private Set<Long> runningTasks = new HashSet<>();
+    private Map<String, Integer> dispatched = new HashMap<>();
+    private Map<String, Deque<ManagedTask>> waiting = new HashMap<>();
+
+    protected DashboardTaskExecutor()
+    {
+        AtomicInteger threads = new AtomicInteger();
+        ThreadFactory threadFactory = runnable ->
+        {
+            Thread thread = new Thread(runnable, "dashboard-task-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        this.executor = new ThreadPoolExecutor(DEFAULT_GLOBAL_LIMIT, DEFAULT_GLOBAL_LIMIT, 60L, TimeUnit.SECONDS
+            , new LinkedBlockingQueue<>(), threadFactory);
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Submit a task on behalf of the user of the calling thread, running it with that user's security context.
+     *
+     * @param description what the task does, as listed to administrators
+     * @param runnable the task
+     * @return the submitted task
+     */
+    public ManagedTask submit(String description, Runnable runnable)
+    {
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        Authentication authentication = securityContext.getAuthentication();
+
+        return this.submit(authentication == null ? SYSTEM_OWNER : authentication.getName(), description, () ->
+        {
+            SecurityContextHolder.setContext(securityContext);
+            try
+            {
+                runnable.run();
+            }
+            finally
+            {
+                SecurityContextHolder.clearContext();
+            }
+        });
+    }
+
+    /**
+     * Submit a task.
+     *
+     * @param owner the user the task is run for
+     * @param description what the task does, as listed to administrators
+     * @param runnable the task
+     * @return the submitted task
+     */
+    public synchronized ManagedTask submit(String owner, String description, Runnable runnable)
+    {
+        if(this.executor.isShutdown())
+        {
+            throw new RejectedExecutionException("The dashboard task executor has been shut down!");
+        }
+
+        ManagedTask task = new ManagedTask(this.ids.incrementAndGet(), owner, description, this);
+        task.setFuture(new FutureTask<Void>(() -> this.run(task, runnable), null)
+        {
+            @Override
+            protected void done()
+            {
+                // a task that started frees its place when it returns rather than when it is cancelled
+                cancelledBeforeStarting(task);
+            }
+        });
+        this.tasks.put(task.getId(), task);
+
+        if(this.dispatched.getOrDefault(owner, 0) < this.userLimit)
+        {
+            this.dispatch(task);
+        }
+        else
+        {
+            logger.debug("Task [{}] of [{}] waiting for an earlier task to finish.", description, owner);
+            this.waiting.computeIfAbsent(owner, key -> new ArrayDeque<>()).addLast(task);
+        }
+
+        return task;
+    }
+
+    private void dispatch(ManagedTask task)
+    {
+        this.dispatchedTasks.add(task.getId());
+        this.dispatched.merge(task.getOwner(), 1, Integer::sum);
+        this.executor.execute(task.getFuture());
+    }
+
+    private void run(ManagedTask task, Runnable runnable)
+    {
+        if(!this.starting(task))
+        {
+            return;
+        }
+
+        task.started();
+        try
+        {
+            runnable.run();
+        }
+        catch (RuntimeException e)
+        {
+            logger.error(String.format("Task [%s] of [%s] failed.", task.getDescription(), task.getOwner()), e);
+        }
+        finally
+        {
+            this.finished(task);
+        }
+    }
+
+    /**
+     * @return whether the task is to be run, false if it was cancelled and its place freed before it could start
+     */
+    private synchronized boolean starting(ManagedTask task)
+    {
+        return this.tasks.containsKey(task.getId()) && this.runningTasks.add(task.getId());
+    }
+
+    private synchronized void cancelledBeforeStarting(ManagedTask task)
+    {
+        if(!this.runningTasks.contains(task.getId()))
+        {
+            this.finished(task);
+        }
+    }
+
+    private synchronized void finished(ManagedTask task)
+    {
+        if(this.tasks.remove(task.getId()) == null)
+        {
+            return;
+        }
+        this.runningTasks.remove(task.getId());
+
+        Deque<ManagedTask> waitingTasks = this.waiting.get(task.getOwner());
+        if(!this.dispatchedTasks.remove(task.getId()))
+        {
+            // cancelled before it was dispatched, whether still waiting or taken off the queue on shutdown
+            if(waitingTasks != null && waitingTasks.remove(task) && waitingTasks.isEmpty())
+            {
+                this.waiting.remove(task.getOwner());
+            }
+            return;
+        }
+
+        this.dispatched.computeIfPresent(task.getOwner(), (owner, count) -> count > 1 ? count - 1 : null);
+
+        ManagedTask next = waitingTasks == null ? null : waitingTasks.pollFirst();
+        if(next != null)
+        {
+            if(waitingTasks.isEmpty())
+            {
+                this.waiting.remove(task.getOwner());
+            }
+            if(this.executor.isShutdown())
+            {
+                next.getFuture().cancel(false);
+            }
+            else
+            {
+                this.dispatch(next);
+            }
+        }
+    }
+
+    /**
+     * Cancel a task, interrupting it if it is running. A running task keeps its place until it returns.
+     *
+     * @param task the task
+     * @return true if the task was cancelled, false if it had already finished
+     */
+    public boolean cancel(ManagedTask task)
+    {
+        boolean cancelled = task.getFuture().cancel(true);
+        if(cancelled)
+        {
+            logger.info("Task [{}] of [{}] cancelled.", task.getDescription(), task.getOwner());
+            this.executor.purge();
+        }
+        return cancelled;
+    }
+
+    /**
+     * @return the tasks running or waiting to run, oldest first
+     */
+    public synchronized List<ManagedTask> getTasks()
+    {
+        List<ManagedTask> tasks = new ArrayList<>(this.tasks.values());
+        tasks.sort(Comparator.comparing(ManagedTask::getSubmitted));
+        return tasks;
+    }
+
+    /**
+     * Stop accepting tasks, wait for running and waiting tasks to finish and then interrupt whatever is left.
+     */
+    @Override
+    public void close()
+    {
+        List<ManagedTask> neverDispatched = new ArrayList<>();
+        synchronized (this)
+        {
+            if(this.executor.isShutdown())
+            {
+                return;
+            }
+            this.executor.shutdown();
+
+            this.waiting.values().forEach(neverDispatched::addAll);
+        }
+        neverDispatched.forEach(task -> task.getFuture().cancel(false));
+
+        try
+        {
+            if(!this.executor.awaitTermination(this.shutdownTimeoutMillis, TimeUnit.MILLISECONDS))
+            {
+                List<Runnable> interrupted = this.executor.shutdownNow();
+                logger.warn("Dashboard tasks still running after {}ms were interrupted, {} waiting tasks were not run."
+                    , this.shutdownTimeoutMillis, interrupted.size());
+            }
+        }
+        catch (InterruptedException e)
+        {
+            this.executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        if(!neverDispatched.isEmpty())
+        {
+            logger.warn("{} dashboard tasks waiting on shutdown were not run.", neverDispatched.size());
+        }
+    }
+
+    public int getGlobalLimit()
+    {
+        return this.executor.getMaximumPoolSize();
+    }
+
+    public void setGlobalLimit(int globalLimit)
+    {
+        if(globalLimit > this.executor.getMaximumPoolSize())
+        {
+            this.executor.setMaximumPoolSize(globalLimit);
+            this.executor.setCorePoolSize(globalLimit);
+        }
+        else
+        {
+            this.executor.setCorePoolSize(globalLimit);
+            this.executor.setMaximumPoolSize(globalLimit);
+        }
+    }
+
+    public int getUserLimit()
+    {
+        return userLimit;
+    }
+
+    public synchronized void setUserLimit(int userLimit)
+    {
+        this.userLimit = userLimit;
+    }
+
+    public long getShutdownTimeoutMillis()
+    {
+        return shutdownTimeoutMillis;
+    }
+
+    public void setShutdownTimeoutMillis(long shutdownTimeoutMillis)
+    {
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    }
+}
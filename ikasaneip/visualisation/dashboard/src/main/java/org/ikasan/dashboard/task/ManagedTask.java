@@ -0,0 +1,103 @@
+package org.ikasan.dashboard.task;
+
+import java.util.concurrent.Future;
+
+/**
+ * A background task submitted to the DashboardTaskExecutor, as listed to administrators.
+ */
+public class ManagedTask
+{
+    public enum State
+    {
+        QUEUED,
+        RUNNING
+    }
+
+    private final long id;
+    private final String owner;
+    private final String description;
+    private final long submitted;
+    private volatile long started;
+    private Future<Void> future;
+    private DashboardTaskExecutor executor;
+
+    protected ManagedTask(long id, String owner, String description, DashboardTaskExecutor executor)
+    {
+        this.id = id;
+        this.owner = owner;
+        this.description = description;
+        this.executor = executor;
+        this.submitted = System.currentTimeMillis();
+    }
+
+    protected void started()
+    {
+        this.started = System.currentTimeMillis();
+    }
+
+    /**
+     * Cancel the task, interrupting it if it is running.
+     *
+     * @return true if the task was cancelled, false if it had already finished
+     */
+    public boolean cancel()
+    {
+        return this.executor.cancel(this);
+    }
+
+    public long getId()
+    {
+        return id;
+    }
+
+    public String getOwner()
+    {
+        return owner;
+    }
+
+    public String getDescription()
+    {
+        return description;
+    }
+
+    public long getSubmitted()
+    {
+        return submitted;
+    }
+
+    /**
+     * @return when the task started running, or 0 if it is still queued
+     */
+    public long getStarted()
+    {
+        return started;
+    }
+
+    public State getState()
+    {
+        return this.started == 0 ? State.QUEUED : State.RUNNING;
+    }
+
+    /**
+     * @return how long the task has been running, or has been queued if it has not yet started, in milliseconds
+     */
+    public long getElapsedMillis()
+    {
+        return System.currentTimeMillis() - (this.started == 0 ? this.submitted : this.started);
+    }
+
+    public boolean isDone()
+    {
+        return this.future.isDone();
+    }
+
+    protected Future<Void> getFuture()
+    {
+        return future;
+    }
+
+    protected void setFuture(Future<Void> future)
+    {
+        this.future = future;
+    }
+}
@@ -0,0 +1,113 @@
+package org.ikasan.dashboard.trace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single Vaadin server round trip or UI access task, along with the Solr and REST calls made while it held the
+ * session lock.
+ */
+public class OperationTrace
+{
+    public static final String REQUEST = "request";
+    public static final String ACCESS = "access";
+
+    private String kind;
+    private String route;
+    private String trigger;
+    private String thread;
+    private long timestamp;
+    private long durationMillis;
+    private List<TraceSpan> spans = new ArrayList<>();
+
+    private long startNanos;
+
+    /**
+     * Constructor
+     *
+     * @param kind REQUEST or ACCESS
+     * @param route the view the UI was showing, if known
+     */
+    public OperationTrace(String kind, String route)
+    {
+        this.kind = kind;
+        this.route = route;
+        this.thread = Thread.currentThread().getName();
+        this.timestamp = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+    }
+
+    void addSpan(String type, String name, long spanStartNanos, long spanEndNanos)
+    {
+        this.spans.add(new TraceSpan(type, name, (spanStartNanos - this.startNanos) / 1000000
+            , (spanEndNanos - spanStartNanos) / 1000000));
+    }
+
+    void finish()
+    {
+        this.durationMillis = (System.nanoTime() - this.startNanos) / 1000000;
+    }
+
+    void setRoute(String route)
+    {
+        this.route = route;
+    }
+
+    void setTrigger(String trigger)
+    {
+        this.trigger = trigger;
+    }
+
+    public String getKind()
+    {
+        return kind;
+    }
+
+    public String getRoute()
+    {
+        return route;
+    }
+
+    /**
+     * @return the listener or component class that triggered the work, if known
+     */
+    public String getTrigger()
+    {
+        return trigger;
+    }
+
+    public String getThread()
+    {
+        return thread;
+    }
+
+    public long getTimestamp()
+    {
+        return timestamp;
+    }
+
+    public long getDurationMillis()
+    {
+        return durationMillis;
+    }
+
+    public List<TraceSpan> getSpans()
+    {
+        return Collections.unmodifiableList(spans);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "OperationTrace{" +
+            "kind='" + kind + '\'' +
+            ", route='" + route + '\'' +
+            ", trigger='" + trigger + '\'' +
+            ", thread='" + thread + '\'' +
+            ", timestamp=" + timestamp +
+            ", durationMillis=" + durationMillis +
+            ", spans=" + spans +
+            '}';
+    }
+}
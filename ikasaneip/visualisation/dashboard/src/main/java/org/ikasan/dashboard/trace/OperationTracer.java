@@ -0,0 +1,126 @@
+package org.ikasan.dashboard.trace;
+
+import java.util.Optional;
+
+/**
+ * Thread bound tracing of Vaadin round trips and UI access tasks.
+ *
+ * A trace is begun when a request or access task starts holding the session, Solr and REST calls made on the same
+ * thread are added to it as spans and, when it ends, it is offered to the SlowTraceBuffer which keeps it only if it
+ * exceeded the slow threshold.
+ */
+public final class OperationTracer
+{
+    private static final String UI_PACKAGE = "org.ikasan.dashboard.ui.";
+
+    private static final ThreadLocal<OperationTrace> ACTIVE = new ThreadLocal<>();
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private OperationTracer()
+    {
+    }
+
+    /**
+     * Begin a trace on the current thread.
+     *
+     * @param kind REQUEST or ACCESS
+     * @param route the view the UI is showing, if known
+     * @return true if a trace was begun, false if one was already active on the thread
+     */
+    public static boolean begin(String kind, String route)
+    {
+        if(ACTIVE.get() != null)
+        {
+            return false;
+        }
+
+        ACTIVE.set(new OperationTrace(kind, route));
+        return true;
+    }
+
+    /**
+     * End the trace active on the current thread.
+     *
+     * @return the finished trace, or null if there was no active trace
+     */
+    public static OperationTrace end()
+    {
+        OperationTrace trace = ACTIVE.get();
+        ACTIVE.remove();
+
+        if(trace != null)
+        {
+            trace.finish();
+            SlowTraceBuffer.instance().offer(trace);
+        }
+
+        return trace;
+    }
+
+    public static boolean isActive()
+    {
+        return ACTIVE.get() != null;
+    }
+
+    /**
+     * Set the route of the active trace if it is not already known.
+     *
+     * @param route
+     */
+    public static void route(String route)
+    {
+        OperationTrace trace = ACTIVE.get();
+        if(trace != null && trace.getRoute() == null)
+        {
+            trace.setRoute(route);
+        }
+    }
+
+    /**
+     * Set the triggering listener of the active trace if it is not already known.
+     *
+     * @param trigger
+     */
+    public static void trigger(String trigger)
+    {
+        OperationTrace trace = ACTIVE.get();
+        if(trace != null && trace.getTrigger() == null)
+        {
+            trace.setTrigger(trigger);
+        }
+    }
+
+    /**
+     * Add a span to the trace active on the current thread. If the triggering listener is not yet known it is taken
+     * to be the innermost dashboard UI class on the stack making the call.
+     *
+     * @param type the kind of call, e.g. solr or rest
+     * @param name what was called
+     * @param startNanos System.nanoTime() when the call started
+     * @param endNanos System.nanoTime() when the call finished
+     */
+    public static void span(String type, String name, long startNanos, long endNanos)
+    {
+        OperationTrace trace = ACTIVE.get();
+        if(trace == null)
+        {
+            return;
+        }
+
+        if(trace.getTrigger() == null)
+        {
+            callingUiClass().ifPresent(trace::setTrigger);
+        }
+
+        trace.addSpan(type, name, startNanos, endNanos);
+    }
+
+    private static Optional<String> callingUiClass()
+    {
+        return STACK_WALKER.walk(frames -> frames
+            .map(StackWalker.StackFrame::getClassName)
+            .filter(className -> className.startsWith(UI_PACKAGE))
+            .findFirst());
+    }
+}
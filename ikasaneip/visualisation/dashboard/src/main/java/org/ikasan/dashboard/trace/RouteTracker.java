@@ -0,0 +1,77 @@
+package org.ikasan.dashboard.trace;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.router.AfterNavigationEvent;
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import com.vaadin.flow.server.WrappedSession;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the view each UI is showing so that a traced request, which only carries the http session and ui id,
+ * can be attributed to a route such as SearchView or GraphView.
+ */
+@Component
+public class RouteTracker implements VaadinServiceInitListener
+{
+    private static ConcurrentHashMap<String, String> routes = new ConcurrentHashMap<>();
+
+    @Override
+    public void serviceInit(ServiceInitEvent event)
+    {
+        event.getSource().addUIInitListener(uiEvent ->
+        {
+            final UI ui = uiEvent.getUI();
+            ui.addAfterNavigationListener(navigationEvent -> this.afterNavigation(ui, navigationEvent));
+            ui.addDetachListener(detachEvent -> routes.remove(key(ui)));
+        });
+    }
+
+    private void afterNavigation(UI ui, AfterNavigationEvent event)
+    {
+        List<?> activeChain = event.getActiveChain();
+
+        if(!activeChain.isEmpty())
+        {
+            String route = activeChain.get(0).getClass().getSimpleName();
+            routes.put(key(ui), route);
+            OperationTracer.route(route);
+        }
+    }
+
+    /**
+     * Get the route the UI with the given id in the http session is showing.
+     *
+     * @param httpSessionId
+     * @param uiId
+     * @return the route or null if it is not known
+     */
+    public static String route(String httpSessionId, String uiId)
+    {
+        if(httpSessionId == null || uiId == null)
+        {
+            return null;
+        }
+        return routes.get(httpSessionId + ":" + uiId);
+    }
+
+    /**
+     * Get the route the UI is showing.
+     *
+     * @param ui
+     * @return the route or null if it is not known
+     */
+    public static String route(UI ui)
+    {
+        return routes.get(key(ui));
+    }
+
+    private static String key(UI ui)
+    {
+        WrappedSession session = ui.getSession() != null ? ui.getSession().getSession() : null;
+        return (session != null ? session.getId() : "") + ":" + ui.getUIId();
+    }
+}
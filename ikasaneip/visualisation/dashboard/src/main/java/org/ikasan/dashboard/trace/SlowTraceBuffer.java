@@ -0,0 +1,126 @@
+package org.ikasan.dashboard.trace;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bounded in memory ring buffer of the operation traces that exceeded the slow threshold. Once full the oldest
+ * trace is dropped for each new one.
+ */
+public class SlowTraceBuffer
+{
+    private static Logger logger = LoggerFactory.getLogger(SlowTraceBuffer.class);
+
+    public static final int DEFAULT_CAPACITY = 200;
+    public static final long DEFAULT_SLOW_THRESHOLD_MILLIS = 500;
+
+    private static SlowTraceBuffer INSTANCE;
+
+    public static SlowTraceBuffer instance()
+    {
+        if(INSTANCE == null)
+        {
+            synchronized (SlowTraceBuffer.class)
+            {
+                if(INSTANCE == null)
+                {
+                    INSTANCE = new SlowTraceBuffer();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private ArrayDeque<OperationTrace> traces;
+    private int capacity = DEFAULT_CAPACITY;
+    private volatile long slowThresholdMillis = DEFAULT_SLOW_THRESHOLD_MILLIS;
+    private ObjectMapper objectMapper;
+
+    private SlowTraceBuffer()
+    {
+        this.traces = new ArrayDeque<>(DEFAULT_CAPACITY);
+        this.objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    /**
+     * Keep the trace if it exceeded the slow threshold.
+     *
+     * @param trace
+     * @return true if the trace was kept
+     */
+    public boolean offer(OperationTrace trace)
+    {
+        if(trace.getDurationMillis() < this.slowThresholdMillis)
+        {
+            return false;
+        }
+
+        logger.debug("Slow operation {}.", trace);
+
+        synchronized (this)
+        {
+            while(this.traces.size() >= this.capacity)
+            {
+                this.traces.removeFirst();
+            }
+            this.traces.addLast(trace);
+        }
+        return true;
+    }
+
+    /**
+     * @return the slow traces, most recent first
+     */
+    public synchronized List<OperationTrace> getTraces()
+    {
+        List<OperationTrace> result = new ArrayList<>(this.traces);
+        Collections.reverse(result);
+        return result;
+    }
+
+    public synchronized void clear()
+    {
+        this.traces.clear();
+    }
+
+    public String toJson() throws JsonProcessingException
+    {
+        return this.objectMapper.writeValueAsString(this.getTraces());
+    }
+
+    public synchronized void setCapacity(int capacity)
+    {
+        if(capacity < 1)
+        {
+            throw new IllegalArgumentException("capacity must be greater than 0!");
+        }
+        this.capacity = capacity;
+        while(this.traces.size() > this.capacity)
+        {
+            this.traces.removeFirst();
+        }
+    }
+
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    public void setSlowThresholdMillis(long slowThresholdMillis)
+    {
+        this.slowThresholdMillis = slowThresholdMillis;
+    }
+
+    public long getSlowThresholdMillis()
+    {
+        return slowThresholdMillis;
+    }
+}
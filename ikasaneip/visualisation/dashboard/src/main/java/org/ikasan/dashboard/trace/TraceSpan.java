@@ -0,0 +1,59 @@
+package org.ikasan.dashboard.trace;
+
+/**
+ * A Solr or module REST call, or a nested UI access, made while an operation trace was active.
+ */
+public class TraceSpan
+{
+    private String type;
+    private String name;
+    private long offsetMillis;
+    private long durationMillis;
+
+    /**
+     * Constructor
+     *
+     * @param type the kind of call, e.g. solr or rest
+     * @param name what was called
+     * @param offsetMillis when the call started relative to the start of the trace
+     * @param durationMillis how long the call took
+     */
+    public TraceSpan(String type, String name, long offsetMillis, long durationMillis)
+    {
+        this.type = type;
+        this.name = name;
+        this.offsetMillis = offsetMillis;
+        this.durationMillis = durationMillis;
+    }
+
+    public String getType()
+    {
+        return type;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public long getOffsetMillis()
+    {
+        return offsetMillis;
+    }
+
+    public long getDurationMillis()
+    {
+        return durationMillis;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TraceSpan{" +
+            "type='" + type + '\'' +
+            ", name='" + name + '\'' +
+            ", offsetMillis=" + offsetMillis +
+            ", durationMillis=" + durationMillis +
+            '}';
+    }
+}
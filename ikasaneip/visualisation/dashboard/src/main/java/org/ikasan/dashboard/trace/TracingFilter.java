@@ -0,0 +1,73 @@
+package org.ikasan.dashboard.trace;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+
+/**
+ * Traces each Vaadin server round trip, i.e. requests carrying the v-r request type parameter such as uidl and
+ * heartbeat requests. Static resources and the REST api are not traced.
+ */
+@Component
+public class TracingFilter extends OncePerRequestFilter
+{
+    private static final String REQUEST_TYPE_PARAMETER = "v-r";
+    private static final String UI_ID_PARAMETER = "v-uiId";
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request)
+    {
+        return queryParameter(request, REQUEST_TYPE_PARAMETER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException
+    {
+        HttpSession session = request.getSession(false);
+        String route = RouteTracker.route(session != null ? session.getId() : null
+            , queryParameter(request, UI_ID_PARAMETER));
+
+        boolean begun = OperationTracer.begin(OperationTrace.REQUEST + ":"
+            + queryParameter(request, REQUEST_TYPE_PARAMETER), route);
+        try
+        {
+            filterChain.doFilter(request, response);
+        }
+        finally
+        {
+            if(begun)
+            {
+                OperationTracer.end();
+            }
+        }
+    }
+
+    /**
+     * Read the parameter from the query string only, getParameter() would consume a form encoded request body.
+     */
+    private static String queryParameter(HttpServletRequest request, String name)
+    {
+        String queryString = request.getQueryString();
+        if(queryString == null)
+        {
+            return null;
+        }
+
+        for(String parameter: queryString.split("&"))
+        {
+            int equals = parameter.indexOf('=');
+            if(equals > 0 && parameter.substring(0, equals).equals(name))
+            {
+                return parameter.substring(equals + 1);
+            }
+        }
+        return null;
+    }
+}
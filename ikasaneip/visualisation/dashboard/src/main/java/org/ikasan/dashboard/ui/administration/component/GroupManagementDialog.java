@@ -18,6 +18,7 @@ import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextArea;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.renderer.ComponentRenderer;
+import org.ikasan.dashboard.security.SecurityUtils;
 import org.ikasan.dashboard.ui.administration.filter.RoleFilter;
 import org.ikasan.dashboard.ui.administration.filter.UserFilter;
 import org.ikasan.dashboard.ui.general.component.AbstractCloseableResizableDialog;
@@ -118,6 +119,7 @@ public class GroupManagementDialog extends AbstractCloseableResizableDialog
                 IkasanPrincipal principal = securityService.findPrincipalByName(group.getName());
                 principal.getRoles().remove(role);
                 securityService.savePrincipal(principal);
+                SecurityUtils.invalidateAccessibleModules();
 
                 String action = String.format("Role [%s] removed from group [%s].", role.getName(), principal.getName());
 
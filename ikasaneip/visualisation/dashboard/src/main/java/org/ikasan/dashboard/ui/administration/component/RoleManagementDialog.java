@@ -22,6 +22,7 @@ import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.provider.DataProvider;
 import com.vaadin.flow.data.provider.ListDataProvider;
 import com.vaadin.flow.data.renderer.ComponentRenderer;
+import org.ikasan.dashboard.security.SecurityUtils;
 import org.ikasan.dashboard.ui.administration.filter.GroupFilter;
 import org.ikasan.dashboard.ui.administration.filter.PolicyFilter;
 import org.ikasan.dashboard.ui.administration.filter.RoleModuleFilter;
@@ -232,6 +233,7 @@ public class RoleManagementDialog extends AbstractCloseableResizableDialog
                 ikasanPrincipal.getRoles().remove(this.role);
 
                 this.securityService.savePrincipal(ikasanPrincipal);
+                SecurityUtils.invalidateAccessibleModules();
 
                 String action = String.format("User [%s] removed from role [%s]", userLite.getUsername(), role.getName());
 
@@ -339,6 +341,7 @@ public class RoleManagementDialog extends AbstractCloseableResizableDialog
                 ikasanPrincipal.getRoles().remove(this.role);
 
                 this.securityService.savePrincipal(ikasanPrincipal);
+                SecurityUtils.invalidateAccessibleModules();
 
                 String action = String.format("Group [%s] removed from role [%s]", principalLite.getName(), role.getName());
 
@@ -488,6 +491,7 @@ public class RoleManagementDialog extends AbstractCloseableResizableDialog
                 this.role.getRoleModules().remove(roleModule);
                 this.securityService.saveRole(role);
                 this.securityService.deleteRoleModule(roleModule);
+                SecurityUtils.invalidateAccessibleModules();
 
                 String action = String.format("Module [%s] removed from role [%s]", roleModule.getModuleName(), role.getName());
 
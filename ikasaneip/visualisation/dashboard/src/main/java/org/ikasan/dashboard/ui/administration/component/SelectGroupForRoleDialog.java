@@ -8,6 +8,7 @@ import com.vaadin.flow.component.grid.ItemDoubleClickEvent;
 import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.data.provider.ListDataProvider;
+import org.ikasan.dashboard.security.SecurityUtils;
 import org.ikasan.dashboard.ui.administration.filter.GroupFilter;
 import org.ikasan.dashboard.ui.general.component.AbstractCloseableResizableDialog;
 import org.ikasan.dashboard.ui.general.component.FilteringGrid;
@@ -98,6 +99,7 @@ public class SelectGroupForRoleDialog extends AbstractCloseableResizableDialog
                 ikasanPrincipal.addRole(this.role);
 
                 this.securityService.savePrincipal(ikasanPrincipal);
+                SecurityUtils.invalidateAccessibleModules();
 
                 String action = String.format("Role [%s] added to user [%s].", role.getName(), ikasanPrincipal.getName());
 
@@ -8,6 +8,7 @@ import com.vaadin.flow.component.grid.ItemDoubleClickEvent;
 import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.data.provider.ListDataProvider;
+import org.ikasan.dashboard.security.SecurityUtils;
 import org.ikasan.dashboard.ui.administration.filter.ModuleFilter;
 import org.ikasan.dashboard.ui.general.component.AbstractCloseableResizableDialog;
 import org.ikasan.dashboard.ui.general.component.FilteringGrid;
@@ -98,6 +99,7 @@ public class SelectModuleForRoleDialog extends AbstractCloseableResizableDialog
 
             role.addRoleModule(roleModule);
             this.securityService.saveRole(this.role);
+            SecurityUtils.invalidateAccessibleModules();
 
             String action = String.format("Module [%s] added to role [%s].", moduleItemDoubleClickEvent.getItem().getName(), role.getName());
 
@@ -8,6 +8,7 @@ import com.vaadin.flow.component.grid.ItemDoubleClickEvent;
 import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.data.provider.ListDataProvider;
+import org.ikasan.dashboard.security.SecurityUtils;
 import org.ikasan.dashboard.ui.administration.filter.RoleFilter;
 import org.ikasan.dashboard.ui.general.component.AbstractCloseableResizableDialog;
 import org.ikasan.dashboard.ui.general.component.FilteringGrid;
@@ -79,6 +80,7 @@ public class SelectRoleDialog extends AbstractCloseableResizableDialog
             principal.getRoles().add(roleItemDoubleClickEvent.getItem());
 
             this.securityService.savePrincipal(principal);
+            SecurityUtils.invalidateAccessibleModules();
 
             String action;
             if(principal.getType().equals("user"))
@@ -6,6 +6,7 @@ import com.vaadin.flow.component.grid.HeaderRow;
 import com.vaadin.flow.component.grid.ItemDoubleClickEvent;
 import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import org.ikasan.dashboard.security.SecurityUtils;
 import org.ikasan.dashboard.ui.administration.filter.UserLiteFilter;
 import org.ikasan.dashboard.ui.general.component.AbstractCloseableResizableDialog;
 import org.ikasan.dashboard.ui.general.component.FilteringGrid;
@@ -112,6 +113,7 @@ public class SelectUserForRoleDialog extends AbstractCloseableResizableDialog
             ikasanPrincipal.addRole(this.role);
 
             this.securityService.savePrincipal(ikasanPrincipal);
+            SecurityUtils.invalidateAccessibleModules();
 
             String action = String.format("Role [%s] added to user [%s].", role.getName(), ikasanPrincipal.getName());
 
@@ -15,6 +15,7 @@ import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.renderer.ComponentRenderer;
+import org.ikasan.dashboard.security.SecurityUtils;
 import org.ikasan.dashboard.ui.administration.filter.RoleFilter;
 import org.ikasan.dashboard.ui.general.component.AbstractCloseableResizableDialog;
 import org.ikasan.dashboard.ui.general.component.ComponentSecurityVisibility;
@@ -154,6 +155,7 @@ public class UserManagementDialog extends AbstractCloseableResizableDialog
                 IkasanPrincipal principal = securityService.findPrincipalByName(user.getUsername());
                 principal.getRoles().remove(role);
                 securityService.savePrincipal(principal);
+                SecurityUtils.invalidateAccessibleModules();
 
                 this.systemEventLogger.logEvent(SystemEventConstants.DASHBOARD_PRINCIPAL_ROLE_CHANGED_CONSTANTS
                     , "Role " + role.getName() + " removed.", user.getName());
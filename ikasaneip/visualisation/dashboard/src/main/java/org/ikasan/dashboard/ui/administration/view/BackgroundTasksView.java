@@ -0,0 +1,107 @@
+package org.ikasan.dashboard.ui.administration.view;
+
+import com.vaadin.flow.component.Text;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.H2;
+import com.vaadin.flow.component.icon.Icon;
+import com.vaadin.flow.component.icon.VaadinIcon;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.data.renderer.ComponentRenderer;
+import com.vaadin.flow.router.BeforeEnterEvent;
+import com.vaadin.flow.router.BeforeEnterObserver;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+import com.vaadin.flow.spring.annotation.UIScope;
+import org.ikasan.dashboard.task.DashboardTaskExecutor;
+import org.ikasan.dashboard.task.ManagedTask;
+import org.ikasan.dashboard.ui.general.component.ComponentSecurityVisibility;
+import org.ikasan.dashboard.ui.layout.IkasanAppLayout;
+import org.ikasan.dashboard.ui.util.DateFormatter;
+import org.ikasan.dashboard.ui.util.SecurityConstants;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lists the background tasks started from the UI that are running or waiting to run, allowing them to be cancelled.
+ */
+@Route(value = "backgroundTasks", layout = IkasanAppLayout.class)
+@UIScope
+@Component
+@PageTitle("Ikasan - Background Tasks")
+public class BackgroundTasksView extends VerticalLayout implements BeforeEnterObserver
+{
+    private Grid<ManagedTask> taskGrid;
+
+    public BackgroundTasksView()
+    {
+        super();
+        init();
+    }
+
+    protected void init()
+    {
+        this.setSizeFull();
+
+        H2 backgroundTasks = new H2(getTranslation("label.background-tasks", UI.getCurrent().getLocale()));
+
+        HorizontalLayout instructionsLayout = new HorizontalLayout();
+        instructionsLayout.setWidth("100%");
+
+        Icon icon = VaadinIcon.QUESTION_CIRCLE_O.create();
+        icon.getStyle().set("marginRight", "10px");
+        instructionsLayout.add(icon);
+        instructionsLayout.add(new Text(String.format(getTranslation("text.background-tasks-instructions", UI.getCurrent().getLocale())
+            , DashboardTaskExecutor.instance().getGlobalLimit(), DashboardTaskExecutor.instance().getUserLimit())));
+
+        Button refreshButton = new Button(getTranslation("button.refresh", UI.getCurrent().getLocale()), VaadinIcon.REFRESH.create());
+        refreshButton.addClickListener(event -> this.populate());
+
+        HorizontalLayout buttonLayout = new HorizontalLayout(refreshButton);
+
+        this.taskGrid = new Grid<>();
+        this.taskGrid.setSizeFull();
+        this.taskGrid.setClassName("my-grid");
+
+        this.taskGrid.addColumn(task -> DateFormatter.getFormattedDate(task.getSubmitted()))
+            .setHeader(getTranslation("table-header.timestamp", UI.getCurrent().getLocale())).setFlexGrow(3);
+        this.taskGrid.addColumn(ManagedTask::getOwner)
+            .setHeader(getTranslation("table-header.owner", UI.getCurrent().getLocale())).setFlexGrow(2);
+        this.taskGrid.addColumn(ManagedTask::getDescription)
+            .setHeader(getTranslation("table-header.description", UI.getCurrent().getLocale())).setFlexGrow(6);
+        this.taskGrid.addColumn(ManagedTask::getState)
+            .setHeader(getTranslation("table-header.task-state", UI.getCurrent().getLocale())).setFlexGrow(1);
+        this.taskGrid.addColumn(ManagedTask::getElapsedMillis)
+            .setHeader(getTranslation("table-header.elapsed-ms", UI.getCurrent().getLocale())).setFlexGrow(1);
+        this.taskGrid.addColumn(new ComponentRenderer<>(task ->
+        {
+            Button cancelButton = new Button(getTranslation("button.cancel", UI.getCurrent().getLocale()), VaadinIcon.CLOSE_SMALL.create());
+            cancelButton.addClickListener(event ->
+            {
+                task.cancel();
+                this.populate();
+            });
+            return cancelButton;
+        })).setFlexGrow(1);
+
+        add(backgroundTasks, instructionsLayout, buttonLayout, this.taskGrid);
+    }
+
+    private void populate()
+    {
+        this.taskGrid.setItems(DashboardTaskExecutor.instance().getTasks());
+    }
+
+    @Override
+    public void beforeEnter(BeforeEnterEvent beforeEnterEvent)
+    {
+        if(!ComponentSecurityVisibility.hasAuthorisation(SecurityConstants.ALL_AUTHORITY))
+        {
+            beforeEnterEvent.rerouteTo("pageNotFound");
+            return;
+        }
+
+        this.populate();
+    }
+}
@@ -18,6 +18,7 @@ import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.spring.annotation.UIScope;
+import org.ikasan.dashboard.security.SecurityUtils;
 import org.ikasan.dashboard.ui.administration.component.NewRoleDialog;
 import org.ikasan.dashboard.ui.administration.component.RoleManagementDialog;
 import org.ikasan.dashboard.ui.administration.filter.RoleFilter;
@@ -131,6 +132,7 @@ public class RoleManagementView extends VerticalLayout implements BeforeEnterObs
             trash.addClickListener(buttonClickEvent ->
             {
                 securityService.deleteRole(role);
+                SecurityUtils.invalidateAccessibleModules();
 
                 this.systemEventLogger.logEvent(SystemEventConstants.DASHBOARD_ROLE_DELETED
                     , "New role " + role.getName() + " added.", null);
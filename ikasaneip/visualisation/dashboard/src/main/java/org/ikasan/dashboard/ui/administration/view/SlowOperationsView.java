@@ -0,0 +1,148 @@
+package org.ikasan.dashboard.ui.administration.view;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.vaadin.flow.component.Text;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.H2;
+import com.vaadin.flow.component.icon.Icon;
+import com.vaadin.flow.component.icon.VaadinIcon;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.data.renderer.ComponentRenderer;
+import com.vaadin.flow.router.BeforeEnterEvent;
+import com.vaadin.flow.router.BeforeEnterObserver;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+import com.vaadin.flow.server.StreamResource;
+import com.vaadin.flow.spring.annotation.UIScope;
+import org.ikasan.dashboard.trace.OperationTrace;
+import org.ikasan.dashboard.trace.SlowTraceBuffer;
+import org.ikasan.dashboard.trace.TraceSpan;
+import org.ikasan.dashboard.ui.general.component.ComponentSecurityVisibility;
+import org.ikasan.dashboard.ui.layout.IkasanAppLayout;
+import org.ikasan.dashboard.ui.util.DateFormatter;
+import org.ikasan.dashboard.ui.util.SecurityConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.vaadin.olli.FileDownloadWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lists the server round trips and UI access tasks that took longer than the slow operation threshold, along
+ * with the Solr and module REST calls made while they ran.
+ */
+@Route(value = "slowOperations", layout = IkasanAppLayout.class)
+@UIScope
+@Component
+@PageTitle("Ikasan - Slow Operations")
+public class SlowOperationsView extends VerticalLayout implements BeforeEnterObserver
+{
+    private Logger logger = LoggerFactory.getLogger(SlowOperationsView.class);
+
+    private Grid<OperationTrace> traceGrid;
+
+    public SlowOperationsView()
+    {
+        super();
+        init();
+    }
+
+    protected void init()
+    {
+        this.setSizeFull();
+
+        H2 slowOperations = new H2(getTranslation("label.slow-operations", UI.getCurrent().getLocale()));
+
+        HorizontalLayout instructionsLayout = new HorizontalLayout();
+        instructionsLayout.setWidth("100%");
+
+        Icon icon = VaadinIcon.QUESTION_CIRCLE_O.create();
+        icon.getStyle().set("marginRight", "10px");
+        instructionsLayout.add(icon);
+        instructionsLayout.add(new Text(String.format(getTranslation("text.slow-operations-instructions", UI.getCurrent().getLocale())
+            , SlowTraceBuffer.instance().getSlowThresholdMillis(), SlowTraceBuffer.instance().getCapacity())));
+
+        Button refreshButton = new Button(getTranslation("button.refresh", UI.getCurrent().getLocale()), VaadinIcon.REFRESH.create());
+        refreshButton.addClickListener(event -> this.populate());
+
+        Button clearButton = new Button(getTranslation("button.clear", UI.getCurrent().getLocale()), VaadinIcon.TRASH.create());
+        clearButton.addClickListener(event ->
+        {
+            SlowTraceBuffer.instance().clear();
+            this.populate();
+        });
+
+        Button downloadButton = new Button(getTranslation("button.download-json", UI.getCurrent().getLocale()), VaadinIcon.DOWNLOAD.create());
+        StreamResource streamResource = new StreamResource("slow-operations.json", () ->
+        {
+            try
+            {
+                return new ByteArrayInputStream(SlowTraceBuffer.instance().toJson().getBytes(StandardCharsets.UTF_8));
+            }
+            catch (JsonProcessingException e)
+            {
+                logger.warn("Could not serialise slow operation traces!", e);
+                return new ByteArrayInputStream(new byte[0]);
+            }
+        });
+        FileDownloadWrapper downloadButtonWrapper = new FileDownloadWrapper(streamResource);
+        downloadButtonWrapper.wrapComponent(downloadButton);
+
+        HorizontalLayout buttonLayout = new HorizontalLayout(refreshButton, clearButton, downloadButtonWrapper);
+
+        this.traceGrid = new Grid<>();
+        this.traceGrid.setSizeFull();
+        this.traceGrid.setClassName("my-grid");
+
+        this.traceGrid.addColumn(trace -> DateFormatter.getFormattedDate(trace.getTimestamp()))
+            .setHeader(getTranslation("table-header.timestamp", UI.getCurrent().getLocale())).setFlexGrow(3);
+        this.traceGrid.addColumn(OperationTrace::getDurationMillis)
+            .setHeader(getTranslation("table-header.duration-ms", UI.getCurrent().getLocale())).setFlexGrow(1);
+        this.traceGrid.addColumn(OperationTrace::getKind)
+            .setHeader(getTranslation("table-header.operation", UI.getCurrent().getLocale())).setFlexGrow(2);
+        this.traceGrid.addColumn(OperationTrace::getRoute)
+            .setHeader(getTranslation("table-header.route", UI.getCurrent().getLocale())).setFlexGrow(2);
+        this.traceGrid.addColumn(OperationTrace::getTrigger)
+            .setHeader(getTranslation("table-header.trigger", UI.getCurrent().getLocale())).setFlexGrow(4);
+        this.traceGrid.addColumn(trace -> trace.getSpans().size())
+            .setHeader(getTranslation("table-header.calls", UI.getCurrent().getLocale())).setFlexGrow(1);
+
+        this.traceGrid.setItemDetailsRenderer(new ComponentRenderer<>(trace ->
+        {
+            VerticalLayout spans = new VerticalLayout();
+            spans.setPadding(false);
+            spans.setSpacing(false);
+            for(TraceSpan span: trace.getSpans())
+            {
+                spans.add(new Div(new Text(String.format("+%dms %s %s %dms", span.getOffsetMillis(), span.getType()
+                    , span.getName(), span.getDurationMillis()))));
+            }
+            return spans;
+        }));
+
+        add(slowOperations, instructionsLayout, buttonLayout, this.traceGrid);
+    }
+
+    private void populate()
+    {
+        this.traceGrid.setItems(SlowTraceBuffer.instance().getTraces());
+    }
+
+    @Override
+    public void beforeEnter(BeforeEnterEvent beforeEnterEvent)
+    {
+        if(!ComponentSecurityVisibility.hasAuthorisation(SecurityConstants.ALL_AUTHORITY))
+        {
+            beforeEnterEvent.rerouteTo("pageNotFound");
+            return;
+        }
+
+        this.populate();
+    }
+}
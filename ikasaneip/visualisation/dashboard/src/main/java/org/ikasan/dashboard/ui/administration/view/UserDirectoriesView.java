@@ -63,6 +63,7 @@ import com.vaadin.flow.router.Route;
 import com.vaadin.flow.spring.annotation.UIScope;
 import org.ikasan.dashboard.ui.administration.component.UserDirectoryDialog;
 import org.ikasan.dashboard.security.schedule.LdapDirectorySynchronisationSchedulerService;
+import org.ikasan.dashboard.task.DashboardTaskExecutor;
 import org.ikasan.dashboard.ui.general.component.NotificationHelper;
 import org.ikasan.dashboard.ui.general.component.ComponentSecurityVisibility;
 import org.ikasan.dashboard.ui.general.component.ProgressIndicatorDialog;
@@ -82,8 +83,6 @@ import javax.annotation.Resource;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 
 
 /**
@@ -387,8 +386,7 @@ public class UserDirectoriesView extends VerticalLayout implements BeforeEnterOb
             progressIndicatorDialog.open("Synchronising User Directory");
 
             final UI current = UI.getCurrent();
-            Executor executor = Executors.newSingleThreadExecutor();
-            executor.execute(() -> {
+            DashboardTaskExecutor.instance().submit("Synchronise user directory " + authenticationMethod.getName(), () -> {
                 try
                 {
                     ldapService.synchronize(authenticationMethod);
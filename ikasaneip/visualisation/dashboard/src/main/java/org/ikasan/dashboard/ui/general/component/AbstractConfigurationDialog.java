@@ -17,6 +17,7 @@ import com.vaadin.flow.component.radiobutton.RadioButtonGroup;
 import com.vaadin.flow.component.textfield.PasswordField;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.server.StreamResource;
+import org.ikasan.dashboard.solr.ContentHashStore;
 import org.ikasan.dashboard.ui.util.SecurityConstants;
 import org.ikasan.dashboard.ui.visualisation.model.flow.Module;
 import org.ikasan.spec.metadata.ConfigurationMetaData;
@@ -158,6 +159,9 @@ public abstract class AbstractConfigurationDialog extends AbstractCloseableResiz
             try
             {
                 this.configurationRestService.delete(module.getUrl(), this.configurationMetaData.getConfigurationId());
+                // the module pushes the configuration metadata again once recreated, which must not be skipped as unchanged
+                ContentHashStore.instance().remove(ContentHashStore.CONFIGURATION_METADATA
+                    , this.configurationMetaData.getConfigurationId());
                 NotificationHelper.showUserNotification(getTranslation("message.successfully-deleted-configuration", UI.getCurrent().getLocale()));
                 this.close();
             }
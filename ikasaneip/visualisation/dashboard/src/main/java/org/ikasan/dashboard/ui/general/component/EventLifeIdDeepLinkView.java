@@ -27,7 +27,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @HtmlImport("frontend://styles/shared-styles.html")
@@ -71,8 +70,7 @@ public class EventLifeIdDeepLinkView extends VerticalLayout implements HasUrlPar
     public void setParameter(BeforeEvent beforeEvent, String parameter) {
         logger.info(String.format("Deep link event life identifier [%s]", parameter));
 
-        this.searchResults.search(0, System.currentTimeMillis(), parameter, List.of("wiretap", "error", "exclusion"),
-            false, new ArrayList<>(), new ArrayList<>());
+        this.searchResults.searchEventLife(0, System.currentTimeMillis(), parameter, List.of("wiretap", "error", "exclusion"));
     }
 
 }
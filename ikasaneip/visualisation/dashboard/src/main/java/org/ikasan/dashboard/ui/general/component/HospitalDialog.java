@@ -16,6 +16,8 @@ import com.vaadin.flow.component.tabs.Tab;
 import com.vaadin.flow.component.tabs.Tabs;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.server.StreamResource;
+import org.ikasan.dashboard.cache.ModuleMetaDataCache;
+import org.ikasan.dashboard.task.DashboardTaskExecutor;
 import org.ikasan.dashboard.ui.search.component.SolrSearchFilteringGrid;
 import org.ikasan.dashboard.ui.search.model.hospital.ExclusionEventActionImpl;
 import org.ikasan.dashboard.ui.util.DateFormatter;
@@ -37,8 +39,6 @@ import org.vaadin.olli.FileDownloadWrapper;
 
 import java.io.ByteArrayInputStream;
 import java.util.Optional;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 
 public class HospitalDialog extends AbstractEntityViewDialog<IkasanSolrDocument>
 {
@@ -177,10 +177,10 @@ public class HospitalDialog extends AbstractEntityViewDialog<IkasanSolrDocument>
                     ProgressIndicatorDialog progressIndicatorDialog = new ProgressIndicatorDialog(true);
                     progressIndicatorDialog.open(getTranslation("notification.re-submitting-hospital-event", UI.getCurrent().getLocale()));
 
-                    Executor executor = Executors.newSingleThreadExecutor();
-                    executor.execute(() ->
+                    DashboardTaskExecutor.instance().submit("Resubmit exclusion " + ikasanSolrDocument.getId(), () ->
                     {
-                        ModuleMetaData moduleMetaData = this.moduleMetadataService.findById(ikasanSolrDocument.getModuleName());
+                        ModuleMetaData moduleMetaData = ModuleMetaDataCache.instance().get(ikasanSolrDocument.getModuleName()
+                            , this.moduleMetadataService);
                         boolean result = this.resubmissionRestService.resubmit(moduleMetaData.getUrl(), ikasanSolrDocument.getModuleName(),
                             ikasanSolrDocument.getFlowName(), "resubmit", this.getErrorUri(ikasanSolrDocument.getId()));
 
@@ -231,10 +231,10 @@ public class HospitalDialog extends AbstractEntityViewDialog<IkasanSolrDocument>
                     ProgressIndicatorDialog progressIndicatorDialog = new ProgressIndicatorDialog(true);
                     progressIndicatorDialog.open(String.format(getTranslation("notification.ignoring-hospital-event", UI.getCurrent().getLocale())));
 
-                    Executor executor = Executors.newSingleThreadExecutor();
-                    executor.execute(() ->
+                    DashboardTaskExecutor.instance().submit("Ignore exclusion " + ikasanSolrDocument.getId(), () ->
                     {
-                        ModuleMetaData moduleMetaData = this.moduleMetadataService.findById(ikasanSolrDocument.getModuleName());
+                        ModuleMetaData moduleMetaData = ModuleMetaDataCache.instance().get(ikasanSolrDocument.getModuleName()
+                            , this.moduleMetadataService);
                         boolean result = this.resubmissionRestService.resubmit(moduleMetaData.getUrl(), ikasanSolrDocument.getModuleName(),
                             ikasanSolrDocument.getFlowName(), "ignore", this.getErrorUri(ikasanSolrDocument.getId()));
 
@@ -26,6 +26,7 @@ import com.vaadin.flow.server.StreamResource;
 import com.vaadin.flow.spring.annotation.UIScope;
 import com.vaadin.flow.theme.Theme;
 import com.vaadin.flow.theme.material.Material;
+import org.ikasan.dashboard.cache.ModuleMetaDataCache;
 import org.ikasan.dashboard.ui.search.model.hospital.ExclusionEventActionImpl;
 import org.ikasan.dashboard.ui.util.DateFormatter;
 import org.ikasan.dashboard.ui.util.SecurityConstants;
@@ -191,7 +192,8 @@ public class HospitalView extends AbstractEntityView<IkasanSolrDocument> impleme
                     ProgressIndicatorDialog progressIndicatorDialog = new ProgressIndicatorDialog(true);
                     progressIndicatorDialog.open(getTranslation("notification.re-submitting-hospital-event", UI.getCurrent().getLocale()));
 
-                    ModuleMetaData moduleMetaData = this.moduleMetadataService.findById(ikasanSolrDocument.getModuleName());
+                    ModuleMetaData moduleMetaData = ModuleMetaDataCache.instance().get(ikasanSolrDocument.getModuleName()
+                        , this.moduleMetadataService);
                     boolean result = this.resubmissionRestService.resubmit(moduleMetaData.getUrl(), ikasanSolrDocument.getModuleName(),
                         ikasanSolrDocument.getFlowName(), "resubmit", this.getErrorUri(ikasanSolrDocument.getId()));
 
@@ -239,7 +241,8 @@ public class HospitalView extends AbstractEntityView<IkasanSolrDocument> impleme
                     ProgressIndicatorDialog progressIndicatorDialog = new ProgressIndicatorDialog(true);
                     progressIndicatorDialog.open(getTranslation("notification.ignoring-hospital-event", UI.getCurrent().getLocale()));
 
-                    ModuleMetaData moduleMetaData = this.moduleMetadataService.findById(ikasanSolrDocument.getModuleName());
+                    ModuleMetaData moduleMetaData = ModuleMetaDataCache.instance().get(ikasanSolrDocument.getModuleName()
+                        , this.moduleMetadataService);
                     boolean result = this.resubmissionRestService.resubmit(moduleMetaData.getUrl(), ikasanSolrDocument.getModuleName(),
                         ikasanSolrDocument.getFlowName(), "ignore", this.getErrorUri(ikasanSolrDocument.getId()));
 
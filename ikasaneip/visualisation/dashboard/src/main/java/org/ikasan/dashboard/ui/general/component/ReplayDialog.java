@@ -16,6 +16,7 @@ import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.i18n.I18NProvider;
 import com.vaadin.flow.server.StreamResource;
 import com.vaadin.flow.server.VaadinService;
+import org.ikasan.dashboard.task.DashboardTaskExecutor;
 import org.ikasan.dashboard.ui.search.model.replay.ReplayAuditEventImpl;
 import org.ikasan.dashboard.ui.search.model.replay.ReplayAuditImpl;
 import org.ikasan.dashboard.ui.search.model.replay.ReplayDialogDto;
@@ -32,8 +33,6 @@ import org.vaadin.olli.FileDownloadWrapper;
 import java.io.ByteArrayInputStream;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 
 public class ReplayDialog extends AbstractEntityViewDialog<IkasanSolrDocument>
 {
@@ -131,8 +130,7 @@ public class ReplayDialog extends AbstractEntityViewDialog<IkasanSolrDocument>
                     progressIndicatorDialog.open(current.getTranslation("message.replaying-event"
                         , UI.getCurrent().getLocale()));
 
-                    Executor executor = Executors.newSingleThreadExecutor();
-                    executor.execute(() -> {
+                    DashboardTaskExecutor.instance().submit("Replay event " + this.replayEvent.getId(), () -> {
                         try
                         {
                             List<ReplayAuditEvent> replayAuditEvents = new ArrayList<>();
@@ -3,25 +3,26 @@ package org.ikasan.dashboard.ui.general.component;
 import com.vaadin.componentfactory.Tooltip;
 import com.vaadin.flow.component.*;
 import com.vaadin.flow.component.button.Button;
-import com.vaadin.flow.component.checkbox.Checkbox;
 import com.vaadin.flow.component.grid.HeaderRow;
 import com.vaadin.flow.component.grid.ItemDoubleClickEvent;
-import com.vaadin.flow.component.html.Anchor;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.Image;
 import com.vaadin.flow.component.html.Label;
+import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
-import com.vaadin.flow.data.renderer.ComponentRenderer;
 import com.vaadin.flow.data.renderer.TemplateRenderer;
 import com.vaadin.flow.router.RouteConfiguration;
 import com.vaadin.flow.shared.Registration;
+import org.ikasan.dashboard.metrics.DashboardMetrics;
 import org.ikasan.dashboard.ui.search.SearchConstants;
+import org.ikasan.dashboard.ui.search.component.SearchResultsExport;
 import org.ikasan.dashboard.ui.search.component.SolrSearchFilteringGrid;
 import org.ikasan.dashboard.ui.search.component.filter.SearchFilter;
 import org.ikasan.dashboard.ui.search.listener.IgnoreHospitalEventSubmissionListener;
 import org.ikasan.dashboard.ui.search.listener.ReplayEventSubmissionListener;
 import org.ikasan.dashboard.ui.search.listener.ResubmitHospitalEventSubmissionListener;
+import org.ikasan.dashboard.ui.search.model.SearchResultsSelection;
 import org.ikasan.dashboard.ui.util.DateFormatter;
 import org.ikasan.dashboard.ui.util.SecurityConstants;
 import org.ikasan.security.service.authentication.IkasanAuthentication;
@@ -35,9 +36,10 @@ import org.ikasan.spec.module.client.ResubmissionService;
 import org.ikasan.spec.persistence.BatchInsert;
 import org.ikasan.spec.solr.SolrGeneralService;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.vaadin.olli.FileDownloadWrapper;
 
+import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
 
@@ -76,9 +78,7 @@ public class SearchResults extends Div {
 
     private BatchInsert replayAuditService;
 
-    private HashMap<String, Checkbox> selectionBoxes = new HashMap<>();
-    private HashMap<String, IkasanSolrDocument> selectionItems = new HashMap<>();
-    private Boolean selected = Boolean.FALSE;
+    private SearchResultsSelection selection = new SearchResultsSelection();
 
     private String translatedEventActionMessage;
 
@@ -162,12 +162,25 @@ public class SearchResults extends Div {
         replayButtonTooltip = TooltipHelper.getTooltipForComponentTopLeft(replayButton, getTranslation("tooltip.bulk-replay", UI.getCurrent().getLocale()));
 
         selectAllButton.addClickListener((ComponentEventListener<ClickEvent<Button>>) buttonClickEvent -> toggleSelected());
+        // the selection is also cleared by a new search and by the bulk actions once complete
+        this.selection.addClearListener(() -> this.setSelectAllIcon(false));
 
         buttonLayout.setWidth("70px");
 
+        // the exports stream every result of the current search rather than the rows loaded into the grid
+        Button exportCsvButton = new Button(getTranslation("button.export-csv", UI.getCurrent().getLocale()), VaadinIcon.DOWNLOAD.create());
+        FileDownloadWrapper exportCsvWrapper = new FileDownloadWrapper(new SearchResultsExport(this.searchResultsGrid
+            , SearchResultsExport.Format.CSV).createStreamResource("search-results"));
+        exportCsvWrapper.wrapComponent(exportCsvButton);
+
+        Button exportJsonButton = new Button(getTranslation("button.export-json", UI.getCurrent().getLocale()), VaadinIcon.DOWNLOAD.create());
+        FileDownloadWrapper exportJsonWrapper = new FileDownloadWrapper(new SearchResultsExport(this.searchResultsGrid
+            , SearchResultsExport.Format.JSON).createStreamResource("search-results"));
+        exportJsonWrapper.wrapComponent(exportJsonButton);
+
         HorizontalLayout buttonLayoutWrapper = new HorizontalLayout();
         buttonLayoutWrapper.setWidthFull();
-        buttonLayoutWrapper.add(this.resultsLabel, buttonLayout);
+        buttonLayoutWrapper.add(this.resultsLabel, exportCsvWrapper, exportJsonWrapper, buttonLayout);
         buttonLayoutWrapper.setJustifyContentMode(FlexComponent.JustifyContentMode.END);
         buttonLayoutWrapper.setVerticalComponentAlignment(FlexComponent.Alignment.END, buttonLayout);
 
@@ -199,44 +212,13 @@ public class SearchResults extends Div {
     private void createSearchResultsGrid()
     {
         this.searchResultsGrid = new SolrSearchFilteringGrid(this.solrGeneralService, searchFilter, this.resultsLabel);
+        this.searchResultsGrid.setSummary(true);
 
         // Add the icon column to the grid
-        this.searchResultsGrid.addColumn(new ComponentRenderer<>(ikasanSolrDocument ->
-        {
-            HorizontalLayout horizontalLayout = new HorizontalLayout();
-            horizontalLayout.setWidth("100%");
-            horizontalLayout.setJustifyContentMode(FlexComponent.JustifyContentMode.CENTER);
-
-            if(ikasanSolrDocument.getType().equalsIgnoreCase(SearchConstants.WIRETAP))
-            {
-                Image wiretapImage = new Image("frontend/images/wiretap-service.png", "");
-                wiretapImage.setHeight("30px");
-                horizontalLayout.add(wiretapImage);
-                horizontalLayout.setId("frontend/images/wiretap-service.png");
-            }
-            else if(ikasanSolrDocument.getType().equalsIgnoreCase(SearchConstants.ERROR))
-            {
-                Image errorImage = new Image("frontend/images/error-service.png", "");
-                errorImage.setHeight("30px");
-                horizontalLayout.add(errorImage);
-                horizontalLayout.setId("frontend/images/error-service.png");
-            }
-            else if(ikasanSolrDocument.getType().equalsIgnoreCase(SearchConstants.EXCLUSION))
-            {
-                Image hospitalImage = new Image("frontend/images/hospital-service.png", "");
-                hospitalImage.setHeight("30px");
-                horizontalLayout.add(hospitalImage);
-                horizontalLayout.setId("frontend/images/hospital-service.png");
-            }
-            else if(ikasanSolrDocument.getType().equalsIgnoreCase(SearchConstants.REPLAY)) {
-                Image replayImage = new Image("frontend/images/replay-service.png", "");
-                replayImage.setHeight("30px");
-                horizontalLayout.add(replayImage);
-                horizontalLayout.setId("frontend/images/replay-service.png");
-            }
-
-            return horizontalLayout;
-        })).setWidth("40px").setKey("entityImage");
+        this.searchResultsGrid.addColumn(TemplateRenderer.<IkasanSolrDocument>of(
+            "<div style=\"width: 100%; text-align: center\"><img src=\"[[item.image]]\" style=\"height: 30px\"></div>")
+            .withProperty("image", ikasanSolrDocument -> getTypeImage(ikasanSolrDocument.getType())))
+            .setWidth("40px").setKey("entityImage");
 
         // Add the module name column to the grid
         this.searchResultsGrid.addColumn(IkasanSolrDocument::getModuleName)
@@ -264,39 +246,26 @@ public class SearchResults extends Div {
             .setFlexGrow(6)
             .setResizable(true);
 
-        // Add the event identifier column to the grid
-        this.searchResultsGrid.addColumn(new ComponentRenderer<>(ikasanSolrDocument -> {
-            HorizontalLayout horizontalLayout = new HorizontalLayout();
-
-            if(ikasanSolrDocument.getType().equals("wiretap")) {
-                String route = RouteConfiguration.forSessionScope()
-                    .getUrl(EventLifeIdDeepLinkView.class, ikasanSolrDocument.getEventId());
-                Anchor link = new Anchor(route, ikasanSolrDocument.getEventId());
-                link.setTarget("_blank");
-                add(link);
-                horizontalLayout.add(link);
-                link.getStyle().set("color", "blue");
-            }
-            else if(ikasanSolrDocument.getType().equals("error") || ikasanSolrDocument.getType().equals("exclusion")) {
-                Div div = new Div();
-
-                String identifier = new String();
-
-                if(ikasanSolrDocument.getEventId() != null && !ikasanSolrDocument.getEventId().isBlank()) {
-                    identifier = ikasanSolrDocument.getEventId() + " / ";
+        // Add the event identifier column to the grid, wiretaps link to the life of the event
+        this.searchResultsGrid.addColumn(TemplateRenderer.<IkasanSolrDocument>of(
+            "<a href=\"[[item.link]]\" target=\"_blank\" style=\"color: blue\" hidden=\"[[!item.link]]\">[[item.identifier]]</a>" +
+            "<div hidden=\"[[item.link]]\">[[item.identifier]]</div>")
+            .withProperty("link", ikasanSolrDocument -> ikasanSolrDocument.getType().equals("wiretap")
+                ? RouteConfiguration.forSessionScope().getUrl(EventLifeIdDeepLinkView.class, ikasanSolrDocument.getEventId())
+                : "")
+            .withProperty("identifier", ikasanSolrDocument -> {
+                if(ikasanSolrDocument.getType().equals("error") || ikasanSolrDocument.getType().equals("exclusion")) {
+                    String identifier = "";
+
+                    if(ikasanSolrDocument.getEventId() != null && !ikasanSolrDocument.getEventId().isBlank()) {
+                        identifier = ikasanSolrDocument.getEventId() + " / ";
+                    }
+
+                    return identifier + ikasanSolrDocument.getErrorUri();
                 }
 
-                div.add(identifier + ikasanSolrDocument.getErrorUri());
-                horizontalLayout.add(div);
-            }
-            else {
-                Div div = new Div();
-                div.add(ikasanSolrDocument.getEventId());
-                horizontalLayout.add(div);
-            }
-
-            return horizontalLayout;
-        }))
+                return ikasanSolrDocument.getEventId();
+            }))
             .setKey("event")
             .setHeader(getTranslation("table-header.event-id", UI.getCurrent().getLocale()))
             .setSortable(true)
@@ -347,66 +316,40 @@ public class SearchResults extends Div {
             .setFlexGrow(2)
             .setResizable(true);
 
-        // Add the select column to the grid
-        this.searchResultsGrid.addColumn(new ComponentRenderer<>(ikasanSolrDocument ->
-        {
-            HorizontalLayout horizontalLayout = new HorizontalLayout();
-
-            Checkbox checkbox = new Checkbox();
-            checkbox.setId(ikasanSolrDocument.getId());
-            horizontalLayout.add(checkbox);
-
-            checkbox.addValueChangeListener((HasValue.ValueChangeListener<AbstractField.ComponentValueChangeEvent<Checkbox, Boolean>>) checkboxBooleanComponentValueChangeEvent ->
-            {
-                if(checkboxBooleanComponentValueChangeEvent.getValue())
-                {
-                    this.selectionItems.put(ikasanSolrDocument.getId(), ikasanSolrDocument);
-                }
-                else
-                {
-                    this.selectionItems.remove(ikasanSolrDocument.getId());
-                }
-            });
-
-            if(!this.selectionBoxes.containsKey(ikasanSolrDocument.getId()))
-            {
-                checkbox.setValue(selected);
-                this.selectionBoxes.put(ikasanSolrDocument.getId(), checkbox);
-            }
-            else
-            {
-                checkbox.setValue(selectionBoxes.get(ikasanSolrDocument.getId()).getValue());
-                this.selectionItems.put(ikasanSolrDocument.getId(), ikasanSolrDocument);
-                this.selectionBoxes.put(ikasanSolrDocument.getId(), checkbox);
-            }
-
-            return horizontalLayout;
-        })).setWidth("20px");
+        // Add the select column to the grid, the checkbox state is held in the selection rather than a component
+        this.searchResultsGrid.addColumn(TemplateRenderer.<IkasanSolrDocument>of(
+            "<vaadin-checkbox checked=\"[[item.selected]]\" on-click=\"toggle\"></vaadin-checkbox>")
+            .withProperty("selected", ikasanSolrDocument -> this.selection.isSelected(ikasanSolrDocument.getId()))
+            .withEventHandler("toggle", this.selection::toggle))
+            .setKey("select")
+            .setWidth("20px");
 
         // Add the double click replayEventSubmissionListener to the grid so that the relevant dialog can be opened.
         this.searchResultsGrid.addItemDoubleClickListener((ComponentEventListener<ItemDoubleClickEvent<IkasanSolrDocument>>)
             ikasanSolrDocumentItemDoubleClickEvent ->
             {
-                if(ikasanSolrDocumentItemDoubleClickEvent.getItem().getType().equalsIgnoreCase(SearchConstants.WIRETAP))
+                IkasanSolrDocument document = this.getFullDocument(ikasanSolrDocumentItemDoubleClickEvent.getItem());
+
+                if(document.getType().equalsIgnoreCase(SearchConstants.WIRETAP))
                 {
                     WiretapDialog wiretapDialog = new WiretapDialog();
-                    wiretapDialog.populate(ikasanSolrDocumentItemDoubleClickEvent.getItem());
+                    wiretapDialog.populate(document);
                 }
-                else if(ikasanSolrDocumentItemDoubleClickEvent.getItem().getType().equalsIgnoreCase(SearchConstants.ERROR))
+                else if(document.getType().equalsIgnoreCase(SearchConstants.ERROR))
                 {
                     ErrorDialog errorDialog = new ErrorDialog();
-                    errorDialog.populate(ikasanSolrDocumentItemDoubleClickEvent.getItem());
+                    errorDialog.populate(document);
                 }
-                else if(ikasanSolrDocumentItemDoubleClickEvent.getItem().getType().equalsIgnoreCase(SearchConstants.REPLAY))
+                else if(document.getType().equalsIgnoreCase(SearchConstants.REPLAY))
                 {
                     ReplayDialog replayDialog = new ReplayDialog(this.replayRestService, this.replayAuditService);
-                    replayDialog.populate(ikasanSolrDocumentItemDoubleClickEvent.getItem());
+                    replayDialog.populate(document);
                 }
-                else if(ikasanSolrDocumentItemDoubleClickEvent.getItem().getType().equalsIgnoreCase(SearchConstants.EXCLUSION))
+                else if(document.getType().equalsIgnoreCase(SearchConstants.EXCLUSION))
                 {
                     HospitalDialog hospitalDialog = new HospitalDialog(this.solrGeneralService, this.hospitalAuditService
                         , this.resubmissionRestService, this.moduleMetadataService, this.searchResultsGrid);
-                    hospitalDialog.populate(ikasanSolrDocumentItemDoubleClickEvent.getItem());
+                    hospitalDialog.populate(document);
                 }
             });
 
@@ -425,41 +368,69 @@ public class SearchResults extends Div {
      */
     private void toggleSelected()
     {
-        if(this.selected)
+        // a bulk action clears the selection once complete
+        if(this.selection.isAll())
+        {
+            this.selection.clear();
+        }
+        else
         {
-            selectionBoxes.keySet().forEach(key -> selectionBoxes.get(key).setValue(false));
+            this.selection.selectAll();
+            this.setSelectAllIcon(true);
+        }
+
+        // re-render the visible rows with their new selection state
+        this.searchResultsGrid.getDataProvider().refreshAll();
+    }
+
+    /**
+     * Show on the select all button whether all of the results are selected.
+     *
+     * @param all
+     */
+    private void setSelectAllIcon(boolean all)
+    {
+        Image selectAllImage = new Image(all ? "/frontend/images/all-small-on-icon.png"
+            : "/frontend/images/all-small-off-icon.png", "");
+        selectAllImage.setHeight("30px");
 
-            Image selectedImage = new Image("/frontend/images/all-small-off-icon.png", "");
-            selectedImage.setHeight("30px");
+        this.selectAllButton.setIcon(selectAllImage);
+    }
 
-            this.selectAllButton = new Button(selectedImage);
-            selectAllButton.setHeight("35px");
-            selectAllButton.setWidth("35px");
-            this.selectionItems.clear();
+    /**
+     * The grid holds summary documents without the payload or error detail, so fetch the full document to open it.
+     *
+     * @param document the summary document
+     * @return the full document, or the summary document if it can no longer be found
+     */
+    private IkasanSolrDocument getFullDocument(IkasanSolrDocument document)
+    {
+        IkasanSolrDocument fullDocument = DashboardMetrics.timeSolr(SearchResults.class.getSimpleName(), document.getModuleName()
+            , "findById", () -> this.solrGeneralService.findById(document.getType(), document.getId()));
+
+        return fullDocument != null ? fullDocument : document;
+    }
 
-            this.selected = Boolean.FALSE;
-            this.replayEventSubmissionListener.setSelected(Boolean.FALSE);
-            this.resubmitHospitalEventSubmissionListener.setSelected(Boolean.FALSE);
-            this.ignoreHospitalEventSubmissionListener.setSelected(Boolean.FALSE);
+    private static String getTypeImage(String type)
+    {
+        if(type.equalsIgnoreCase(SearchConstants.WIRETAP))
+        {
+            return "frontend/images/wiretap-service.png";
         }
-        else
+        else if(type.equalsIgnoreCase(SearchConstants.ERROR))
+        {
+            return "frontend/images/error-service.png";
+        }
+        else if(type.equalsIgnoreCase(SearchConstants.EXCLUSION))
+        {
+            return "frontend/images/hospital-service.png";
+        }
+        else if(type.equalsIgnoreCase(SearchConstants.REPLAY))
         {
-            this.selectionBoxes.keySet().forEach(key -> selectionBoxes.get(key).setValue(true));
-            Image deSelectedImage = new Image("/frontend/images/all-small-on-icon.png", "");
-            deSelectedImage.setHeight("30px");
-
-            this.selectAllButton = new Button(deSelectedImage);
-            selectAllButton.setHeight("35px");
-            selectAllButton.setWidth("35px");
-
-            this.selected = Boolean.TRUE;
-            this.replayEventSubmissionListener.setSelected(Boolean.TRUE);
-            this.resubmitHospitalEventSubmissionListener.setSelected(Boolean.TRUE);
-            this.ignoreHospitalEventSubmissionListener.setSelected(Boolean.TRUE);
+            return "frontend/images/replay-service.png";
         }
 
-        selectAllButton.addClickListener((ComponentEventListener<ClickEvent<Button>>) buttonClickEvent -> toggleSelected());
-        this.functionalGroupSetup(this.searchTypes);
+        return "";
     }
 
     /**
@@ -472,7 +443,8 @@ public class SearchResults extends Div {
             this.replayEventRegistration.remove();
         }
 
-        this.replayEventSubmissionListener = new ReplayEventSubmissionListener(this.replayRestService, this.replayAuditService, this.moduleMetadataService, this.searchResultsGrid, this.selectionBoxes, this.selectionItems);
+        this.replayEventSubmissionListener = new ReplayEventSubmissionListener(this.replayRestService, this.replayAuditService, this.moduleMetadataService
+            , this.solrGeneralService, this.searchResultsGrid, this.selection);
         this.replayEventRegistration = this.replayButton.addClickListener(this.replayEventSubmissionListener);
     }
 
@@ -489,7 +461,7 @@ public class SearchResults extends Div {
         IkasanAuthentication authentication = (IkasanAuthentication) SecurityContextHolder.getContext().getAuthentication();
 
         this.resubmitHospitalEventSubmissionListener = new  ResubmitHospitalEventSubmissionListener(this.hospitalAuditService, this.resubmissionRestService
-            , this.moduleMetadataService, this.solrGeneralService, translatedEventActionMessage, this.searchResultsGrid, this.selectionBoxes, this.selectionItems, authentication);
+            , this.moduleMetadataService, this.solrGeneralService, translatedEventActionMessage, this.searchResultsGrid, this.selection, authentication);
         this.resubmitHospitalEventRegistration = this.resubmitButton.addClickListener(this.resubmitHospitalEventSubmissionListener);
     }
 
@@ -506,7 +478,7 @@ public class SearchResults extends Div {
         IkasanAuthentication authentication = (IkasanAuthentication) SecurityContextHolder.getContext().getAuthentication();
 
         this.ignoreHospitalEventSubmissionListener = new IgnoreHospitalEventSubmissionListener(this.hospitalAuditService, this.resubmissionRestService
-            , this.moduleMetadataService, this.solrGeneralService, translatedEventActionMessage, this.searchResultsGrid, this.selectionBoxes, this.selectionItems, authentication);
+            , this.moduleMetadataService, this.solrGeneralService, translatedEventActionMessage, this.searchResultsGrid, this.selection, authentication);
         this.ignoreHospitalEventRegistration = this.ignoreButton.addClickListener(ignoreHospitalEventSubmissionListener);
     }
 
@@ -544,11 +516,29 @@ public class SearchResults extends Div {
         }
     }
 
+    /**
+     * Search for the documents of a single event life, matched exactly on their event or related event id.
+     *
+     * @param startTime the start of the search
+     * @param endTime the end of the search
+     * @param eventLifeId the event life identifier
+     * @param types the document types searched
+     */
+    public void searchEventLife(long startTime, long endTime, String eventLifeId, List<String> types) {
+        this.search(startTime, endTime, null, types, false, new ArrayList<>(), new ArrayList<>(), eventLifeId);
+    }
+
     public void search(long startTime, long endTime, String searchTerm, List<String> types, boolean negateQuery, List<String> moduleNames, List<String> flowNames) {
+        this.search(startTime, endTime, searchTerm, types, negateQuery, moduleNames, flowNames, null);
+    }
+
+    private void search(long startTime, long endTime, String searchTerm, List<String> types, boolean negateQuery
+        , List<String> moduleNames, List<String> flowNames, String eventLifeId) {
         this.searchTypes = types;
-        this.selected = false;
+        this.selection.clear();
         searchFilter.setModuleNamesFilterList(moduleNames);
         searchFilter.setFlowNamesFilterList(flowNames);
+        searchFilter.setEventLifeIdFilter(eventLifeId);
 
         if(searchTerm != null && !searchTerm.isEmpty()  && !searchTerm.startsWith("\"") && !searchTerm.endsWith("\"")){
             searchTerm = "\""+searchTerm+"\"";
@@ -66,6 +66,8 @@ public class IkasanAppLayout extends AppLayoutRouterLayout<LeftLayouts.LeftHybri
     private LeftNavigationItem roleManagementMenuItem;
     private LeftNavigationItem policyManagementMenuItem;
     private LeftNavigationItem userDirectoryManagementMenuItem;
+    private LeftNavigationItem slowOperationsMenuItem;
+    private LeftNavigationItem backgroundTasksMenuItem;
 
     public IkasanAppLayout()
     {
@@ -165,6 +167,16 @@ public class IkasanAppLayout extends AppLayoutRouterLayout<LeftLayouts.LeftHybri
         this.userDirectoryManagementMenuItem.setId("userDirectoryManagementMenuItem");
         leftSubMenuBuilder = leftSubMenuBuilder.add(this.userDirectoryManagementMenuItem);
 
+        this.slowOperationsMenuItem = new LeftNavigationItem(getTranslation("menu-item.slow-operations",
+            UI.getCurrent().getLocale(), null), VaadinIcon.TIMER.create(), SlowOperationsView.class);
+        this.slowOperationsMenuItem.setId("slowOperationsMenuItem");
+        leftSubMenuBuilder = leftSubMenuBuilder.add(this.slowOperationsMenuItem);
+
+        this.backgroundTasksMenuItem = new LeftNavigationItem(getTranslation("menu-item.background-tasks",
+            UI.getCurrent().getLocale(), null), VaadinIcon.TASKS.create(), BackgroundTasksView.class);
+        this.backgroundTasksMenuItem.setId("backgroundTasksMenuItem");
+        leftSubMenuBuilder = leftSubMenuBuilder.add(this.backgroundTasksMenuItem);
+
         if(leftSubMenuBuilder != null)
         {
             this.leftSubmenu = leftSubMenuBuilder.build();
@@ -213,6 +225,9 @@ public class IkasanAppLayout extends AppLayoutRouterLayout<LeftLayouts.LeftHybri
 
         this.userDirectoryManagementMenuItem.setVisible(ComponentSecurityVisibility.hasAuthorisation(SecurityConstants.ALL_AUTHORITY, SecurityConstants.USER_DIRECTORY_ADMIN, SecurityConstants.USER_DIRECTORY_WRITE,
             SecurityConstants.USER_DIRECTORY_READ));
+
+        this.slowOperationsMenuItem.setVisible(ComponentSecurityVisibility.hasAuthorisation(SecurityConstants.ALL_AUTHORITY));
+        this.backgroundTasksMenuItem.setVisible(ComponentSecurityVisibility.hasAuthorisation(SecurityConstants.ALL_AUTHORITY));
     }
 
     @Override
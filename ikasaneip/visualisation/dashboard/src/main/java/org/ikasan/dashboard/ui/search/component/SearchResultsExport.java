@@ -0,0 +1,237 @@
+package org.ikasan.dashboard.ui.search.component;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.vaadin.flow.server.StreamResource;
+import com.vaadin.flow.server.StreamResourceWriter;
+import com.vaadin.flow.server.VaadinSession;
+import org.ikasan.solr.model.IkasanSolrDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes every result of a search grid to a download as CSV or JSON.
+ *
+ * The results are written to the response as each page is fetched from Solr, so an export of hundreds of thousands
+ * of events never holds more than a page of them in memory. The export repeats the search the grid was last
+ * initialised with, keeping the user's filters, sort and module access restrictions.
+ */
+public class SearchResultsExport implements StreamResourceWriter
+{
+    private static Logger logger = LoggerFactory.getLogger(SearchResultsExport.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 500;
+
+    public static final List<String> FIELDS = List.of("id", "type", "moduleName", "flowName", "componentName"
+        , "eventId", "timestamp", "errorUri", "errorMessage", "event");
+
+    public enum Format
+    {
+        CSV("csv", "text/csv"),
+        JSON("json", "application/json");
+
+        private String extension;
+        private String contentType;
+
+        Format(String extension, String contentType)
+        {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String getExtension()
+        {
+            return extension;
+        }
+
+        public String getContentType()
+        {
+            return contentType;
+        }
+    }
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private SolrSearchFilteringGrid grid;
+    private Format format;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+
+    /**
+     * Constructor
+     *
+     * @param grid the grid whose search is exported
+     * @param format the format written
+     */
+    public SearchResultsExport(SolrSearchFilteringGrid grid, Format format)
+    {
+        this.grid = grid;
+        if(this.grid == null)
+        {
+            throw new IllegalArgumentException("grid cannot be null!");
+        }
+        this.format = format;
+        if(this.format == null)
+        {
+            throw new IllegalArgumentException("format cannot be null!");
+        }
+    }
+
+    /**
+     * Create the download of the export.
+     *
+     * @param name the file name without its extension
+     * @return the download
+     */
+    public StreamResource createStreamResource(String name)
+    {
+        StreamResource streamResource = new StreamResource(name + "." + this.format.getExtension(), this);
+        streamResource.setContentType(this.format.getContentType());
+        streamResource.setCacheTime(0);
+
+        return streamResource;
+    }
+
+    @Override
+    public void accept(OutputStream stream, VaadinSession session) throws IOException
+    {
+        long started = System.currentTimeMillis();
+        long exported;
+
+        // the search is read off the grid holding the session lock, then streamed to the download without it
+        SolrSearchFilteringGrid.Export export;
+        session.lock();
+        try
+        {
+            export = this.grid.getExport(this.pageSize);
+        }
+        finally
+        {
+            session.unlock();
+        }
+
+        try
+        {
+            exported = this.format == Format.JSON ? this.writeJson(stream, export) : this.writeCsv(stream, export);
+        }
+        catch (UncheckedIOException e)
+        {
+            // the user has most likely cancelled the download
+            logger.info("Search results export stopped. {}", e.getCause().getMessage());
+            return;
+        }
+
+        logger.info("Exported {} search results as {} in {}ms.", exported, this.format
+            , System.currentTimeMillis() - started);
+    }
+
+    protected long writeJson(OutputStream stream, SolrSearchFilteringGrid.Export export) throws IOException
+    {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(stream, JsonEncoding.UTF8))
+        {
+            generator.writeStartArray();
+
+            long exported = export.write(document ->
+            {
+                try
+                {
+                    generator.writeStartObject();
+                    List<String> values = getValues(document);
+                    for(int i = 0; i < FIELDS.size(); i++)
+                    {
+                        if(values.get(i) != null)
+                        {
+                            generator.writeStringField(FIELDS.get(i), values.get(i));
+                        }
+                    }
+                    generator.writeEndObject();
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            generator.writeEndArray();
+
+            return exported;
+        }
+    }
+
+    protected long writeCsv(OutputStream stream, SolrSearchFilteringGrid.Export export) throws IOException
+    {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8)))
+        {
+            writeCsvRecord(writer, FIELDS);
+
+            return export.write(document ->
+            {
+                try
+                {
+                    writeCsvRecord(writer, getValues(document));
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private static List<String> getValues(IkasanSolrDocument document)
+    {
+        return Arrays.asList(document.getId(), document.getType(), document.getModuleName()
+            , document.getFlowName(), document.getComponentName(), document.getEventId()
+            , Instant.ofEpochMilli(document.getTimeStamp()).toString(), document.getErrorUri()
+            , document.getErrorMessage(), document.getEvent());
+    }
+
+    private static void writeCsvRecord(Writer writer, List<String> values) throws IOException
+    {
+        for(int i = 0; i < values.size(); i++)
+        {
+            if(i > 0)
+            {
+                writer.write(',');
+            }
+            writer.write(toCsvField(values.get(i)));
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Quote a CSV field as RFC 4180 does when it holds a separator, quote or line break.
+     *
+     * @param value the value, or null
+     * @return the field
+     */
+    protected static String toCsvField(String value)
+    {
+        if(value == null)
+        {
+            return "";
+        }
+        if(value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0)
+        {
+            return value;
+        }
+
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    public void setPageSize(int pageSize)
+    {
+        this.pageSize = pageSize;
+    }
+}
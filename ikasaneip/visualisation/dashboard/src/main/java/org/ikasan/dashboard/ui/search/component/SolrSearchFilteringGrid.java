@@ -10,7 +10,14 @@ import com.vaadin.flow.data.provider.DataProvider;
 import com.vaadin.flow.i18n.I18NProvider;
 import com.vaadin.flow.server.VaadinService;
 import org.apache.solr.client.solrj.util.ClientUtils;
+import org.ikasan.dashboard.cache.EventLifeIdCache;
+import org.ikasan.dashboard.metrics.DashboardMetrics;
 import org.ikasan.dashboard.security.SecurityUtils;
+import org.ikasan.dashboard.solr.CursorMarkSolrClient;
+import org.ikasan.dashboard.solr.FilterQuerySolrClient;
+import org.ikasan.dashboard.solr.SubstringSearchFields;
+import org.ikasan.dashboard.solr.SummaryProjectionSolrClient;
+import org.ikasan.dashboard.solr.TimePartitionSolrClient;
 import org.ikasan.dashboard.ui.general.component.NotificationHelper;
 import org.ikasan.dashboard.ui.search.component.filter.SearchFilter;
 import org.ikasan.dashboard.ui.util.SearchConstants;
@@ -25,12 +32,16 @@ import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class SolrSearchFilteringGrid extends Grid<IkasanSolrDocument>
 {
     private Logger logger = LoggerFactory.getLogger(SolrSearchFilteringGrid.class);
 
+    private static final String TIMESTAMP_FIELD = "timestamp";
+    private static final String ASCENDING = "ASCENDING";
+
     private SolrGeneralService<IkasanSolrDocument, IkasanSolrDocumentSearchResults> solrSearchService;
 
     private DataProvider<IkasanSolrDocument,SearchFilter> dataProvider;
@@ -43,6 +54,16 @@ public class SolrSearchFilteringGrid extends Grid<IkasanSolrDocument>
 
     private Label resultsLabel;
 
+    private boolean summary = false;
+
+    /** the search last initialised, repeated when the results are exported */
+    private IkasanAuthentication authentication;
+    private long startTime;
+    private long endTime;
+    private String searchTerm;
+    private List<String> types;
+    private boolean negateQuery;
+
     /**
      * Constructors
      */
@@ -104,6 +125,13 @@ public class SolrSearchFilteringGrid extends Grid<IkasanSolrDocument>
 
         IkasanAuthentication authentication = (IkasanAuthentication) SecurityContextHolder.getContext().getAuthentication();
 
+        this.authentication = authentication;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.searchTerm = searchTerm;
+        this.types = types;
+        this.negateQuery = negateQuery;
+
         dataProvider = DataProvider.fromFilteringCallbacks(query ->
         {
             Optional<SearchFilter> filter = query.getFilter();
@@ -152,11 +180,114 @@ public class SolrSearchFilteringGrid extends Grid<IkasanSolrDocument>
         this.setDataProvider(filteredDataProvider);
     }
 
+    /**
+     * Capture the search the grid was last initialised with, under its current filters and sort, so that every result
+     * of it can be exported. The state of the grid is read here, so this must be called while holding the lock of the
+     * session, whereas the export returned may be run without it, e.g. on the thread writing a download.
+     *
+     * @param pageSize the number of results fetched at a time
+     * @return the export of the search
+     */
+    public Export getExport(int pageSize)
+    {
+        if(this.authentication == null)
+        {
+            throw new IllegalStateException("The grid must be initialised before its results can be exported!");
+        }
+
+        String sortField = null;
+        String sortOrder = null;
+        if(!this.getSortOrder().isEmpty() && this.getSortOrder().get(0).getSorted().getKey() != null)
+        {
+            sortField = this.getSortOrder().get(0).getSorted().getKey();
+            sortOrder = this.getSortOrder().get(0).getDirection().name();
+        }
+
+        Supplier<IkasanSolrDocumentSearchResults> search = this.getSearch(this.authentication, this.searchFilter
+            , this.startTime, this.endTime, this.searchTerm, 0, pageSize, new ArrayList<>(this.types), this.negateQuery
+            , sortField, sortOrder, false);
+
+        return consumer ->
+        {
+            long exported = 0;
+            CursorMarkSolrClient.Cursor cursor = new CursorMarkSolrClient.Cursor();
+            while(!cursor.isFinished())
+            {
+                IkasanSolrDocumentSearchResults results = DashboardMetrics.timeSolr(SolrSearchFilteringGrid.class.getSimpleName()
+                    , DashboardMetrics.ALL_MODULES, "export", () -> CursorMarkSolrClient.page(cursor, search));
+
+                results.getResultList().forEach(consumer);
+                exported += results.getResultList().size();
+
+                if(results.getResultList().isEmpty())
+                {
+                    break;
+                }
+            }
+
+            return exported;
+        };
+    }
+
     private IkasanSolrDocumentSearchResults getResults(IkasanAuthentication authentication, SearchFilter filter, long startTime
         , long endTime, String searchTerm, int offset, int limit, List<String> types, boolean negateQuery, String sortField, String sortOrder)
+    {
+        try {
+            // the documents of an event life are found in one query and served from the cache until a column
+            // filter or sort is applied
+            if(filter.getEventLifeIdFilter() != null && !filter.hasColumnFilters() && sortField == null) {
+                IkasanSolrDocumentSearchResults eventLife = EventLifeIdCache.instance().get(SecurityUtils
+                    .getModuleAccessFilterQuery(authentication), types, filter.getEventLifeIdFilter()
+                    , () -> DashboardMetrics.timeSolr(SolrSearchFilteringGrid.class.getSimpleName()
+                        , DashboardMetrics.ALL_MODULES, "eventLife", this.getSearch(authentication, filter, startTime
+                            , endTime, searchTerm, 0, EventLifeIdCache.MAXIMUM_DOCUMENTS, types, negateQuery
+                            , TIMESTAMP_FIELD, ASCENDING, this.summary)));
+
+                if(eventLife.getResultList().size() == eventLife.getTotalNumberOfResults()) {
+                    int from = Math.min(offset, eventLife.getResultList().size());
+                    int to = Math.min(offset + limit, eventLife.getResultList().size());
+                    return new IkasanSolrDocumentSearchResults(new ArrayList<>(eventLife.getResultList().subList(from, to))
+                        , eventLife.getTotalNumberOfResults(), eventLife.getQueryResponseTime());
+                }
+            }
+
+            Supplier<IkasanSolrDocumentSearchResults> search = this.getSearch(authentication, filter, startTime, endTime
+                , searchTerm, offset, limit, types, negateQuery, sortField, sortOrder, this.summary);
+
+            // the name filters are free text so tag all modules rather than whatever the user has typed
+            return DashboardMetrics.timeSolr(SolrSearchFilteringGrid.class.getSimpleName(), DashboardMetrics.ALL_MODULES
+                , "search", search);
+        }
+        catch (Exception e) {
+            final UI current = UI.getCurrent();
+            final I18NProvider i18NProvider = VaadinService.getCurrent().getInstantiator().getI18NProvider();
+            NotificationHelper.showErrorNotification(i18NProvider.getTranslation("error.solr-unavailable"
+                , current.getLocale()));
+        }
+
+        return new IkasanSolrDocumentSearchResults(new ArrayList<>(), 0, 0);
+    }
+
+    private Supplier<IkasanSolrDocumentSearchResults> getSearch(IkasanAuthentication authentication, SearchFilter filter
+        , long startTime, long endTime, String searchTerm, int offset, int limit, List<String> types, boolean negateQuery
+        , String sortField, String sortOrder, boolean summary)
     {
         Set<String> allowedModuleNames = SecurityUtils.getAccessibleModules(authentication);
 
+        // access to modules is applied as a filter query of its own rather than by listing them in the main query
+        List<String> filterQueries = new ArrayList<>();
+        String moduleAccessFilterQuery = SecurityUtils.getModuleAccessFilterQuery(authentication);
+        if(moduleAccessFilterQuery != null) {
+            filterQueries.add(moduleAccessFilterQuery);
+        }
+
+        if(filter.getEventLifeIdFilter() != null) {
+            filterQueries.add(EventLifeIdCache.toFilterQuery(filter.getEventLifeIdFilter()));
+        }
+
+        // substring filters are looked up in the n-gram companion fields rather than by leading wildcards
+        boolean substringFields = SubstringSearchFields.isEnabled();
+
         Set<String> moduleNames = null;
 
         if(filter.getSystemEventFilter() != null && !filter.getSystemEventFilter().isEmpty()) {
@@ -172,7 +303,11 @@ public class SolrSearchFilteringGrid extends Grid<IkasanSolrDocument>
             }
         }
 
-        if(filter.isValidModuleNameFilter()) {
+        if(filter.isValidModuleNameFilter() && substringFields) {
+            // the modules the user may see are already restricted by the module access filter query
+            filterQueries.add(SubstringSearchFields.filter(SubstringSearchFields.MODULE_NAME, filter.getModuleNameFilter()));
+        }
+        else if(filter.isValidModuleNameFilter()) {
             moduleNames = new HashSet<>();
 
             if(authentication.hasGrantedAuthority(SecurityConstants.ALL_AUTHORITY)) {
@@ -194,6 +329,11 @@ public class SolrSearchFilteringGrid extends Grid<IkasanSolrDocument>
             moduleNames = new HashSet<>();
             moduleNames.add(SearchConstants.NONSENSE_STRING);
         }
+        else if(filter.getModuleNamesFilterList() != null && !filter.getModuleNamesFilterList().isEmpty() && substringFields)
+        {
+            filterQueries.add(SubstringSearchFields.filter(SubstringSearchFields.MODULE_NAME
+                , filter.getModuleNamesFilterList()));
+        }
         else if(filter.getModuleNamesFilterList() != null && !filter.getModuleNamesFilterList().isEmpty())
         {
             moduleNames = new HashSet<>();
@@ -221,7 +361,10 @@ public class SolrSearchFilteringGrid extends Grid<IkasanSolrDocument>
 
         Set<String> flowNames = null;
 
-        if(filter.isValidFlowNameFilter()) {
+        if(filter.isValidFlowNameFilter() && substringFields) {
+            filterQueries.add(SubstringSearchFields.filter(SubstringSearchFields.FLOW_NAME, filter.getFlowNameFilter()));
+        }
+        else if(filter.isValidFlowNameFilter()) {
             flowNames = new HashSet<>();
             flowNames.add("*" + ClientUtils.escapeQueryChars(filter.getFlowNameFilter()) + "*");
         }
@@ -229,6 +372,11 @@ public class SolrSearchFilteringGrid extends Grid<IkasanSolrDocument>
             flowNames = new HashSet<>();
             flowNames.add(SearchConstants.NONSENSE_STRING);
         }
+        else if(filter.getFlowNamesFilterList() != null && !filter.getFlowNamesFilterList().isEmpty() && substringFields)
+        {
+            filterQueries.add(SubstringSearchFields.filter(SubstringSearchFields.FLOW_NAME
+                , filter.getFlowNamesFilterList()));
+        }
         else if(filter.getFlowNamesFilterList() != null && !filter.getFlowNamesFilterList().isEmpty())
         {
             flowNames = filter.getFlowNamesFilterList()
@@ -239,7 +387,12 @@ public class SolrSearchFilteringGrid extends Grid<IkasanSolrDocument>
 
         HashSet<String> componentNames = null;
 
-        if(filter.getComponentNameFilter() != null && !filter.getComponentNameFilter().isEmpty())
+        if(filter.getComponentNameFilter() != null && !filter.getComponentNameFilter().isEmpty() && substringFields)
+        {
+            filterQueries.add(SubstringSearchFields.filter(SubstringSearchFields.COMPONENT_NAME
+                , filter.getComponentNameFilter()));
+        }
+        else if(filter.getComponentNameFilter() != null && !filter.getComponentNameFilter().isEmpty())
         {
             componentNames = new HashSet<>();
             componentNames.add("*" + ClientUtils.escapeQueryChars(filter.getComponentNameFilter()) + "*");
@@ -247,40 +400,67 @@ public class SolrSearchFilteringGrid extends Grid<IkasanSolrDocument>
 
         String eventId = null;
 
-        if(filter.getEventIdFilter() != null && !filter.getEventIdFilter().isEmpty())
+        if(filter.getEventIdFilter() != null && !filter.getEventIdFilter().isEmpty() && substringFields)
         {
-            eventId = "*" + ClientUtils.escapeQueryChars(filter.getEventIdFilter()) + "*";
+            filterQueries.add(SubstringSearchFields.filter(SubstringSearchFields.EVENT_ID, filter.getEventIdFilter()));
         }
-
-        if(!authentication.hasGrantedAuthority(SecurityConstants.ALL_AUTHORITY) && moduleNames == null)
+        else if(filter.getEventIdFilter() != null && !filter.getEventIdFilter().isEmpty())
         {
-            moduleNames = allowedModuleNames;
-
-            if(moduleNames.isEmpty()){
-                moduleNames.add(SearchConstants.NONSENSE_STRING);
-            }
+            eventId = "*" + ClientUtils.escapeQueryChars(filter.getEventIdFilter()) + "*";
         }
 
         if(types.isEmpty()) {
             types.add(SearchConstants.NONSENSE_STRING);
         }
 
-        try {
-            return this.solrSearchService.search(moduleNames, flowNames, componentNames, eventId, searchTerm,
-                startTime, endTime, offset, limit, types, negateQuery, sortField, sortOrder);
-        }
-        catch (Exception e) {
-            final UI current = UI.getCurrent();
-            final I18NProvider i18NProvider = VaadinService.getCurrent().getInstantiator().getI18NProvider();
-            NotificationHelper.showErrorNotification(i18NProvider.getTranslation("error.solr-unavailable"
-                , current.getLocale()));
-        }
-
-        return new IkasanSolrDocumentSearchResults(new ArrayList<>(), 0, 0);
+        Set<String> queryModuleNames = moduleNames;
+        Set<String> queryFlowNames = flowNames;
+        Set<String> queryComponentNames = componentNames;
+        String queryEventId = eventId;
+        String querySearchTerm = searchTerm;
+
+        Supplier<IkasanSolrDocumentSearchResults> search = () -> this.solrSearchService.search(queryModuleNames
+            , queryFlowNames, queryComponentNames, queryEventId, querySearchTerm, startTime, endTime, offset, limit, types
+            , negateQuery, sortField, sortOrder);
+        Supplier<IkasanSolrDocumentSearchResults> projectedSearch = summary
+            ? () -> SummaryProjectionSolrClient.summary(search) : search;
+        Supplier<IkasanSolrDocumentSearchResults> windowedSearch = () -> TimePartitionSolrClient.window(startTime
+            , endTime, projectedSearch);
+
+        return () -> FilterQuerySolrClient.filter(filterQueries, windowedSearch);
     }
 
     public long getResultSize()
     {
         return resultSize;
     }
+
+    public boolean isSummary()
+    {
+        return summary;
+    }
+
+    /**
+     * Populate the grid with summary documents, holding a snippet of the payload and error message in place of the
+     * full event and without the raw payload or error detail.
+     *
+     * @param summary
+     */
+    public void setSummary(boolean summary)
+    {
+        this.summary = summary;
+    }
+
+    /**
+     * An export of every result of a search, fetched a page at a time with a Solr cursor so only one page is held in
+     * memory at once.
+     */
+    public interface Export
+    {
+        /**
+         * @param consumer the consumer of each result, in order
+         * @return the number of results exported
+         */
+        long write(Consumer<IkasanSolrDocument> consumer);
+    }
 }
@@ -14,6 +14,7 @@ public class SearchFilter
     private String flowNamesFilter = null;
     private String componentNameFilter = null;
     private String eventIdFilter = null;
+    private String eventLifeIdFilter = null;
     private Map<String, String> systemEventFilter = new HashMap<>();
 
     public List<String> getModuleNamesFilterList()
@@ -114,6 +115,32 @@ public class SearchFilter
         this.eventIdFilter = eventIdFilter;
     }
 
+    public String getEventLifeIdFilter()
+    {
+        return eventLifeIdFilter;
+    }
+
+    /**
+     * Restrict the search to the documents of a single event life, matched exactly on the event and related event id.
+     *
+     * @param eventLifeIdFilter the event life identifier, or null for no restriction
+     */
+    public void setEventLifeIdFilter(String eventLifeIdFilter)
+    {
+        this.eventLifeIdFilter = eventLifeIdFilter;
+    }
+
+    /**
+     * @return whether any of the grid column filters have been typed into
+     */
+    public boolean hasColumnFilters()
+    {
+        return (this.moduleNamesFilter != null && !this.moduleNamesFilter.isEmpty())
+            || (this.flowNamesFilter != null && !this.flowNamesFilter.isEmpty())
+            || (this.componentNameFilter != null && !this.componentNameFilter.isEmpty())
+            || (this.eventIdFilter != null && !this.eventIdFilter.isEmpty());
+    }
+
     public String getModuleNamesFilter() {
         return moduleNamesFilter;
     }
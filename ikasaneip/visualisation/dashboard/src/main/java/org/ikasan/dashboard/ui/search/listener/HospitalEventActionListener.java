@@ -3,12 +3,13 @@ package org.ikasan.dashboard.ui.search.listener;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vaadin.flow.component.UI;
-import com.vaadin.flow.component.checkbox.Checkbox;
 import com.vaadin.flow.i18n.I18NProvider;
 import com.vaadin.flow.server.VaadinService;
+import org.ikasan.dashboard.metrics.DashboardMetrics;
 import org.ikasan.dashboard.ui.general.component.NotificationHelper;
 import org.ikasan.dashboard.ui.general.component.ProgressIndicatorDialog;
 import org.ikasan.dashboard.ui.search.component.SolrSearchFilteringGrid;
+import org.ikasan.dashboard.ui.search.model.SearchResultsSelection;
 import org.ikasan.dashboard.ui.search.model.hospital.ExclusionEventActionImpl;
 import org.ikasan.security.service.authentication.IkasanAuthentication;
 import org.ikasan.solr.model.IkasanSolrDocument;
@@ -24,7 +25,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 
@@ -38,9 +38,9 @@ public abstract class HospitalEventActionListener extends IkasanEventActionListe
 
     public HospitalEventActionListener(String translatedEventActionMessage, SolrGeneralService<IkasanSolrDocument, IkasanSolrDocumentSearchResults> solrGeneralService,
                                        ModuleMetaDataService moduleMetadataService, ResubmissionService resubmissionRestService,
-                                       SolrSearchFilteringGrid searchResultsGrid, HashMap<String, Checkbox> selectionBoxes,
-                                       HashMap<String, IkasanSolrDocument> selectionItems, IkasanAuthentication ikasanAuthentication) {
-        super(moduleMetadataService, searchResultsGrid, selectionBoxes, selectionItems);
+                                       SolrSearchFilteringGrid searchResultsGrid, SearchResultsSelection selection,
+                                       IkasanAuthentication ikasanAuthentication) {
+        super(moduleMetadataService, searchResultsGrid, selection);
         this.translatedEventActionMessage = translatedEventActionMessage;
         if (this.translatedEventActionMessage == null) {
             throw new IllegalArgumentException("translatedEventActionMessage cannot be null!");
@@ -116,7 +116,9 @@ public abstract class HospitalEventActionListener extends IkasanEventActionListe
      * @return
      */
     protected ExclusionEventAction getExclusionEventAction(String comment, String action, IkasanSolrDocument document, String user) {
-        IkasanSolrDocument errorOccurrence = this.solrGeneralService.findByErrorUri("error", this.getErrorUri(document.getId()));
+        IkasanSolrDocument errorOccurrence = DashboardMetrics.timeSolr(HospitalEventActionListener.class.getSimpleName()
+            , document.getModuleName(), "findByErrorUri"
+            , () -> this.solrGeneralService.findByErrorUri("error", this.getErrorUri(document.getId())));
         ExclusionEventAction exclusionEventAction = new ExclusionEventActionImpl();
         exclusionEventAction.setComment(comment);
         exclusionEventAction.setActionedBy(user);
@@ -131,17 +133,6 @@ public abstract class HospitalEventActionListener extends IkasanEventActionListe
         return exclusionEventAction;
     }
 
-    protected int getNumberOfSeletedItems() {
-        int count = 0;
-        for (Checkbox checkbox : super.selectionBoxes.values()) {
-            if (checkbox.getValue()) {
-                count++;
-            }
-        }
-
-        return count;
-    }
-
     public String getTranslation(String key, Locale locale) {
         I18NProvider provider = VaadinService.getCurrent().getInstantiator().getI18NProvider();
 
@@ -4,14 +4,15 @@ import com.vaadin.flow.component.ClickEvent;
 import com.vaadin.flow.component.ComponentEventListener;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
-import com.vaadin.flow.component.checkbox.Checkbox;
 import com.vaadin.flow.component.dialog.Dialog;
 import com.vaadin.flow.component.dialog.GeneratedVaadinDialog;
 import com.vaadin.flow.data.provider.Query;
+import org.ikasan.dashboard.task.DashboardTaskExecutor;
 import org.ikasan.dashboard.ui.general.component.NotificationHelper;
 import org.ikasan.dashboard.ui.general.component.HospitalCommentsDialog;
 import org.ikasan.dashboard.ui.general.component.ProgressIndicatorDialog;
 import org.ikasan.dashboard.ui.search.component.SolrSearchFilteringGrid;
+import org.ikasan.dashboard.ui.search.model.SearchResultsSelection;
 import org.ikasan.dashboard.ui.search.model.hospital.ExclusionEventActionImpl;
 import org.ikasan.rest.client.ResubmissionRestServiceImpl;
 import org.ikasan.security.service.authentication.IkasanAuthentication;
@@ -28,10 +29,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 public class IgnoreHospitalEventSubmissionListener extends HospitalEventActionListener implements ComponentEventListener<ClickEvent<Button>> {
@@ -42,10 +40,10 @@ public class IgnoreHospitalEventSubmissionListener extends HospitalEventActionLi
 
     public IgnoreHospitalEventSubmissionListener(HospitalAuditService hospitalAuditService, ResubmissionService resubmissionRestService
         , ModuleMetaDataService moduleMetadataService, SolrGeneralService<IkasanSolrDocument, IkasanSolrDocumentSearchResults> solrGeneralService
-        , String actionMessage, SolrSearchFilteringGrid searchResultsGrid, HashMap<String, Checkbox> selectionBoxes
-        , HashMap<String, IkasanSolrDocument> selectionItems, IkasanAuthentication ikasanAuthentication) {
+        , String actionMessage, SolrSearchFilteringGrid searchResultsGrid, SearchResultsSelection selection
+        , IkasanAuthentication ikasanAuthentication) {
         super(actionMessage, solrGeneralService, moduleMetadataService, resubmissionRestService, searchResultsGrid
-            , selectionBoxes, selectionItems, ikasanAuthentication);
+            , selection, ikasanAuthentication);
 
         this.hospitalAuditService = hospitalAuditService;
         if (this.hospitalAuditService == null) {
@@ -55,10 +53,6 @@ public class IgnoreHospitalEventSubmissionListener extends HospitalEventActionLi
         if (this.hospitalAuditService == null) {
             throw new IllegalArgumentException("hospitalAuditService cannot be null!");
         }
-
-        this.searchResultsGrid = searchResultsGrid;
-        this.selectionBoxes = selectionBoxes;
-        this.selectionItems = selectionItems;
     }
 
     @Override
@@ -80,23 +74,22 @@ public class IgnoreHospitalEventSubmissionListener extends HospitalEventActionLi
             if (!dialogOpenedChangeEvent.isOpened() && commentsDialog.isActioned()) {
                 ProgressIndicatorDialog progressIndicatorDialog = new ProgressIndicatorDialog(true);
 
-                if (selected) {
+                if (this.selection.isAll()) {
                     progressIndicatorDialog.open(String.format(getTranslation("message.ignoring-exclusions", UI.getCurrent().getLocale())
                         , searchResultsGrid.getResultSize()));
                 } else {
                     progressIndicatorDialog.open(String.format(getTranslation("message.ignoring-exclusions", UI.getCurrent().getLocale())
-                        , super.getNumberOfSeletedItems()));
+                        , super.getNumberOfSelectedItems()));
                 }
 
                 final UI current = UI.getCurrent();
-                Executor executor = Executors.newSingleThreadExecutor();
-                executor.execute(() ->
+                DashboardTaskExecutor.instance().submit("Ignore exclusions", () ->
                 {
                     try {
                         List<ExclusionEventAction> exclusionEventActions = null;
 
-                        if (!selected) {
-                            List<IkasanSolrDocument> resubmissionEvents = this.selectionItems.values()
+                        if (!this.selection.isAll()) {
+                            List<IkasanSolrDocument> resubmissionEvents = this.selection.getSelectedDocuments()
                                 .stream()
                                 .filter(document -> this.shouldActionEvent(document))
                                 .collect(Collectors.toList());
@@ -135,8 +128,7 @@ public class IgnoreHospitalEventSubmissionListener extends HospitalEventActionLi
                             {
                                 progressIndicatorDialog.close();
                                 NotificationHelper.showUserNotification(getTranslation("message.successfully-ignored-exclusions", UI.getCurrent().getLocale()));
-                                selectionBoxes.keySet().forEach(key -> selectionBoxes.get(key).setValue(false));
-                                selectionItems.clear();
+                                this.selection.clear();
                             });
                         }
 
@@ -1,25 +1,20 @@
 package org.ikasan.dashboard.ui.search.listener;
 
-import com.vaadin.flow.component.checkbox.Checkbox;
+import org.ikasan.dashboard.cache.ModuleMetaDataCache;
 import org.ikasan.dashboard.ui.search.component.SolrSearchFilteringGrid;
+import org.ikasan.dashboard.ui.search.model.SearchResultsSelection;
 import org.ikasan.solr.model.IkasanSolrDocument;
 import org.ikasan.spec.metadata.ModuleMetaData;
 import org.ikasan.spec.metadata.ModuleMetaDataService;
 
-import java.util.HashMap;
-import java.util.stream.Collectors;
-
 public abstract class IkasanEventActionListener
 {
     protected SolrSearchFilteringGrid searchResultsGrid;
-    protected HashMap<String, Checkbox> selectionBoxes = new HashMap<>();
-    protected HashMap<String, IkasanSolrDocument> selectionItems = new HashMap<>();
-    protected Boolean selected = Boolean.FALSE;
+    protected SearchResultsSelection selection;
     protected ModuleMetaDataService moduleMetadataService;
-    protected HashMap<String, ModuleMetaData> moduleMetaDataCache;
 
     public IkasanEventActionListener(ModuleMetaDataService moduleMetadataService, SolrSearchFilteringGrid searchResultsGrid,
-            HashMap<String, Checkbox> selectionBoxes, HashMap<String, IkasanSolrDocument> selectionItems)
+            SearchResultsSelection selection)
     {
         this.moduleMetadataService = moduleMetadataService;
         if(this.moduleMetadataService == null)
@@ -31,18 +26,11 @@ public abstract class IkasanEventActionListener
         {
             throw new IllegalArgumentException("searchResultsGrid cannot be null!");
         }
-        this.selectionBoxes = selectionBoxes;
-        if(this.selectionBoxes == null)
-        {
-            throw new IllegalArgumentException("selectionBoxes cannot be null!");
-        }
-        this.selectionItems = selectionItems;
-        if(this.selectionItems == null)
+        this.selection = selection;
+        if(this.selection == null)
         {
-            throw new IllegalArgumentException("selectionItems cannot be null!");
+            throw new IllegalArgumentException("selection cannot be null!");
         }
-
-        moduleMetaDataCache = new HashMap<>();
     }
 
     /**
@@ -52,19 +40,7 @@ public abstract class IkasanEventActionListener
      */
     protected boolean confirmSelectedEvents()
     {
-        int numberSelectedBoxes = this.selectionBoxes.values().stream().filter(checkbox -> checkbox.getValue()).collect(Collectors.toList()).size();
-
-        if(selected && numberSelectedBoxes > 0)
-        {
-            return true;
-        }
-
-        if(!selected && numberSelectedBoxes > 0)
-        {
-            return true;
-        }
-
-        return false;
+        return this.getNumberOfSelectedItems() > 0;
     }
 
     /**
@@ -75,42 +51,16 @@ public abstract class IkasanEventActionListener
      */
     protected boolean shouldActionEvent(IkasanSolrDocument document)
     {
-        if(this.selected)
-        {
-            if((this.selectionBoxes.containsKey(document.getId()) && this.selectionBoxes.get(document.getId()).getValue())
-                || !this.selectionBoxes.containsKey(document.getId()))
-            {
-                return true;
-            }
-        }
-        else
-        {
-            if((this.selectionBoxes.containsKey(document.getId()) && this.selectionBoxes.get(document.getId()).getValue()))
-            {
-                return true;
-            }
-        }
-
-        return false;
+        return this.selection.isSelected(document.getId());
     }
 
-    protected ModuleMetaData getModuleMetaData(String moduleName)
+    protected long getNumberOfSelectedItems()
     {
-        if(this.moduleMetaDataCache.containsKey(moduleName))
-        {
-            return this.moduleMetaDataCache.get(moduleName);
-        }
-        else
-        {
-            ModuleMetaData moduleMetaData = this.moduleMetadataService.findById(moduleName);
-            this.moduleMetaDataCache.put(moduleName, moduleMetaData);
-
-            return moduleMetaData;
-        }
+        return this.selection.getNumberSelected(this.searchResultsGrid.getResultSize());
     }
 
-    public void setSelected(Boolean selected)
+    protected ModuleMetaData getModuleMetaData(String moduleName)
     {
-        this.selected = selected;
+        return ModuleMetaDataCache.instance().get(moduleName, this.moduleMetadataService);
     }
 }
@@ -4,36 +4,37 @@ import com.vaadin.flow.component.ClickEvent;
 import com.vaadin.flow.component.ComponentEventListener;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
-import com.vaadin.flow.component.checkbox.Checkbox;
 import com.vaadin.flow.component.dialog.Dialog;
 import com.vaadin.flow.component.dialog.GeneratedVaadinDialog;
 import com.vaadin.flow.data.provider.Query;
 import com.vaadin.flow.i18n.I18NProvider;
 import com.vaadin.flow.server.VaadinService;
+import org.ikasan.dashboard.metrics.DashboardMetrics;
+import org.ikasan.dashboard.task.DashboardTaskExecutor;
 import org.ikasan.dashboard.ui.general.component.NotificationHelper;
 import org.ikasan.dashboard.ui.general.component.ProgressIndicatorDialog;
 import org.ikasan.dashboard.ui.general.component.ReplayCommentsDialog;
 import org.ikasan.dashboard.ui.search.component.SolrSearchFilteringGrid;
+import org.ikasan.dashboard.ui.search.model.SearchResultsSelection;
 import org.ikasan.dashboard.ui.search.model.replay.ReplayAuditEventImpl;
 import org.ikasan.dashboard.ui.search.model.replay.ReplayAuditImpl;
 import org.ikasan.dashboard.ui.search.model.replay.ReplayDialogDto;
 import org.ikasan.rest.client.ReplayRestServiceImpl;
 import org.ikasan.security.service.authentication.IkasanAuthentication;
 import org.ikasan.solr.model.IkasanSolrDocument;
+import org.ikasan.solr.model.IkasanSolrDocumentSearchResults;
 import org.ikasan.spec.metadata.ModuleMetaDataService;
 import org.ikasan.spec.module.client.ReplayService;
 import org.ikasan.spec.persistence.BatchInsert;
 import org.ikasan.spec.replay.ReplayAuditEvent;
+import org.ikasan.spec.solr.SolrGeneralService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 public class ReplayEventSubmissionListener extends IkasanEventActionListener implements ComponentEventListener<ClickEvent<Button>>
@@ -42,11 +43,13 @@ public class ReplayEventSubmissionListener extends IkasanEventActionListener imp
 
     private ReplayService replayRestService;
     private BatchInsert replayAuditService;
+    private SolrGeneralService<IkasanSolrDocument, IkasanSolrDocumentSearchResults> solrGeneralService;
 
-    public ReplayEventSubmissionListener(ReplayService replayRestService, BatchInsert replayAuditService, ModuleMetaDataService moduleMetadataService, SolrSearchFilteringGrid searchResultsGrid
-        , HashMap<String, Checkbox> selectionBoxes, HashMap<String, IkasanSolrDocument> selectionItems)
+    public ReplayEventSubmissionListener(ReplayService replayRestService, BatchInsert replayAuditService, ModuleMetaDataService moduleMetadataService
+        , SolrGeneralService<IkasanSolrDocument, IkasanSolrDocumentSearchResults> solrGeneralService, SolrSearchFilteringGrid searchResultsGrid
+        , SearchResultsSelection selection)
     {
-        super(moduleMetadataService, searchResultsGrid, selectionBoxes, selectionItems);
+        super(moduleMetadataService, searchResultsGrid, selection);
 
         this.replayRestService = replayRestService;
         if(this.replayRestService == null)
@@ -58,6 +61,11 @@ public class ReplayEventSubmissionListener extends IkasanEventActionListener imp
         {
             throw new IllegalArgumentException("replayAuditService cannot be null!");
         }
+        this.solrGeneralService = solrGeneralService;
+        if(this.solrGeneralService == null)
+        {
+            throw new IllegalArgumentException("solrGeneralService cannot be null!");
+        }
     }
 
     @Override
@@ -86,7 +94,7 @@ public class ReplayEventSubmissionListener extends IkasanEventActionListener imp
             {
                 ProgressIndicatorDialog progressIndicatorDialog = new ProgressIndicatorDialog(true);
 
-                if (selected)
+                if (this.selection.isAll())
                 {
                     progressIndicatorDialog.open(String.format(i18NProvider.getTranslation("message.replay-number-of-events"
                         , current.getLocale()), searchResultsGrid.getResultSize()));
@@ -94,27 +102,26 @@ public class ReplayEventSubmissionListener extends IkasanEventActionListener imp
                 else
                 {
                     progressIndicatorDialog.open(String.format(i18NProvider.getTranslation("message.replay-number-of-events"
-                        , current.getLocale()), this.selectionItems.size()));
+                        , current.getLocale()), this.getNumberOfSelectedItems()));
                 }
 
-                Executor executor = Executors.newSingleThreadExecutor();
-                executor.execute(() -> {
+                DashboardTaskExecutor.instance().submit("Replay search results", () -> {
                     try
                     {
                         List<ReplayAuditEvent> replayAuditEvents = new ArrayList<>();
 
                         ReplayAuditEvent replayAuditEvent;
 
-                        if (!selected)
+                        if (!this.selection.isAll())
                         {
-                            for (IkasanSolrDocument document : this.selectionItems.values())
+                            for (IkasanSolrDocument document : this.selection.getSelectedDocuments())
                             {
                                 if (this.shouldActionEvent(document))
                                 {
                                     logger.info("replaying [{}]", document.getEventId());
 
                                     boolean result = this.replayRestService.replay(replayDialogDto.getTargetServer(), replayDialogDto.getAuthenticationUser(),
-                                        replayDialogDto.getPassword(), document.getModuleName(), document.getFlowName(), document.getPayloadRaw());
+                                        replayDialogDto.getPassword(), document.getModuleName(), document.getFlowName(), this.getPayloadRaw(document));
 
                                     replayAuditEvents.add(createReplayAuditEvent(result, replayDialogDto, document, current, i18NProvider));
                                 }
@@ -139,7 +146,7 @@ public class ReplayEventSubmissionListener extends IkasanEventActionListener imp
                                         logger.info("replaying [{}]", document.getEventId());
 
                                         boolean result = this.replayRestService.replay(replayDialogDto.getTargetServer(), replayDialogDto.getAuthenticationUser(),
-                                            replayDialogDto.getPassword(), document.getModuleName(), document.getFlowName(), document.getPayloadRaw());
+                                            replayDialogDto.getPassword(), document.getModuleName(), document.getFlowName(), this.getPayloadRaw(document));
 
                                         replayAuditEvents.add(createReplayAuditEvent(result, replayDialogDto, document, current, i18NProvider));
                                     }
@@ -173,6 +180,25 @@ public class ReplayEventSubmissionListener extends IkasanEventActionListener imp
         });
     }
 
+    /**
+     * The grid holds summary documents without the raw payload, so fetch it from the full document when missing.
+     *
+     * @param document
+     * @return the raw payload to replay
+     */
+    private byte[] getPayloadRaw(IkasanSolrDocument document)
+    {
+        if(document.getPayloadRaw() != null)
+        {
+            return document.getPayloadRaw();
+        }
+
+        IkasanSolrDocument fullDocument = DashboardMetrics.timeSolr(ReplayEventSubmissionListener.class.getSimpleName()
+            , document.getModuleName(), "findById", () -> this.solrGeneralService.findById(document.getType(), document.getId()));
+
+        return fullDocument != null ? fullDocument.getPayloadRaw() : null;
+    }
+
     /**
      * Helper method to create replay audit events.
      *
@@ -5,14 +5,15 @@ import com.vaadin.flow.component.ClickEvent;
 import com.vaadin.flow.component.ComponentEventListener;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
-import com.vaadin.flow.component.checkbox.Checkbox;
 import com.vaadin.flow.component.dialog.Dialog;
 import com.vaadin.flow.component.dialog.GeneratedVaadinDialog;
 import com.vaadin.flow.data.provider.Query;
+import org.ikasan.dashboard.task.DashboardTaskExecutor;
 import org.ikasan.dashboard.ui.general.component.NotificationHelper;
 import org.ikasan.dashboard.ui.general.component.HospitalCommentsDialog;
 import org.ikasan.dashboard.ui.general.component.ProgressIndicatorDialog;
 import org.ikasan.dashboard.ui.search.component.SolrSearchFilteringGrid;
+import org.ikasan.dashboard.ui.search.model.SearchResultsSelection;
 import org.ikasan.dashboard.ui.search.model.hospital.ExclusionEventActionImpl;
 import org.ikasan.rest.client.ResubmissionRestServiceImpl;
 import org.ikasan.security.service.authentication.IkasanAuthentication;
@@ -29,10 +30,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 public class ResubmitHospitalEventSubmissionListener extends HospitalEventActionListener implements ComponentEventListener<ClickEvent<Button>> {
@@ -43,10 +41,10 @@ public class ResubmitHospitalEventSubmissionListener extends HospitalEventAction
 
     public ResubmitHospitalEventSubmissionListener(HospitalAuditService hospitalAuditService, ResubmissionService resubmissionRestService
         , ModuleMetaDataService moduleMetadataService, SolrGeneralService<IkasanSolrDocument, IkasanSolrDocumentSearchResults> solrGeneralService
-        , String actionMessage, SolrSearchFilteringGrid searchResultsGrid, HashMap<String, Checkbox> selectionBoxes
-        , HashMap<String, IkasanSolrDocument> selectionItems, IkasanAuthentication ikasanAuthentication) {
+        , String actionMessage, SolrSearchFilteringGrid searchResultsGrid, SearchResultsSelection selection
+        , IkasanAuthentication ikasanAuthentication) {
         super(actionMessage, solrGeneralService, moduleMetadataService, resubmissionRestService
-            , searchResultsGrid, selectionBoxes, selectionItems, ikasanAuthentication);
+            , searchResultsGrid, selection, ikasanAuthentication);
         this.hospitalAuditService = hospitalAuditService;
         if (this.hospitalAuditService == null) {
             throw new IllegalArgumentException("hospitalAuditService cannot be null!");
@@ -76,25 +74,24 @@ public class ResubmitHospitalEventSubmissionListener extends HospitalEventAction
             if (!dialogOpenedChangeEvent.isOpened() && commentsDialog.isActioned()) {
                 ProgressIndicatorDialog progressIndicatorDialog = new ProgressIndicatorDialog(true);
 
-                if (selected) {
+                if (this.selection.isAll()) {
                     progressIndicatorDialog.open(String.format(String.format(getTranslation("message.resubmitting-exclusions", UI.getCurrent().getLocale())
                         , searchResultsGrid.getResultSize())));
                 } else {
                     progressIndicatorDialog.open(String.format(String.format(getTranslation("message.resubmitting-exclusions", UI.getCurrent().getLocale())
-                        , super.getNumberOfSeletedItems())));
+                        , super.getNumberOfSelectedItems())));
                 }
 
                 final UI current = UI.getCurrent();
-                Executor executor = Executors.newSingleThreadExecutor();
-                executor.execute(() -> {
+                DashboardTaskExecutor.instance().submit("Resubmit exclusions", () -> {
                     try {
                         List<ExclusionEventAction> exclusionEventActions = null;
                         ExclusionEventAction eventAction;
 
                         ObjectMapper mapper = new ObjectMapper();
 
-                        if (!selected) {
-                            List<IkasanSolrDocument> resubmissionEvents = this.selectionItems.values()
+                        if (!this.selection.isAll()) {
+                            List<IkasanSolrDocument> resubmissionEvents = this.selection.getSelectedDocuments()
                                 .stream()
                                 .filter(document -> this.shouldActionEvent(document))
                                 .collect(Collectors.toList());
@@ -135,8 +132,7 @@ public class ResubmitHospitalEventSubmissionListener extends HospitalEventAction
                             {
                                 progressIndicatorDialog.close();
                                 NotificationHelper.showUserNotification(getTranslation("message.successfully-resubmitted-exclusions", UI.getCurrent().getLocale()));
-                                selectionBoxes.keySet().forEach(key -> selectionBoxes.get(key).setValue(false));
-                                selectionItems.clear();
+                                this.selection.clear();
                             });
                         }
 
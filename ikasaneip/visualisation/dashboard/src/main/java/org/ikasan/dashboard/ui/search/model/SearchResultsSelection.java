@@ -0,0 +1,123 @@
+package org.ikasan.dashboard.ui.search.model;
+
+import org.ikasan.solr.model.IkasanSolrDocument;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The rows selected in the search results grid, held by document id rather than as components so that the grid
+ * can render its rows with templates and the bulk actions can read the selection from a background thread.
+ *
+ * Either individual documents are selected, or all of the results of the search are selected except for those
+ * that have been deselected since.
+ */
+public class SearchResultsSelection
+{
+    private volatile boolean all = false;
+
+    /** the documents selected one by one, by id */
+    private Map<String, IkasanSolrDocument> selected = new ConcurrentHashMap<>();
+
+    /** the ids deselected since all of the results were selected */
+    private Set<String> excluded = ConcurrentHashMap.newKeySet();
+
+    /** told whenever the selection is cleared, e.g. by a bulk action once complete */
+    private List<Runnable> clearListeners = new CopyOnWriteArrayList<>();
+
+    public boolean isSelected(String id)
+    {
+        return this.all ? !this.excluded.contains(id) : this.selected.containsKey(id);
+    }
+
+    public void setSelected(IkasanSolrDocument document, boolean selected)
+    {
+        if(this.all)
+        {
+            if(selected)
+            {
+                this.excluded.remove(document.getId());
+            }
+            else
+            {
+                this.excluded.add(document.getId());
+            }
+        }
+        else
+        {
+            if(selected)
+            {
+                this.selected.put(document.getId(), document);
+            }
+            else
+            {
+                this.selected.remove(document.getId());
+            }
+        }
+    }
+
+    /**
+     * Toggle the selection of a document.
+     *
+     * @param document
+     * @return whether the document is now selected
+     */
+    public boolean toggle(IkasanSolrDocument document)
+    {
+        boolean selected = !this.isSelected(document.getId());
+        this.setSelected(document, selected);
+        return selected;
+    }
+
+    public void selectAll()
+    {
+        this.selected.clear();
+        this.excluded.clear();
+        this.all = true;
+    }
+
+    public void clear()
+    {
+        this.all = false;
+        this.selected.clear();
+        this.excluded.clear();
+        this.clearListeners.forEach(Runnable::run);
+    }
+
+    /**
+     * @param clearListener run on the thread clearing the selection whenever it is cleared
+     */
+    public void addClearListener(Runnable clearListener)
+    {
+        this.clearListeners.add(clearListener);
+    }
+
+    /**
+     * @return whether all of the results are selected, other than those deselected since
+     */
+    public boolean isAll()
+    {
+        return all;
+    }
+
+    /**
+     * @return the documents selected one by one, empty when all of the results are selected
+     */
+    public List<IkasanSolrDocument> getSelectedDocuments()
+    {
+        return new ArrayList<>(this.selected.values());
+    }
+
+    /**
+     * @param resultSize the number of results of the search
+     * @return the number of results selected
+     */
+    public long getNumberSelected(long resultSize)
+    {
+        return this.all ? Math.max(0, resultSize - this.excluded.size()) : this.selected.size();
+    }
+}
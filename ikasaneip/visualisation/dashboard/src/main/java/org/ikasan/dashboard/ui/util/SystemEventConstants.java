@@ -54,6 +54,6 @@ public class SystemEventConstants
 	public static final String DASHBOARD_PRINCIPAL_ROLE_CHANGED_CONSTANTS = "Principal role change";
     public static final String DASHBOARD_MODULE_ROLE_CHANGE_CONSTANTS = "Module role change";
     public static final String DASHBOARD_ROLE_ADDED = "Role added";
-    public static final String DASHBOARD_ROLE_DELETED = "Role added";
+    public static final String DASHBOARD_ROLE_DELETED = "Role deleted";
     public static final String NEW_USER_CREATED = "New user created";
 }
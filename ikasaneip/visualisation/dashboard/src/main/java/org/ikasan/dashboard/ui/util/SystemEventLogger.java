@@ -1,28 +1,126 @@
 package org.ikasan.dashboard.ui.util;
 
+import org.ikasan.dashboard.ingest.IngestSpool;
+import org.ikasan.dashboard.ingest.WriteFailures;
+import org.ikasan.dashboard.metrics.DashboardMetrics;
 import org.ikasan.security.service.authentication.IkasanAuthentication;
-import org.ikasan.spec.systemevent.SystemEventService;
+import org.ikasan.spec.systemevent.SystemEventDao;
+import org.ikasan.systemevent.model.SystemEventImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-public class SystemEventLogger
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Audits the actions of dashboard users as system events.
+ *
+ * Once started, events are queued and written from a background thread so that a slow database does not hold up the
+ * user's session. Queued events are written in batches, each in a single transaction when a transaction manager is
+ * given, and whatever is still queued is written when the logger is closed on shutdown. Events whose subject is
+ * security critical are always written before logEvent returns, as are all events when the queue is full or the
+ * logger has not been started. Each event is stamped with the time it was logged rather than the time it was written,
+ * so a queued event keeps its place in the audit trail.
+ *
+ * As with the ingest buffers, a failed batch is retried with a growing interval for as long as the database is
+ * unavailable. A batch the database rejects outright is written again event by event so that only the events it still
+ * rejects are dead lettered, to a file in the dead letter spool when one is given and otherwise to the log, rather than
+ * holding up every later event.
+ */
+public class SystemEventLogger implements Closeable
 {
     private Logger logger = LoggerFactory.getLogger(SystemEventLogger.class);
 
-    private SystemEventService systemEventService;
+    public static final int DEFAULT_CAPACITY = 10000;
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 500;
+    public static final long MAX_RETRY_INTERVAL_MILLIS = 30000;
+
+    /** the subjects written synchronously by default, logins and those changing what users are allowed to do */
+    public static final Set<String> DEFAULT_SYNCHRONOUS_SUBJECTS = Set.of(
+        SystemEventConstants.DASHBOARD_LOGIN_CONSTANTS,
+        SystemEventConstants.DASHBOARD_LOGOUT_CONSTANTS,
+        SystemEventConstants.DASHBOARD_PRINCIPAL_ROLE_CHANGED_CONSTANTS,
+        SystemEventConstants.DASHBOARD_MODULE_ROLE_CHANGE_CONSTANTS,
+        SystemEventConstants.DASHBOARD_ROLE_ADDED,
+        SystemEventConstants.DASHBOARD_ROLE_DELETED,
+        SystemEventConstants.NEW_USER_CREATED);
+
+    private SystemEventDao systemEventDao;
+    private Long eventExpiryMinutes;
+    private TransactionTemplate transactionTemplate;
+
+    private int capacity = DEFAULT_CAPACITY;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private long flushIntervalMillis = DEFAULT_FLUSH_INTERVAL_MILLIS;
+    private Set<String> synchronousSubjects = DEFAULT_SYNCHRONOUS_SUBJECTS;
+    private IngestSpool deadLetterSpool;
+
+    private ArrayBlockingQueue<SystemEvent> queue;
+    private volatile boolean running = false;
+    private CountDownLatch stopped = new CountDownLatch(1);
+    private Thread writer;
 
-    public SystemEventLogger(SystemEventService systemEventService)
+    public SystemEventLogger(SystemEventDao systemEventDao, Long eventExpiryMinutes)
     {
-        this.systemEventService = systemEventService;
-        if(this.systemEventService == null)
+        this(systemEventDao, eventExpiryMinutes, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param systemEventDao the dao writing the system events
+     * @param eventExpiryMinutes how long the system events are kept, or null to keep them
+     * @param transactionManager the transaction manager each event or batch of events is written in, or null to write
+     *                           each event in a transaction of its own
+     */
+    public SystemEventLogger(SystemEventDao systemEventDao, Long eventExpiryMinutes
+        , PlatformTransactionManager transactionManager)
+    {
+        this.systemEventDao = systemEventDao;
+        if(this.systemEventDao == null)
         {
-            throw new IllegalArgumentException("The system event listener cannot be null!");
+            throw new IllegalArgumentException("The system event dao cannot be null!");
         }
+        this.eventExpiryMinutes = eventExpiryMinutes;
+        if(transactionManager != null)
+        {
+            this.transactionTemplate = new TransactionTemplate(transactionManager);
+        }
+    }
+
+    /**
+     * Start writing events from the background thread.
+     */
+    public synchronized void start()
+    {
+        if(this.running)
+        {
+            return;
+        }
+
+        this.queue = new ArrayBlockingQueue<>(this.capacity);
+        DashboardMetrics.registerAuditQueue(this);
+
+        this.running = true;
+        this.writer = new Thread(this::write, "system-event-logger");
+        this.writer.setDaemon(true);
+        this.writer.start();
     }
 
     public void logEvent(String subject, String action, String actor)
     {
+        // the user is resolved on the calling thread as the security context does not follow the event
         IkasanAuthentication ikasanAuthentication = (IkasanAuthentication) SecurityContextHolder.getContext().getAuthentication();
         action += " - Performed by [" + ikasanAuthentication.getName() + "]";
         if(actor == null)
@@ -30,7 +128,330 @@ public class SystemEventLogger
             actor = ikasanAuthentication.getName();
         }
         logger.debug("Logging system event [{}], [{}], [{}]", subject, action, actor);
-        systemEventService.logSystemEvent(subject, action, actor);
-        logger.debug("Sucessfully logged system event [{}], [{}], [{}]", subject, action, actor);
+
+        // stamped now, as a queued event may not be written for a while
+        SystemEvent systemEvent = new SystemEvent(subject, action, actor, System.currentTimeMillis());
+
+        if(!this.running || this.synchronousSubjects.contains(subject))
+        {
+            this.writeSynchronously(systemEvent);
+        }
+        else if(!this.queue.offer(systemEvent))
+        {
+            logger.warn("The system event queue is full, writing system event [{}] synchronously.", subject);
+            this.writeSynchronously(systemEvent);
+        }
+    }
+
+    private void writeSynchronously(SystemEvent systemEvent)
+    {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try
+        {
+            if(this.transactionTemplate != null)
+            {
+                this.transactionTemplate.executeWithoutResult(status -> this.insert(List.of(systemEvent)));
+            }
+            else
+            {
+                this.insert(List.of(systemEvent));
+            }
+            logger.debug("Sucessfully logged system event [{}], [{}], [{}]", systemEvent.subject, systemEvent.action
+                , systemEvent.actor);
+        }
+        catch (RuntimeException e)
+        {
+            outcome = "error";
+            throw e;
+        }
+        finally
+        {
+            DashboardMetrics.recordAuditWrite(DashboardMetrics.AUDIT_SYNCHRONOUS, 1, outcome, System.nanoTime() - start);
+        }
+    }
+
+    private void write()
+    {
+        List<SystemEvent> remaining = new ArrayList<>();
+        try
+        {
+            while(this.running)
+            {
+                List<SystemEvent> batch = this.nextBatch();
+                if(!batch.isEmpty())
+                {
+                    // shutting down, what is not yet written is retried with whatever else is still queued
+                    this.writeWithRetry(batch, remaining);
+                }
+            }
+
+            // write whatever is still queued on shutdown
+            this.queue.drainTo(remaining);
+            if(!remaining.isEmpty() && this.write(remaining) != WriteResult.WRITTEN)
+            {
+                this.deadLetter(remaining);
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Wait for the first event and then gather further events until the batch size is reached or the flush interval
+     * has passed.
+     */
+    private List<SystemEvent> nextBatch() throws InterruptedException
+    {
+        List<SystemEvent> batch = new ArrayList<>();
+
+        SystemEvent systemEvent = this.queue.poll(this.flushIntervalMillis, TimeUnit.MILLISECONDS);
+        if(systemEvent == null)
+        {
+            return batch;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.flushIntervalMillis);
+        while(systemEvent != null)
+        {
+            batch.add(systemEvent);
+
+            long remaining = deadline - System.nanoTime();
+            if(batch.size() >= this.batchSize || remaining <= 0)
+            {
+                break;
+            }
+            systemEvent = this.queue.poll(remaining, TimeUnit.NANOSECONDS);
+        }
+
+        return batch;
+    }
+
+    /**
+     * Write the batch, retrying it until it is written, dead lettered or the logger is closed. Only a batch the
+     * database rejects outright is split, an unavailable database being retried rather than dead lettering every event.
+     *
+     * @param batch the events to write
+     * @param remaining where the events not yet written are added if the logger is closed
+     */
+    private void writeWithRetry(List<SystemEvent> batch, List<SystemEvent> remaining) throws InterruptedException
+    {
+        long retryIntervalMillis = this.flushIntervalMillis;
+        while(true)
+        {
+            WriteResult result = this.write(batch);
+            if(result == WriteResult.WRITTEN)
+            {
+                return;
+            }
+
+            if(result == WriteResult.PERMANENT_FAILURE)
+            {
+                if(batch.size() == 1)
+                {
+                    this.deadLetter(batch);
+                    return;
+                }
+
+                for(int i = 0; i < batch.size(); i++)
+                {
+                    this.writeWithRetry(List.of(batch.get(i)), remaining);
+                    if(!this.running)
+                    {
+                        remaining.addAll(batch.subList(i + 1, batch.size()));
+                        return;
+                    }
+                }
+                return;
+            }
+
+            if(this.stopped.await(retryIntervalMillis, TimeUnit.MILLISECONDS))
+            {
+                remaining.addAll(batch);
+                return;
+            }
+            retryIntervalMillis = Math.min(retryIntervalMillis * 2, MAX_RETRY_INTERVAL_MILLIS);
+        }
+    }
+
+    /**
+     * Set aside events that cannot be written, leaving an audit trail in the log rather than losing them silently.
+     */
+    private void deadLetter(List<SystemEvent> systemEvents)
+    {
+        DashboardMetrics.countAuditDeadLettered(systemEvents.size());
+        systemEvents.forEach(systemEvent -> logger.error("System event not written [{}], [{}], [{}]"
+            , systemEvent.subject, systemEvent.action, systemEvent.actor));
+
+        if(this.deadLetterSpool != null)
+        {
+            try
+            {
+                logger.error("Dead lettered {} system events to [{}].", systemEvents.size()
+                    , this.deadLetterSpool.deadLetter(systemEvents));
+            }
+            catch (IOException e)
+            {
+                logger.error(String.format("Could not dead letter %d system events.", systemEvents.size()), e);
+            }
+        }
+    }
+
+    private WriteResult write(List<SystemEvent> batch)
+    {
+        long start = System.nanoTime();
+        try
+        {
+            if(this.transactionTemplate != null)
+            {
+                this.transactionTemplate.executeWithoutResult(status -> this.insert(batch));
+            }
+            else
+            {
+                this.insert(batch);
+            }
+
+            DashboardMetrics.recordAuditWrite(DashboardMetrics.AUDIT_ASYNCHRONOUS, batch.size(), "success"
+                , System.nanoTime() - start);
+            return WriteResult.WRITTEN;
+        }
+        catch (RuntimeException e)
+        {
+            DashboardMetrics.recordAuditWrite(DashboardMetrics.AUDIT_ASYNCHRONOUS, batch.size(), "error"
+                , System.nanoTime() - start);
+            if(WriteFailures.isPermanent(e))
+            {
+                logger.warn(String.format("Could not write %d system events, the database rejected them.", batch.size()), e);
+                return WriteResult.PERMANENT_FAILURE;
+            }
+            logger.warn(String.format("Could not write %d system events, the write will be retried.", batch.size()), e);
+            return WriteResult.FAILURE;
+        }
+    }
+
+    private void insert(List<SystemEvent> batch)
+    {
+        for(SystemEvent systemEvent: batch)
+        {
+            Date expiry = this.eventExpiryMinutes == null ? null
+                : new Date(systemEvent.timestamp + TimeUnit.MINUTES.toMillis(this.eventExpiryMinutes));
+            this.systemEventDao.save(new SystemEventImpl(systemEvent.subject, systemEvent.action
+                , new Date(systemEvent.timestamp), systemEvent.actor, expiry));
+        }
+    }
+
+    /**
+     * Stop the writer thread, waiting up to the maximum retry interval for it to write what is still queued.
+     */
+    @Override
+    public synchronized void close()
+    {
+        if(!this.running)
+        {
+            return;
+        }
+
+        this.running = false;
+        this.stopped.countDown();
+
+        try
+        {
+            this.writer.join(MAX_RETRY_INTERVAL_MILLIS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the number of system events waiting to be written
+     */
+    public int getQueued()
+    {
+        return this.queue == null ? 0 : this.queue.size();
+    }
+
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity)
+    {
+        this.capacity = capacity;
+    }
+
+    public int getBatchSize()
+    {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize)
+    {
+        this.batchSize = batchSize;
+    }
+
+    public long getFlushIntervalMillis()
+    {
+        return flushIntervalMillis;
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis)
+    {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public Set<String> getSynchronousSubjects()
+    {
+        return synchronousSubjects;
+    }
+
+    public void setSynchronousSubjects(Set<String> synchronousSubjects)
+    {
+        this.synchronousSubjects = synchronousSubjects;
+    }
+
+    public IngestSpool getDeadLetterSpool()
+    {
+        return deadLetterSpool;
+    }
+
+    /**
+     * @param deadLetterSpool the spool events that cannot be written are dead lettered to, or null to only log them
+     */
+    public void setDeadLetterSpool(IngestSpool deadLetterSpool)
+    {
+        this.deadLetterSpool = deadLetterSpool;
+    }
+
+    private enum WriteResult
+    {
+        WRITTEN, FAILURE, PERMANENT_FAILURE
+    }
+
+    /**
+     * A system event waiting to be written, spooled as json when dead lettered.
+     */
+    private static class SystemEvent
+    {
+        private String subject;
+        private String action;
+        private String actor;
+        private long timestamp;
+
+        private SystemEvent()
+        {
+        }
+
+        private SystemEvent(String subject, String action, String actor, long timestamp)
+        {
+            this.subject = subject;
+            this.action = action;
+            this.actor = actor;
+            this.timestamp = timestamp;
+        }
     }
 }
@@ -21,15 +21,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Function;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 public class ModuleVisjsAdapter
 {
     Logger logger = LoggerFactory.getLogger(ModuleVisjsAdapter.class);
 
+    private static final Set<String> SINGLE_TRANSITION_COMPONENT_TYPES = new HashSet<>(Arrays.asList(
+        org.ikasan.spec.component.endpoint.Consumer.class.getName(), Converter.class.getName(), Translator.class.getName()
+        , Splitter.class.getName(), Filter.class.getName(), Broker.class.getName(), Producer.class.getName()));
+
+    private static final Set<String> MULTI_TRANSITION_COMPONENT_TYPES = new HashSet<>(Arrays.asList(
+        SingleRecipientRouter.class.getName(), MultiRecipientRouter.class.getName()));
+
     private int identifier;
     private HashMap<String, String> fromTransitionLabelMap = new HashMap<>();
     private HashMap<String, String> toTransitionLabelMap = new HashMap<>();
@@ -78,7 +82,7 @@ public class ModuleVisjsAdapter
         this.buildFromTransitionLabelMap(flowMetaData.getTransitions());
         this.buildToTransitionLabelMap(flowMetaData.getTransitions());
 
-        List<Transition> uniqueTransitions = distinctList(flowMetaData.getTransitions(), Transition::getFrom, Transition::getTo);
+        List<Transition> uniqueTransitions = distinctTransitions(flowMetaData.getTransitions());
 
         Consumer consumer = (Consumer) manageFlowElement(flowMetaData.getConsumer(), uniqueTransitions, flowElements, configurationMetaDataMap);
 
@@ -101,41 +105,25 @@ public class ModuleVisjsAdapter
     }
 
     /**
-     * Help us narrow a distinct list
-     *
-     * @param list
-     * @param keyExtractors
-     * @param <T>
-     * @return
-     */
-    private static <T> List<T> distinctList(List<T> list, Function<? super T, ?>... keyExtractors)
-    {
-        return list
-            .stream()
-            .filter(distinctByKeys(keyExtractors))
-            .collect(Collectors.toList());
-    }
-
-    /**
-     * Predicate to help narrow a distinct list.
+     * Narrow the transitions to those with a distinct from/to pair, preserving their order.
      *
-     * @param keyExtractors
-     * @param <T>
+     * @param transitions
      * @return
      */
-    private static <T> Predicate<T> distinctByKeys(Function<? super T, ?>... keyExtractors)
+    private static List<Transition> distinctTransitions(List<Transition> transitions)
     {
-        final Map<List<?>, Boolean> seen = new ConcurrentHashMap<>();
+        Set<String> seen = new HashSet<>();
+        List<Transition> uniqueTransitions = new ArrayList<>(transitions.size());
 
-        return t ->
+        for(Transition transition: transitions)
         {
+            if(seen.add(transition.getFrom() + '\u0000' + transition.getTo()))
+            {
+                uniqueTransitions.add(transition);
+            }
+        }
 
-            final List<?> keys = Arrays.stream(keyExtractors)
-                .map(ke -> ke.apply(t))
-                .collect(Collectors.toList());
-
-            return seen.putIfAbsent(keys, Boolean.TRUE) == null;
-        };
+        return uniqueTransitions;
     }
 
     /**
@@ -149,20 +137,13 @@ public class ModuleVisjsAdapter
     protected AbstractWiretapNode manageFlowElement(FlowElementMetaData flowElement, List<Transition> transitions,
                                      Map<String, FlowElementMetaData> flowElements, Map<String, ConfigurationMetaData> configurationMetaDataMap)
     {
-        if (flowElement.getComponentType().equals(org.ikasan.spec.component.endpoint.Consumer.class.getName())
-            || flowElement.getComponentType().equals(Converter.class.getName())
-            || flowElement.getComponentType().equals(Translator.class.getName())
-            || flowElement.getComponentType().equals(Splitter.class.getName())
-            || flowElement.getComponentType().equals(Filter.class.getName())
-            || flowElement.getComponentType().equals(Broker.class.getName())
-            || flowElement.getComponentType().equals(Producer.class.getName()))
+        if (SINGLE_TRANSITION_COMPONENT_TYPES.contains(flowElement.getComponentType()))
         {
             AbstractWiretapNode node =  manageSingleTransition(flowElement, transitions, flowElements, configurationMetaDataMap);
             this.decorateWiretap(flowElement, node);
             return node;
         }
-        else if (flowElement.getComponentType().equals(SingleRecipientRouter.class.getName())||
-            flowElement.getComponentType().equals(MultiRecipientRouter.class.getName()))
+        else if (MULTI_TRANSITION_COMPONENT_TYPES.contains(flowElement.getComponentType()))
         {
             AbstractWiretapNode node = manageMultiTransition(flowElement, transitions, flowElements, configurationMetaDataMap);
             this.decorateWiretap(flowElement, node);
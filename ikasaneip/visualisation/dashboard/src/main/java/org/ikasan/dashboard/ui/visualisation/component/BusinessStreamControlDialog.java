@@ -0,0 +1,246 @@
+package org.ikasan.dashboard.ui.visualisation.component;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.dialog.Dialog;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.H3;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.progressbar.ProgressBar;
+import org.ikasan.dashboard.control.BusinessStreamFlowControl;
+import org.ikasan.dashboard.task.DashboardTaskExecutor;
+import org.ikasan.dashboard.task.ManagedTask;
+import org.ikasan.dashboard.ui.general.component.NotificationHelper;
+import org.ikasan.dashboard.ui.visualisation.model.business.stream.BusinessStream;
+import org.ikasan.dashboard.ui.visualisation.model.business.stream.Flow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts or stops every flow of a business stream, showing the outcome of each flow as it is known.
+ */
+public class BusinessStreamControlDialog extends Dialog
+{
+    private Logger logger = LoggerFactory.getLogger(BusinessStreamControlDialog.class);
+
+    private BusinessStreamFlowControl businessStreamFlowControl;
+    private BusinessStream businessStream;
+    private String businessStreamName;
+    private String action;
+
+    private Grid<FlowRow> flowGrid;
+    private ProgressBar progressBar;
+    private Button cancelButton;
+    private Button closeButton;
+
+    private List<FlowRow> rows = new ArrayList<>();
+    private Map<String, FlowRow> rowsByFlowId = new HashMap<>();
+    private int done = 0;
+    private ManagedTask task;
+
+    /**
+     * Constructor
+     *
+     * @param businessStreamFlowControl the business stream flow control
+     * @param businessStream the business stream
+     * @param businessStreamName the name of the business stream
+     * @param action BusinessStreamFlowControl.START or STOP
+     */
+    public BusinessStreamControlDialog(BusinessStreamFlowControl businessStreamFlowControl, BusinessStream businessStream
+        , String businessStreamName, String action)
+    {
+        this.businessStreamFlowControl = businessStreamFlowControl;
+        if(this.businessStreamFlowControl == null)
+        {
+            throw new IllegalArgumentException("businessStreamFlowControl cannot be null!");
+        }
+        this.businessStream = businessStream;
+        if(this.businessStream == null)
+        {
+            throw new IllegalArgumentException("businessStream cannot be null!");
+        }
+        this.businessStreamName = businessStreamName;
+        this.action = action;
+    }
+
+    /**
+     * Open the dialog and start or stop the business stream.
+     */
+    @Override
+    public void open()
+    {
+        List<List<Flow>> layers;
+        try
+        {
+            layers = BusinessStreamFlowControl.getLayers(this.businessStream);
+        }
+        catch (IllegalArgumentException e)
+        {
+            NotificationHelper.showErrorNotification(e.getMessage());
+            return;
+        }
+
+        // rows listed in the order the flows will be changed
+        if(this.action.equals(BusinessStreamFlowControl.START))
+        {
+            layers = new ArrayList<>(layers);
+            Collections.reverse(layers);
+        }
+        for(int i = 0; i < layers.size(); i++)
+        {
+            for(Flow flow: layers.get(i))
+            {
+                FlowRow row = new FlowRow(i + 1, flow);
+                this.rows.add(row);
+                this.rowsByFlowId.put(flow.getId(), row);
+            }
+        }
+
+        this.init();
+        super.open();
+        this.perform();
+    }
+
+    private void init()
+    {
+        this.setCloseOnEsc(false);
+        this.setCloseOnOutsideClick(false);
+        this.setWidth("1000px");
+        this.setHeight("600px");
+
+        String title = this.action.equals(BusinessStreamFlowControl.START) ? "label.starting-business-stream"
+            : "label.stopping-business-stream";
+        H3 heading = new H3(String.format(getTranslation(title, UI.getCurrent().getLocale()), this.businessStreamName));
+
+        this.progressBar = new ProgressBar(0, Math.max(1, this.rows.size()));
+
+        this.flowGrid = new Grid<>();
+        this.flowGrid.setSizeFull();
+        this.flowGrid.setClassName("my-grid");
+        this.flowGrid.addColumn(FlowRow::getLayer)
+            .setHeader(getTranslation("table-header.order", UI.getCurrent().getLocale())).setFlexGrow(1);
+        this.flowGrid.addColumn(row -> row.getFlow().getModuleName())
+            .setHeader(getTranslation("table-header.module-name", UI.getCurrent().getLocale())).setFlexGrow(4);
+        this.flowGrid.addColumn(row -> row.getFlow().getFlowName())
+            .setHeader(getTranslation("table-header.flow-name", UI.getCurrent().getLocale())).setFlexGrow(4);
+        this.flowGrid.addColumn(row -> row.getOutcome() == null ? "" : row.getOutcome().name())
+            .setHeader(getTranslation("table-header.outcome", UI.getCurrent().getLocale())).setFlexGrow(2);
+        this.flowGrid.addColumn(FlowRow::getMessage)
+            .setHeader(getTranslation("table-header.message", UI.getCurrent().getLocale())).setFlexGrow(4);
+        this.flowGrid.setItems(this.rows);
+
+        this.cancelButton = new Button(getTranslation("button.cancel", UI.getCurrent().getLocale()));
+        this.cancelButton.addClickListener(event ->
+        {
+            if(this.task != null)
+            {
+                this.task.cancel();
+            }
+        });
+
+        this.closeButton = new Button(getTranslation("button.close", UI.getCurrent().getLocale()));
+        this.closeButton.setEnabled(false);
+        this.closeButton.addClickListener(event -> this.close());
+
+        HorizontalLayout buttonLayout = new HorizontalLayout(this.cancelButton, this.closeButton);
+
+        VerticalLayout layout = new VerticalLayout(heading, this.progressBar, this.flowGrid, buttonLayout);
+        layout.setHorizontalComponentAlignment(FlexComponent.Alignment.CENTER, buttonLayout);
+        layout.setSizeFull();
+
+        this.add(layout);
+    }
+
+    private void perform()
+    {
+        final UI current = UI.getCurrent();
+
+        this.task = DashboardTaskExecutor.instance().submit(String.format("%s business stream [%s]", this.action
+            , this.businessStreamName), () ->
+        {
+            try
+            {
+                if(this.action.equals(BusinessStreamFlowControl.START))
+                {
+                    this.businessStreamFlowControl.start(this.businessStream, flowResult -> this.update(current, flowResult));
+                }
+                else
+                {
+                    this.businessStreamFlowControl.stop(this.businessStream, flowResult -> this.update(current, flowResult));
+                }
+            }
+            catch (InterruptedException e)
+            {
+                logger.info("{} of business stream [{}] cancelled.", this.action, this.businessStreamName);
+                Thread.currentThread().interrupt();
+            }
+            finally
+            {
+                current.access(() ->
+                {
+                    // only left without an outcome when cancelled
+                    this.rows.stream().filter(row -> row.outcome == null)
+                        .forEach(row -> row.outcome = BusinessStreamFlowControl.Outcome.NOT_ATTEMPTED);
+                    this.flowGrid.getDataProvider().refreshAll();
+                    this.cancelButton.setEnabled(false);
+                    this.closeButton.setEnabled(true);
+                });
+            }
+        });
+    }
+
+    private void update(UI current, BusinessStreamFlowControl.FlowResult flowResult)
+    {
+        current.access(() ->
+        {
+            FlowRow row = this.rowsByFlowId.get(flowResult.getFlow().getId());
+            row.outcome = flowResult.getOutcome();
+            row.message = flowResult.getMessage() == null ? "" : flowResult.getMessage();
+            this.flowGrid.getDataProvider().refreshItem(row);
+
+            this.progressBar.setValue(++this.done);
+        });
+    }
+
+    private static class FlowRow
+    {
+        private final int layer;
+        private final Flow flow;
+        private BusinessStreamFlowControl.Outcome outcome;
+        private String message = "";
+
+        private FlowRow(int layer, Flow flow)
+        {
+            this.layer = layer;
+            this.flow = flow;
+        }
+
+        public int getLayer()
+        {
+            return layer;
+        }
+
+        public Flow getFlow()
+        {
+            return flow;
+        }
+
+        public BusinessStreamFlowControl.Outcome getOutcome()
+        {
+            return outcome;
+        }
+
+        public String getMessage()
+        {
+            return message;
+        }
+    }
+}
@@ -13,6 +13,8 @@ import org.ikasan.dashboard.broadcast.FlowState;
 import org.ikasan.dashboard.broadcast.FlowStateBroadcaster;
 import org.ikasan.dashboard.cache.CacheStateBroadcaster;
 import org.ikasan.dashboard.cache.FlowStateCache;
+import org.ikasan.dashboard.cache.ModuleMetaDataCache;
+import org.ikasan.dashboard.metrics.DashboardMetrics;
 import org.ikasan.dashboard.ui.general.component.SearchResultsDialog;
 import org.ikasan.dashboard.ui.visualisation.adapter.service.BusinessStreamVisjsAdapter;
 import org.ikasan.dashboard.ui.visualisation.component.util.SearchFoundStatus;
@@ -229,8 +231,8 @@ public class BusinessStreamVisualisation extends VerticalLayout implements Befor
                 logger.debug("Flow + " + this.flowMap.get(nodeId));
 
                 if (this.flowMap.get(nodeId) != null) {
-                    ModuleMetaData moduleMetaData = this.moduleMetaDataService
-                        .findById(nodeId.substring(0, nodeId.indexOf(".")));
+                    ModuleMetaData moduleMetaData = ModuleMetaDataCache.instance()
+                        .get(nodeId.substring(0, nodeId.indexOf(".")), this.moduleMetaDataService);
 
                     logger.debug("ModuleMetaData + " + moduleMetaData);
 
@@ -413,8 +415,8 @@ public class BusinessStreamVisualisation extends VerticalLayout implements Befor
 
             for (String key : this.flowMap.keySet()) {
                 if (key.contains(".")) {
-                    ModuleMetaData module = this.moduleMetaDataService
-                        .findById(key.substring(0, key.indexOf(".")));
+                    ModuleMetaData module = ModuleMetaDataCache.instance()
+                        .get(key.substring(0, key.indexOf(".")), this.moduleMetaDataService);
 
                     if (module != null) {
                         FlowState flowState = FlowStateCache.instance().get(module, key.substring(key.indexOf(".") + 1));
@@ -456,7 +458,7 @@ public class BusinessStreamVisualisation extends VerticalLayout implements Befor
     }
 
     protected void drawFlowStatus(UI ui, FlowState flowState) {
-        ui.access(() ->
+        DashboardMetrics.access(ui, BusinessStreamVisualisation.class.getSimpleName(), () ->
         {
             if (this.flowMap != null && this.flowMap.containsKey(flowState.getModuleName() + "." + flowState.getFlowName())) {
                 this.drawFlowStatus(flowState);
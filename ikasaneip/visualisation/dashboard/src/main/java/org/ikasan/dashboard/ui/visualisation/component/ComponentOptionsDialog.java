@@ -10,6 +10,7 @@ import com.vaadin.flow.component.html.Image;
 import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import org.ikasan.dashboard.cache.FlowConfigurationCache;
 import org.ikasan.dashboard.ui.general.component.ComponentSecurityVisibility;
 import org.ikasan.dashboard.ui.general.component.NotificationHelper;
 import org.ikasan.dashboard.ui.util.SecurityConstants;
@@ -198,6 +199,7 @@ public class ComponentOptionsDialog extends Dialog {
         );
         boolean success = this.triggerRestService.create(this.module.getUrl(), triggeDto);
         if (success) {
+            FlowConfigurationCache.instance().invalidate(this.module.getName());
             this.updateDiagramState(job, relationship);
             NotificationHelper
                 .showUserNotification(getTranslation("message.wiretap-save-successful", UI.getCurrent().getLocale()));
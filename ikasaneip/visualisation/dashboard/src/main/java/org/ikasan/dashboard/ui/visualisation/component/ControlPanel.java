@@ -13,6 +13,8 @@ import org.ikasan.dashboard.broadcast.FlowStateBroadcaster;
 import org.ikasan.dashboard.broadcast.State;
 import org.ikasan.dashboard.cache.CacheStateBroadcaster;
 import org.ikasan.dashboard.cache.FlowStateCache;
+import org.ikasan.dashboard.metrics.DashboardMetrics;
+import org.ikasan.dashboard.task.DashboardTaskExecutor;
 import org.ikasan.dashboard.ui.general.component.ComponentSecurityVisibility;
 import org.ikasan.dashboard.ui.general.component.NotificationHelper;
 import org.ikasan.dashboard.ui.general.component.ProgressIndicatorDialog;
@@ -26,8 +28,6 @@ import org.ikasan.spec.module.client.ModuleControlService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 
 public class ControlPanel extends HorizontalLayout implements GraphViewChangeListener
 {
@@ -236,8 +236,7 @@ public class ControlPanel extends HorizontalLayout implements GraphViewChangeLis
     {
         final UI current = UI.getCurrent();
         final I18NProvider i18NProvider = VaadinService.getCurrent().getInstantiator().getI18NProvider();
-        Executor executor = Executors.newSingleThreadExecutor();
-        executor.execute(() -> {
+        DashboardTaskExecutor.instance().submit(String.format("%s flow [%s] of [%s]", action, currentFlow.getName(), module.getName()), () -> {
             try
             {
                 State state;
@@ -353,7 +352,7 @@ public class ControlPanel extends HorizontalLayout implements GraphViewChangeLis
 
     protected void setFlowState(UI ui, FlowState flowState)
     {
-        ui.access(() ->
+        DashboardMetrics.access(ui, ControlPanel.class.getSimpleName(), () ->
         {
             if(currentFlow != null && flowState.getFlowName().equals(currentFlow.getName())
                 && module != null && flowState.getModuleName().equals(module.getName()))
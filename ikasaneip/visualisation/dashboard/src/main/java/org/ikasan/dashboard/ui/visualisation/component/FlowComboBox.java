@@ -7,6 +7,7 @@ import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.shared.Registration;
 import org.ikasan.dashboard.broadcast.FlowStateBroadcaster;
 import org.ikasan.dashboard.cache.CacheStateBroadcaster;
+import org.ikasan.dashboard.metrics.DashboardMetrics;
 import org.ikasan.dashboard.ui.visualisation.model.flow.Flow;
 import org.ikasan.dashboard.ui.visualisation.model.flow.Module;
 import org.slf4j.Logger;
@@ -31,7 +32,7 @@ public class FlowComboBox extends ComboBox<Flow>
         UI ui = attachEvent.getUI();
         this.flowStateBroadcasterRegistration = FlowStateBroadcaster.register(flowState ->
         {
-            ui.access(() ->
+            DashboardMetrics.access(ui, FlowComboBox.class.getSimpleName(), () ->
             {
                 // do something interesting here.
                 logger.debug("Received flow state: " + flowState);
@@ -46,12 +47,12 @@ public class FlowComboBox extends ComboBox<Flow>
             });
         });
 
-        this.cacheStateBroadcasterRegistration = CacheStateBroadcaster.register(flowState ->
+        this.cacheStateBroadcasterRegistration = CacheStateBroadcaster.registerBatch(flowStates ->
         {
-            ui.access(() ->
+            DashboardMetrics.access(ui, FlowComboBox.class.getSimpleName(), () ->
             {
-                // do something interesting here.
-                logger.debug("Received flow state: " + flowState);
+                // recalculated once for all of the flow states changed together
+                logger.debug("Received flow states: " + flowStates);
 
                 if(this.currentModule != null)
                 {
@@ -1,5 +1,6 @@
 package org.ikasan.dashboard.ui.visualisation.component;
 
+import org.ikasan.dashboard.cache.FlowConfigurationCache;
 import org.ikasan.dashboard.ui.general.component.AbstractConfigurationDialog;
 import org.ikasan.dashboard.ui.visualisation.model.flow.Flow;
 import org.ikasan.dashboard.ui.visualisation.model.flow.Module;
@@ -39,6 +40,7 @@ public class FlowConfigurationDialog extends AbstractConfigurationDialog
     @Override
     protected void save() {
         super.save();
+        FlowConfigurationCache.instance().invalidate(this.module.getName());
 
         configurationMetaData.getParameters().stream()
             .filter(configurationParameterMetaData -> configurationParameterMetaData.getName().equals("isRecording"))
@@ -0,0 +1,123 @@
+package org.ikasan.dashboard.ui.visualisation.component;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.i18n.I18NProvider;
+import com.vaadin.flow.server.VaadinService;
+import org.ikasan.dashboard.broadcast.State;
+import org.ikasan.dashboard.cache.FlowStateHistory;
+
+import java.util.Locale;
+
+/**
+ * A sparkline of the last hour of the state history of a flow. Each bar is coloured by the state the flow was in at
+ * the end of its minute and is taller the more often the flow changed state within it.
+ *
+ * The bars are drawn as one SVG image rendered in the grid with TEMPLATE, so a row of the grid costs the client a
+ * single image rather than a component for every bar.
+ */
+public class FlowStateSparkline
+{
+    public static final long WINDOW_MILLIS = 60 * 60 * 1000;
+    public static final int BARS = 60;
+
+    private static final String NO_HISTORY_COLOUR = "rgb(220,220,220)";
+    private static final int BAR_WIDTH = 3;
+    private static final int MIN_BAR_HEIGHT = 4;
+    private static final int MAX_BAR_HEIGHT = 20;
+
+    /**
+     * The template rendering the sparkline of an item bound to the property "stateHistory".
+     */
+    public static final String TEMPLATE = "<div style=\"display: flex; align-items: center\""
+        + " title=\"[[item.stateHistory.title]]\">"
+        + "<img src=\"[[item.stateHistory.image]]\" style=\"width: " + BARS * (BAR_WIDTH + 1) + "px; height: "
+        + MAX_BAR_HEIGHT + "px\">"
+        + "<iron-icon icon=\"vaadin:warning\" hidden=\"[[!item.stateHistory.flapping]]\""
+        + " title=\"[[item.stateHistory.flapping]]\" style=\"color: " + State.STOPPED_IN_ERROR_COLOUR
+        + "; width: 16px; height: 16px; margin-left: 4px\"></iron-icon></div>";
+
+    private String image;
+    private String title;
+    private String flapping;
+
+    /**
+     * Constructor
+     *
+     * @param moduleName the module of the flow
+     * @param flowName the flow
+     */
+    public FlowStateSparkline(String moduleName, String flowName)
+    {
+        long now = System.currentTimeMillis();
+        long from = now - WINDOW_MILLIS;
+        FlowStateHistory flowStateHistory = FlowStateHistory.instance();
+        FlowStateHistory.Transitions transitions = flowStateHistory.get(moduleName, flowName);
+
+        I18NProvider i18NProvider = VaadinService.getCurrent().getInstantiator().getI18NProvider();
+        Locale locale = UI.getCurrent().getLocale();
+
+        this.image = toImage(transitions, from, now);
+
+        // without any history the flow is not known to have been down, so no uptime is given
+        int changes = transitions.countSince(from);
+        this.title = transitions.size() == 0
+            ? String.format(i18NProvider.getTranslation("message.flow-state-history-unknown", locale), changes)
+            : String.format(i18NProvider.getTranslation("message.flow-state-history", locale)
+                , Math.round(transitions.uptime(from, now) * 100), changes);
+
+        if(flowStateHistory.isFlapping(moduleName, flowName, now))
+        {
+            this.flapping = String.format(i18NProvider.getTranslation("message.flow-flapping", locale)
+                , transitions.countSince(now - flowStateHistory.getFlappingWindowMillis())
+                , flowStateHistory.getFlappingWindowMillis() / 60000);
+        }
+    }
+
+    /**
+     * Draw the bars of a sparkline.
+     *
+     * @param transitions the state history of the flow
+     * @param from epoch millis of the first bar
+     * @param to epoch millis of the end of the last bar
+     * @return a data URI of the SVG image of the bars
+     */
+    protected static String toImage(FlowStateHistory.Transitions transitions, long from, long to)
+    {
+        int[] counts = transitions.countByBucket(from, to, BARS);
+        long width = (to - from) / BARS;
+
+        StringBuilder svg = new StringBuilder("<svg xmlns='http://www.w3.org/2000/svg' width='")
+            .append(BARS * (BAR_WIDTH + 1)).append("' height='").append(MAX_BAR_HEIGHT).append("'>");
+        for(int i = 0; i < BARS; i++)
+        {
+            State state = transitions.stateAt(from + (i + 1) * width);
+            int height = Math.min(MAX_BAR_HEIGHT, MIN_BAR_HEIGHT + counts[i] * 2);
+
+            svg.append("<rect x='").append(i * (BAR_WIDTH + 1)).append("' y='").append(MAX_BAR_HEIGHT - height)
+                .append("' width='").append(BAR_WIDTH).append("' height='").append(height).append("' fill='")
+                .append(state == null ? NO_HISTORY_COLOUR : state.getStateColour()).append("'/>");
+        }
+        svg.append("</svg>");
+
+        return "data:image/svg+xml," + svg.toString().replace("%", "%25").replace("#", "%23")
+            .replace("<", "%3C").replace(">", "%3E").replace(" ", "%20");
+    }
+
+    public String getImage()
+    {
+        return image;
+    }
+
+    public String getTitle()
+    {
+        return title;
+    }
+
+    /**
+     * @return the warning that the flow is flapping, or null if it is not
+     */
+    public String getFlapping()
+    {
+        return flapping;
+    }
+}
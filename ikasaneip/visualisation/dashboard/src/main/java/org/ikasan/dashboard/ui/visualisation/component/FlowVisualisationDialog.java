@@ -11,10 +11,10 @@ import com.vaadin.flow.component.html.Image;
 import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import org.ikasan.dashboard.cache.ModuleVisualisationCache;
 import org.ikasan.dashboard.ui.general.component.SearchResultsDialog;
 import org.ikasan.dashboard.ui.general.component.TooltipHelper;
 import org.ikasan.dashboard.ui.search.SearchConstants;
-import org.ikasan.dashboard.ui.visualisation.adapter.service.ModuleVisjsAdapter;
 import org.ikasan.dashboard.ui.visualisation.component.util.SearchFoundStatus;
 import org.ikasan.dashboard.ui.visualisation.event.GraphViewChangeEvent;
 import org.ikasan.dashboard.ui.visualisation.model.business.stream.Flow;
@@ -26,7 +26,6 @@ import org.ikasan.solr.model.IkasanSolrDocument;
 import org.ikasan.solr.model.IkasanSolrDocumentSearchResults;
 import org.ikasan.spec.error.reporting.ErrorReportingService;
 import org.ikasan.spec.hospital.service.HospitalAuditService;
-import org.ikasan.spec.metadata.ConfigurationMetaData;
 import org.ikasan.spec.metadata.ConfigurationMetaDataService;
 import org.ikasan.spec.metadata.ModuleMetaData;
 import org.ikasan.spec.metadata.ModuleMetaDataService;
@@ -39,7 +38,6 @@ import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 public class FlowVisualisationDialog extends Dialog {
     Logger logger = LoggerFactory.getLogger(FlowVisualisationDialog.class);
@@ -157,19 +155,7 @@ public class FlowVisualisationDialog extends Dialog {
     }
 
     private void init(ModuleMetaData moduleMetaData, String flowName){
-        List<String> configurationIds = moduleMetaData.getFlows().stream()
-            .map(flowMetaData -> flowMetaData.getFlowElements()).flatMap(List::stream)
-            .map(flowElementMetaData -> flowElementMetaData.getConfigurationId())
-            .filter(id -> id != null)
-            .distinct()
-            .collect(Collectors.toList());
-
-        List<ConfigurationMetaData> configurationMetaData
-            = this.configurationMetadataService.findByIdList(configurationIds);
-
-        ModuleVisjsAdapter moduleVisjsAdapter = new ModuleVisjsAdapter();
-
-        Module module = moduleVisjsAdapter.adapt(moduleMetaData, configurationMetaData);
+        Module module = ModuleVisualisationCache.instance().get(moduleMetaData, this.configurationMetadataService);
 
 
         this.moduleVisualisation = new ModuleVisualisation(this.moduleControlRestService,
@@ -13,11 +13,13 @@ import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.data.renderer.ComponentRenderer;
+import com.vaadin.flow.data.renderer.TemplateRenderer;
 import com.vaadin.flow.shared.Registration;
 import org.ikasan.dashboard.broadcast.FlowState;
 import org.ikasan.dashboard.broadcast.State;
 import org.ikasan.dashboard.cache.CacheStateBroadcaster;
 import org.ikasan.dashboard.cache.FlowStateCache;
+import org.ikasan.dashboard.metrics.DashboardMetrics;
 import org.ikasan.dashboard.ui.general.component.AbstractCloseableResizableDialog;
 import org.ikasan.dashboard.ui.general.component.ComponentSecurityVisibility;
 import org.ikasan.dashboard.ui.general.component.FlowControlManagementDialog;
@@ -92,6 +94,10 @@ public class ModuleStatusDialog extends AbstractCloseableResizableDialog {
 
             return layout;
         })).setHeader("Status").setKey("status").setFlexGrow(4);
+        flowGrid.addColumn(TemplateRenderer.<Flow>of(FlowStateSparkline.TEMPLATE)
+            .withProperty("stateHistory", node -> new FlowStateSparkline(this.currentModule.getName(), node.getName())))
+            .setHeader(getTranslation("label.state-history", UI.getCurrent().getLocale())).setKey("stateHistory")
+            .setWidth("280px");
         flowGrid.addColumn(new ComponentRenderer<>((Flow node) ->
         {
             VerticalLayout wrapper = new VerticalLayout();
@@ -244,7 +250,7 @@ public class ModuleStatusDialog extends AbstractCloseableResizableDialog {
             this.currentModule.getFlows()
                 .stream()
                 .filter(flow -> flowState.getFlowName().equals(flow.getName()))
-                .findFirst().ifPresent(flow -> ui.access(() -> this.flowGrid.getDataProvider().refreshItem(flow)));
+                .findFirst().ifPresent(flow -> DashboardMetrics.access(ui, ModuleStatusDialog.class.getSimpleName(), () -> this.flowGrid.getDataProvider().refreshItem(flow)));
         });
     }
 
@@ -14,6 +14,7 @@ import org.ikasan.dashboard.broadcast.FlowStateBroadcaster;
 import org.ikasan.dashboard.broadcast.State;
 import org.ikasan.dashboard.cache.CacheStateBroadcaster;
 import org.ikasan.dashboard.cache.FlowStateCache;
+import org.ikasan.dashboard.metrics.DashboardMetrics;
 import org.ikasan.dashboard.ui.general.component.ComponentSecurityVisibility;
 import org.ikasan.dashboard.ui.general.component.FlowControlManagementDialog;
 import org.ikasan.dashboard.ui.util.SecurityConstants;
@@ -419,7 +420,7 @@ public class ModuleVisualisation extends VerticalLayout implements BeforeEnterOb
 
     protected void drawFlowStatus(UI ui, FlowState flowState)
     {
-        ui.access(() ->
+        DashboardMetrics.access(ui, ModuleVisualisation.class.getSimpleName(), () ->
         {
             if(currentFlow != null && flowState.getFlowName().equals(currentFlow.getName())
                 && module != null && flowState.getModuleName().equals(module.getName()))
@@ -9,15 +9,16 @@ import com.vaadin.flow.server.VaadinService;
 import org.ikasan.dashboard.broadcast.FlowState;
 import org.ikasan.dashboard.broadcast.FlowStateBroadcaster;
 import org.ikasan.dashboard.broadcast.State;
+import org.ikasan.dashboard.control.BulkFlowControlService;
+import org.ikasan.dashboard.task.DashboardTaskExecutor;
 import org.ikasan.dashboard.ui.general.component.NotificationHelper;
 import org.ikasan.dashboard.ui.general.component.ProgressIndicatorDialog;
 import org.ikasan.dashboard.ui.visualisation.model.flow.Flow;
 import org.ikasan.spec.module.client.ModuleControlService;
 
 import java.util.Collection;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.List;
+import java.util.stream.Collectors;
 
 
 public class MultiFlowControlPanel extends ControlPanel {
@@ -73,93 +74,67 @@ public class MultiFlowControlPanel extends ControlPanel {
     {
         final UI current = UI.getCurrent();
         final I18NProvider i18NProvider = VaadinService.getCurrent().getInstantiator().getI18NProvider();
-        Executor executor = Executors.newSingleThreadExecutor();
-        executor.execute(() -> {
+
+        String restAction;
+        State state;
+        String errorMessageKey;
+
+        if(action.equals(ControlPanel.START))
+        {
+            restAction = "start";
+            state = State.RUNNING_STATE;
+            errorMessageKey = "message.error-starting-flow";
+        }
+        else if(action.equals(ControlPanel.STOP))
+        {
+            restAction = "stop";
+            state = State.STOPPED_STATE;
+            errorMessageKey = "message.error-stopping-flow";
+        }
+        else if(action.equals(ControlPanel.PAUSE))
+        {
+            restAction = "pause";
+            state = State.PAUSED_STATE;
+            errorMessageKey = "message.error-pausing-flow";
+        }
+        else if(action.equals(ControlPanel.START_PAUSE))
+        {
+            restAction = "startPause";
+            state = State.START_PAUSE_STATE;
+            errorMessageKey = "message.error-start-pause-flow";
+        }
+        else
+        {
+            throw new IllegalArgumentException(String.format("Received illegal action [%s] ", action));
+        }
+
+        List<String> flowNames = flows.stream().map(Flow::getName).collect(Collectors.toList());
+
+        DashboardTaskExecutor.instance().submit(String.format("%s %d flows of [%s]", action, flows.size(), module.getName()), () -> {
             try
             {
-                AtomicReference<State> state = new AtomicReference<>();
+                BulkFlowControlService.Result result = BulkFlowControlService.instance().changeFlowStates(this.moduleControlRestService
+                    , module.getUrl(), module.getName(), flowNames, restAction);
 
-                if(action.equals(ControlPanel.START))
-                {
-                    flows.forEach(flow -> {
-                        if(this.moduleControlRestService.changeFlowState(module.getUrl(),
-                            module.getName(), flow.getName(), "start"))
-                        {
-                            state.set(State.RUNNING_STATE);
-                            FlowStateBroadcaster.broadcast(new FlowState(this.module.getName(), flow.getName(), state.get()));
-                        }
-                        else
-                        {
-                            current.access(() ->
-                            {
-                                NotificationHelper.showErrorNotification(String.format(i18NProvider.getTranslation("message.error-starting-flow", current.getLocale()), this.currentFlow.getName()));
-                            });
-                        }
-                    });
-                }
-                else if(action.equals(ControlPanel.STOP))
-                {
-                    flows.forEach(flow -> {
-                    if(this.moduleControlRestService.changeFlowState(module.getUrl(),
-                        module.getName(), flow.getName(), "stop"))
-                    {
-                        state.set(State.STOPPED_STATE);
-                        FlowStateBroadcaster.broadcast(new FlowState(this.module.getName(), flow.getName(), state.get()));
-                    }
-                    else
-                    {
-                        current.access(() ->
-                        {
-                            NotificationHelper.showErrorNotification(String.format(i18NProvider.getTranslation("message.error-stopping-flow", current.getLocale()), this.currentFlow.getName()));
-                        });
-                    }});
-                }
-                else if(action.equals(ControlPanel.PAUSE))
-                {
-                    flows.forEach(flow -> {
-                        if(this.moduleControlRestService.changeFlowState(module.getUrl(),
-                            module.getName(), flow.getName(), "pause"))
-                        {
-                            state.set(State.PAUSED_STATE);
-                            FlowStateBroadcaster.broadcast(new FlowState(this.module.getName(), flow.getName(), state.get()));
-                        }
-                        else
-                        {
-                            current.access(() ->
-                            {
-                                NotificationHelper.showErrorNotification(String.format(i18NProvider.getTranslation("message.error-pausing-flow", current.getLocale()), this.currentFlow.getName()));
-                            });
-                        }
-                    });
-                }
-                else if(action.equals(ControlPanel.START_PAUSE))
-                {
-                    flows.forEach(flow -> {
-                        if(this.moduleControlRestService.changeFlowState(module.getUrl(),
-                            module.getName(), flow.getName(), "startPause"))
-                        {
-                            state.set(State.START_PAUSE_STATE);
-                            FlowStateBroadcaster.broadcast(new FlowState(this.module.getName(), flow.getName(), state.get()));
-                        }
-                        else
-                        {
-                            current.access(() ->
-                            {
-                                NotificationHelper.showErrorNotification(String.format(i18NProvider.getTranslation("message.error-start-pause-flow", current.getLocale()), this.currentFlow.getName()));
-                            });
-                        }
-                    });
-                }
-                else
-                {
-                    throw new IllegalArgumentException(String.format("Received illegal action [%s] ", action));
-                }
+                result.getSucceeded().forEach(flowName ->
+                    FlowStateBroadcaster.broadcast(new FlowState(this.module.getName(), flowName, state)));
 
                 current.access(() ->
                 {
                     progressIndicatorDialog.close();
+                    if(result.hasFailures())
+                    {
+                        // one notification for all of the flows that could not be changed
+                        NotificationHelper.showErrorNotification(String.format(i18NProvider.getTranslation(errorMessageKey
+                            , current.getLocale()), String.join(", ", result.getFailed().keySet())));
+                    }
                 });
             }
+            catch(InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                current.access(() -> progressIndicatorDialog.close());
+            }
             catch(Exception e)
             {
                 e.printStackTrace();
@@ -167,8 +142,6 @@ public class MultiFlowControlPanel extends ControlPanel {
                 {
                     progressIndicatorDialog.close();
                 });
-
-                return;
             }
         });
     }
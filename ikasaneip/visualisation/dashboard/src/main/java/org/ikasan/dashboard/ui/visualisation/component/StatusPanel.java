@@ -12,6 +12,7 @@ import org.ikasan.dashboard.broadcast.FlowState;
 import org.ikasan.dashboard.broadcast.State;
 import org.ikasan.dashboard.cache.CacheStateBroadcaster;
 import org.ikasan.dashboard.cache.FlowStateCache;
+import org.ikasan.dashboard.metrics.DashboardMetrics;
 import org.ikasan.dashboard.ui.general.component.TooltipHelper;
 import org.ikasan.dashboard.ui.visualisation.event.GraphViewChangeEvent;
 import org.ikasan.dashboard.ui.visualisation.event.GraphViewChangeListener;
@@ -157,12 +158,12 @@ public class StatusPanel extends HorizontalLayout implements GraphViewChangeList
     protected void onAttach(AttachEvent attachEvent)
     {
         UI ui = attachEvent.getUI();
-        broadcasterRegistration = CacheStateBroadcaster.register(flowState ->
+        broadcasterRegistration = CacheStateBroadcaster.registerBatch(flowStates ->
         {
-            ui.access(() ->
+            DashboardMetrics.access(ui, StatusPanel.class.getSimpleName(), () ->
             {
-                // do something interesting here.
-                logger.debug("Received flow state: " + flowState);
+                // recalculated once for all of the flow states changed together
+                logger.debug("Received flow states: " + flowStates);
 
                 calculateStatus();
             });
@@ -10,6 +10,7 @@ import com.vaadin.flow.component.html.Image;
 import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import org.ikasan.dashboard.cache.FlowConfigurationCache;
 import org.ikasan.dashboard.ui.general.component.ComponentSecurityVisibility;
 import org.ikasan.dashboard.ui.general.component.NotificationHelper;
 import org.ikasan.dashboard.ui.util.SecurityConstants;
@@ -88,6 +89,7 @@ public class WiretapManagementDialog extends Dialog
                 });
 
                 if(success.get()) {
+                    FlowConfigurationCache.instance().invalidate(this.module.getName());
                     if(type.equals(WIRETAP)) {
                         if(relationship.equals(BEFORE)){
                             UI.getCurrent().access(() -> this.networkDiagram.removeImage(this.abstractWiretapNode.getX() + this.abstractWiretapNode.getWiretapBeforeImageX(),
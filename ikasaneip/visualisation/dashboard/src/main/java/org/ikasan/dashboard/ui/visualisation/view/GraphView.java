@@ -26,6 +26,8 @@ import com.vaadin.flow.server.StreamResource;
 import com.vaadin.flow.shared.Registration;
 import com.vaadin.flow.spring.annotation.UIScope;
 import org.ikasan.dashboard.broadcast.FlowStateBroadcaster;
+import org.ikasan.dashboard.control.BusinessStreamFlowControl;
+import org.ikasan.dashboard.metrics.DashboardMetrics;
 import org.ikasan.dashboard.ui.general.component.*;
 import org.ikasan.dashboard.ui.layout.IkasanAppLayout;
 import org.ikasan.dashboard.ui.search.component.SearchForm;
@@ -118,6 +120,9 @@ public class GraphView extends VerticalLayout implements BeforeEnterObserver, Se
     @Resource
     private BatchInsert<ModuleMetaData> moduleMetadataBatchInsert;
 
+    @Resource
+    private BusinessStreamFlowControl businessStreamFlowControl;
+
     private SearchResults searchResults;
 
 
@@ -418,7 +423,7 @@ public class GraphView extends VerticalLayout implements BeforeEnterObserver, Se
             this.moduleControlRestService, this.moduleMetadataService, this.configurationRestService
             , this.triggerRestService, this.configurationMetadataService, this.hospitalAuditService,
             this.resubmissionRestService, this.replayRestService, this.replayAuditService, this.metaDataApplicationRestService,
-            this.moduleMetadataBatchInsert);
+            this.moduleMetadataBatchInsert, this.businessStreamFlowControl);
 
         businessStreamVisualisation.createBusinessStreamGraph(name, businessStreamMetaData);
 
@@ -539,7 +544,7 @@ public class GraphView extends VerticalLayout implements BeforeEnterObserver, Se
 
         broadcasterRegistration = FlowStateBroadcaster.register(flowState ->
         {
-            ui.access(() ->
+            DashboardMetrics.access(ui, GraphView.class.getSimpleName(), () ->
             {
                 // do something interesting here.
                 logger.debug("Received flow state: " + flowState);
@@ -3,12 +3,19 @@ package org.ikasan.dashboard.ui.visualisation.view;
 import com.vaadin.flow.component.AttachEvent;
 import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.html.H2;
+import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.shared.Registration;
 import org.ikasan.dashboard.broadcast.FlowStateBroadcaster;
+import org.ikasan.dashboard.control.BusinessStreamFlowControl;
+import org.ikasan.dashboard.metrics.DashboardMetrics;
+import org.ikasan.dashboard.ui.general.component.ComponentSecurityVisibility;
 import org.ikasan.dashboard.ui.search.listener.SearchListener;
+import org.ikasan.dashboard.ui.util.SecurityConstants;
+import org.ikasan.dashboard.ui.visualisation.component.BusinessStreamControlDialog;
 import org.ikasan.dashboard.ui.visualisation.component.BusinessStreamVisualisation;
 import org.ikasan.dashboard.ui.visualisation.model.business.stream.BusinessStream;
 import org.ikasan.rest.client.ConfigurationRestServiceImpl;
@@ -67,6 +74,12 @@ public class GraphViewBusinessStreamVisualisation extends VerticalLayout impleme
 
     private BatchInsert<ModuleMetaData> moduleMetaDataBatchInsert;
 
+    private BusinessStreamFlowControl businessStreamFlowControl;
+
+    private Button startStreamButton;
+
+    private Button stopStreamButton;
+
     /**
      * Constructor
      */
@@ -74,7 +87,7 @@ public class GraphViewBusinessStreamVisualisation extends VerticalLayout impleme
         , ModuleControlService moduleControlRestService, ModuleMetaDataService moduleMetadataService, ConfigurationService configurationRestService
         , TriggerService triggerRestService, ConfigurationMetaDataService configurationMetadataService, HospitalAuditService hospitalAuditService
         , ResubmissionService resubmissionRestService, ReplayService replayRestService, BatchInsert replayAuditService, MetaDataService metaDataApplicationRestService
-        , BatchInsert<ModuleMetaData> moduleMetaDataBatchInsert)
+        , BatchInsert<ModuleMetaData> moduleMetaDataBatchInsert, BusinessStreamFlowControl businessStreamFlowControl)
     {
         this.setMargin(false);
         this.setSizeFull();
@@ -127,6 +140,10 @@ public class GraphViewBusinessStreamVisualisation extends VerticalLayout impleme
         if (this.moduleMetaDataBatchInsert == null) {
             throw new IllegalArgumentException("moduleMetaDataBatchInsert cannot be null!");
         }
+        this.businessStreamFlowControl = businessStreamFlowControl;
+        if (this.businessStreamFlowControl == null) {
+            throw new IllegalArgumentException("businessStreamFlowControl cannot be null!");
+        }
 
         init();
     }
@@ -137,11 +154,36 @@ public class GraphViewBusinessStreamVisualisation extends VerticalLayout impleme
         this.headerLayout.setHeight("50px");
         this.headerLayout.add(this.moduleLabel);
         this.headerLayout.setVerticalComponentAlignment(Alignment.CENTER, this.moduleLabel);
+
+        this.startStreamButton = new Button(getTranslation("button.start-business-stream", UI.getCurrent().getLocale())
+            , VaadinIcon.PLAY.create());
+        this.startStreamButton.addClickListener(event -> this.openControlDialog(BusinessStreamFlowControl.START));
+        this.stopStreamButton = new Button(getTranslation("button.stop-business-stream", UI.getCurrent().getLocale())
+            , VaadinIcon.STOP.create());
+        this.stopStreamButton.addClickListener(event -> this.openControlDialog(BusinessStreamFlowControl.STOP));
+
+        HorizontalLayout controlLayout = new HorizontalLayout(this.startStreamButton, this.stopStreamButton);
+        ComponentSecurityVisibility.applySecurity(controlLayout, SecurityConstants.ALL_AUTHORITY
+            , SecurityConstants.MODULE_CONTROL_WRITE
+            , SecurityConstants.MODULE_CONTROL_ADMIN);
+        this.headerLayout.add(controlLayout);
+        this.headerLayout.setVerticalComponentAlignment(Alignment.CENTER, controlLayout);
+        this.headerLayout.setFlexGrow(1, this.moduleLabel);
         this.headerLayout.setSpacing(false);
         this.headerLayout.setMargin(false);
         this.add(this.headerLayout);
     }
 
+    private void openControlDialog(String action)
+    {
+        BusinessStream businessStream = this.getBusinessStream();
+        if(businessStream != null)
+        {
+            new BusinessStreamControlDialog(this.businessStreamFlowControl, businessStream, this.moduleLabel.getText()
+                , action).open();
+        }
+    }
+
     /**
      * Method to perform the search.
      *
@@ -180,7 +222,7 @@ public class GraphViewBusinessStreamVisualisation extends VerticalLayout impleme
 
         broadcasterRegistration = FlowStateBroadcaster.register(flowState ->
         {
-            ui.access(() ->
+            DashboardMetrics.access(ui, GraphViewBusinessStreamVisualisation.class.getSimpleName(), () ->
             {
                 // do something interesting here.
                logger.info("Received flow state: " + flowState);
@@ -12,8 +12,10 @@ import com.vaadin.flow.data.renderer.ComponentRenderer;
 import com.vaadin.flow.shared.Registration;
 import org.ikasan.dashboard.broadcast.FlowState;
 import org.ikasan.dashboard.broadcast.FlowStateBroadcaster;
+import org.ikasan.dashboard.cache.FlowConfigurationCache;
 import org.ikasan.dashboard.cache.FlowStateCache;
-import org.ikasan.dashboard.ui.visualisation.adapter.service.ModuleVisjsAdapter;
+import org.ikasan.dashboard.cache.ModuleVisualisationCache;
+import org.ikasan.dashboard.metrics.DashboardMetrics;
 import org.ikasan.dashboard.ui.visualisation.component.ControlPanel;
 import org.ikasan.dashboard.ui.visualisation.component.FlowComboBox;
 import org.ikasan.dashboard.ui.visualisation.component.ModuleVisualisation;
@@ -36,7 +38,8 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public class GraphViewModuleVisualisation extends VerticalLayout {
     Logger logger = LoggerFactory.getLogger(GraphViewModuleVisualisation.class);
@@ -192,19 +195,7 @@ public class GraphViewModuleVisualisation extends VerticalLayout {
                 this.currentFlow = comboBoxFlowComponentValueChangeEvent.getValue();
 
                 this.moduleVisualisation.setCurrentFlow(comboBoxFlowComponentValueChangeEvent.getValue());
-
-                ConfigurationMetaData<List<ConfigurationParameterMetaData>> flowConfiguration = this.configurationRestService
-                    .getFlowConfiguration(this.currentModule.getUrl(), this.currentModule.getName(), this.currentFlow.getName());
-
-                if(flowConfiguration != null) {
-                    flowConfiguration.getParameters().stream()
-                        .filter(configurationParameterMetaData -> configurationParameterMetaData.getName().equals("isRecording"))
-                        .findFirst()
-                        .ifPresent(configurationParameterMetaData ->
-                            comboBoxFlowComponentValueChangeEvent.getValue()
-                                .setRecording((Boolean) configurationParameterMetaData.getValue()));
-                }
-
+                this.applyFlowConfiguration(this.currentModule, this.currentFlow);
                 this.moduleVisualisation.redraw();
 
                 this.fireModuleFlowChangeEvent();
@@ -213,24 +204,57 @@ public class GraphViewModuleVisualisation extends VerticalLayout {
         });
     }
 
+    /**
+     * Show whether a flow is recording once its configuration has been loaded. A configuration already held is
+     * applied at once, before the flow is drawn, otherwise the flow is drawn without waiting and redrawn when the
+     * configuration arrives should the flow still be shown.
+     *
+     * @param module the module of the flow
+     * @param flow the flow
+     */
+    private void applyFlowConfiguration(Module module, Flow flow) {
+        CompletableFuture<Optional<ConfigurationMetaData<List<ConfigurationParameterMetaData>>>> flowConfiguration
+            = FlowConfigurationCache.instance().get(module, flow.getName(), this.configurationRestService);
+
+        if(flowConfiguration.isDone() && !flowConfiguration.isCompletedExceptionally()) {
+            flowConfiguration.join().ifPresent(configuration -> this.setRecording(flow, configuration));
+            return;
+        }
+
+        UI ui = UI.getCurrent();
+        flowConfiguration.thenAccept(configuration -> configuration.ifPresent(loaded ->
+            DashboardMetrics.access(ui, GraphViewModuleVisualisation.class.getSimpleName(), () ->
+            {
+                if(this.setRecording(flow, loaded) && flow == this.currentFlow) {
+                    this.moduleVisualisation.redraw();
+                }
+            })));
+    }
+
+    /**
+     * @return true if whether the flow is recording was changed
+     */
+    private boolean setRecording(Flow flow, ConfigurationMetaData<List<ConfigurationParameterMetaData>> flowConfiguration) {
+        Optional<Boolean> recording = flowConfiguration.getParameters().stream()
+            .filter(configurationParameterMetaData -> configurationParameterMetaData.getName().equals("isRecording"))
+            .findFirst()
+            .map(configurationParameterMetaData -> (Boolean) configurationParameterMetaData.getValue());
+
+        if(recording.isPresent() && recording.get() != flow.isRecording()) {
+            flow.setRecording(recording.get());
+            return true;
+        }
+
+        return false;
+    }
+
     /**
      * Create module graph
      *
      * @param moduleMetaData
      */
     protected void createModuleVisualisation(ModuleMetaData moduleMetaData) {
-        List<String> configurationIds = moduleMetaData.getFlows().stream()
-            .map(flowMetaData -> flowMetaData.getFlowElements()).flatMap(List::stream)
-            .map(flowElementMetaData -> flowElementMetaData.getConfigurationId())
-            .filter(id -> id != null)
-            .distinct()
-            .collect(Collectors.toList());
-
-        List<ConfigurationMetaData> configurationMetaData
-            = this.configurationMetadataService.findByIdList(configurationIds);
-
-        ModuleVisjsAdapter adapter = new ModuleVisjsAdapter();
-        Module module = adapter.adapt(moduleMetaData, configurationMetaData);
+        Module module = ModuleVisualisationCache.instance().get(moduleMetaData, this.configurationMetadataService);
 
         if (this.moduleVisualisation != null) {
             this.remove(moduleVisualisation);
@@ -239,6 +263,9 @@ public class GraphViewModuleVisualisation extends VerticalLayout {
         this.currentModule = module;
         this.currentFlow = module.getFlows().get(0);
 
+        // load the configuration of every flow now, so that switching flow need not wait on the module
+        FlowConfigurationCache.instance().prefetch(module, this.configurationRestService);
+
         this.fireModuleFlowChangeEvent();
 
         this.moduleVisualisation = new ModuleVisualisation(this.moduleControlRestService,
@@ -267,7 +294,7 @@ public class GraphViewModuleVisualisation extends VerticalLayout {
 
         broadcasterRegistration = FlowStateBroadcaster.register(flowState ->
         {
-            ui.access(() ->
+            DashboardMetrics.access(ui, GraphViewModuleVisualisation.class.getSimpleName(), () ->
             {
                 // do something interesting here.
                 logger.debug("Received flow state: " + flowState);
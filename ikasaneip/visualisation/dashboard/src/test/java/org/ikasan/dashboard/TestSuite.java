@@ -1,8 +1,29 @@
 package org.ikasan.dashboard;
 
+import org.ikasan.dashboard.cache.FlowConfigurationCacheTest;
+import org.ikasan.dashboard.cache.FlowStateHistoryTest;
+import org.ikasan.dashboard.cache.FlowStateSnapshotTest;
+import org.ikasan.dashboard.cache.ModuleMetaDataCacheTest;
+import org.ikasan.dashboard.cache.ModuleVisualisationCacheTest;
+import org.ikasan.dashboard.control.BulkFlowControlServiceTest;
+import org.ikasan.dashboard.control.BusinessStreamFlowControlTest;
+import org.ikasan.dashboard.ingest.BufferedBatchInsertTest;
+import org.ikasan.dashboard.ingest.IngestBufferFullExceptionTest;
+import org.ikasan.dashboard.ingest.ChangeDetectingBatchInsertTest;
+import org.ikasan.dashboard.metrics.DashboardMetricsTest;
 import org.ikasan.dashboard.notification.BusinessStreamNotificationJobTest;
 import org.ikasan.dashboard.notification.service.BusinessStreamNotificationServiceTest;
+import org.ikasan.dashboard.rest.FlowStateIngestControllerTest;
 import org.ikasan.dashboard.security.schedule.LdapDirectorySynchronisationJobTest;
+import org.ikasan.dashboard.solr.ContentHashStoreTest;
+import org.ikasan.dashboard.solr.CursorMarkSolrClientTest;
+import org.ikasan.dashboard.solr.FilterQuerySolrClientTest;
+import org.ikasan.dashboard.solr.SolrClientFactoryTest;
+import org.ikasan.dashboard.solr.SubstringSearchMigrationTest;
+import org.ikasan.dashboard.solr.SummaryProjectionSolrClientTest;
+import org.ikasan.dashboard.solr.TimePartitionSolrClientTest;
+import org.ikasan.dashboard.task.DashboardTaskExecutorTest;
+import org.ikasan.dashboard.trace.OperationTracerTest;
 import org.ikasan.dashboard.ui.administration.filter.*;
 import org.ikasan.dashboard.ui.administration.view.*;
 import org.ikasan.dashboard.ui.general.component.EventLifeIdDeepLinkViewTest;
@@ -13,10 +34,13 @@ import org.ikasan.dashboard.ui.layout.IkasanAppLayoutTest;
 import org.ikasan.dashboard.ui.org.ikasan.dashboard.broadcast.FlowStateBroadcasterTest;
 import org.ikasan.dashboard.ui.search.component.SearchFormTest;
 import org.ikasan.dashboard.ui.search.component.SolrSearchFilteringGridTest;
+import org.ikasan.dashboard.ui.search.model.SearchResultsSelectionTest;
 import org.ikasan.dashboard.ui.search.view.SearchViewTest;
+import org.ikasan.dashboard.ui.util.SystemEventLoggerTest;
 import org.ikasan.dashboard.ui.visualisation.adapter.service.BusinessStreamVisjsAdapterTest;
 import org.ikasan.dashboard.ui.visualisation.adapter.service.ModuleVisjsAdapterTest;
 import org.ikasan.dashboard.ui.visualisation.component.ComponentConfigurationDialogTest;
+import org.ikasan.dashboard.ui.visualisation.component.FlowStateSparklineTest;
 import org.ikasan.dashboard.ui.visualisation.component.ModuleFilteringGridTest;
 import org.ikasan.dashboard.ui.visualisation.dao.ModuleMetaDataDaoImplTest;
 import org.ikasan.dashboard.ui.visualisation.layout.IkasanFlowLayoutManagerTest;
@@ -58,12 +82,36 @@ import org.junit.runners.Suite;
     SearchResultTest.class,
     EventLifeIdDeepLinkViewTest.class,
     ComponentConfigurationDialogTest.class,
+    FlowStateSparklineTest.class,
     ModuleFilteringGridTest.class,
     LdapDirectorySynchronisationJobTest.class,
     ModuleVisualisationViewTest.class,
     SystemEventSearchViewTest.class,
     AdministrationSearchViewTest.class,
-    IkasanAppLayoutTest.class
+    IkasanAppLayoutTest.class,
+    ModuleVisualisationCacheTest.class,
+    ModuleMetaDataCacheTest.class,
+    FlowConfigurationCacheTest.class,
+    DashboardMetricsTest.class,
+    OperationTracerTest.class,
+    SolrClientFactoryTest.class,
+    BufferedBatchInsertTest.class,
+    IngestBufferFullExceptionTest.class,
+    SummaryProjectionSolrClientTest.class,
+    SearchResultsSelectionTest.class,
+    FilterQuerySolrClientTest.class,
+    SubstringSearchMigrationTest.class,
+    TimePartitionSolrClientTest.class,
+    CursorMarkSolrClientTest.class,
+    SystemEventLoggerTest.class,
+    DashboardTaskExecutorTest.class,
+    BulkFlowControlServiceTest.class,
+    BusinessStreamFlowControlTest.class,
+    ChangeDetectingBatchInsertTest.class,
+    ContentHashStoreTest.class,
+    FlowStateIngestControllerTest.class,
+    FlowStateSnapshotTest.class,
+    FlowStateHistoryTest.class
 })
 public class TestSuite {
 }
\ No newline at end of file
@@ -0,0 +1,148 @@
+package org.ikasan.dashboard.cache;
+
+import org.ikasan.dashboard.ui.visualisation.model.flow.Flow;
+import org.ikasan.dashboard.ui.visualisation.model.flow.Module;
+import org.ikasan.spec.metadata.ConfigurationMetaData;
+import org.ikasan.spec.metadata.ConfigurationParameterMetaData;
+import org.ikasan.spec.module.client.ConfigurationService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.mockito.Mockito;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class FlowConfigurationCacheTest
+{
+    private static final long LATENCY_MILLIS = 200;
+
+    private FlowConfigurationCache flowConfigurationCache;
+    private ConfigurationService configurationService;
+    private ConfigurationMetaData configurationMetaData;
+    private Module module;
+
+    @Before
+    public void setup()
+    {
+        this.flowConfigurationCache = new FlowConfigurationCache(60, 100);
+
+        this.configurationMetaData = Mockito.mock(ConfigurationMetaData.class);
+
+        // stands in for a module REST endpoint answering after a delay
+        this.configurationService = Mockito.mock(ConfigurationService.class);
+        Mockito.when(this.configurationService.getFlowConfiguration(Mockito.anyString(), Mockito.anyString()
+            , Mockito.anyString())).thenAnswer(invocation ->
+        {
+            Thread.sleep(LATENCY_MILLIS);
+            if(invocation.getArgument(2).equals("broken flow"))
+            {
+                throw new RuntimeException("connection refused");
+            }
+            return this.configurationMetaData;
+        });
+
+        this.module = new Module("http://localhost:8080/module", "module", "description", "1.0"
+            , new HashMap<>(), new HashMap<>());
+        for(int i = 0; i < 6; i++)
+        {
+            this.module.addFlow(new Flow("flow " + i, null, null, null, null));
+        }
+    }
+
+    @After
+    public void teardown()
+    {
+        this.flowConfigurationCache.close();
+    }
+
+    @Test
+    public void test_flows_of_module_loaded_in_parallel() throws Exception
+    {
+        long start = System.currentTimeMillis();
+        this.flowConfigurationCache.prefetch(this.module, this.configurationService);
+
+        for(Flow flow: this.module.getFlows())
+        {
+            Assertions.assertSame(this.configurationMetaData, this.get(flow.getName()).get(5, TimeUnit.SECONDS).get());
+        }
+        long elapsed = System.currentTimeMillis() - start;
+
+        // one round of calls rather than 6 one after another
+        Assertions.assertTrue(elapsed < 3 * LATENCY_MILLIS, "took " + elapsed + "ms");
+        Mockito.verify(this.configurationService, Mockito.times(6)).getFlowConfiguration(Mockito.anyString()
+            , Mockito.anyString(), Mockito.anyString());
+    }
+
+    @Test
+    public void test_flow_being_loaded_not_loaded_again() throws Exception
+    {
+        CompletableFuture<Optional<ConfigurationMetaData<List<ConfigurationParameterMetaData>>>> first = this.get("flow 0");
+        CompletableFuture<Optional<ConfigurationMetaData<List<ConfigurationParameterMetaData>>>> second = this.get("flow 0");
+
+        Assertions.assertFalse(first.isDone());
+        Assertions.assertSame(first, second);
+        first.get(5, TimeUnit.SECONDS);
+        Assertions.assertTrue(this.get("flow 0").isDone());
+        Mockito.verify(this.configurationService, Mockito.times(1)).getFlowConfiguration(Mockito.anyString()
+            , Mockito.anyString(), Mockito.eq("flow 0"));
+    }
+
+    @Test
+    public void test_module_loaded_again_once_invalidated() throws Exception
+    {
+        this.get("flow 0").get(5, TimeUnit.SECONDS);
+
+        this.flowConfigurationCache.invalidate("module");
+
+        CompletableFuture<Optional<ConfigurationMetaData<List<ConfigurationParameterMetaData>>>> reloaded = this.get("flow 0");
+        Assertions.assertFalse(reloaded.isDone());
+        reloaded.get(5, TimeUnit.SECONDS);
+        Mockito.verify(this.configurationService, Mockito.times(2)).getFlowConfiguration(Mockito.anyString()
+            , Mockito.anyString(), Mockito.eq("flow 0"));
+    }
+
+    @Test
+    public void test_invalidate_leaves_other_modules()
+    {
+        this.get("flow 0");
+
+        this.flowConfigurationCache.invalidate("other module");
+
+        Assertions.assertEquals(1, this.flowConfigurationCache.size());
+    }
+
+    @Test
+    public void test_failed_load_not_cached() throws Exception
+    {
+        CompletableFuture<Optional<ConfigurationMetaData<List<ConfigurationParameterMetaData>>>> failed = this.get("broken flow");
+
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals("connection refused", exception.getCause().getMessage());
+
+        CompletableFuture<Optional<ConfigurationMetaData<List<ConfigurationParameterMetaData>>>> retried = this.get("broken flow");
+        Assertions.assertNotSame(failed, retried);
+        Assertions.assertThrows(ExecutionException.class, () -> retried.get(5, TimeUnit.SECONDS));
+        Mockito.verify(this.configurationService, Mockito.times(2)).getFlowConfiguration(Mockito.anyString()
+            , Mockito.anyString(), Mockito.eq("broken flow"));
+    }
+
+    @Test
+    public void test_module_without_configuration() throws Exception
+    {
+        Mockito.when(this.configurationService.getFlowConfiguration(Mockito.anyString(), Mockito.anyString()
+            , Mockito.anyString())).thenReturn(null);
+
+        Assertions.assertFalse(this.get("flow 0").get(5, TimeUnit.SECONDS).isPresent());
+    }
+
+    private CompletableFuture<Optional<ConfigurationMetaData<List<ConfigurationParameterMetaData>>>> get(String flowName)
+    {
+        return this.flowConfigurationCache.get(this.module, flowName, this.configurationService);
+    }
+}
@@ -0,0 +1,237 @@
+package org.ikasan.dashboard.cache;
+
+import org.ikasan.dashboard.broadcast.State;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class FlowStateHistoryTest
+{
+    private static final State[] STATES = {State.RUNNING_STATE, State.RECOVERING_STATE, State.STOPPED_STATE
+        , State.STOPPED_IN_ERROR_STATE, State.PAUSED_STATE, State.START_PAUSE_STATE};
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_exception_budget_too_small()
+    {
+        new FlowStateHistory(256, 1024);
+    }
+
+    @Test
+    public void test_state_ordinals()
+    {
+        for(State state: STATES)
+        {
+            Assertions.assertEquals(state, State.getState(state.getOrdinal()));
+        }
+        Assertions.assertEquals(State.UNKNOWN_STATE, State.getState(State.UNKNOWN_STATE.getOrdinal()));
+        Assertions.assertEquals(State.UNKNOWN_STATE, State.getState(100));
+    }
+
+    @Test
+    public void test_unchanged_state_not_recorded()
+    {
+        FlowStateHistory flowStateHistory = new FlowStateHistory(16, 1024 * 1024);
+
+        Assertions.assertTrue(flowStateHistory.append("module", "flow", State.RUNNING_STATE, 1000));
+        Assertions.assertFalse(flowStateHistory.append("module", "flow", State.RUNNING_STATE, 2000));
+        Assertions.assertTrue(flowStateHistory.append("module", "flow", State.RECOVERING_STATE, 3000));
+
+        FlowStateHistory.Transitions transitions = flowStateHistory.get("module", "flow");
+        Assertions.assertEquals(2, transitions.size());
+        Assertions.assertEquals(1000, transitions.getTimestamp(0));
+        Assertions.assertEquals(State.RECOVERING_STATE, transitions.getState(1));
+    }
+
+    @Test
+    public void test_ring_keeps_latest_changes()
+    {
+        FlowStateHistory flowStateHistory = new FlowStateHistory(16, 1024 * 1024);
+        for(int i = 0; i < 100; i++)
+        {
+            flowStateHistory.append("module", "flow", STATES[i % 2], i);
+        }
+
+        FlowStateHistory.Transitions transitions = flowStateHistory.get("module", "flow");
+        Assertions.assertEquals(16, transitions.size());
+        for(int i = 0; i < 16; i++)
+        {
+            Assertions.assertEquals(84 + i, transitions.getTimestamp(i));
+            Assertions.assertEquals(STATES[(84 + i) % 2], transitions.getState(i));
+        }
+    }
+
+    @Test
+    public void test_uptime_and_buckets()
+    {
+        FlowStateHistory flowStateHistory = new FlowStateHistory(16, 1024 * 1024);
+        flowStateHistory.append("module", "flow", State.RUNNING_STATE, 0);
+        flowStateHistory.append("module", "flow", State.STOPPED_STATE, 750);
+        flowStateHistory.append("module", "flow", State.RUNNING_STATE, 900);
+
+        FlowStateHistory.Transitions transitions = flowStateHistory.get("module", "flow");
+        Assertions.assertEquals(0.85, transitions.uptime(0, 1000), 0.0001);
+        Assertions.assertArrayEquals(new int[] {1, 0, 0, 2}, transitions.countByBucket(0, 1000, 4));
+        Assertions.assertEquals(State.STOPPED_STATE, transitions.stateAt(800));
+        Assertions.assertNull(transitions.stateAt(-1));
+        Assertions.assertEquals(0, flowStateHistory.get("module", "other flow").size());
+    }
+
+    @Test
+    public void test_flapping_flow()
+    {
+        FlowStateHistory flowStateHistory = new FlowStateHistory(256, 1024 * 1024);
+        flowStateHistory.setFlappingWindowMillis(60000);
+        flowStateHistory.setFlappingThreshold(20);
+
+        // bouncing between running and recovering every second
+        for(int i = 0; i < 19; i++)
+        {
+            flowStateHistory.append("module", "flow", i % 2 == 0 ? State.RUNNING_STATE : State.RECOVERING_STATE, i * 1000);
+        }
+        Assertions.assertFalse(flowStateHistory.isFlapping("module", "flow", 19000));
+
+        flowStateHistory.append("module", "flow", State.RECOVERING_STATE, 19000);
+        flowStateHistory.append("module", "flow", State.RUNNING_STATE, 20000);
+        Assertions.assertTrue(flowStateHistory.isFlapping("module", "flow", 20000));
+        Assertions.assertFalse(flowStateHistory.isFlapping("module", "other flow", 20000));
+
+        // settled since
+        Assertions.assertFalse(flowStateHistory.isFlapping("module", "flow", 20000 + 60000));
+    }
+
+    @Test
+    public void test_memory_footprint_within_budget()
+    {
+        int capacity = 256;
+        long budget = 1024 * 1024;
+        FlowStateHistory flowStateHistory = new FlowStateHistory(capacity, budget);
+
+        // a change of state costs a long and a byte, not an object
+        Assertions.assertEquals(capacity * 9 + FlowStateHistory.FLOW_OVERHEAD_BYTES
+            , FlowStateHistory.bytesPerFlow(capacity));
+        Assertions.assertEquals(budget / FlowStateHistory.bytesPerFlow(capacity), flowStateHistory.getMaxFlows());
+
+        int flows = flowStateHistory.getMaxFlows() * 3;
+        for(int i = 0; i < flows; i++)
+        {
+            for(int j = 0; j < capacity * 2; j++)
+            {
+                flowStateHistory.append("module", "flow " + i, STATES[j % 2], j);
+            }
+        }
+
+        Assertions.assertEquals(flowStateHistory.getMaxFlows(), flowStateHistory.size());
+        Assertions.assertTrue(flowStateHistory.getFootprintBytes() <= budget);
+        Assertions.assertEquals(flowStateHistory.getMaxFlows() * FlowStateHistory.bytesPerFlow(capacity)
+            , flowStateHistory.getFootprintBytes());
+
+        // the flows least recently changed are forgotten
+        Assertions.assertEquals(0, flowStateHistory.get("module", "flow 0").size());
+        Assertions.assertEquals(capacity, flowStateHistory.get("module", "flow " + (flows - 1)).size());
+    }
+
+    @Test
+    public void test_concurrent_appends_to_one_flow() throws Exception
+    {
+        int writers = 8;
+        int appends = 20000;
+        int capacity = 1024;
+        FlowStateHistory flowStateHistory = new FlowStateHistory(capacity, 1024 * 1024);
+
+        List<Future<Integer>> results = this.append(writers, writers * appends, index ->
+        {
+            // the state is derived from the timestamp so a torn write would not match
+            long timestamp = index;
+            return flowStateHistory.append("module", "flow", STATES[(int) (timestamp % STATES.length)], timestamp);
+        });
+
+        long recorded = 0;
+        for(Future<Integer> result: results)
+        {
+            recorded += result.get(30, TimeUnit.SECONDS);
+        }
+
+        FlowStateHistory.Transitions transitions = flowStateHistory.get("module", "flow");
+        Assertions.assertTrue(recorded > capacity);
+        Assertions.assertEquals(capacity, transitions.size());
+        for(int i = 0; i < transitions.size(); i++)
+        {
+            Assertions.assertEquals(STATES[(int) (transitions.getTimestamp(i) % STATES.length)], transitions.getState(i));
+            if(i > 0)
+            {
+                Assertions.assertNotEquals(transitions.getState(i - 1), transitions.getState(i));
+            }
+        }
+    }
+
+    @Test
+    public void test_concurrent_appends_to_many_flows() throws Exception
+    {
+        int writers = 8;
+        int flows = 500;
+        int capacity = 64;
+        FlowStateHistory flowStateHistory = new FlowStateHistory(capacity, 10 * 1024 * 1024);
+
+        // each writer appends alternating states to every flow, its own timestamps never repeating another's
+        List<Future<Integer>> results = this.append(writers, writers * flows * 100, index ->
+            flowStateHistory.append("module", "flow " + (index % flows), STATES[(int) (index / flows) % 2], index));
+
+        for(Future<Integer> result: results)
+        {
+            result.get(30, TimeUnit.SECONDS);
+        }
+
+        Assertions.assertEquals(flows, flowStateHistory.size());
+        for(int i = 0; i < flows; i++)
+        {
+            FlowStateHistory.Transitions transitions = flowStateHistory.get("module", "flow " + i);
+            Assertions.assertTrue(transitions.size() > 0 && transitions.size() <= capacity);
+            for(int j = 0; j < transitions.size(); j++)
+            {
+                long timestamp = transitions.getTimestamp(j);
+                Assertions.assertEquals(i, timestamp % flows);
+                Assertions.assertEquals(STATES[(int) (timestamp / flows) % 2], transitions.getState(j));
+            }
+        }
+    }
+
+    /**
+     * Share out the indexes from 0 to count between the writers, all starting together.
+     */
+    private List<Future<Integer>> append(int writers, int count, Appender appender)
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for(int w = 0; w < writers; w++)
+        {
+            int writer = w;
+            results.add(executor.submit(() ->
+            {
+                start.await();
+                int recorded = 0;
+                for(long index = writer; index < count; index += writers)
+                {
+                    recorded += appender.append(index) ? 1 : 0;
+                }
+                return recorded;
+            }));
+        }
+        start.countDown();
+        executor.shutdown();
+
+        return results;
+    }
+
+    private interface Appender
+    {
+        boolean append(long index);
+    }
+}
@@ -0,0 +1,192 @@
+package org.ikasan.dashboard.cache;
+
+import org.ikasan.dashboard.broadcast.FlowState;
+import org.ikasan.dashboard.broadcast.State;
+import org.ikasan.rest.client.ModuleControlRestServiceImpl;
+import org.ikasan.rest.client.dto.FlowDto;
+import org.ikasan.spec.metadata.ModuleMetaData;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+
+public class FlowStateSnapshotTest
+{
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path file;
+    private FlowStateCache flowStateCache;
+
+    @Before
+    public void setup() throws Exception
+    {
+        this.file = this.temporaryFolder.getRoot().toPath().resolve("snapshot").resolve("flow-state.snapshot");
+
+        this.flowStateCache = new FlowStateCache();
+        for(int i = 0; i < 100; i++)
+        {
+            this.flowStateCache.put(new FlowState("module " + (i / 10), "flow " + i
+                , i % 2 == 0 ? State.RUNNING_STATE : State.STOPPED_IN_ERROR_STATE));
+        }
+        new FlowStateSnapshot(this.file, this.flowStateCache).write();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_exception_null_file()
+    {
+        new FlowStateSnapshot(null, this.flowStateCache);
+    }
+
+    @Test
+    public void test_loaded_states_stale_until_confirmed()
+    {
+        FlowStateCache restarted = new FlowStateCache();
+
+        Assertions.assertEquals(100, new FlowStateSnapshot(this.file, restarted).load());
+        Assertions.assertEquals(State.STOPPED_IN_ERROR_STATE, restarted.get(this.module("module 0"), "flow 1").getState());
+        Assertions.assertTrue(restarted.isStale("module 0", "flow 1"));
+
+        restarted.put(new FlowState("module 0", "flow 1", State.RUNNING_STATE));
+        Assertions.assertFalse(restarted.isStale("module 0", "flow 1"));
+        Assertions.assertTrue(restarted.isStale("module 0", "flow 2"));
+    }
+
+    @Test
+    public void test_loaded_states_keep_timestamps()
+    {
+        FlowStateCache restarted = new FlowStateCache();
+        new FlowStateSnapshot(this.file, restarted).load();
+
+        Assertions.assertEquals(this.flowStateCache.snapshot().stream().mapToLong(FlowStateSnapshot.Entry::getTimestamp).sum()
+            , restarted.snapshot().stream().mapToLong(FlowStateSnapshot.Entry::getTimestamp).sum());
+    }
+
+    @Test
+    public void test_cached_state_not_replaced_by_snapshot()
+    {
+        FlowStateCache restarted = new FlowStateCache();
+        restarted.put(new FlowState("module 0", "flow 0", State.PAUSED_STATE));
+
+        Assertions.assertEquals(99, new FlowStateSnapshot(this.file, restarted).load());
+        Assertions.assertEquals(State.PAUSED_STATE, restarted.get(this.module("module 0"), "flow 0").getState());
+        Assertions.assertFalse(restarted.isStale("module 0", "flow 0"));
+    }
+
+    @Test
+    public void test_stale_state_refreshed_in_background() throws Exception
+    {
+        FlowDto flowDto = Mockito.mock(FlowDto.class);
+        Mockito.when(flowDto.getState()).thenReturn(State.STOPPED);
+        ModuleControlRestServiceImpl moduleControlRestService = Mockito.mock(ModuleControlRestServiceImpl.class);
+        Mockito.when(moduleControlRestService.getFlowState("http://localhost/module", "module 0", "flow 0"))
+            .thenReturn(Optional.of(flowDto));
+
+        FlowStateCache restarted = new FlowStateCache();
+        restarted.setModuleControlRestService(moduleControlRestService);
+        new FlowStateSnapshot(this.file, restarted).load();
+
+        // the stale state is returned straight away
+        Assertions.assertEquals(State.RUNNING_STATE, restarted.get(this.module("module 0"), "flow 0").getState());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while(restarted.isStale("module 0", "flow 0") && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10);
+        }
+        Assertions.assertFalse(restarted.isStale("module 0", "flow 0"));
+        Assertions.assertEquals(State.STOPPED_STATE, restarted.get(this.module("module 0"), "flow 0").getState());
+    }
+
+    @Test
+    public void test_partial_file_set_aside() throws Exception
+    {
+        byte[] bytes = Files.readAllBytes(this.file);
+        Files.write(this.file, Arrays.copyOf(bytes, bytes.length / 2));
+
+        FlowStateCache restarted = new FlowStateCache();
+        Assertions.assertEquals(0, new FlowStateSnapshot(this.file, restarted).load());
+        Assertions.assertTrue(restarted.snapshot().isEmpty());
+        Assertions.assertFalse(Files.exists(this.file));
+        Assertions.assertTrue(Files.exists(this.file.resolveSibling(this.file.getFileName()
+            + FlowStateSnapshot.FAILED_FILE_SUFFIX)));
+    }
+
+    @Test
+    public void test_file_missing_checksum_not_loaded() throws Exception
+    {
+        byte[] bytes = Files.readAllBytes(this.file);
+        Files.write(this.file, Arrays.copyOf(bytes, bytes.length - Long.BYTES));
+
+        Assertions.assertEquals(0, new FlowStateSnapshot(this.file, new FlowStateCache()).load());
+    }
+
+    @Test
+    public void test_corrupt_file_not_loaded() throws Exception
+    {
+        byte[] bytes = Files.readAllBytes(this.file);
+        bytes[bytes.length / 2] ^= 0x20;
+        Files.write(this.file, bytes);
+
+        FlowStateCache restarted = new FlowStateCache();
+        Assertions.assertEquals(0, new FlowStateSnapshot(this.file, restarted).load());
+        Assertions.assertTrue(restarted.snapshot().isEmpty());
+    }
+
+    @Test
+    public void test_other_file_not_loaded() throws Exception
+    {
+        Files.writeString(this.file, "{\"module\":\"flow\"}");
+
+        Assertions.assertEquals(0, new FlowStateSnapshot(this.file, new FlowStateCache()).load());
+    }
+
+    @Test
+    public void test_missing_file_not_set_aside() throws Exception
+    {
+        Files.delete(this.file);
+
+        Assertions.assertEquals(0, new FlowStateSnapshot(this.file, new FlowStateCache()).load());
+        Assertions.assertFalse(Files.exists(this.file.resolveSibling(this.file.getFileName()
+            + FlowStateSnapshot.FAILED_FILE_SUFFIX)));
+    }
+
+    @Test
+    public void test_write_after_interrupted_write() throws Exception
+    {
+        // a temporary file left by a write cut short leaves the last snapshot in place and is written over
+        Files.writeString(this.file.resolveSibling(this.file.getFileName() + ".tmp"), "partial");
+        Assertions.assertEquals(100, new FlowStateSnapshot(this.file, new FlowStateCache()).read().size());
+
+        this.flowStateCache.put(new FlowState("module 20", "flow 200", State.PAUSED_STATE));
+        new FlowStateSnapshot(this.file, this.flowStateCache).write();
+
+        Assertions.assertEquals(101, new FlowStateSnapshot(this.file, new FlowStateCache()).load());
+    }
+
+    @Test
+    public void test_close_writes_last_snapshot() throws Exception
+    {
+        FlowStateSnapshot flowStateSnapshot = new FlowStateSnapshot(this.file, this.flowStateCache);
+        flowStateSnapshot.start(FlowStateSnapshot.DEFAULT_INTERVAL_MILLIS);
+        this.flowStateCache.put(new FlowState("module 20", "flow 200", State.PAUSED_STATE));
+        flowStateSnapshot.close();
+
+        Assertions.assertEquals(101, flowStateSnapshot.read().size());
+    }
+
+    private ModuleMetaData module(String moduleName)
+    {
+        ModuleMetaData moduleMetaData = Mockito.mock(ModuleMetaData.class);
+        Mockito.when(moduleMetaData.getName()).thenReturn(moduleName);
+        Mockito.when(moduleMetaData.getUrl()).thenReturn("http://localhost/module");
+        return moduleMetaData;
+    }
+}
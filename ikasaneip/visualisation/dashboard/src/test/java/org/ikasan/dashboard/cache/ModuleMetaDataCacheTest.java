@@ -0,0 +1,190 @@
+package org.ikasan.dashboard.cache;
+
+import org.ikasan.spec.metadata.ModuleMetaData;
+import org.ikasan.spec.metadata.ModuleMetaDataService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class ModuleMetaDataCacheTest
+{
+    private static Logger logger = LoggerFactory.getLogger(ModuleMetaDataCacheTest.class);
+
+    private static final long LOOKUP_LATENCY_MILLIS = 2;
+
+    private ModuleMetaDataCache moduleMetaDataCache;
+    private ModuleMetaDataService moduleMetaDataService;
+
+    @Before
+    public void setup()
+    {
+        this.moduleMetaDataCache = new ModuleMetaDataCache(60, 100);
+
+        Map<String, ModuleMetaData> modules = new HashMap<>();
+        modules.put("module", moduleMetaData("module", "http://localhost:8080/module"));
+        modules.put("other", moduleMetaData("other", "http://localhost:8080/other"));
+        for(int i = 0; i < 50; i++)
+        {
+            modules.put("module" + i, moduleMetaData("module" + i, "http://localhost:8080/module" + i));
+        }
+
+        // stands in for a Solr search answering after a delay
+        this.moduleMetaDataService = Mockito.mock(ModuleMetaDataService.class);
+        Mockito.when(this.moduleMetaDataService.findById(Mockito.anyString())).thenAnswer(invocation ->
+        {
+            Thread.sleep(LOOKUP_LATENCY_MILLIS);
+            return modules.get(invocation.getArgument(0));
+        });
+    }
+
+    @Test
+    public void test_module_only_found_once()
+    {
+        Assertions.assertEquals("http://localhost:8080/module", this.moduleMetaDataCache.getUrl("module", this.moduleMetaDataService));
+        Assertions.assertEquals("http://localhost:8080/module", this.moduleMetaDataCache.getUrl("module", this.moduleMetaDataService));
+
+        Mockito.verify(this.moduleMetaDataService, Mockito.times(1)).findById("module");
+        Assertions.assertEquals(1, this.moduleMetaDataCache.stats().hitCount());
+        Assertions.assertEquals(1, this.moduleMetaDataCache.stats().missCount());
+    }
+
+    @Test
+    public void test_unknown_module_not_cached()
+    {
+        Assertions.assertNull(this.moduleMetaDataCache.getUrl("unknown", this.moduleMetaDataService));
+        Assertions.assertNull(this.moduleMetaDataCache.getUrl("unknown", this.moduleMetaDataService));
+
+        Mockito.verify(this.moduleMetaDataService, Mockito.times(2)).findById("unknown");
+        Assertions.assertEquals(0, this.moduleMetaDataCache.size());
+    }
+
+    @Test
+    public void test_module_found_again_once_new_metadata_written()
+    {
+        this.moduleMetaDataCache.getUrl("module", this.moduleMetaDataService);
+        this.moduleMetaDataCache.getUrl("other", this.moduleMetaDataService);
+
+        this.moduleMetaDataCache.invalidate(List.of(moduleMetaData("module", "http://newhost:8080/module")));
+
+        this.moduleMetaDataCache.getUrl("module", this.moduleMetaDataService);
+        this.moduleMetaDataCache.getUrl("other", this.moduleMetaDataService);
+        Mockito.verify(this.moduleMetaDataService, Mockito.times(2)).findById("module");
+        Mockito.verify(this.moduleMetaDataService, Mockito.times(1)).findById("other");
+    }
+
+    @Test
+    public void test_concurrent_lookups_search_once() throws Exception
+    {
+        int lookups = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(lookups);
+        List<Future<String>> urls = new ArrayList<>();
+        for(int i = 0; i < lookups; i++)
+        {
+            urls.add(executor.submit(() ->
+            {
+                start.await();
+                return this.moduleMetaDataCache.getUrl("module", this.moduleMetaDataService);
+            }));
+        }
+        start.countDown();
+
+        for(Future<String> url: urls)
+        {
+            Assertions.assertEquals("http://localhost:8080/module", url.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        Mockito.verify(this.moduleMetaDataService, Mockito.times(1)).findById("module");
+    }
+
+    @Test
+    public void test_module_found_while_invalidated_not_kept() throws Exception
+    {
+        CountDownLatch searching = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        ModuleMetaData before = moduleMetaData("module", "http://localhost:8080/module");
+        ModuleMetaData after = moduleMetaData("module", "http://newhost:8080/module");
+        Mockito.when(this.moduleMetaDataService.findById("module")).thenAnswer(invocation ->
+        {
+            searching.countDown();
+            invalidated.await();
+            return before;
+        }).thenReturn(after);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<String> url = executor.submit(() -> this.moduleMetaDataCache.getUrl("module", this.moduleMetaDataService));
+        Assertions.assertTrue(searching.await(5, TimeUnit.SECONDS));
+
+        // the new metadata is written while the old is being found
+        this.moduleMetaDataCache.invalidate("module");
+        invalidated.countDown();
+
+        Assertions.assertEquals("http://localhost:8080/module", url.get(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        Assertions.assertEquals("http://newhost:8080/module", this.moduleMetaDataCache.getUrl("module"
+            , this.moduleMetaDataService));
+    }
+
+    @Test
+    public void test_maximum_size()
+    {
+        this.moduleMetaDataCache.configure(60, 10);
+
+        for(int i = 0; i < 50; i++)
+        {
+            this.moduleMetaDataCache.get("module" + i, this.moduleMetaDataService);
+        }
+
+        Assertions.assertTrue(this.moduleMetaDataCache.size() <= 10);
+    }
+
+    @Test
+    public void test_bulk_action_with_and_without_cache()
+    {
+        // resubmitting 1000 events raised by 10 modules
+        int events = 1000;
+
+        long start = System.nanoTime();
+        for(int i = 0; i < events; i++)
+        {
+            this.moduleMetaDataService.findById("module" + (i % 10)).getUrl();
+        }
+        long uncachedMillis = (System.nanoTime() - start) / 1000000;
+
+        Mockito.clearInvocations(this.moduleMetaDataService);
+        start = System.nanoTime();
+        for(int i = 0; i < events; i++)
+        {
+            this.moduleMetaDataCache.getUrl("module" + (i % 10), this.moduleMetaDataService);
+        }
+        long cachedMillis = (System.nanoTime() - start) / 1000000;
+
+        logger.info("Module lookups for {} events took {}ms without the cache and {}ms with it.", events
+            , uncachedMillis, cachedMillis);
+        Mockito.verify(this.moduleMetaDataService, Mockito.times(10)).findById(Mockito.anyString());
+        Assertions.assertEquals(990, this.moduleMetaDataCache.stats().hitCount());
+        Assertions.assertTrue(cachedMillis < uncachedMillis, cachedMillis + "ms cached, " + uncachedMillis + "ms uncached");
+    }
+
+    private static ModuleMetaData moduleMetaData(String name, String url)
+    {
+        ModuleMetaData moduleMetaData = Mockito.mock(ModuleMetaData.class);
+        Mockito.when(moduleMetaData.getName()).thenReturn(name);
+        Mockito.when(moduleMetaData.getUrl()).thenReturn(url);
+        return moduleMetaData;
+    }
+}
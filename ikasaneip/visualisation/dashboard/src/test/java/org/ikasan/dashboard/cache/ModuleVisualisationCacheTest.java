@@ -0,0 +1,107 @@
+package org.ikasan.dashboard.cache;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.apache.commons.io.IOUtils;
+import org.ikasan.dashboard.solr.ContentHashInvalidatingModuleMetadataService;
+import org.ikasan.dashboard.solr.ContentHashStore;
+import org.ikasan.dashboard.ui.visualisation.model.flow.Module;
+import org.ikasan.module.metadata.dao.SolrModuleMetadataDao;
+import org.ikasan.spec.metadata.ConfigurationMetaDataService;
+import org.ikasan.spec.metadata.ModuleMetaData;
+import org.ikasan.topology.metadata.JsonFlowMetaDataProvider;
+import org.ikasan.topology.metadata.JsonModuleMetaDataProvider;
+import org.ikasan.topology.metadata.model.ModuleMetaDataImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.mockito.Mockito;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+public class ModuleVisualisationCacheTest
+{
+    public static final String MODULE_JSON = "/data/graph/module.json";
+
+    JsonModuleMetaDataProvider jsonModuleMetaDataProvider
+        = new JsonModuleMetaDataProvider(new JsonFlowMetaDataProvider());
+
+    private ConfigurationMetaDataService configurationMetaDataService;
+
+    @Before
+    public void setup()
+    {
+        Logger rootLogger = (Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
+        rootLogger.setLevel(Level.WARN);
+
+        this.configurationMetaDataService = Mockito.mock(ConfigurationMetaDataService.class);
+        Mockito.when(this.configurationMetaDataService.findByIdList(Mockito.anyList())).thenReturn(new ArrayList<>());
+
+        ModuleVisualisationCache.instance().invalidateAll();
+    }
+
+    @Test
+    public void test_configuration_metadata_only_loaded_once() throws IOException
+    {
+        ModuleMetaData moduleMetaData = this.jsonModuleMetaDataProvider
+            .deserialiseModule(IOUtils.toString(getClass().getResourceAsStream(MODULE_JSON), "UTF-8"));
+
+        Module module1 = ModuleVisualisationCache.instance().get(moduleMetaData, this.configurationMetaDataService);
+        Module module2 = ModuleVisualisationCache.instance().get(moduleMetaData, this.configurationMetaDataService);
+
+        Mockito.verify(this.configurationMetaDataService, Mockito.times(1)).findByIdList(Mockito.anyList());
+        Assertions.assertTrue(ModuleVisualisationCache.instance().contains(moduleMetaData), "module is cached");
+        Assertions.assertNotSame(module1, module2, "each caller gets its own module graph");
+        Assertions.assertEquals(module1.getFlows().size(), module2.getFlows().size(), "number of flows equal");
+        Assertions.assertNotSame(module1.getFlows().get(0).getConsumer(), module2.getFlows().get(0).getConsumer()
+            , "nodes are not shared between graphs");
+    }
+
+    @Test
+    public void test_invalidate_reloads_configuration_metadata() throws IOException
+    {
+        ModuleMetaData moduleMetaData = this.jsonModuleMetaDataProvider
+            .deserialiseModule(IOUtils.toString(getClass().getResourceAsStream(MODULE_JSON), "UTF-8"));
+
+        ModuleVisualisationCache.instance().get(moduleMetaData, this.configurationMetaDataService);
+        ModuleVisualisationCache.instance().invalidate(moduleMetaData.getName());
+
+        Assertions.assertFalse(ModuleVisualisationCache.instance().contains(moduleMetaData), "module is not cached");
+
+        ModuleVisualisationCache.instance().get(moduleMetaData, this.configurationMetaDataService);
+
+        Mockito.verify(this.configurationMetaDataService, Mockito.times(2)).findByIdList(Mockito.anyList());
+    }
+
+    @Test
+    public void test_deleted_module_dropped() throws IOException
+    {
+        ModuleMetaData moduleMetaData = this.jsonModuleMetaDataProvider
+            .deserialiseModule(IOUtils.toString(getClass().getResourceAsStream(MODULE_JSON), "UTF-8"));
+
+        ModuleVisualisationCache.instance().get(moduleMetaData, this.configurationMetaDataService);
+        new ContentHashInvalidatingModuleMetadataService(Mockito.mock(SolrModuleMetadataDao.class)
+            , new ContentHashStore()).deleteById(moduleMetaData.getName());
+
+        Assertions.assertFalse(ModuleVisualisationCache.instance().contains(moduleMetaData), "module is not cached");
+    }
+
+    @Test
+    public void test_changed_version_reloads_configuration_metadata() throws IOException
+    {
+        ModuleMetaData moduleMetaData = this.jsonModuleMetaDataProvider
+            .deserialiseModule(IOUtils.toString(getClass().getResourceAsStream(MODULE_JSON), "UTF-8"));
+
+        ModuleVisualisationCache.instance().get(moduleMetaData, this.configurationMetaDataService);
+
+        ((ModuleMetaDataImpl)moduleMetaData).setVersion("new version");
+
+        Assertions.assertFalse(ModuleVisualisationCache.instance().contains(moduleMetaData), "module is not cached");
+
+        ModuleVisualisationCache.instance().get(moduleMetaData, this.configurationMetaDataService);
+
+        Mockito.verify(this.configurationMetaDataService, Mockito.times(2)).findByIdList(Mockito.anyList());
+    }
+}
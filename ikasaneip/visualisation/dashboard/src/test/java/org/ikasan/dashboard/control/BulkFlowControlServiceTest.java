@@ -0,0 +1,125 @@
+package org.ikasan.dashboard.control;
+
+import org.ikasan.spec.module.client.ModuleControlService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class BulkFlowControlServiceTest
+{
+    private static final long LATENCY_MILLIS = 200;
+
+    private BulkFlowControlService bulkFlowControlService;
+    private ModuleControlService moduleControlService;
+
+    private AtomicInteger inFlight = new AtomicInteger();
+    private AtomicInteger maxInFlight = new AtomicInteger();
+
+    @Before
+    public void setup()
+    {
+        this.bulkFlowControlService = new BulkFlowControlService();
+
+        // stands in for a module REST endpoint answering after a delay
+        this.moduleControlService = Mockito.mock(ModuleControlService.class);
+        Mockito.when(this.moduleControlService.changeFlowState(Mockito.anyString(), Mockito.anyString()
+            , Mockito.anyString(), Mockito.anyString())).thenAnswer(invocation ->
+        {
+            this.maxInFlight.accumulateAndGet(this.inFlight.incrementAndGet(), Math::max);
+            try
+            {
+                Thread.sleep(LATENCY_MILLIS);
+            }
+            finally
+            {
+                this.inFlight.decrementAndGet();
+            }
+
+            String flowName = invocation.getArgument(2);
+            if(flowName.equals("flow 3"))
+            {
+                throw new RuntimeException("connection refused");
+            }
+            return !flowName.equals("flow 2");
+        });
+    }
+
+    @After
+    public void teardown()
+    {
+        this.bulkFlowControlService.close();
+    }
+
+    @Test
+    public void test_flows_changed_in_parallel_up_to_module_concurrency() throws Exception
+    {
+        this.bulkFlowControlService.setModuleConcurrency(8);
+        List<String> flowNames = flowNames(10, 26);
+
+        long start = System.currentTimeMillis();
+        BulkFlowControlService.Result result = this.bulkFlowControlService.changeFlowStates(this.moduleControlService
+            , "http://localhost:8080/module", "module", flowNames, "start");
+        long elapsed = System.currentTimeMillis() - start;
+
+        Assertions.assertEquals(flowNames, result.getSucceeded());
+        Assertions.assertFalse(result.hasFailures());
+        Assertions.assertEquals(8, this.maxInFlight.get());
+        // two rounds of calls rather than 16 one after another
+        Assertions.assertTrue(elapsed < 8 * LATENCY_MILLIS, "took " + elapsed + "ms");
+    }
+
+    @Test
+    public void test_module_concurrency_shared_by_concurrent_actions() throws Exception
+    {
+        this.bulkFlowControlService.setModuleConcurrency(2);
+
+        CompletableFuture<BulkFlowControlService.Result> first = CompletableFuture.supplyAsync(() -> this.change(flowNames(10, 14)));
+        CompletableFuture<BulkFlowControlService.Result> second = CompletableFuture.supplyAsync(() -> this.change(flowNames(20, 24)));
+
+        Assertions.assertEquals(4, first.get().getSucceeded().size());
+        Assertions.assertEquals(4, second.get().getSucceeded().size());
+        Assertions.assertEquals(2, this.maxInFlight.get());
+    }
+
+    @Test
+    public void test_every_flow_attempted_and_failures_collected() throws Exception
+    {
+        BulkFlowControlService.Result result = this.bulkFlowControlService.changeFlowStates(this.moduleControlService
+            , "http://localhost:8080/module", "module", flowNames(1, 6), "stop");
+
+        Assertions.assertEquals(List.of("flow 1", "flow 4", "flow 5"), result.getSucceeded());
+        Assertions.assertTrue(result.hasFailures());
+        Map<String, String> failed = result.getFailed();
+        Assertions.assertEquals(List.of("flow 2", "flow 3"), List.copyOf(failed.keySet()));
+        Assertions.assertEquals("connection refused", failed.get("flow 3"));
+        Mockito.verify(this.moduleControlService, Mockito.times(5)).changeFlowState(Mockito.anyString()
+            , Mockito.eq("module"), Mockito.anyString(), Mockito.eq("stop"));
+    }
+
+    private BulkFlowControlService.Result change(List<String> flowNames)
+    {
+        try
+        {
+            return this.bulkFlowControlService.changeFlowStates(this.moduleControlService
+                , "http://localhost:8080/module", "module", flowNames, "start");
+        }
+        catch (InterruptedException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static List<String> flowNames(int from, int to)
+    {
+        return IntStream.range(from, to).mapToObj(i -> "flow " + i).collect(Collectors.toList());
+    }
+}
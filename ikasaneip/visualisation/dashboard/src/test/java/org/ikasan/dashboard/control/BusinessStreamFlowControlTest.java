@@ -0,0 +1,185 @@
+package org.ikasan.dashboard.control;
+
+import org.ikasan.dashboard.cache.ModuleMetaDataCache;
+import org.ikasan.dashboard.ui.visualisation.model.business.stream.BusinessStream;
+import org.ikasan.dashboard.ui.visualisation.model.business.stream.Destination;
+import org.ikasan.dashboard.ui.visualisation.model.business.stream.Flow;
+import org.ikasan.spec.metadata.ModuleMetaData;
+import org.ikasan.spec.metadata.ModuleMetaDataService;
+import org.ikasan.spec.module.client.ModuleControlService;
+import org.ikasan.vaadin.visjs.network.Edge;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+public class BusinessStreamFlowControlTest
+{
+    private BulkFlowControlService bulkFlowControlService;
+    private ModuleControlService moduleControlService;
+    private ModuleMetaDataService moduleMetaDataService;
+    private BusinessStreamFlowControl businessStreamFlowControl;
+
+    private List<String> calls = Collections.synchronizedList(new ArrayList<>());
+
+    // source -> channel -> (enrich, audit), enrich -> target
+    private Flow source = new Flow("moduleA.source", "moduleA", "source", 0, 0);
+    private Flow enrich = new Flow("moduleB.enrich", "moduleB", "enrich", 0, 0);
+    private Flow audit = new Flow("moduleC.audit", "moduleC", "audit", 0, 0);
+    private Flow target = new Flow("moduleB.target", "moduleB", "target", 0, 0);
+    private Destination channel = new Destination("channel", "channel", 0, 0);
+
+    @Before
+    public void setup()
+    {
+        this.bulkFlowControlService = new BulkFlowControlService();
+        ModuleMetaDataCache.instance().invalidateAll();
+
+        this.moduleControlService = Mockito.mock(ModuleControlService.class);
+        Mockito.when(this.moduleControlService.changeFlowState(Mockito.anyString(), Mockito.anyString()
+            , Mockito.anyString(), Mockito.anyString())).thenAnswer(invocation ->
+        {
+            this.calls.add(invocation.getArgument(1) + "." + invocation.getArgument(2));
+            return true;
+        });
+
+        ModuleMetaData moduleMetaData = Mockito.mock(ModuleMetaData.class);
+        Mockito.when(moduleMetaData.getUrl()).thenReturn("http://localhost:8080/module");
+        this.moduleMetaDataService = Mockito.mock(ModuleMetaDataService.class);
+        Mockito.when(this.moduleMetaDataService.findById(Mockito.anyString())).thenReturn(moduleMetaData);
+
+        this.businessStreamFlowControl = new BusinessStreamFlowControl(this.moduleControlService
+            , this.moduleMetaDataService, this.bulkFlowControlService);
+    }
+
+    @After
+    public void teardown()
+    {
+        this.bulkFlowControlService.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_module_control_service()
+    {
+        new BusinessStreamFlowControl(null, this.moduleMetaDataService, this.bulkFlowControlService);
+    }
+
+    @Test
+    public void test_layers_through_destinations()
+    {
+        List<List<Flow>> layers = BusinessStreamFlowControl.getLayers(this.businessStream());
+
+        Assertions.assertEquals(List.of(List.of(this.source), List.of(this.enrich, this.audit), List.of(this.target))
+            , layers);
+    }
+
+    @Test
+    public void test_cycle_rejected()
+    {
+        BusinessStream businessStream = new BusinessStream(List.of(this.source, this.enrich, this.audit)
+            , Collections.emptyList()
+            , List.of(new Edge(this.source.getId(), this.enrich.getId()), new Edge(this.enrich.getId(), this.audit.getId())
+                , new Edge(this.audit.getId(), this.enrich.getId()))
+            , Collections.emptyList());
+
+        IllegalArgumentException exception = Assertions.assertThrows(IllegalArgumentException.class
+            , () -> BusinessStreamFlowControl.getLayers(businessStream));
+        Assertions.assertTrue(exception.getMessage().contains("[moduleB.enrich, moduleC.audit]"), exception.getMessage());
+    }
+
+    @Test
+    public void test_stop_upstream_first() throws Exception
+    {
+        Map<Flow, BusinessStreamFlowControl.Outcome> outcomes = new ConcurrentHashMap<>();
+
+        Assertions.assertTrue(this.businessStreamFlowControl.stop(this.businessStream()
+            , result -> outcomes.put(result.getFlow(), result.getOutcome())));
+
+        Assertions.assertEquals("moduleA.source", this.calls.get(0));
+        Assertions.assertEquals(List.of("moduleB.enrich", "moduleC.audit"), this.calls.subList(1, 3).stream().sorted()
+            .collect(Collectors.toList()));
+        Assertions.assertEquals("moduleB.target", this.calls.get(3));
+        Assertions.assertEquals(4, outcomes.size());
+        Assertions.assertTrue(outcomes.values().stream().allMatch(BusinessStreamFlowControl.Outcome.SUCCEEDED::equals));
+        Mockito.verify(this.moduleControlService, Mockito.times(4)).changeFlowState(Mockito.anyString()
+            , Mockito.anyString(), Mockito.anyString(), Mockito.eq("stop"));
+    }
+
+    @Test
+    public void test_start_downstream_first() throws Exception
+    {
+        Assertions.assertTrue(this.businessStreamFlowControl.start(this.businessStream(), result -> {}));
+
+        Assertions.assertEquals("moduleB.target", this.calls.get(0));
+        Assertions.assertEquals("moduleA.source", this.calls.get(3));
+    }
+
+    @Test
+    public void test_failure_aborts_later_layers() throws Exception
+    {
+        Mockito.when(this.moduleControlService.changeFlowState(Mockito.anyString(), Mockito.eq("moduleC")
+            , Mockito.eq("audit"), Mockito.anyString())).thenThrow(new RuntimeException("connection refused"));
+        Map<Flow, BusinessStreamFlowControl.FlowResult> results = new ConcurrentHashMap<>();
+
+        Assertions.assertFalse(this.businessStreamFlowControl.stop(this.businessStream()
+            , result -> results.put(result.getFlow(), result)));
+
+        Assertions.assertEquals(BusinessStreamFlowControl.Outcome.SUCCEEDED, results.get(this.enrich).getOutcome());
+        Assertions.assertEquals(BusinessStreamFlowControl.Outcome.FAILED, results.get(this.audit).getOutcome());
+        Assertions.assertEquals("connection refused", results.get(this.audit).getMessage());
+        Assertions.assertEquals(BusinessStreamFlowControl.Outcome.NOT_ATTEMPTED, results.get(this.target).getOutcome());
+        Mockito.verify(this.moduleControlService, Mockito.never()).changeFlowState(Mockito.anyString()
+            , Mockito.anyString(), Mockito.eq("target"), Mockito.anyString());
+    }
+
+    @Test
+    public void test_layer_timeout() throws Exception
+    {
+        Mockito.when(this.moduleControlService.changeFlowState(Mockito.anyString(), Mockito.eq("moduleB")
+            , Mockito.eq("enrich"), Mockito.anyString())).thenAnswer(invocation ->
+        {
+            Thread.sleep(1000);
+            return true;
+        });
+        this.businessStreamFlowControl.setLayerTimeoutMillis(100);
+        Map<Flow, BusinessStreamFlowControl.Outcome> outcomes = new ConcurrentHashMap<>();
+
+        Assertions.assertFalse(this.businessStreamFlowControl.stop(this.businessStream()
+            , result -> outcomes.put(result.getFlow(), result.getOutcome())));
+
+        Assertions.assertEquals(BusinessStreamFlowControl.Outcome.SUCCEEDED, outcomes.get(this.source));
+        Assertions.assertEquals(BusinessStreamFlowControl.Outcome.TIMED_OUT, outcomes.get(this.enrich));
+        Assertions.assertEquals(BusinessStreamFlowControl.Outcome.NOT_ATTEMPTED, outcomes.get(this.target));
+    }
+
+    @Test
+    public void test_unknown_module_fails_flow() throws Exception
+    {
+        Mockito.when(this.moduleMetaDataService.findById("moduleA")).thenReturn(null);
+        Map<Flow, BusinessStreamFlowControl.Outcome> outcomes = new ConcurrentHashMap<>();
+
+        Assertions.assertFalse(this.businessStreamFlowControl.stop(this.businessStream()
+            , result -> outcomes.put(result.getFlow(), result.getOutcome())));
+
+        Assertions.assertEquals(BusinessStreamFlowControl.Outcome.FAILED, outcomes.get(this.source));
+        Assertions.assertEquals(BusinessStreamFlowControl.Outcome.NOT_ATTEMPTED, outcomes.get(this.target));
+        Assertions.assertTrue(this.calls.isEmpty());
+    }
+
+    private BusinessStream businessStream()
+    {
+        // flows deliberately listed out of order
+        return new BusinessStream(List.of(this.target, this.enrich, this.audit, this.source), Collections.emptyList()
+            , List.of(new Edge(this.source.getId(), this.channel.getId()), new Edge(this.channel.getId(), this.enrich.getId())
+                , new Edge(this.channel.getId(), this.audit.getId()), new Edge(this.enrich.getId(), this.target.getId()))
+            , List.of(this.channel));
+    }
+}
@@ -0,0 +1,365 @@
+package org.ikasan.dashboard.ingest;
+
+import org.apache.solr.common.SolrException;
+import org.ikasan.error.reporting.model.ErrorOccurrenceImpl;
+import org.ikasan.spec.error.reporting.ErrorOccurrence;
+import org.ikasan.spec.persistence.BatchInsert;
+import org.ikasan.spec.wiretap.WiretapEvent;
+import org.ikasan.wiretap.model.WiretapFlowEvent;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+public class BufferedBatchInsertTest
+{
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private List<BufferedBatchInsert<?>> buffers = new ArrayList<>();
+
+    @After
+    public void teardown()
+    {
+        this.buffers.forEach(BufferedBatchInsert::close);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_exception_null_delegate()
+    {
+        new BufferedBatchInsert<TestEvent>("wiretap", null, null);
+    }
+
+    @Test
+    public void test_batch_written_when_batch_size_reached() throws Exception
+    {
+        RecordingBatchInsert delegate = new RecordingBatchInsert();
+        BufferedBatchInsert<TestEvent> buffer = this.buffer(delegate, null);
+        buffer.setBatchSize(3);
+        buffer.setFlushIntervalMillis(60000);
+        buffer.start();
+
+        buffer.insert(events("1"));
+        buffer.insert(events("2", "3"));
+
+        waitFor(() -> delegate.batches.size() == 1);
+
+        Assertions.assertEquals(List.of("1", "2", "3"), ids(delegate.batches.get(0)));
+        Assertions.assertEquals(0, buffer.getQueued());
+    }
+
+    @Test
+    public void test_batch_written_when_flush_interval_passed() throws Exception
+    {
+        RecordingBatchInsert delegate = new RecordingBatchInsert();
+        BufferedBatchInsert<TestEvent> buffer = this.buffer(delegate, null);
+        buffer.setBatchSize(100);
+        buffer.setFlushIntervalMillis(50);
+        buffer.start();
+
+        buffer.insert(events("1"));
+
+        waitFor(() -> delegate.batches.size() == 1);
+
+        Assertions.assertEquals(List.of("1"), ids(delegate.batches.get(0)));
+    }
+
+    @Test
+    public void test_push_rejected_when_buffer_full()
+    {
+        BufferedBatchInsert<TestEvent> buffer = this.buffer(new RecordingBatchInsert(), null);
+        buffer.setCapacity(2);
+
+        buffer.insert(events("1", "2"));
+
+        Assertions.assertThrows(IngestBufferFullException.class, () -> buffer.insert(events("3")));
+        Assertions.assertEquals(2, buffer.getQueued());
+    }
+
+    @Test
+    public void test_push_larger_than_capacity_accepted_when_empty()
+    {
+        BufferedBatchInsert<TestEvent> buffer = this.buffer(new RecordingBatchInsert(), null);
+        buffer.setCapacity(2);
+
+        buffer.insert(events("1", "2", "3"));
+
+        Assertions.assertEquals(3, buffer.getQueued());
+    }
+
+    @Test
+    public void test_failed_write_retried() throws Exception
+    {
+        RecordingBatchInsert delegate = new RecordingBatchInsert();
+        delegate.failures = 2;
+        BufferedBatchInsert<TestEvent> buffer = this.buffer(delegate, null);
+        buffer.setFlushIntervalMillis(10);
+        buffer.start();
+
+        buffer.insert(events("1"));
+
+        waitFor(() -> delegate.batches.size() == 1);
+
+        Assertions.assertEquals(3, delegate.attempts);
+        Assertions.assertEquals(List.of("1"), ids(delegate.batches.get(0)));
+    }
+
+    @Test
+    public void test_spool_file_deleted_once_written() throws Exception
+    {
+        IngestSpool spool = new IngestSpool(this.temporaryFolder.getRoot().toPath(), false);
+        RecordingBatchInsert delegate = new RecordingBatchInsert();
+        BufferedBatchInsert<TestEvent> buffer = this.buffer(delegate, spool);
+        buffer.setFlushIntervalMillis(10);
+
+        buffer.insert(events("1", "2"));
+
+        Assertions.assertEquals(1, spool.list().size());
+        Assertions.assertEquals(1, buffer.getSpooled());
+
+        buffer.start();
+        waitFor(() -> delegate.batches.size() == 1);
+
+        Assertions.assertEquals(0, spool.list().size());
+        Assertions.assertEquals(0, buffer.getSpooled());
+    }
+
+    @Test
+    public void test_spooled_events_written_after_restart() throws Exception
+    {
+        IngestSpool spool = new IngestSpool(this.temporaryFolder.getRoot().toPath(), false);
+
+        RecordingBatchInsert unavailable = new RecordingBatchInsert();
+        unavailable.failures = Integer.MAX_VALUE;
+        BufferedBatchInsert<TestEvent> buffer = this.buffer(unavailable, spool);
+        buffer.setFlushIntervalMillis(10);
+        buffer.start();
+
+        buffer.insert(events("1", "2"));
+        buffer.insert(events("3"));
+        waitFor(() -> unavailable.attempts > 0);
+        buffer.close();
+
+        Assertions.assertEquals(2, spool.list().size());
+
+        RecordingBatchInsert available = new RecordingBatchInsert();
+        BufferedBatchInsert<TestEvent> restarted = this.buffer(available, spool);
+        restarted.setFlushIntervalMillis(10);
+        restarted.start();
+
+        waitFor(() -> available.batches.stream().mapToInt(List::size).sum() == 3);
+
+        List<TestEvent> written = available.batches.stream().flatMap(List::stream).collect(Collectors.toList());
+        Assertions.assertEquals(List.of("1", "2", "3"), ids(written));
+        Assertions.assertEquals("payload-1", written.get(0).getPayload());
+        Assertions.assertEquals(0, spool.list().size());
+    }
+
+    @Test
+    public void test_unreadable_spool_file_set_aside() throws Exception
+    {
+        IngestSpool spool = new IngestSpool(this.temporaryFolder.getRoot().toPath(), false);
+        this.temporaryFolder.newFile("0000000000000-000000000001" + IngestSpool.SPOOL_FILE_SUFFIX);
+
+        BufferedBatchInsert<TestEvent> buffer = this.buffer(new RecordingBatchInsert(), spool);
+        buffer.start();
+
+        Assertions.assertEquals(0, spool.list().size());
+        Assertions.assertEquals(0, buffer.getQueued());
+        Assertions.assertTrue(this.temporaryFolder.getRoot().toPath()
+            .resolve("0000000000000-000000000001" + IngestSpool.SPOOL_FILE_SUFFIX + IngestSpool.FAILED_FILE_SUFFIX).toFile().exists());
+    }
+
+    @Test
+    public void test_rejected_push_dead_lettered_and_later_pushes_written() throws Exception
+    {
+        IngestSpool spool = new IngestSpool(this.temporaryFolder.getRoot().toPath(), false);
+        RecordingBatchInsert delegate = new RecordingBatchInsert();
+        delegate.rejectedId = "bad";
+        BufferedBatchInsert<TestEvent> buffer = this.buffer(delegate, spool);
+        buffer.setFlushIntervalMillis(50);
+
+        buffer.insert(events("1"));
+        buffer.insert(events("bad", "2"));
+        buffer.insert(events("3"));
+        buffer.start();
+
+        waitFor(() -> buffer.getQueued() == 0);
+
+        List<TestEvent> written = delegate.batches.stream().flatMap(List::stream).collect(Collectors.toList());
+        Assertions.assertEquals(List.of("1", "3"), ids(written));
+        Assertions.assertEquals(0, spool.list().size());
+        Assertions.assertEquals(1, spool.listDeadLetters().size());
+        Assertions.assertEquals(List.of("bad", "2"), ids(spool.read(spool.listDeadLetters().get(0))));
+        Assertions.assertEquals(0, buffer.getSpooled());
+
+        // later pushes are not held up
+        buffer.insert(events("4"));
+        waitFor(() -> delegate.batches.stream().anyMatch(batch -> ids(batch).contains("4")));
+    }
+
+    @Test
+    public void test_unavailable_solr_retried_without_splitting_or_dead_lettering() throws Exception
+    {
+        IngestSpool spool = new IngestSpool(this.temporaryFolder.getRoot().toPath(), false);
+        RecordingBatchInsert delegate = new RecordingBatchInsert();
+        delegate.failures = 5;
+        BufferedBatchInsert<TestEvent> buffer = this.buffer(delegate, spool);
+        buffer.setFlushIntervalMillis(10);
+
+        buffer.insert(events("1"));
+        buffer.insert(events("2"));
+        buffer.start();
+
+        waitFor(() -> buffer.getQueued() == 0);
+
+        Assertions.assertEquals(6, delegate.attempts);
+        Assertions.assertEquals(1, delegate.batches.size());
+        Assertions.assertEquals(List.of("1", "2"), ids(delegate.batches.get(0)));
+        Assertions.assertEquals(0, spool.listDeadLetters().size());
+        Assertions.assertEquals(0, spool.list().size());
+    }
+
+    @Test
+    public void test_module_events_recovered_from_spool_and_dead_lettered() throws Exception
+    {
+        IngestSpool spool = new IngestSpool(this.temporaryFolder.getRoot().toPath(), false);
+        WiretapFlowEvent wiretapEvent = new WiretapFlowEvent("module", "flow", "component", "lifeId"
+            , "relatedLifeId", 1000L, "<payload/>", 2000L);
+        ErrorOccurrenceImpl errorOccurrence = new ErrorOccurrenceImpl("module", "flow", "component"
+            , "error detail", "error message", RuntimeException.class.getName(), 1000L, "event".getBytes()
+            , "event");
+
+        List<Object> unavailable = new CopyOnWriteArrayList<>();
+        BufferedBatchInsert<Object> buffer = this.buffer(entities ->
+        {
+            unavailable.addAll(entities);
+            throw new RuntimeException("Solr unavailable");
+        }, spool);
+        buffer.setFlushIntervalMillis(10);
+        buffer.start();
+        buffer.insert(List.of(wiretapEvent));
+        buffer.insert(List.of(errorOccurrence));
+        waitFor(() -> !unavailable.isEmpty());
+        buffer.close();
+
+        // Solr takes the wiretap but rejects the error occurrence
+        List<Object> written = new CopyOnWriteArrayList<>();
+        BufferedBatchInsert<Object> restarted = this.buffer(entities ->
+        {
+            if(entities.stream().anyMatch(ErrorOccurrence.class::isInstance))
+            {
+                throw new SolrException(SolrException.ErrorCode.BAD_REQUEST, "unknown field");
+            }
+            written.addAll(entities);
+        }, spool);
+        restarted.setFlushIntervalMillis(10);
+        restarted.start();
+
+        waitFor(() -> restarted.getQueued() == 0);
+
+        Assertions.assertEquals(1, written.size());
+        WiretapEvent recovered = (WiretapEvent) written.get(0);
+        Assertions.assertEquals(WiretapFlowEvent.class, recovered.getClass());
+        Assertions.assertEquals(wiretapEvent.getModuleName(), recovered.getModuleName());
+        Assertions.assertEquals(wiretapEvent.getEvent(), recovered.getEvent());
+
+        List<Object> deadLettered = spool.read(spool.listDeadLetters().get(0));
+        ErrorOccurrence deadLetteredError = (ErrorOccurrence) deadLettered.get(0);
+        Assertions.assertEquals(ErrorOccurrenceImpl.class, deadLetteredError.getClass());
+        Assertions.assertEquals(errorOccurrence.getErrorMessage(), deadLetteredError.getErrorMessage());
+        Assertions.assertEquals(0, spool.list().size());
+    }
+
+    private <T> BufferedBatchInsert<T> buffer(BatchInsert<T> delegate, IngestSpool spool)
+    {
+        BufferedBatchInsert<T> buffer = new BufferedBatchInsert<>("test", delegate, spool);
+        this.buffers.add(buffer);
+        return buffer;
+    }
+
+    private static List<TestEvent> events(String... ids)
+    {
+        List<TestEvent> events = new ArrayList<>();
+        for(String id: ids)
+        {
+            events.add(new TestEvent(id, "payload-" + id));
+        }
+        return events;
+    }
+
+    private static List<String> ids(List<TestEvent> events)
+    {
+        return events.stream().map(TestEvent::getId).collect(Collectors.toList());
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + 5000;
+        while(!condition.getAsBoolean())
+        {
+            if(System.currentTimeMillis() > deadline)
+            {
+                Assertions.fail("Condition not met within 5 seconds");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static class RecordingBatchInsert implements BatchInsert<TestEvent>
+    {
+        private List<List<TestEvent>> batches = new CopyOnWriteArrayList<>();
+        private volatile int attempts = 0;
+        private volatile int failures = 0;
+        private volatile String rejectedId;
+
+        @Override
+        public void insert(List<TestEvent> entities)
+        {
+            this.attempts++;
+            if(this.attempts <= this.failures)
+            {
+                throw new RuntimeException("Solr unavailable");
+            }
+            if(entities.stream().anyMatch(event -> event.getId().equals(this.rejectedId)))
+            {
+                throw new SolrException(SolrException.ErrorCode.BAD_REQUEST, "Document rejected");
+            }
+            this.batches.add(Collections.unmodifiableList(new ArrayList<>(entities)));
+        }
+    }
+
+    public static class TestEvent
+    {
+        private String id;
+        private String payload;
+
+        private TestEvent()
+        {
+        }
+
+        public TestEvent(String id, String payload)
+        {
+            this.id = id;
+            this.payload = payload;
+        }
+
+        public String getId()
+        {
+            return id;
+        }
+
+        public String getPayload()
+        {
+            return payload;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package org.ikasan.dashboard.ingest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.ikasan.dashboard.metrics.DashboardMetrics;
+import org.ikasan.dashboard.solr.ContentHashInvalidatingModuleMetadataService;
+import org.ikasan.dashboard.solr.ContentHashStore;
+import org.ikasan.module.metadata.dao.SolrModuleMetadataDao;
+import org.ikasan.spec.persistence.BatchInsert;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+public class ChangeDetectingBatchInsertTest
+{
+    public static final String MODULE_FOUR_JSON = "/data/graph/module-four.json";
+
+    private SimpleMeterRegistry meterRegistry;
+    private ObjectMapper objectMapper = new ObjectMapper();
+    private BatchInsert<JsonNode> delegate;
+    private ContentHashStore contentHashStore;
+    private ChangeDetectingBatchInsert<JsonNode> changeDetectingBatchInsert;
+    private JsonNode moduleMetaData;
+
+    @Before
+    public void setup() throws Exception
+    {
+        this.meterRegistry = new SimpleMeterRegistry();
+        Metrics.addRegistry(this.meterRegistry);
+
+        this.delegate = Mockito.mock(BatchInsert.class);
+        this.contentHashStore = new ContentHashStore();
+        this.changeDetectingBatchInsert = new ChangeDetectingBatchInsert<>("test", this.delegate
+            , metaData -> metaData.get("name").asText(), this.contentHashStore);
+
+        this.moduleMetaData = this.objectMapper.readTree(getClass().getResourceAsStream(MODULE_FOUR_JSON));
+    }
+
+    @After
+    public void teardown()
+    {
+        Metrics.removeRegistry(this.meterRegistry);
+        this.meterRegistry.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_exception_null_delegate()
+    {
+        new ChangeDetectingBatchInsert<JsonNode>("test", null, metaData -> "", this.contentHashStore);
+    }
+
+    @Test
+    public void test_same_metadata_pushed_1000_times_written_once()
+    {
+        for(int i = 0; i < 1000; i++)
+        {
+            // each push is a fresh copy of the metadata as a module restart would send
+            this.changeDetectingBatchInsert.insert(List.of(this.moduleMetaData.deepCopy()));
+        }
+
+        Mockito.verify(this.delegate, Mockito.times(1)).insert(Mockito.anyList());
+        Assertions.assertEquals(1, this.count(ChangeDetectingBatchInsert.APPLIED));
+        Assertions.assertEquals(999, this.count(ChangeDetectingBatchInsert.SKIPPED));
+    }
+
+    @Test
+    public void test_changed_metadata_written()
+    {
+        this.changeDetectingBatchInsert.insert(List.of(this.moduleMetaData));
+
+        ObjectNode changed = this.moduleMetaData.deepCopy();
+        changed.put("description", "changed");
+        this.changeDetectingBatchInsert.insert(List.of(changed));
+
+        Mockito.verify(this.delegate).insert(List.of(changed));
+        Assertions.assertEquals(2, this.count(ChangeDetectingBatchInsert.APPLIED));
+    }
+
+    @Test
+    public void test_property_order_does_not_change_hash() throws Exception
+    {
+        JsonNode first = this.objectMapper.readTree("{\"name\":\"module\",\"description\":\"a\",\"flows\":[{\"name\":\"b\",\"configurationId\":\"c\"}]}");
+        JsonNode second = this.objectMapper.readTree("{\"flows\":[{\"configurationId\":\"c\",\"name\":\"b\"}],\"description\":\"a\",\"name\":\"module\"}");
+
+        this.changeDetectingBatchInsert.insert(List.of(first));
+        this.changeDetectingBatchInsert.insert(List.of(second));
+
+        Mockito.verify(this.delegate, Mockito.times(1)).insert(Mockito.anyList());
+    }
+
+    @Test
+    public void test_only_changed_metadata_of_batch_written() throws Exception
+    {
+        JsonNode other = this.objectMapper.readTree("{\"name\":\"other\",\"description\":\"a\"}");
+        this.changeDetectingBatchInsert.insert(List.of(this.moduleMetaData, other));
+
+        JsonNode otherChanged = this.objectMapper.readTree("{\"name\":\"other\",\"description\":\"b\"}");
+        this.changeDetectingBatchInsert.insert(List.of(this.moduleMetaData, otherChanged));
+
+        Mockito.verify(this.delegate).insert(List.of(otherChanged));
+        Assertions.assertEquals(1, this.count(ChangeDetectingBatchInsert.SKIPPED));
+    }
+
+    @Test
+    public void test_failed_write_written_again()
+    {
+        Mockito.doThrow(new RuntimeException("Solr unavailable")).doNothing().when(this.delegate).insert(Mockito.anyList());
+
+        Assertions.assertThrows(RuntimeException.class, () -> this.changeDetectingBatchInsert.insert(List.of(this.moduleMetaData)));
+        this.changeDetectingBatchInsert.insert(List.of(this.moduleMetaData));
+
+        Mockito.verify(this.delegate, Mockito.times(2)).insert(Mockito.anyList());
+    }
+
+    @Test
+    public void test_removed_hash_written_again()
+    {
+        this.changeDetectingBatchInsert.insert(List.of(this.moduleMetaData));
+
+        this.contentHashStore.remove("test", "electronicTrade");
+        this.changeDetectingBatchInsert.insert(List.of(this.moduleMetaData));
+
+        Mockito.verify(this.delegate, Mockito.times(2)).insert(Mockito.anyList());
+    }
+
+    @Test
+    public void test_deleted_module_metadata_pushed_again_unchanged_written()
+    {
+        ChangeDetectingBatchInsert<JsonNode> moduleMetadataBatchInsert = new ChangeDetectingBatchInsert<>(
+            ContentHashStore.MODULE_METADATA, this.delegate, metaData -> metaData.get("name").asText()
+            , this.contentHashStore);
+        ContentHashInvalidatingModuleMetadataService moduleMetadataService
+            = new ContentHashInvalidatingModuleMetadataService(Mockito.mock(SolrModuleMetadataDao.class)
+            , this.contentHashStore);
+
+        moduleMetadataBatchInsert.insert(List.of(this.moduleMetaData));
+        moduleMetadataService.deleteById("electronicTrade");
+        moduleMetadataBatchInsert.insert(List.of(this.moduleMetaData.deepCopy()));
+
+        Mockito.verify(this.delegate, Mockito.times(2)).insert(Mockito.anyList());
+        Assertions.assertNull(this.contentHashStore.get(ContentHashStore.MODULE_METADATA, "other"));
+        Assertions.assertNotNull(this.contentHashStore.get(ContentHashStore.MODULE_METADATA, "electronicTrade"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_exception_null_content_hash_store()
+    {
+        new ContentHashInvalidatingModuleMetadataService(Mockito.mock(SolrModuleMetadataDao.class), null);
+    }
+
+    private double count(String result)
+    {
+        return this.meterRegistry.find(DashboardMetrics.METADATA_INGEST)
+            .tag("type", "test")
+            .tag("result", result)
+            .counter().count();
+    }
+}
@@ -0,0 +1,64 @@
+package org.ikasan.dashboard.ingest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class IngestBufferFullExceptionTest
+{
+    private BufferedBatchInsert<String> buffer;
+    private MockMvc mockMvc;
+
+    @Before
+    public void setup()
+    {
+        // never started so pushes stay queued
+        this.buffer = new BufferedBatchInsert<>("test", entities -> {}, null);
+        this.buffer.setCapacity(2);
+        this.mockMvc = MockMvcBuilders.standaloneSetup(new PushController(this.buffer)).build();
+    }
+
+    @After
+    public void teardown()
+    {
+        this.buffer.close();
+    }
+
+    @Test
+    public void test_push_to_full_buffer_answered_with_service_unavailable() throws Exception
+    {
+        this.mockMvc.perform(put("/push").contentType(MediaType.APPLICATION_JSON).content("[\"1\", \"2\"]"))
+            .andExpect(status().isOk());
+
+        this.mockMvc.perform(put("/push").contentType(MediaType.APPLICATION_JSON).content("[\"3\"]"))
+            .andExpect(status().isServiceUnavailable());
+    }
+
+    @RestController
+    public static class PushController
+    {
+        private BufferedBatchInsert<String> buffer;
+
+        public PushController(BufferedBatchInsert<String> buffer)
+        {
+            this.buffer = buffer;
+        }
+
+        @PutMapping("/push")
+        public void push(@RequestBody List<String> entities)
+        {
+            this.buffer.insert(entities);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.ikasan.dashboard.metrics;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class DashboardMetricsTest
+{
+    private SimpleMeterRegistry meterRegistry;
+
+    @Before
+    public void setup()
+    {
+        this.meterRegistry = new SimpleMeterRegistry();
+        Metrics.addRegistry(this.meterRegistry);
+    }
+
+    @After
+    public void teardown()
+    {
+        Metrics.removeRegistry(this.meterRegistry);
+        this.meterRegistry.close();
+    }
+
+    @Test
+    public void test_solr_call_timed_by_caller_module_and_operation()
+    {
+        String result = DashboardMetrics.timeSolr("caller", "module", "search", () -> "result");
+
+        Assertions.assertEquals("result", result);
+
+        Timer timer = this.meterRegistry.find(DashboardMetrics.SOLR_REQUESTS)
+            .tag("caller", "caller")
+            .tag("module", "module")
+            .tag("operation", "search")
+            .tag("outcome", "success")
+            .timer();
+
+        Assertions.assertNotNull(timer);
+        Assertions.assertEquals(1, timer.count());
+    }
+
+    @Test
+    public void test_failed_solr_call_timed_as_error()
+    {
+        Assertions.assertThrows(IllegalStateException.class, () -> DashboardMetrics.timeSolr("caller"
+            , DashboardMetrics.ALL_MODULES, "search", () -> { throw new IllegalStateException(); }));
+
+        Timer timer = this.meterRegistry.find(DashboardMetrics.SOLR_REQUESTS)
+            .tag("module", DashboardMetrics.ALL_MODULES)
+            .tag("outcome", "error")
+            .timer();
+
+        Assertions.assertNotNull(timer);
+        Assertions.assertEquals(1, timer.count());
+    }
+
+    @Test
+    public void test_module_rest_call_with_unknown_module() throws Exception
+    {
+        Boolean result = DashboardMetrics.timeModuleRest("ModuleControlRestServiceImpl", null, "getFlowState"
+            , () -> Boolean.TRUE);
+
+        Assertions.assertTrue(result);
+
+        Timer timer = this.meterRegistry.find(DashboardMetrics.MODULE_REST_REQUESTS)
+            .tag("service", "ModuleControlRestServiceImpl")
+            .tag("module", "unknown")
+            .tag("operation", "getFlowState")
+            .timer();
+
+        Assertions.assertNotNull(timer);
+        Assertions.assertEquals(1, timer.count());
+    }
+
+    @Test
+    public void test_broadcaster_gauges()
+    {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS
+            , new LinkedBlockingQueue<>());
+        List<String> listeners = new ArrayList<>();
+        listeners.add("listener1");
+        listeners.add("listener2");
+
+        try
+        {
+            DashboardMetrics.registerBroadcaster("test", executor, listeners::size);
+
+            Assertions.assertEquals(2.0, this.meterRegistry.find(DashboardMetrics.BROADCASTER_LISTENERS)
+                .tag("broadcaster", "test").gauge().value());
+            Assertions.assertEquals(0.0, this.meterRegistry.find(DashboardMetrics.BROADCASTER_QUEUE_DEPTH)
+                .tag("broadcaster", "test").gauge().value());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package org.ikasan.dashboard.rest;
+
+import com.vaadin.flow.shared.Registration;
+import org.ikasan.dashboard.broadcast.FlowState;
+import org.ikasan.dashboard.broadcast.State;
+import org.ikasan.dashboard.cache.CacheStateBroadcaster;
+import org.ikasan.dashboard.cache.FlowStateCache;
+import org.ikasan.dashboard.cache.FlowStateChange;
+import org.ikasan.spec.metadata.ModuleMetaData;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.mockito.Mockito;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class FlowStateIngestControllerTest
+{
+    private static final String[] STATES = {State.RUNNING, State.STOPPED, State.STOPPED_IN_ERROR, State.RECOVERING
+        , State.PAUSED};
+
+    private FlowStateCache flowStateCache;
+    private FlowStateIngestController controller;
+    private List<List<FlowState>> broadcasts;
+    private Registration registration;
+
+    @Before
+    public void setup()
+    {
+        this.flowStateCache = new FlowStateCache(){};
+        this.controller = new FlowStateIngestController(this.flowStateCache);
+
+        this.broadcasts = new CopyOnWriteArrayList<>();
+        this.registration = CacheStateBroadcaster.registerBatch(flowStates -> this.broadcasts.add(flowStates));
+    }
+
+    @After
+    public void teardown()
+    {
+        this.registration.remove();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_exception_null_flow_state_cache()
+    {
+        new FlowStateIngestController(null);
+    }
+
+    @Test
+    public void test_bad_request_without_state()
+    {
+        ResponseEntity<Map<String, Object>> response = this.controller.bulk(List.of(
+            new FlowStateChange("module", "flow", State.RUNNING, 0, 1),
+            new FlowStateChange("module", "flow", null, 0, 2)));
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        Assertions.assertFalse(this.flowStateCache.contains(this.module("module"), "flow"));
+    }
+
+    @Test
+    public void test_batch_coalesced_into_single_broadcast() throws Exception
+    {
+        ResponseEntity<Map<String, Object>> response = this.controller.bulk(List.of(
+            new FlowStateChange("module", "flow 1", State.STOPPED, 0, 3),
+            new FlowStateChange("module", "flow 1", State.RUNNING, 0, 1),
+            new FlowStateChange("module", "flow 1", State.RECOVERING, 0, 2),
+            new FlowStateChange("module", "flow 2", State.PAUSED, 0, 4)));
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals(4, response.getBody().get(FlowStateIngestController.APPLIED));
+        Assertions.assertEquals(0, response.getBody().get(FlowStateIngestController.DROPPED));
+
+        this.awaitBroadcasts(1);
+        Assertions.assertEquals(1, this.broadcasts.size());
+        Assertions.assertEquals(List.of(new FlowState("module", "flow 1", State.STOPPED_STATE)
+            , new FlowState("module", "flow 2", State.PAUSED_STATE)), this.broadcasts.get(0));
+        Assertions.assertEquals(State.STOPPED_STATE, this.stateOf("module", "flow 1"));
+    }
+
+    @Test
+    public void test_out_of_order_changes_dropped() throws Exception
+    {
+        this.controller.bulk(List.of(new FlowStateChange("module", "flow", State.STOPPED, 0, 5)));
+        ResponseEntity<Map<String, Object>> response = this.controller.bulk(List.of(
+            new FlowStateChange("module", "flow", State.RUNNING, 0, 4),
+            new FlowStateChange("module", "flow", State.RECOVERING, 0, 5)));
+
+        Assertions.assertEquals(0, response.getBody().get(FlowStateIngestController.APPLIED));
+        Assertions.assertEquals(2, response.getBody().get(FlowStateIngestController.DROPPED));
+        Assertions.assertEquals(State.STOPPED_STATE, this.stateOf("module", "flow"));
+
+        this.awaitBroadcasts(1);
+        Assertions.assertEquals(1, this.broadcasts.size(), "nothing to broadcast when all changes are dropped");
+    }
+
+    @Test
+    public void test_changes_after_restart_applied()
+    {
+        this.controller.bulk(List.of(new FlowStateChange("module", "flow", State.STOPPED, 1000, 500)));
+        ResponseEntity<Map<String, Object>> response = this.controller.bulk(List.of(
+            new FlowStateChange("module", "flow", State.RUNNING, 2000, 1)));
+
+        Assertions.assertEquals(1, response.getBody().get(FlowStateIngestController.APPLIED));
+        Assertions.assertEquals(State.RUNNING_STATE, this.stateOf("module", "flow"));
+    }
+
+    @Test
+    public void test_plain_user_refused()
+    {
+        try(AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext())
+        {
+            context.register(MethodSecurityConfiguration.class);
+            context.registerBean(FlowStateIngestController.class, () -> new FlowStateIngestController(this.flowStateCache));
+            context.refresh();
+            FlowStateIngestController securedController = context.getBean(FlowStateIngestController.class);
+            List<FlowStateChange> changes = List.of(new FlowStateChange("module", "flow", State.RUNNING, 0, 1));
+
+            SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("user", "password"
+                , "USER"));
+            Assertions.assertThrows(AccessDeniedException.class, () -> securedController.bulk(changes));
+            Assertions.assertFalse(this.flowStateCache.contains(this.module("module"), "flow"));
+
+            SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("module", "password"
+                , "WebServiceAdmin"));
+            Assertions.assertEquals(HttpStatus.OK, securedController.bulk(changes).getStatusCode());
+        }
+    }
+
+    @Test
+    public void test_single_changes_sequenced_with_bulk_changes()
+    {
+        this.controller.bulk(List.of(new FlowStateChange("module", "flow", State.STOPPED, 0, 5)));
+
+        Assertions.assertFalse(this.flowStateCache.put(new FlowStateChange("module", "flow", State.RUNNING, 0, 4)));
+        Assertions.assertEquals(State.STOPPED_STATE, this.stateOf("module", "flow"));
+
+        // a state read back from the module stands, but does not let earlier numbered changes in
+        this.flowStateCache.put(new FlowState("module", "flow", State.PAUSED_STATE));
+        Assertions.assertEquals(1, this.controller.bulk(List.of(
+            new FlowStateChange("module", "flow", State.RECOVERING, 0, 3))).getBody().get(FlowStateIngestController.DROPPED));
+        Assertions.assertEquals(State.PAUSED_STATE, this.stateOf("module", "flow"));
+
+        Assertions.assertTrue(this.flowStateCache.put(new FlowStateChange("module", "flow", State.RUNNING, 0, 6)));
+        Assertions.assertEquals(1, this.controller.bulk(List.of(
+            new FlowStateChange("module", "flow", State.STOPPED, 0, 6))).getBody().get(FlowStateIngestController.DROPPED));
+        Assertions.assertEquals(State.RUNNING_STATE, this.stateOf("module", "flow"));
+    }
+
+    @Test
+    public void test_concurrent_producers_leave_latest_state() throws Exception
+    {
+        int modules = 4;
+        int flows = 5;
+        int changesPerModule = 2000;
+        int batchSize = 25;
+        int producersPerModule = 3;
+
+        // each module numbers its changes in order, the batches then arriving shuffled from several producers
+        Random random = new Random(42);
+        Map<String, String> expected = new HashMap<>();
+        List<List<FlowStateChange>> batches = new ArrayList<>();
+        for(int m = 0; m < modules; m++)
+        {
+            List<FlowStateChange> changes = new ArrayList<>();
+            for(int sequence = 1; sequence <= changesPerModule; sequence++)
+            {
+                FlowStateChange change = new FlowStateChange("module " + m, "flow " + random.nextInt(flows)
+                    , STATES[random.nextInt(STATES.length)], 0, sequence);
+                changes.add(change);
+                expected.put(change.getModuleName() + "|" + change.getFlowName(), change.getState());
+            }
+            Collections.shuffle(changes, random);
+            for(int i = 0; i < changes.size(); i += batchSize)
+            {
+                batches.add(changes.subList(i, i + batchSize));
+            }
+        }
+        Collections.shuffle(batches, random);
+
+        int producers = modules * producersPerModule;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<ResponseEntity<Map<String, Object>>>>> results = new ArrayList<>();
+        for(int p = 0; p < producers; p++)
+        {
+            int producer = p;
+            results.add(executor.submit(() ->
+            {
+                start.await();
+                List<ResponseEntity<Map<String, Object>>> responses = new ArrayList<>();
+                for(int b = producer; b < batches.size(); b += producers)
+                {
+                    responses.add(this.controller.bulk(batches.get(b)));
+                }
+                return responses;
+            }));
+        }
+        start.countDown();
+
+        int applied = 0;
+        int dropped = 0;
+        int broadcastingBatches = 0;
+        for(Future<List<ResponseEntity<Map<String, Object>>>> result: results)
+        {
+            for(ResponseEntity<Map<String, Object>> response: result.get(30, TimeUnit.SECONDS))
+            {
+                Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+                int batchApplied = (Integer) response.getBody().get(FlowStateIngestController.APPLIED);
+                applied += batchApplied;
+                dropped += (Integer) response.getBody().get(FlowStateIngestController.DROPPED);
+                broadcastingBatches += batchApplied > 0 ? 1 : 0;
+            }
+        }
+        executor.shutdown();
+
+        Assertions.assertEquals(modules * changesPerModule, applied + dropped);
+        Assertions.assertTrue(dropped > 0, "shuffled changes are dropped as out of order");
+        expected.forEach((key, state) ->
+        {
+            String[] names = key.split("\\|");
+            Assertions.assertEquals(State.getState(state), this.stateOf(names[0], names[1]), key);
+        });
+
+        // one broadcast per batch applying any change, holding each flow at most once
+        this.awaitBroadcasts(broadcastingBatches);
+        Assertions.assertEquals(broadcastingBatches, this.broadcasts.size());
+        for(List<FlowState> broadcast: this.broadcasts)
+        {
+            Set<String> keys = new HashSet<>();
+            broadcast.forEach(flowState -> Assertions.assertTrue(keys.add(flowState.getModuleName()
+                + flowState.getFlowName())));
+        }
+    }
+
+    @Configuration
+    @EnableGlobalMethodSecurity(prePostEnabled = true)
+    static class MethodSecurityConfiguration
+    {
+    }
+
+    private State stateOf(String moduleName, String flowName)
+    {
+        return this.flowStateCache.get(this.module(moduleName), flowName).getState();
+    }
+
+    private ModuleMetaData module(String moduleName)
+    {
+        ModuleMetaData moduleMetaData = Mockito.mock(ModuleMetaData.class);
+        Mockito.when(moduleMetaData.getName()).thenReturn(moduleName);
+        return moduleMetaData;
+    }
+
+    private void awaitBroadcasts(int count) throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + 5000;
+        while(this.broadcasts.size() < count && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10);
+        }
+        // leave time for any broadcast that should not have been made
+        Thread.sleep(50);
+    }
+}
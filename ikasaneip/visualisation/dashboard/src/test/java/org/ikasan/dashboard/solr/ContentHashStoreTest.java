@@ -0,0 +1,110 @@
+package org.ikasan.dashboard.solr;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.apache.solr.SolrTestCaseJ4;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.embedded.EmbeddedSolrServer;
+import org.apache.solr.client.solrj.request.CoreAdminRequest;
+import org.apache.solr.core.NodeConfig;
+import org.apache.solr.core.SolrResourceLoader;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ContentHashStoreTest extends SolrTestCaseJ4
+{
+    private NodeConfig config;
+
+    @Before
+    public void setup()
+    {
+        Logger rootLogger = (Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
+        rootLogger.setLevel(Level.WARN);
+
+        Path path = createTempDir();
+
+        SolrResourceLoader loader = new SolrResourceLoader(path);
+        config = new NodeConfig.NodeConfigBuilder("testnode", loader)
+            .setConfigSetBaseDirectory(Paths.get(TEST_HOME()).resolve("configsets").toString()).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_exception_null_solr_client()
+    {
+        new ContentHashStore(null, null, null);
+    }
+
+    @Test
+    public void test_hashes_held_in_memory_without_solr_client()
+    {
+        ContentHashStore contentHashStore = new ContentHashStore();
+        contentHashStore.put(ContentHashStore.MODULE_METADATA, Map.of("order-im", "a1"));
+
+        Assert.assertEquals("a1", contentHashStore.get(ContentHashStore.MODULE_METADATA, "order-im"));
+        Assert.assertNull(contentHashStore.get(ContentHashStore.CONFIGURATION_METADATA, "order-im"));
+    }
+
+    @Test
+    public void test_hashes_read_back_after_restart() throws Exception
+    {
+        try (EmbeddedSolrServer server = new EmbeddedSolrServer(config, "ikasan"))
+        {
+            init(server);
+
+            ContentHashStore contentHashStore = new ContentHashStore(server, null, null);
+            Map<String, String> hashes = new HashMap<>();
+            for(int i = 0; i < 1500; i++)
+            {
+                hashes.put("module" + i, "hash" + i);
+            }
+            contentHashStore.put(ContentHashStore.MODULE_METADATA, hashes);
+            contentHashStore.put(ContentHashStore.CONFIGURATION_METADATA, Map.of("module0-consumer", "c0"));
+            server.commit("ikasan");
+
+            ContentHashStore restarted = new ContentHashStore(server, null, null);
+
+            Assert.assertEquals(1501, restarted.size());
+            Assert.assertEquals("hash1499", restarted.get(ContentHashStore.MODULE_METADATA, "module1499"));
+            Assert.assertEquals("c0", restarted.get(ContentHashStore.CONFIGURATION_METADATA, "module0-consumer"));
+            Assert.assertEquals(1501, server.query("ikasan", new SolrQuery("type:" + ContentHashStore.TYPE))
+                .getResults().getNumFound());
+        }
+    }
+
+    @Test
+    public void test_removed_hash_not_read_back() throws Exception
+    {
+        try (EmbeddedSolrServer server = new EmbeddedSolrServer(config, "ikasan"))
+        {
+            init(server);
+
+            ContentHashStore contentHashStore = new ContentHashStore(server, null, null);
+            contentHashStore.put(ContentHashStore.MODULE_METADATA, Map.of("order-im", "a1", "customer-im", "b1"));
+            contentHashStore.remove(ContentHashStore.MODULE_METADATA, "order-im");
+            server.commit("ikasan");
+
+            Assert.assertNull(contentHashStore.get(ContentHashStore.MODULE_METADATA, "order-im"));
+
+            ContentHashStore restarted = new ContentHashStore(server, null, null);
+            Assert.assertNull(restarted.get(ContentHashStore.MODULE_METADATA, "order-im"));
+            Assert.assertEquals("b1", restarted.get(ContentHashStore.MODULE_METADATA, "customer-im"));
+        }
+    }
+
+    private void init(EmbeddedSolrServer server) throws IOException, SolrServerException
+    {
+        CoreAdminRequest.Create createRequest = new CoreAdminRequest.Create();
+        createRequest.setCoreName("ikasan");
+        createRequest.setConfigSet("minimal");
+        server.request(createRequest);
+    }
+}
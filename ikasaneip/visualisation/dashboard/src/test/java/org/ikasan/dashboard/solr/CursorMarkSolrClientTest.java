@@ -0,0 +1,149 @@
+package org.ikasan.dashboard.solr;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.apache.solr.SolrTestCaseJ4;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.embedded.EmbeddedSolrServer;
+import org.apache.solr.client.solrj.request.CoreAdminRequest;
+import org.apache.solr.client.solrj.request.QueryRequest;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.core.NodeConfig;
+import org.apache.solr.core.SolrResourceLoader;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CursorMarkSolrClientTest extends SolrTestCaseJ4
+{
+    private NodeConfig config;
+
+    @Before
+    public void setup()
+    {
+        Logger rootLogger = (Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
+        rootLogger.setLevel(Level.WARN);
+
+        Path path = createTempDir();
+
+        SolrResourceLoader loader = new SolrResourceLoader(path);
+        config = new NodeConfig.NodeConfigBuilder("testnode", loader)
+            .setConfigSetBaseDirectory(Paths.get(TEST_HOME()).resolve("configsets").toString()).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_exception_null_delegate()
+    {
+        new CursorMarkSolrClient(null);
+    }
+
+    @Test
+    public void test_sort_made_total_with_id()
+    {
+        Assert.assertEquals("id asc", CursorMarkSolrClient.getTotalSort(null));
+        Assert.assertEquals("timestamp desc,id asc", CursorMarkSolrClient.getTotalSort("timestamp desc"));
+        Assert.assertEquals("timestamp desc, id desc", CursorMarkSolrClient.getTotalSort("timestamp desc, id desc"));
+    }
+
+    @Test
+    public void test_pages_fetched_in_order_until_cursor_finished() throws Exception
+    {
+        try (EmbeddedSolrServer server = new EmbeddedSolrServer(config, "ikasan"))
+        {
+            init(server);
+            for(int i = 1; i <= 7; i++)
+            {
+                // two documents share each timestamp so only the id tells them apart
+                index(server, "id-" + i, 1000L * (i / 2));
+            }
+
+            CursorMarkSolrClient solrClient = new CursorMarkSolrClient(server);
+            CursorMarkSolrClient.Cursor cursor = new CursorMarkSolrClient.Cursor();
+
+            List<String> ids = new ArrayList<>();
+            int pages = 0;
+            while(!cursor.isFinished())
+            {
+                QueryResponse response = CursorMarkSolrClient.page(cursor, () -> this.search(solrClient, 5, 3));
+                response.getResults().stream().map(SolrDocument::getFirstValue)
+                    .forEach(id -> ids.add((String) id));
+                pages++;
+            }
+
+            Assert.assertEquals(List.of("id-6", "id-7", "id-4", "id-5", "id-2", "id-3", "id-1"), ids);
+            Assert.assertEquals(4, pages);
+        }
+    }
+
+    @Test
+    public void test_count_outside_cursor_passed_through() throws Exception
+    {
+        try (EmbeddedSolrServer server = new EmbeddedSolrServer(config, "ikasan"))
+        {
+            init(server);
+            index(server, "id-1", 1000L);
+
+            CursorMarkSolrClient solrClient = new CursorMarkSolrClient(server);
+            CursorMarkSolrClient.Cursor cursor = new CursorMarkSolrClient.Cursor();
+
+            Assert.assertEquals(1, this.search(solrClient, 0, 0).getResults().getNumFound());
+            Assert.assertEquals(1, CursorMarkSolrClient.page(cursor, () -> this.search(solrClient, 0, 0))
+                .getResults().getNumFound());
+            Assert.assertEquals("*", cursor.getMark());
+            Assert.assertFalse(cursor.isFinished());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_exception_nested_cursors()
+    {
+        CursorMarkSolrClient.page(new CursorMarkSolrClient.Cursor()
+            , () -> CursorMarkSolrClient.page(new CursorMarkSolrClient.Cursor(), () -> null));
+    }
+
+    private QueryResponse search(CursorMarkSolrClient solrClient, int start, int rows)
+    {
+        SolrQuery query = new SolrQuery("*:*");
+        query.setFields("id");
+        query.setStart(start);
+        query.setRows(rows);
+        query.setSort("timestamp", SolrQuery.ORDER.desc);
+
+        try
+        {
+            return new QueryRequest(query).process(solrClient, "ikasan");
+        }
+        catch (Exception e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void init(EmbeddedSolrServer server) throws IOException, SolrServerException
+    {
+        CoreAdminRequest.Create createRequest = new CoreAdminRequest.Create();
+        createRequest.setCoreName("ikasan");
+        createRequest.setConfigSet("minimal");
+        server.request(createRequest);
+    }
+
+    private void index(EmbeddedSolrServer server, String id, long timestamp) throws IOException, SolrServerException
+    {
+        SolrInputDocument doc = new SolrInputDocument();
+        doc.addField("id", id);
+        doc.addField("type", "wiretap");
+        doc.addField("timestamp", timestamp);
+        server.add("ikasan", doc);
+        server.commit("ikasan");
+    }
+}
@@ -0,0 +1,122 @@
+package org.ikasan.dashboard.solr;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.request.QueryRequest;
+import org.apache.solr.common.params.CommonParams;
+import org.apache.solr.common.util.NamedList;
+import org.ikasan.dashboard.security.UserModuleAccess;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.List;
+import java.util.Set;
+
+public class FilterQuerySolrClientTest
+{
+    private RecordingSolrClient delegate;
+    private FilterQuerySolrClient solrClient;
+
+    @Before
+    public void setup()
+    {
+        this.delegate = new RecordingSolrClient();
+        this.solrClient = new FilterQuerySolrClient(this.delegate);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_exception_null_delegate()
+    {
+        new FilterQuerySolrClient(null);
+    }
+
+    @Test
+    public void test_filter_queries_added_as_separate_parameters()
+    {
+        SolrQuery query = new SolrQuery("moduleName:test*");
+        query.addFilterQuery("type:wiretap");
+        query.setRows(0);
+        QueryRequest request = new QueryRequest(query, SolrRequest.METHOD.POST);
+        request.setBasicAuthCredentials("user", "password");
+
+        FilterQuerySolrClient.filter(List.of("{!terms f=moduleName}module1,module2", "flowName_substring:flow")
+            , () -> this.process(request));
+
+        Assertions.assertEquals("moduleName:test*", this.delegate.request.getParams().get(CommonParams.Q));
+        Assertions.assertArrayEquals(new String[]{"type:wiretap", "{!terms f=moduleName}module1,module2", "flowName_substring:flow"}
+            , this.delegate.request.getParams().getParams(CommonParams.FQ));
+        Assertions.assertEquals(SolrRequest.METHOD.POST, this.delegate.request.getMethod());
+        Assertions.assertEquals("user", this.delegate.request.getBasicAuthUser());
+
+        // the caller's query is left as it was
+        Assertions.assertArrayEquals(new String[]{"type:wiretap"}, query.getFilterQueries());
+        Assertions.assertTrue(FilterQuerySolrClient.getFilterQueries().isEmpty());
+    }
+
+    @Test
+    public void test_query_outside_filter_passed_through()
+    {
+        QueryRequest request = new QueryRequest(new SolrQuery("*:*"));
+
+        this.process(request);
+        FilterQuerySolrClient.filter(List.of(), () -> this.process(request));
+
+        Assertions.assertSame(request, this.delegate.request);
+        Assertions.assertNull(this.delegate.request.getParams().get(CommonParams.FQ));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_exception_nested_filter_queries()
+    {
+        FilterQuerySolrClient.filter(List.of("moduleName:a"), () -> FilterQuerySolrClient.filter(List.of("moduleName:b"), () -> null));
+    }
+
+    @Test
+    public void test_module_access_filter_query_independent_of_order()
+    {
+        Assertions.assertEquals("{!terms f=moduleName}a module,b module"
+            , UserModuleAccess.toFilterQuery(Set.of("b module", "a module")));
+        Assertions.assertEquals("moduleName:\\-\\-\\-\\-\\-\\-\\-\\-\\-", UserModuleAccess.toFilterQuery(Set.of()));
+    }
+
+    @Test
+    public void test_close_leaves_shared_client_open() throws Exception
+    {
+        this.solrClient.close();
+
+        Assertions.assertFalse(this.delegate.closed);
+    }
+
+    private Object process(QueryRequest request)
+    {
+        try
+        {
+            return request.process(this.solrClient, "ikasan");
+        }
+        catch (Exception e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static class RecordingSolrClient extends SolrClient
+    {
+        private SolrRequest request;
+        private boolean closed = false;
+
+        @Override
+        public NamedList<Object> request(SolrRequest request, String collection)
+        {
+            this.request = request;
+            return new NamedList<>();
+        }
+
+        @Override
+        public void close()
+        {
+            this.closed = true;
+        }
+    }
+}
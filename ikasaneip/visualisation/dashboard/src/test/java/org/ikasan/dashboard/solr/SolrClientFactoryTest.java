@@ -0,0 +1,84 @@
+package org.ikasan.dashboard.solr;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.impl.Http2SolrClient;
+import org.apache.solr.client.solrj.impl.HttpSolrClient;
+import org.ikasan.dashboard.metrics.DashboardMetrics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+public class SolrClientFactoryTest
+{
+    private static final String SOLR_URL = "http://localhost:8983/solr";
+
+    private SimpleMeterRegistry meterRegistry;
+    private SolrClientFactory solrClientFactory;
+
+    @Before
+    public void setup()
+    {
+        this.meterRegistry = new SimpleMeterRegistry();
+        Metrics.addRegistry(this.meterRegistry);
+        this.solrClientFactory = new SolrClientFactory(SOLR_URL);
+    }
+
+    @After
+    public void teardown() throws Exception
+    {
+        this.solrClientFactory.close();
+        Metrics.removeRegistry(this.meterRegistry);
+        this.meterRegistry.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_exception_null_solr_url()
+    {
+        new SolrClientFactory(null);
+    }
+
+    @Test
+    public void test_single_pooled_client_shared()
+    {
+        this.solrClientFactory.setMaxConnections(7);
+        this.solrClientFactory.setMaxConnectionsPerRoute(5);
+
+        SolrClient solrClient = this.solrClientFactory.getSolrClient();
+
+        Assertions.assertTrue(solrClient instanceof HttpSolrClient);
+        Assertions.assertEquals(SOLR_URL, ((HttpSolrClient)solrClient).getBaseURL());
+        Assertions.assertSame(solrClient, this.solrClientFactory.getSolrClient());
+
+        Gauge max = this.meterRegistry.find(DashboardMetrics.SOLR_POOL_MAX).gauge();
+        Assertions.assertNotNull(max);
+        Assertions.assertEquals(7, max.value());
+
+        Gauge leased = this.meterRegistry.find(DashboardMetrics.SOLR_POOL_LEASED).gauge();
+        Assertions.assertNotNull(leased);
+        Assertions.assertEquals(0, leased.value());
+    }
+
+    @Test
+    public void test_http2_client()
+    {
+        this.solrClientFactory.setHttp2(true);
+
+        SolrClient solrClient = this.solrClientFactory.getSolrClient();
+
+        Assertions.assertTrue(solrClient instanceof Http2SolrClient);
+        Assertions.assertSame(solrClient, this.solrClientFactory.getSolrClient());
+    }
+
+    @Test
+    public void test_new_client_created_after_close() throws Exception
+    {
+        SolrClient solrClient = this.solrClientFactory.getSolrClient();
+        this.solrClientFactory.close();
+
+        Assertions.assertNotSame(solrClient, this.solrClientFactory.getSolrClient());
+    }
+}
@@ -0,0 +1,247 @@
+package org.ikasan.dashboard.solr;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.apache.solr.SolrTestCaseJ4;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.embedded.EmbeddedSolrServer;
+import org.apache.solr.client.solrj.request.CoreAdminRequest;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.core.NodeConfig;
+import org.apache.solr.core.SolrResourceLoader;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+public class SubstringSearchMigrationTest extends SolrTestCaseJ4
+{
+    private NodeConfig config;
+
+    @Before
+    public void setup()
+    {
+        Logger rootLogger = (Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
+        rootLogger.setLevel(Level.WARN);
+
+        Path path = createTempDir();
+
+        SolrResourceLoader loader = new SolrResourceLoader(path);
+        config = new NodeConfig.NodeConfigBuilder("testnode", loader)
+            .setConfigSetBaseDirectory(Paths.get(TEST_HOME()).resolve("configsets").toString()).build();
+    }
+
+    @After
+    public void teardown()
+    {
+        SubstringSearchFields.setReindexed(false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_exception_null_solr_client()
+    {
+        new SubstringSearchMigration(null, null, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_exception_field_without_companion()
+    {
+        SubstringSearchFields.contains("payload", "test");
+    }
+
+    @Test
+    public void test_contains_queries()
+    {
+        Assert.assertEquals("moduleName_substring:abc", SubstringSearchFields.contains("moduleName", "ABC"));
+        Assert.assertEquals("flowName_substring:customer\\ f", SubstringSearchFields.contains("flowName", "Customer F"));
+        Assert.assertEquals("(event_substring:0123456789 AND event_substring:9abcdefghi AND event_substring:ijklmnopqr "
+                + "AND event_substring:rstuvwxyz0 AND event_substring:vwxyz01234)"
+            , SubstringSearchFields.contains("event", "0123456789abcdefghijklmnopqrstuvwxyz01234"));
+        Assert.assertEquals("moduleName_substring:one OR moduleName_substring:two"
+            , SubstringSearchFields.containsAny("moduleName", List.of("one", "two")));
+
+        // shorter than the smallest n-gram
+        Assert.assertEquals("moduleName:*AB*", SubstringSearchFields.contains("moduleName", "AB"));
+    }
+
+    @Test
+    public void test_core_with_companion_fields_migrated() throws Exception
+    {
+        try (EmbeddedSolrServer server = new EmbeddedSolrServer(config, "ikasan"))
+        {
+            init(server);
+
+            SubstringSearchMigration migration = new SubstringSearchMigration(server, null, null);
+
+            Assert.assertTrue(migration.migrateSchema());
+        }
+    }
+
+    @Test
+    public void test_substring_filters_match_companion_fields() throws Exception
+    {
+        try (EmbeddedSolrServer server = new EmbeddedSolrServer(config, "ikasan"))
+        {
+            init(server);
+            index(server, "1", "customer-im", "Customer HTTP Request Flow", "a3f1c2d4-5b6e-4f70-8a9b-0c1d2e3f4a5b");
+            index(server, "2", "order-im", "Order Request Flow", "ffffffff-0000-1111-2222-333333333333");
+
+            Assert.assertEquals(Set.of("1"), search(server, SubstringSearchFields.contains("moduleName", "TOMER")));
+            Assert.assertEquals(Set.of("1", "2"), search(server, SubstringSearchFields.contains("moduleName", "im")));
+            Assert.assertEquals(Set.of("2"), search(server, SubstringSearchFields.contains("flowName", "der req")));
+            Assert.assertEquals(Set.of("1"), search(server, SubstringSearchFields.contains("flowName"
+                , "customer http request")));
+            Assert.assertEquals(Set.of("1"), search(server, SubstringSearchFields.contains("event"
+                , "4f70-8a9b-0c1d2e3f4a5b")));
+            Assert.assertEquals(Set.of(), search(server, SubstringSearchFields.contains("event"
+                , "4f70-8a9b-0c1d2e3f4a5c")));
+            Assert.assertEquals(Set.of("1", "2"), search(server, SubstringSearchFields.containsAny("moduleName"
+                , List.of("customer", "order"))));
+        }
+    }
+
+    @Test
+    public void test_reindex_skips_documents_with_companion_fields() throws Exception
+    {
+        try (EmbeddedSolrServer server = new EmbeddedSolrServer(config, "ikasan"))
+        {
+            init(server);
+            index(server, "1", "customer-im", "Customer HTTP Request Flow", "event-1");
+
+            SubstringSearchMigration migration = new SubstringSearchMigration(server, null, null);
+            migration.setBatchSize(1);
+
+            Assert.assertEquals(0, migration.reindex());
+            Assert.assertEquals(Set.of("1"), search(server, SubstringSearchFields.contains("moduleName", "customer")));
+        }
+    }
+
+    @Test
+    public void test_filters_fall_back_to_wildcards_until_reindexed() throws Exception
+    {
+        Assert.assertEquals("(moduleName_substring:tomer) OR (+(moduleName:*TOMER*) -moduleName_substring:[* TO *])"
+            , SubstringSearchFields.filter("moduleName", "TOMER"));
+
+        try (EmbeddedSolrServer server = new EmbeddedSolrServer(config, "ikasan"))
+        {
+            init(server);
+            index(server, "1", "customer-im", "Customer HTTP Request Flow", "event-1");
+            index(server, "2", "order-im", "Order Request Flow", "event-2");
+
+            SubstringSearchMigration migration = new SubstringSearchMigration(server, null, null);
+            Assert.assertTrue(migration.isReindexed());
+            Assert.assertEquals(Set.of("1"), search(server, SubstringSearchFields.filter("moduleName", "tomer")));
+            Assert.assertEquals(Set.of("1", "2"), search(server, SubstringSearchFields.filter("flowName"
+                , List.of("http", "order"))));
+        }
+
+        SubstringSearchFields.setReindexed(true);
+        Assert.assertEquals(SubstringSearchFields.containsAny("moduleName", List.of("TOMER"))
+            , SubstringSearchFields.filter("moduleName", "TOMER"));
+    }
+
+    @Test
+    public void test_reindex_skips_documents_changed_since_read() throws Exception
+    {
+        try (EmbeddedSolrServer server = new EmbeddedSolrServer(config, "ikasan"))
+        {
+            init(server);
+            index(server, "1", "customer-im", "Customer HTTP Request Flow", "event-1");
+            index(server, "2", "order-im", "Order Request Flow", "event-2");
+
+            SolrQuery query = new SolrQuery("*:*");
+            query.setFields("*", "_version_");
+            query.setSort("id", SolrQuery.ORDER.asc);
+            List<SolrInputDocument> read = server.query("ikasan", query).getResults().stream()
+                .map(document -> SubstringSearchMigration.toInputDocument(document
+                    , new HashSet<>(SubstringSearchFields.FIELDS.values())))
+                .collect(Collectors.toList());
+            Assert.assertNotNull(read.get(0).getFieldValue("_version_"));
+
+            // written while the reindex was running
+            index(server, "1", "customer-im", "Customer Changed Flow", "event-1");
+
+            Assert.assertEquals(1, new SubstringSearchMigration(server, null, null).add(read));
+            server.commit("ikasan");
+
+            Assert.assertEquals("Customer Changed Flow", server.getById("ikasan", "1").getFieldValue("flowName"));
+        }
+    }
+
+    @Test
+    public void test_copy_field_destinations_left_out_of_reindexed_document()
+    {
+        SolrDocument document = new SolrDocument();
+        document.setField("id", "1");
+        document.setField("moduleName", "customer-im");
+        document.setField("moduleName_substring", "customer-im");
+        document.setField("_version_", 42L);
+
+        SolrInputDocument inputDocument = SubstringSearchMigration.toInputDocument(document
+            , new HashSet<>(SubstringSearchFields.FIELDS.values()));
+
+        Assert.assertEquals(Set.of("id", "moduleName", "_version_"), inputDocument.getFieldNames());
+        Assert.assertEquals(42L, inputDocument.getFieldValue("_version_"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_reindex_refused_when_fields_would_be_lost() throws Exception
+    {
+        try (EmbeddedSolrServer server = new EmbeddedSolrServer(config, "ikasan"))
+        {
+            init(server);
+
+            SolrInputDocument doc = new SolrInputDocument();
+            doc.addField("id", "1");
+            doc.addField("moduleName", "customer-im");
+            doc.addField("notes_unstored", "indexed only");
+            server.add("ikasan", doc);
+            server.commit("ikasan");
+
+            new SubstringSearchMigration(server, null, null).reindex();
+        }
+    }
+
+    private void init(EmbeddedSolrServer server) throws IOException, SolrServerException
+    {
+        CoreAdminRequest.Create createRequest = new CoreAdminRequest.Create();
+        createRequest.setCoreName("ikasan");
+        createRequest.setConfigSet("minimal");
+        server.request(createRequest);
+    }
+
+    private void index(EmbeddedSolrServer server, String id, String moduleName, String flowName, String event)
+        throws IOException, SolrServerException
+    {
+        SolrInputDocument doc = new SolrInputDocument();
+        doc.addField("id", id);
+        doc.addField("type", "wiretap");
+        doc.addField("moduleName", moduleName);
+        doc.addField("flowName", flowName);
+        doc.addField("event", event);
+        server.add("ikasan", doc);
+        server.commit("ikasan");
+    }
+
+    private Set<String> search(EmbeddedSolrServer server, String filterQuery) throws IOException, SolrServerException
+    {
+        SolrQuery query = new SolrQuery("*:*");
+        query.addFilterQuery(filterQuery);
+
+        return server.query("ikasan", query).getResults().stream()
+            .map(document -> (String) document.getFieldValue("id"))
+            .collect(Collectors.toCollection(TreeSet::new));
+    }
+}
@@ -0,0 +1,178 @@
+package org.ikasan.dashboard.solr;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.request.QueryRequest;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
+import org.apache.solr.common.params.CommonParams;
+import org.apache.solr.common.params.HighlightParams;
+import org.apache.solr.common.params.SolrParams;
+import org.apache.solr.common.util.NamedList;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.List;
+
+public class SummaryProjectionSolrClientTest
+{
+    private RecordingSolrClient delegate;
+    private SummaryProjectionSolrClient solrClient;
+
+    @Before
+    public void setup()
+    {
+        this.delegate = new RecordingSolrClient();
+        this.solrClient = new SummaryProjectionSolrClient(this.delegate);
+        this.solrClient.setSnippetLength(50);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_exception_null_delegate()
+    {
+        new SummaryProjectionSolrClient(null);
+    }
+
+    @Test
+    public void test_query_restricted_to_summary_fields()
+    {
+        SolrQuery query = new SolrQuery("payload:test");
+        query.setFields("*");
+        query.setRows(50);
+        QueryRequest request = new QueryRequest(query, SolrRequest.METHOD.POST);
+        request.setBasicAuthCredentials("user", "password");
+
+        SummaryProjectionSolrClient.summary(() -> this.process(request));
+
+        SolrParams params = this.delegate.request.getParams();
+        Assertions.assertEquals(String.join(",", SummaryProjectionSolrClient.SUMMARY_FIELDS), params.get(CommonParams.FL));
+        Assertions.assertFalse(params.get(CommonParams.FL).contains("payload"));
+        Assertions.assertEquals("payload:test", params.get(CommonParams.Q));
+        Assertions.assertTrue(params.getBool(HighlightParams.HIGHLIGHT));
+        Assertions.assertEquals("50", params.get(HighlightParams.FRAGSIZE));
+        Assertions.assertEquals("payload", params.get("f.payload." + HighlightParams.ALTERNATE_FIELD));
+        Assertions.assertEquals(SolrRequest.METHOD.POST, this.delegate.request.getMethod());
+        Assertions.assertEquals("user", this.delegate.request.getBasicAuthUser());
+        Assertions.assertEquals("ikasan", this.delegate.collection);
+
+        // the caller's query is left as it was
+        Assertions.assertEquals("*", query.getFields());
+    }
+
+    @Test
+    public void test_snippets_set_on_documents()
+    {
+        this.delegate.response = response(document("1", "error message"), document("2", null));
+        this.delegate.response.add("highlighting", highlighting("1", "payload snippet", "message snippet"));
+
+        QueryResponse response = SummaryProjectionSolrClient.summary(() -> this.process(new QueryRequest(new SolrQuery("*:*"))));
+
+        SolrDocumentList documents = response.getResults();
+        Assertions.assertEquals("payload snippet", documents.get(0).getFieldValue("payload"));
+        Assertions.assertEquals("message snippet", documents.get(0).getFieldValue("errorMessage"));
+        Assertions.assertNull(documents.get(1).getFieldValue("payload"));
+        Assertions.assertNull(response.getHighlighting());
+    }
+
+    @Test
+    public void test_count_query_passed_through()
+    {
+        SolrQuery query = new SolrQuery("*:*");
+        query.setRows(0);
+        QueryRequest request = new QueryRequest(query);
+
+        SummaryProjectionSolrClient.summary(() -> this.process(request));
+
+        Assertions.assertSame(request, this.delegate.request);
+        Assertions.assertNull(this.delegate.request.getParams().get(CommonParams.FL));
+    }
+
+    @Test
+    public void test_query_outside_summary_passed_through()
+    {
+        this.delegate.response.add("highlighting", highlighting("1", "payload snippet", "message snippet"));
+        QueryRequest request = new QueryRequest(new SolrQuery("*:*"));
+
+        this.process(request);
+
+        Assertions.assertSame(request, this.delegate.request);
+        Assertions.assertNull(this.delegate.request.getParams().get(CommonParams.FL));
+        Assertions.assertNotNull(this.delegate.response.get("highlighting"));
+    }
+
+    @Test
+    public void test_close_leaves_shared_client_open() throws Exception
+    {
+        this.solrClient.close();
+
+        Assertions.assertFalse(this.delegate.closed);
+    }
+
+    private QueryResponse process(QueryRequest request)
+    {
+        try
+        {
+            return request.process(this.solrClient, "ikasan");
+        }
+        catch (Exception e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static NamedList<Object> response(SolrDocument... documents)
+    {
+        SolrDocumentList documentList = new SolrDocumentList();
+        documentList.addAll(List.of(documents));
+        documentList.setNumFound(documents.length);
+
+        NamedList<Object> response = new NamedList<>();
+        response.add("response", documentList);
+        return response;
+    }
+
+    private static SolrDocument document(String id, String errorMessage)
+    {
+        SolrDocument document = new SolrDocument();
+        document.setField("id", id);
+        document.setField("type", "wiretap");
+        document.setField("errorMessage", errorMessage);
+        return document;
+    }
+
+    private static NamedList<Object> highlighting(String id, String payload, String errorMessage)
+    {
+        NamedList<Object> fields = new NamedList<>();
+        fields.add("payload", List.of(payload));
+        fields.add("errorMessage", List.of(errorMessage));
+
+        NamedList<Object> highlighting = new NamedList<>();
+        highlighting.add(id, fields);
+        return highlighting;
+    }
+
+    private static class RecordingSolrClient extends SolrClient
+    {
+        private SolrRequest request;
+        private String collection;
+        private NamedList<Object> response = response();
+        private boolean closed = false;
+
+        @Override
+        public NamedList<Object> request(SolrRequest request, String collection)
+        {
+            this.request = request;
+            this.collection = collection;
+            return this.response;
+        }
+
+        @Override
+        public void close()
+        {
+            this.closed = true;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.ikasan.dashboard.solr;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.request.CollectionAdminRequest;
+import org.apache.solr.client.solrj.request.QueryRequest;
+import org.apache.solr.common.params.CommonParams;
+import org.apache.solr.common.util.NamedList;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+public class TimePartitionSolrClientTest
+{
+    private RecordingSolrClient delegate;
+    private TimePartitionSolrClient solrClient;
+
+    @Before
+    public void setup()
+    {
+        this.delegate = new RecordingSolrClient("ikasan__TRA__2026-10-15,ikasan__TRA__2026-10-16"
+            + ",ikasan__TRA__2026-10-17,ikasan__TRA__2026-10-18,ikasan__TRA__2026-10-19");
+        this.solrClient = new TimePartitionSolrClient(this.delegate, "ikasan", "user", "password");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_exception_null_delegate()
+    {
+        new TimePartitionSolrClient(null, "ikasan", null, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_exception_null_alias()
+    {
+        new TimePartitionSolrClient(this.delegate, null, null, null);
+    }
+
+    @Test
+    public void test_query_routed_to_overlapping_partitions()
+    {
+        QueryRequest request = new QueryRequest(new SolrQuery("*:*"), SolrRequest.METHOD.POST);
+        request.setBasicAuthCredentials("user", "password");
+
+        TimePartitionSolrClient.window(time("2026-10-16T12:00:00Z"), time("2026-10-18T00:00:00Z")
+            , () -> this.process(request));
+
+        Assertions.assertEquals("ikasan__TRA__2026-10-16,ikasan__TRA__2026-10-17,ikasan__TRA__2026-10-18"
+            , this.delegate.request.getParams().get("collection"));
+        Assertions.assertEquals("*:*", this.delegate.request.getParams().get(CommonParams.Q));
+        Assertions.assertEquals(SolrRequest.METHOD.POST, this.delegate.request.getMethod());
+        Assertions.assertEquals("user", this.delegate.request.getBasicAuthUser());
+        Assertions.assertEquals("ikasan", this.delegate.collection);
+
+        // the caller's query is left as it was
+        Assertions.assertNull(request.getParams().get("collection"));
+    }
+
+    @Test
+    public void test_partitions_at_edges_of_alias()
+    {
+        Assertions.assertEquals(List.of("ikasan__TRA__2026-10-15")
+            , this.solrClient.getPartitions(time("2026-01-01T00:00:00Z"), time("2026-02-01T00:00:00Z")));
+        Assertions.assertEquals(List.of("ikasan__TRA__2026-10-15", "ikasan__TRA__2026-10-16")
+            , this.solrClient.getPartitions(0, time("2026-10-16T00:00:00Z")));
+        Assertions.assertEquals(List.of("ikasan__TRA__2026-10-19")
+            , this.solrClient.getPartitions(time("2026-10-19T08:00:00Z"), time("2026-10-21T00:00:00Z")));
+    }
+
+    @Test
+    public void test_query_outside_window_passed_through()
+    {
+        QueryRequest request = new QueryRequest(new SolrQuery("*:*"));
+
+        this.process(request);
+
+        Assertions.assertSame(request, this.delegate.request);
+    }
+
+    @Test
+    public void test_query_of_collection_not_time_routed_passed_through()
+    {
+        this.delegate = new RecordingSolrClient("ikasan_v2");
+        this.solrClient = new TimePartitionSolrClient(this.delegate, "ikasan", null, null);
+        QueryRequest request = new QueryRequest(new SolrQuery("*:*"));
+
+        TimePartitionSolrClient.window(0, System.currentTimeMillis(), () -> this.process(request));
+
+        Assertions.assertSame(request, this.delegate.request);
+    }
+
+    @Test
+    public void test_close_leaves_shared_client_open() throws Exception
+    {
+        this.solrClient.close();
+
+        Assertions.assertFalse(this.delegate.closed);
+    }
+
+    private long time(String instant)
+    {
+        return Instant.parse(instant).toEpochMilli();
+    }
+
+    private Object process(QueryRequest request)
+    {
+        try
+        {
+            return request.process(this.solrClient, "ikasan");
+        }
+        catch (Exception e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static class RecordingSolrClient extends SolrClient
+    {
+        private String collections;
+        private SolrRequest request;
+        private String collection;
+        private boolean closed = false;
+
+        private RecordingSolrClient(String collections)
+        {
+            this.collections = collections;
+        }
+
+        @Override
+        public NamedList<Object> request(SolrRequest request, String collection)
+        {
+            NamedList<Object> response = new NamedList<>();
+            if(request instanceof CollectionAdminRequest.ListAliases)
+            {
+                response.add("aliases", Map.of("ikasan", this.collections));
+                return response;
+            }
+
+            this.request = request;
+            this.collection = collection;
+            return response;
+        }
+
+        @Override
+        public void close()
+        {
+            this.closed = true;
+        }
+    }
+}
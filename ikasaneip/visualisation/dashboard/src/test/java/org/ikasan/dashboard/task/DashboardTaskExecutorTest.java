@@ -0,0 +1,352 @@
+package org.ikasan.dashboard.task;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.mockito.Mockito;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class DashboardTaskExecutorTest
+{
+    private DashboardTaskExecutor dashboardTaskExecutor;
+    private CountDownLatch release;
+
+    @Before
+    public void setup()
+    {
+        this.dashboardTaskExecutor = new DashboardTaskExecutor();
+        this.dashboardTaskExecutor.setGlobalLimit(2);
+        this.dashboardTaskExecutor.setUserLimit(1);
+        this.dashboardTaskExecutor.setShutdownTimeoutMillis(1000);
+        this.release = new CountDownLatch(1);
+    }
+
+    @After
+    public void teardown()
+    {
+        this.release.countDown();
+        this.dashboardTaskExecutor.close();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void test_user_limit_queues_further_tasks_of_the_user() throws Exception
+    {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch secondRan = new CountDownLatch(1);
+
+        ManagedTask first = this.dashboardTaskExecutor.submit("admin", "first", () -> this.block(started));
+        ManagedTask second = this.dashboardTaskExecutor.submit("admin", "second", secondRan::countDown);
+
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(ManagedTask.State.RUNNING, first.getState());
+        Assertions.assertEquals(ManagedTask.State.QUEUED, second.getState());
+        Assertions.assertEquals(List.of(first, second), this.dashboardTaskExecutor.getTasks());
+
+        this.release.countDown();
+
+        Assertions.assertTrue(secondRan.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void test_other_users_not_held_up_by_user_limit() throws Exception
+    {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch otherRan = new CountDownLatch(1);
+
+        this.dashboardTaskExecutor.submit("admin", "first", () -> this.block(started));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        this.dashboardTaskExecutor.submit("other", "other", otherRan::countDown);
+
+        Assertions.assertTrue(otherRan.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void test_global_limit_bounds_running_tasks() throws Exception
+    {
+        CountDownLatch started = new CountDownLatch(2);
+
+        this.dashboardTaskExecutor.submit("user1", "first", () -> this.block(started));
+        this.dashboardTaskExecutor.submit("user2", "second", () -> this.block(started));
+        ManagedTask third = this.dashboardTaskExecutor.submit("user3", "third", () -> {});
+
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        Assertions.assertEquals(ManagedTask.State.QUEUED, third.getState());
+        Assertions.assertFalse(third.isDone());
+
+        this.release.countDown();
+
+        waitFor(third);
+        Assertions.assertTrue(this.dashboardTaskExecutor.getTasks().isEmpty());
+    }
+
+    @Test
+    public void test_cancel_queued_task() throws Exception
+    {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch thirdRan = new CountDownLatch(1);
+        AtomicBoolean secondRan = new AtomicBoolean(false);
+
+        this.dashboardTaskExecutor.submit("admin", "first", () -> this.block(started));
+        ManagedTask second = this.dashboardTaskExecutor.submit("admin", "second", () -> secondRan.set(true));
+        this.dashboardTaskExecutor.submit("admin", "third", thirdRan::countDown);
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Assertions.assertTrue(second.cancel());
+        Assertions.assertEquals(2, this.dashboardTaskExecutor.getTasks().size());
+
+        this.release.countDown();
+
+        Assertions.assertTrue(thirdRan.await(5, TimeUnit.SECONDS));
+        Assertions.assertFalse(secondRan.get());
+    }
+
+    @Test
+    public void test_cancel_running_task_interrupts_it() throws Exception
+    {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        ManagedTask task = this.dashboardTaskExecutor.submit("admin", "first", () ->
+        {
+            started.countDown();
+            try
+            {
+                this.release.await();
+            }
+            catch (InterruptedException e)
+            {
+                interrupted.countDown();
+            }
+        });
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Assertions.assertTrue(task.cancel());
+
+        Assertions.assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        this.waitForNoTasks();
+        Assertions.assertFalse(task.cancel());
+    }
+
+    @Test
+    public void test_cancelled_task_keeps_its_place_until_it_returns() throws Exception
+    {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch returning = new CountDownLatch(1);
+        CountDownLatch secondRan = new CountDownLatch(1);
+
+        // the first task carries on after being interrupted
+        ManagedTask first = this.dashboardTaskExecutor.submit("admin", "first", () ->
+        {
+            started.countDown();
+            try
+            {
+                this.release.await();
+            }
+            catch (InterruptedException e)
+            {
+                try
+                {
+                    returning.await();
+                }
+                catch (InterruptedException ignored)
+                {
+                }
+            }
+        });
+        this.dashboardTaskExecutor.submit("admin", "second", secondRan::countDown);
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Assertions.assertTrue(first.cancel());
+
+        Assertions.assertFalse(secondRan.await(200, TimeUnit.MILLISECONDS));
+        Assertions.assertEquals(Map.of("admin", 1), ReflectionTestUtils.getField(this.dashboardTaskExecutor
+            , "dispatched"));
+        Assertions.assertTrue(this.dashboardTaskExecutor.getTasks().contains(first));
+
+        returning.countDown();
+
+        Assertions.assertTrue(secondRan.await(5, TimeUnit.SECONDS));
+        this.waitForNoTasks();
+    }
+
+    @Test
+    public void test_task_run_with_security_context_of_submitting_user() throws Exception
+    {
+        Authentication authentication = Mockito.mock(Authentication.class);
+        Mockito.when(authentication.getName()).thenReturn("admin");
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        AtomicReference<Authentication> runAs = new AtomicReference<>();
+        ManagedTask task = this.dashboardTaskExecutor.submit("task", () ->
+            runAs.set(SecurityContextHolder.getContext().getAuthentication()));
+
+        Assertions.assertEquals("admin", task.getOwner());
+        waitFor(task);
+        Assertions.assertSame(authentication, runAs.get());
+    }
+
+    @Test
+    public void test_failed_task_does_not_hold_up_later_tasks() throws Exception
+    {
+        CountDownLatch secondRan = new CountDownLatch(1);
+
+        this.dashboardTaskExecutor.submit("admin", "first", () -> { throw new RuntimeException("failed"); });
+        this.dashboardTaskExecutor.submit("admin", "second", secondRan::countDown);
+
+        Assertions.assertTrue(secondRan.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void test_close_waits_for_running_tasks_and_rejects_new_ones() throws Exception
+    {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+
+        this.dashboardTaskExecutor.submit("admin", "first", () ->
+        {
+            started.countDown();
+            try
+            {
+                Thread.sleep(200);
+                finished.countDown();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        this.dashboardTaskExecutor.close();
+
+        Assertions.assertEquals(0, finished.getCount());
+        Assertions.assertThrows(RejectedExecutionException.class
+            , () -> this.dashboardTaskExecutor.submit("admin", "second", () -> {}));
+    }
+
+    @Test
+    public void test_close_interrupts_tasks_still_running_after_timeout() throws Exception
+    {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        this.dashboardTaskExecutor.setShutdownTimeoutMillis(100);
+
+        this.dashboardTaskExecutor.submit("admin", "first", () ->
+        {
+            started.countDown();
+            try
+            {
+                this.release.await();
+            }
+            catch (InterruptedException e)
+            {
+                interrupted.countDown();
+            }
+        });
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        this.dashboardTaskExecutor.close();
+
+        Assertions.assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void test_queued_task_cancelled_on_shutdown_does_not_free_a_running_slot() throws Exception
+    {
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicBoolean thirdRan = new AtomicBoolean(false);
+        this.dashboardTaskExecutor.setUserLimit(2);
+
+        ManagedTask first = this.dashboardTaskExecutor.submit("admin", "first", () ->
+        {
+            started.countDown();
+            try
+            {
+                releaseFirst.await();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        });
+        ManagedTask second = this.dashboardTaskExecutor.submit("admin", "second", () -> this.block(started));
+        ManagedTask third = this.dashboardTaskExecutor.submit("admin", "third", () -> thirdRan.set(true));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(ManagedTask.State.QUEUED, third.getState());
+
+        // shut down with the third task still queued, so the first finishing takes it off the queue and cancels it
+        ((ThreadPoolExecutor) ReflectionTestUtils.getField(this.dashboardTaskExecutor, "executor")).shutdown();
+        releaseFirst.countDown();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while(this.dashboardTaskExecutor.getTasks().size() > 1 && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(List.of(second), this.dashboardTaskExecutor.getTasks());
+        Assertions.assertTrue(first.isDone());
+        Assertions.assertTrue(third.getFuture().isCancelled());
+        Assertions.assertFalse(thirdRan.get());
+        Assertions.assertEquals(Map.of("admin", 1), ReflectionTestUtils.getField(this.dashboardTaskExecutor
+            , "dispatched"));
+
+        this.release.countDown();
+
+        deadline = System.currentTimeMillis() + 5000;
+        while(!this.dashboardTaskExecutor.getTasks().isEmpty() && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(this.dashboardTaskExecutor.getTasks().isEmpty());
+        Assertions.assertEquals(Map.of(), ReflectionTestUtils.getField(this.dashboardTaskExecutor, "dispatched"));
+    }
+
+    private void block(CountDownLatch started)
+    {
+        started.countDown();
+        try
+        {
+            this.release.await();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void waitForNoTasks() throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + 5000;
+        while(!this.dashboardTaskExecutor.getTasks().isEmpty() && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(this.dashboardTaskExecutor.getTasks().isEmpty());
+    }
+
+    private static void waitFor(ManagedTask task) throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + 5000;
+        while(!task.isDone() && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(task.isDone());
+    }
+}
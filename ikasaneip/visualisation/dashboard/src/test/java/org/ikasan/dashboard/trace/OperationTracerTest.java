@@ -0,0 +1,111 @@
+package org.ikasan.dashboard.trace;
+
+import org.ikasan.dashboard.metrics.DashboardMetrics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.List;
+
+public class OperationTracerTest
+{
+    private SlowTraceBuffer slowTraceBuffer = SlowTraceBuffer.instance();
+
+    @Before
+    public void setup()
+    {
+        this.slowTraceBuffer.clear();
+        this.slowTraceBuffer.setSlowThresholdMillis(0);
+    }
+
+    @After
+    public void teardown()
+    {
+        OperationTracer.end();
+        this.slowTraceBuffer.clear();
+        this.slowTraceBuffer.setCapacity(SlowTraceBuffer.DEFAULT_CAPACITY);
+        this.slowTraceBuffer.setSlowThresholdMillis(SlowTraceBuffer.DEFAULT_SLOW_THRESHOLD_MILLIS);
+    }
+
+    @Test
+    public void test_solr_and_rest_calls_recorded_as_spans_of_active_trace() throws Exception
+    {
+        Assertions.assertTrue(OperationTracer.begin(OperationTrace.REQUEST, "SearchView"));
+        Assertions.assertFalse(OperationTracer.begin(OperationTrace.ACCESS, "GraphView"));
+
+        DashboardMetrics.timeSolr("SolrSearchFilteringGrid", DashboardMetrics.ALL_MODULES, "search", () -> "result");
+        DashboardMetrics.timeModuleRest("ModuleControlRestServiceImpl", "http://localhost:8080/module", "getFlowStates", () -> "result");
+
+        OperationTrace trace = OperationTracer.end();
+
+        Assertions.assertFalse(OperationTracer.isActive());
+        Assertions.assertEquals(OperationTrace.REQUEST, trace.getKind());
+        Assertions.assertEquals("SearchView", trace.getRoute());
+        Assertions.assertEquals(2, trace.getSpans().size());
+        Assertions.assertEquals("solr", trace.getSpans().get(0).getType());
+        Assertions.assertEquals("SolrSearchFilteringGrid.search", trace.getSpans().get(0).getName());
+        Assertions.assertEquals("rest", trace.getSpans().get(1).getType());
+        Assertions.assertEquals("ModuleControlRestServiceImpl.getFlowStates http://localhost:8080/module"
+            , trace.getSpans().get(1).getName());
+        Assertions.assertEquals(1, this.slowTraceBuffer.getTraces().size());
+    }
+
+    @Test
+    public void test_first_trigger_and_route_kept()
+    {
+        OperationTracer.begin(OperationTrace.ACCESS, null);
+        OperationTracer.trigger("StatusPanel");
+        OperationTracer.trigger("ControlPanel");
+        OperationTracer.route("GraphView");
+        OperationTracer.route("SearchView");
+
+        OperationTrace trace = OperationTracer.end();
+
+        Assertions.assertEquals("StatusPanel", trace.getTrigger());
+        Assertions.assertEquals("GraphView", trace.getRoute());
+    }
+
+    @Test
+    public void test_spans_ignored_without_active_trace()
+    {
+        DashboardMetrics.timeSolr("SolrSearchFilteringGrid", DashboardMetrics.ALL_MODULES, "search", () -> "result");
+
+        Assertions.assertNull(OperationTracer.end());
+        Assertions.assertEquals(0, this.slowTraceBuffer.getTraces().size());
+    }
+
+    @Test
+    public void test_traces_below_threshold_not_kept()
+    {
+        this.slowTraceBuffer.setSlowThresholdMillis(60000);
+
+        OperationTracer.begin(OperationTrace.REQUEST, "SearchView");
+        OperationTracer.end();
+
+        Assertions.assertEquals(0, this.slowTraceBuffer.getTraces().size());
+    }
+
+    @Test
+    public void test_buffer_drops_oldest_trace_when_full()
+    {
+        this.slowTraceBuffer.setCapacity(2);
+
+        for(String route: new String[]{"first", "second", "third"})
+        {
+            OperationTracer.begin(OperationTrace.REQUEST, route);
+            OperationTracer.end();
+        }
+
+        List<OperationTrace> traces = this.slowTraceBuffer.getTraces();
+        Assertions.assertEquals(2, traces.size());
+        Assertions.assertEquals("third", traces.get(0).getRoute());
+        Assertions.assertEquals("second", traces.get(1).getRoute());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_exception_zero_capacity()
+    {
+        this.slowTraceBuffer.setCapacity(0);
+    }
+}
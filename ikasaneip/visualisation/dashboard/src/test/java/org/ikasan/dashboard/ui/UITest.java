@@ -9,6 +9,8 @@ import com.vaadin.flow.component.UI;
 import com.vaadin.flow.spring.SpringServlet;
 import kotlin.jvm.functions.Function0;
 import org.ikasan.dashboard.Application;
+import org.ikasan.dashboard.security.UserModuleAccess;
+import org.ikasan.dashboard.solr.FilterQuerySolrClient;
 import org.ikasan.dashboard.ui.util.SecurityConstants;
 import org.ikasan.security.model.User;
 import org.ikasan.security.service.UserService;
@@ -17,6 +19,7 @@ import org.ikasan.solr.model.IkasanSolrDocument;
 import org.ikasan.solr.model.IkasanSolrDocumentSearchResults;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
@@ -30,6 +33,8 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 import java.util.stream.IntStream;
 
 @RunWith(SpringRunner.class)
@@ -122,4 +127,11 @@ public abstract class UITest
             , ikasanSolrDocuments.size(), 1);
     }
 
+    protected IkasanSolrDocumentSearchResults getSolrResults(Set<String> accessibleModuleNames, int size) {
+        // the search must be restricted to the modules the user can access by its filter query
+        Assertions.assertEquals(List.of(UserModuleAccess.toFilterQuery(accessibleModuleNames))
+            , FilterQuerySolrClient.getFilterQueries());
+
+        return this.getSolrResults(size);
+    }
 }
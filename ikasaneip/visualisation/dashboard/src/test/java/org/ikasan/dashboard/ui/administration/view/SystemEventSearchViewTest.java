@@ -8,7 +8,6 @@ import liquibase.pro.packaged.S;
 import org.ikasan.dashboard.ui.UITest;
 import org.ikasan.dashboard.ui.administration.component.SystemEventDialog;
 import org.ikasan.dashboard.ui.search.component.SolrSearchFilteringGrid;
-import org.ikasan.dashboard.ui.util.SearchConstants;
 import org.ikasan.dashboard.ui.util.SecurityConstants;
 import org.ikasan.security.model.IkasanPrincipal;
 import org.ikasan.security.model.Role;
@@ -113,11 +112,11 @@ public class SystemEventSearchViewTest extends UITest {
         Mockito.doCallRealMethod().when(this.roleModules).forEach((any(Consumer.class)));
         Mockito.when(this.roleModules.iterator()).thenReturn(Set.of(roleModule).iterator(), Set.of(roleModule).iterator());
         Mockito.when(this.roleModule.getModuleName()).thenReturn("testModuleName");
-        Mockito.when(this.solrSearchService.search(argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("testModuleName")),
+        Mockito.when(this.solrSearchService.search(Mockito.isNull(),
             Mockito.isNull(), Mockito.isNull(), Mockito.isNull(), Mockito.anyString(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt(),
             Mockito.anyInt(), argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("systemEvent")),
             Mockito.anyBoolean(), Mockito.isNull(), Mockito.isNull()))
-            .thenReturn(this.getSolrResults(10));
+            .thenAnswer(invocation -> this.getSolrResults(Set.of("testModuleName"), 10));
 
         UI.getCurrent().navigate("adminSearchView");
 
@@ -150,11 +149,11 @@ public class SystemEventSearchViewTest extends UITest {
         Mockito.when(role.getRoleModules()).thenReturn(this.roleModules);
         Mockito.doCallRealMethod().when(this.roleModules).forEach((any(Consumer.class)));
         Mockito.when(this.roleModules.iterator()).thenReturn(new HashSet<RoleModule>().iterator(), new HashSet<RoleModule>().iterator());
-        Mockito.when(this.solrSearchService.search(argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals(SearchConstants.NONSENSE_STRING)),
+        Mockito.when(this.solrSearchService.search(Mockito.isNull(),
             Mockito.isNull(), Mockito.isNull(), Mockito.isNull(), Mockito.anyString(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt(),
             Mockito.anyInt(), argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("systemEvent")),
             Mockito.anyBoolean(), Mockito.isNull(), Mockito.isNull()))
-            .thenReturn(this.getSolrResults(0));
+            .thenAnswer(invocation -> this.getSolrResults(Set.of(), 0));
 
         UI.getCurrent().navigate("adminSearchView");
 
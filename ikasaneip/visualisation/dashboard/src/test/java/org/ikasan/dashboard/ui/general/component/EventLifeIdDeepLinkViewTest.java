@@ -1,6 +1,9 @@
 package org.ikasan.dashboard.ui.general.component;
 
+import com.github.mvysny.kaributesting.v10.MockVaadin;
 import com.vaadin.flow.component.UI;
+import org.ikasan.dashboard.cache.EventLifeIdCache;
+import org.ikasan.dashboard.solr.FilterQuerySolrClient;
 import org.ikasan.dashboard.ui.UITest;
 import org.ikasan.dashboard.ui.search.component.SolrSearchFilteringGrid;
 import org.ikasan.dashboard.ui.util.SecurityConstants;
@@ -27,7 +30,7 @@ public class EventLifeIdDeepLinkViewTest extends UITest {
 
     @Override
     public void setup_expectations() {
-
+        EventLifeIdCache.instance().invalidate();
     }
 
     @Test
@@ -54,9 +57,12 @@ public class EventLifeIdDeepLinkViewTest extends UITest {
             .thenReturn(true);
 
         Mockito.when(this.solrSearchService.search(Mockito.isNull(), Mockito.isNull(), Mockito.isNull(), Mockito.isNull(),
-            Mockito.anyString(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(), Mockito.anyList(),
-            Mockito.anyBoolean(), Mockito.isNull(), Mockito.isNull()))
-            .thenReturn(solrDocumentSearchResults);
+            Mockito.isNull(), Mockito.anyLong(), Mockito.anyLong(), Mockito.eq(0), Mockito.eq(EventLifeIdCache.MAXIMUM_DOCUMENTS)
+            , Mockito.anyList(), Mockito.anyBoolean(), Mockito.eq("timestamp"), Mockito.eq("ASCENDING")))
+            .thenAnswer(invocation -> {
+                Assertions.assertEquals(List.of(EventLifeIdCache.toFilterQuery("eventId")), FilterQuerySolrClient.getFilterQueries());
+                return solrDocumentSearchResults;
+            });
 
         SecurityContextHolder.getContext().setAuthentication(this.ikasanAuthentication);
 
@@ -74,6 +80,47 @@ public class EventLifeIdDeepLinkViewTest extends UITest {
         Assertions.assertEquals(3, solrSearchFilteringGrid.getResultSize(), "Search results size equals 3!");
     }
 
+    @Test
+    public void test_event_life_id_view_served_from_cache() throws IOException
+    {
+        IkasanSolrDocument document = new IkasanSolrDocument();
+        document.setId("id");
+        document.setType("wiretap");
+        document.setFlowName("flow");
+        document.setModuleName("module");
+        document.setEventId("eventId");
+
+        IkasanSolrDocumentSearchResults solrDocumentSearchResults = new IkasanSolrDocumentSearchResults(List.of(document), 1, 1);
+
+        Mockito.when(this.ikasanAuthentication.hasGrantedAuthority(SecurityConstants.ALL_AUTHORITY))
+            .thenReturn(true);
+
+        Mockito.when(this.solrSearchService.search(Mockito.isNull(), Mockito.isNull(), Mockito.isNull(), Mockito.isNull(),
+            Mockito.isNull(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(), Mockito.anyList(),
+            Mockito.anyBoolean(), Mockito.any(), Mockito.any()))
+            .thenReturn(solrDocumentSearchResults);
+
+        SecurityContextHolder.getContext().setAuthentication(this.ikasanAuthentication);
+
+        UI.getCurrent().navigate("eventLifeId/eventId");
+
+        // the link followed again
+        EventLifeIdDeepLinkView eventLifeIdDeepLinkView = _get(EventLifeIdDeepLinkView.class);
+        eventLifeIdDeepLinkView.setParameter(null, "eventId");
+        MockVaadin.clientRoundtrip();
+        SearchResults searchResults = (SearchResults) ReflectionTestUtils
+            .getField(eventLifeIdDeepLinkView, "searchResults");
+        SolrSearchFilteringGrid solrSearchFilteringGrid = (SolrSearchFilteringGrid) ReflectionTestUtils
+            .getField(searchResults, "searchResultsGrid");
+
+        Assertions.assertEquals(1, solrSearchFilteringGrid.getResultSize(), "Search results size equals 1!");
+
+        // the count and the rows of both visits are all served by a single search
+        Mockito.verify(this.solrSearchService, Mockito.times(1)).search(Mockito.isNull(), Mockito.isNull()
+            , Mockito.isNull(), Mockito.isNull(), Mockito.isNull(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt()
+            , Mockito.anyInt(), Mockito.anyList(), Mockito.anyBoolean(), Mockito.any(), Mockito.any());
+    }
+
     @Test
     public void test_event_life_id_view_success_no_results() throws IOException
     {
@@ -83,9 +130,12 @@ public class EventLifeIdDeepLinkViewTest extends UITest {
             .thenReturn(true);
 
         Mockito.when(this.solrSearchService.search(Mockito.isNull(), Mockito.isNull(), Mockito.isNull(), Mockito.isNull(),
-            Mockito.anyString(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(), Mockito.anyList(),
-            Mockito.anyBoolean(), Mockito.isNull(), Mockito.isNull()))
-            .thenReturn(solrDocumentSearchResults);
+            Mockito.isNull(), Mockito.anyLong(), Mockito.anyLong(), Mockito.eq(0), Mockito.eq(EventLifeIdCache.MAXIMUM_DOCUMENTS)
+            , Mockito.anyList(), Mockito.anyBoolean(), Mockito.eq("timestamp"), Mockito.eq("ASCENDING")))
+            .thenAnswer(invocation -> {
+                Assertions.assertEquals(List.of(EventLifeIdCache.toFilterQuery("eventId")), FilterQuerySolrClient.getFilterQueries());
+                return solrDocumentSearchResults;
+            });
 
         SecurityContextHolder.getContext().setAuthentication(this.ikasanAuthentication);
 
@@ -4,6 +4,7 @@ import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.textfield.TextArea;
 import com.vaadin.flow.component.textfield.TextField;
+import org.ikasan.dashboard.cache.ModuleMetaDataCache;
 import org.ikasan.dashboard.ui.UITest;
 import org.ikasan.rest.client.ResubmissionRestServiceImpl;
 import org.ikasan.solr.model.IkasanSolrDocument;
@@ -47,7 +48,7 @@ public class HospitalViewTest extends UITest {
 
     @Override
     public void setup_expectations() {
-
+        ModuleMetaDataCache.instance().invalidateAll();
     }
 
     @Test
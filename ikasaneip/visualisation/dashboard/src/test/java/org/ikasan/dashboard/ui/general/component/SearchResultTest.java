@@ -134,9 +134,9 @@ public class SearchResultTest extends UITest {
 
         IkasanSolrDocument row = GridKt._get(solrSearchFilteringGrid, 0);
         Grid.Column<IkasanSolrDocument> column = GridKt._getColumnByKey(solrSearchFilteringGrid, "entityImage");
-        String formatted = GridKt._getFormatted(column, row);
+        Object image = column.getRenderer().getValueProviders().get("image").apply(row);
 
-        Assert.assertEquals("HorizontalLayout[#frontend/images/wiretap-service.png, width:100% justify-content:center]", formatted);
+        Assert.assertEquals("frontend/images/wiretap-service.png", image);
     }
 
     @Test
@@ -192,9 +192,9 @@ public class SearchResultTest extends UITest {
 
         IkasanSolrDocument row = GridKt._get(solrSearchFilteringGrid, 0);
         Grid.Column<IkasanSolrDocument> column = GridKt._getColumnByKey(solrSearchFilteringGrid, "entityImage");
-        String formatted = GridKt._getFormatted(column, row);
+        Object image = column.getRenderer().getValueProviders().get("image").apply(row);
 
-        Assert.assertEquals("HorizontalLayout[#frontend/images/error-service.png, width:100% justify-content:center]", formatted);
+        Assert.assertEquals("frontend/images/error-service.png", image);
     }
 
     @Test
@@ -256,9 +256,9 @@ public class SearchResultTest extends UITest {
 
         IkasanSolrDocument row = GridKt._get(solrSearchFilteringGrid, 0);
         Grid.Column<IkasanSolrDocument> column = GridKt._getColumnByKey(solrSearchFilteringGrid, "entityImage");
-        String formatted = GridKt._getFormatted(column, row);
+        Object image = column.getRenderer().getValueProviders().get("image").apply(row);
 
-        Assert.assertEquals("HorizontalLayout[#frontend/images/hospital-service.png, width:100% justify-content:center]", formatted);
+        Assert.assertEquals("frontend/images/hospital-service.png", image);
     }
 
     @Test
@@ -319,9 +319,9 @@ public class SearchResultTest extends UITest {
 
         IkasanSolrDocument row = GridKt._get(solrSearchFilteringGrid, 0);
         Grid.Column<IkasanSolrDocument> column = GridKt._getColumnByKey(solrSearchFilteringGrid, "entityImage");
-        String formatted = GridKt._getFormatted(column, row);
+        Object image = column.getRenderer().getValueProviders().get("image").apply(row);
 
-        Assert.assertEquals("HorizontalLayout[#frontend/images/replay-service.png, width:100% justify-content:center]", formatted);
+        Assert.assertEquals("frontend/images/replay-service.png", image);
     }
 
     @Test
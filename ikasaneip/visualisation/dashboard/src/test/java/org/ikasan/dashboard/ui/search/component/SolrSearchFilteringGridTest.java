@@ -138,11 +138,11 @@ public class SolrSearchFilteringGridTest extends UITest {
         Mockito.when(role.getRoleModules()).thenReturn(this.roleModules);
         Mockito.doCallRealMethod().when(this.roleModules).forEach((any(Consumer.class)));
         Mockito.when(this.roleModules.iterator()).thenReturn(new HashSet<RoleModule>().iterator(), new HashSet<RoleModule>().iterator());
-        Mockito.when(this.solrSearchService.search(argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals(SearchConstants.NONSENSE_STRING)),
+        Mockito.when(this.solrSearchService.search(Mockito.isNull(),
             Mockito.isNull(), Mockito.isNull(), eq("*event1*"), Mockito.anyString(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt(),
             Mockito.anyInt(), argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("wiretap")),
             Mockito.anyBoolean(), Mockito.isNull(), Mockito.isNull()))
-            .thenReturn(this.getSolrResults(1));
+            .thenAnswer(invocation -> this.getSolrResults(Set.of(), 1));
 
         SolrSearchFilteringGrid solrSearchFilteringGrid = _get(SolrSearchFilteringGrid.class);
         Assertions.assertNotNull(solrSearchFilteringGrid);
@@ -226,11 +226,11 @@ public class SolrSearchFilteringGridTest extends UITest {
         Mockito.doCallRealMethod().when(this.roleModules).forEach((any(Consumer.class)));
         Mockito.when(this.roleModules.iterator()).thenReturn(Set.of(roleModule).iterator(), Set.of(roleModule).iterator());
         Mockito.when(this.roleModule.getModuleName()).thenReturn("testModuleName");
-        Mockito.when(this.solrSearchService.search(argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("testModuleName")),
+        Mockito.when(this.solrSearchService.search(Mockito.isNull(),
             Mockito.isNull(), Mockito.isNull(), eq("*event1*"), Mockito.anyString(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt(),
             Mockito.anyInt(), argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("wiretap")),
             Mockito.anyBoolean(), Mockito.isNull(), Mockito.isNull()))
-            .thenReturn(this.getSolrResults(1));
+            .thenAnswer(invocation -> this.getSolrResults(Set.of("testModuleName"), 1));
 
         SolrSearchFilteringGrid solrSearchFilteringGrid = _get(SolrSearchFilteringGrid.class);
         Assertions.assertNotNull(solrSearchFilteringGrid);
@@ -372,12 +372,12 @@ public class SolrSearchFilteringGridTest extends UITest {
         Mockito.doCallRealMethod().when(this.roleModules).forEach((any(Consumer.class)));
         Mockito.when(this.roleModules.iterator()).thenReturn(Set.of(roleModule).iterator(), Set.of(roleModule).iterator());
         Mockito.when(this.roleModule.getModuleName()).thenReturn("testModuleName");
-        Mockito.when(this.solrSearchService.search(argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("testModuleName")),
+        Mockito.when(this.solrSearchService.search(Mockito.isNull(),
             argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("*test*")), Mockito.isNull(), Mockito.isNull(),
             Mockito.anyString(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(),
             argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("wiretap")), Mockito.anyBoolean(),
             Mockito.isNull(), Mockito.isNull()))
-            .thenReturn(this.getSolrResults(1));
+            .thenAnswer(invocation -> this.getSolrResults(Set.of("testModuleName"), 1));
 
         SolrSearchFilteringGrid solrSearchFilteringGrid = _get(SolrSearchFilteringGrid.class);
         Assertions.assertNotNull(solrSearchFilteringGrid);
@@ -447,12 +447,12 @@ public class SolrSearchFilteringGridTest extends UITest {
         Mockito.doCallRealMethod().when(this.roleModules).forEach((any(Consumer.class)));
         Mockito.when(this.roleModules.iterator()).thenReturn(Set.of(roleModule).iterator(), Set.of(roleModule).iterator());
         Mockito.when(this.roleModule.getModuleName()).thenReturn("testModuleName");
-        Mockito.when(this.solrSearchService.search(argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("testModuleName")),
+        Mockito.when(this.solrSearchService.search(Mockito.isNull(),
             Mockito.isNull(), argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("*test*")), Mockito.isNull(),
             Mockito.anyString(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(),
             argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("wiretap")), Mockito.anyBoolean(),
             Mockito.isNull(), Mockito.isNull()))
-            .thenReturn(this.getSolrResults(1));
+            .thenAnswer(invocation -> this.getSolrResults(Set.of("testModuleName"), 1));
 
         SolrSearchFilteringGrid solrSearchFilteringGrid = _get(SolrSearchFilteringGrid.class);
         Assertions.assertNotNull(solrSearchFilteringGrid);
@@ -523,11 +523,11 @@ public class SolrSearchFilteringGridTest extends UITest {
         Mockito.doCallRealMethod().when(this.roleModules).forEach((any(Consumer.class)));
         Mockito.when(this.roleModules.iterator()).thenReturn(Set.of(roleModule).iterator(), Set.of(roleModule).iterator());
         Mockito.when(this.roleModule.getModuleName()).thenReturn("testModuleName");
-        Mockito.when(this.solrSearchService.search(argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("testModuleName")),
+        Mockito.when(this.solrSearchService.search(Mockito.isNull(),
             Mockito.isNull(), Mockito.isNull(), eq("*event1*"), Mockito.anyString(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt(),
             Mockito.anyInt(), argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("replay")),
             Mockito.anyBoolean(), Mockito.isNull(), Mockito.isNull()))
-            .thenReturn(this.getSolrResults(1));
+            .thenAnswer(invocation -> this.getSolrResults(Set.of("testModuleName"), 1));
 
         SolrSearchFilteringGrid solrSearchFilteringGrid = _get(SolrSearchFilteringGrid.class);
         Assertions.assertNotNull(solrSearchFilteringGrid);
@@ -671,12 +671,12 @@ public class SolrSearchFilteringGridTest extends UITest {
         Mockito.doCallRealMethod().when(this.roleModules).forEach((any(Consumer.class)));
         Mockito.when(this.roleModules.iterator()).thenReturn(Set.of(roleModule).iterator(), Set.of(roleModule).iterator());
         Mockito.when(this.roleModule.getModuleName()).thenReturn("testModuleName");
-        Mockito.when(this.solrSearchService.search(argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("testModuleName")),
+        Mockito.when(this.solrSearchService.search(Mockito.isNull(),
             argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("*test*")), Mockito.isNull(), Mockito.isNull(),
             Mockito.anyString(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(),
             argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("replay")), Mockito.anyBoolean(),
             Mockito.isNull(), Mockito.isNull()))
-            .thenReturn(this.getSolrResults(1));
+            .thenAnswer(invocation -> this.getSolrResults(Set.of("testModuleName"), 1));
 
         SolrSearchFilteringGrid solrSearchFilteringGrid = _get(SolrSearchFilteringGrid.class);
         Assertions.assertNotNull(solrSearchFilteringGrid);
@@ -747,12 +747,12 @@ public class SolrSearchFilteringGridTest extends UITest {
         Mockito.doCallRealMethod().when(this.roleModules).forEach((any(Consumer.class)));
         Mockito.when(this.roleModules.iterator()).thenReturn(Set.of(roleModule).iterator(), Set.of(roleModule).iterator());
         Mockito.when(this.roleModule.getModuleName()).thenReturn("testModuleName");
-        Mockito.when(this.solrSearchService.search(argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("testModuleName")),
+        Mockito.when(this.solrSearchService.search(Mockito.isNull(),
             Mockito.isNull(), argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("*test*")), Mockito.isNull(),
             Mockito.anyString(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(),
             argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("replay")), Mockito.anyBoolean(),
             Mockito.isNull(), Mockito.isNull()))
-            .thenReturn(this.getSolrResults(1));
+            .thenAnswer(invocation -> this.getSolrResults(Set.of("testModuleName"), 1));
 
         SolrSearchFilteringGrid solrSearchFilteringGrid = _get(SolrSearchFilteringGrid.class);
         Assertions.assertNotNull(solrSearchFilteringGrid);
@@ -823,11 +823,11 @@ public class SolrSearchFilteringGridTest extends UITest {
         Mockito.doCallRealMethod().when(this.roleModules).forEach((any(Consumer.class)));
         Mockito.when(this.roleModules.iterator()).thenReturn(Set.of(roleModule).iterator(), Set.of(roleModule).iterator());
         Mockito.when(this.roleModule.getModuleName()).thenReturn("testModuleName");
-        Mockito.when(this.solrSearchService.search(argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("testModuleName")),
+        Mockito.when(this.solrSearchService.search(Mockito.isNull(),
             Mockito.isNull(), Mockito.isNull(), eq("*event1*"), Mockito.anyString(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt(),
             Mockito.anyInt(), argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("exclusion")),
             Mockito.anyBoolean(), Mockito.isNull(), Mockito.isNull()))
-            .thenReturn(this.getSolrResults(1));
+            .thenAnswer(invocation -> this.getSolrResults(Set.of("testModuleName"), 1));
 
         SolrSearchFilteringGrid solrSearchFilteringGrid = _get(SolrSearchFilteringGrid.class);
         Assertions.assertNotNull(solrSearchFilteringGrid);
@@ -971,12 +971,12 @@ public class SolrSearchFilteringGridTest extends UITest {
         Mockito.doCallRealMethod().when(this.roleModules).forEach((any(Consumer.class)));
         Mockito.when(this.roleModules.iterator()).thenReturn(Set.of(roleModule).iterator(), Set.of(roleModule).iterator());
         Mockito.when(this.roleModule.getModuleName()).thenReturn("testModuleName");
-        Mockito.when(this.solrSearchService.search(argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("testModuleName")),
+        Mockito.when(this.solrSearchService.search(Mockito.isNull(),
             argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("*test*")), Mockito.isNull(), Mockito.isNull(),
             Mockito.anyString(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(),
             argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("exclusion")), Mockito.anyBoolean(),
             Mockito.isNull(), Mockito.isNull()))
-            .thenReturn(this.getSolrResults(1));
+            .thenAnswer(invocation -> this.getSolrResults(Set.of("testModuleName"), 1));
 
         SolrSearchFilteringGrid solrSearchFilteringGrid = _get(SolrSearchFilteringGrid.class);
         Assertions.assertNotNull(solrSearchFilteringGrid);
@@ -1047,12 +1047,12 @@ public class SolrSearchFilteringGridTest extends UITest {
         Mockito.doCallRealMethod().when(this.roleModules).forEach((any(Consumer.class)));
         Mockito.when(this.roleModules.iterator()).thenReturn(Set.of(roleModule).iterator(), Set.of(roleModule).iterator());
         Mockito.when(this.roleModule.getModuleName()).thenReturn("testModuleName");
-        Mockito.when(this.solrSearchService.search(argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("testModuleName")),
+        Mockito.when(this.solrSearchService.search(Mockito.isNull(),
             Mockito.isNull(), argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("*test*")), Mockito.isNull(),
             Mockito.anyString(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(),
             argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("exclusion")), Mockito.anyBoolean(),
             Mockito.isNull(), Mockito.isNull()))
-            .thenReturn(this.getSolrResults(1));
+            .thenAnswer(invocation -> this.getSolrResults(Set.of("testModuleName"), 1));
 
         SolrSearchFilteringGrid solrSearchFilteringGrid = _get(SolrSearchFilteringGrid.class);
         Assertions.assertNotNull(solrSearchFilteringGrid);
@@ -1123,11 +1123,11 @@ public class SolrSearchFilteringGridTest extends UITest {
         Mockito.doCallRealMethod().when(this.roleModules).forEach((any(Consumer.class)));
         Mockito.when(this.roleModules.iterator()).thenReturn(Set.of(roleModule).iterator(), Set.of(roleModule).iterator());
         Mockito.when(this.roleModule.getModuleName()).thenReturn("testModuleName");
-        Mockito.when(this.solrSearchService.search(argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("testModuleName")),
+        Mockito.when(this.solrSearchService.search(Mockito.isNull(),
             Mockito.isNull(), Mockito.isNull(), eq("*event1*"), Mockito.anyString(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt(),
             Mockito.anyInt(), argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("error")),
             Mockito.anyBoolean(), Mockito.isNull(), Mockito.isNull()))
-            .thenReturn(this.getSolrResults(1));
+            .thenAnswer(invocation -> this.getSolrResults(Set.of("testModuleName"), 1));
 
         SolrSearchFilteringGrid solrSearchFilteringGrid = _get(SolrSearchFilteringGrid.class);
         Assertions.assertNotNull(solrSearchFilteringGrid);
@@ -1271,12 +1271,12 @@ public class SolrSearchFilteringGridTest extends UITest {
         Mockito.doCallRealMethod().when(this.roleModules).forEach((any(Consumer.class)));
         Mockito.when(this.roleModules.iterator()).thenReturn(Set.of(roleModule).iterator(), Set.of(roleModule).iterator());
         Mockito.when(this.roleModule.getModuleName()).thenReturn("testModuleName");
-        Mockito.when(this.solrSearchService.search(argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("testModuleName")),
+        Mockito.when(this.solrSearchService.search(Mockito.isNull(),
             argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("*test*")), Mockito.isNull(), Mockito.isNull(),
             Mockito.anyString(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(),
             argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("error")), Mockito.anyBoolean(),
             Mockito.isNull(), Mockito.isNull()))
-            .thenReturn(this.getSolrResults(1));
+            .thenAnswer(invocation -> this.getSolrResults(Set.of("testModuleName"), 1));
 
         SolrSearchFilteringGrid solrSearchFilteringGrid = _get(SolrSearchFilteringGrid.class);
         Assertions.assertNotNull(solrSearchFilteringGrid);
@@ -1347,12 +1347,12 @@ public class SolrSearchFilteringGridTest extends UITest {
         Mockito.doCallRealMethod().when(this.roleModules).forEach((any(Consumer.class)));
         Mockito.when(this.roleModules.iterator()).thenReturn(Set.of(roleModule).iterator(), Set.of(roleModule).iterator());
         Mockito.when(this.roleModule.getModuleName()).thenReturn("testModuleName");
-        Mockito.when(this.solrSearchService.search(argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("testModuleName")),
+        Mockito.when(this.solrSearchService.search(Mockito.isNull(),
             Mockito.isNull(), argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("*test*")), Mockito.isNull(),
             Mockito.anyString(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(),
             argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("error")), Mockito.anyBoolean(),
             Mockito.isNull(), Mockito.isNull()))
-            .thenReturn(this.getSolrResults(1));
+            .thenAnswer(invocation -> this.getSolrResults(Set.of("testModuleName"), 1));
 
         SolrSearchFilteringGrid solrSearchFilteringGrid = _get(SolrSearchFilteringGrid.class);
         Assertions.assertNotNull(solrSearchFilteringGrid);
@@ -1423,11 +1423,11 @@ public class SolrSearchFilteringGridTest extends UITest {
         Mockito.doCallRealMethod().when(this.roleModules).forEach((any(Consumer.class)));
         Mockito.when(this.roleModules.iterator()).thenReturn(Set.of(roleModule).iterator(), Set.of(roleModule).iterator());
         Mockito.when(this.roleModule.getModuleName()).thenReturn("testModuleName");
-        Mockito.when(this.solrSearchService.search(argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("testModuleName")),
+        Mockito.when(this.solrSearchService.search(Mockito.isNull(),
             Mockito.isNull(), Mockito.isNull(), eq("*event1*"), Mockito.anyString(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt(),
             Mockito.anyInt(), argThat(strings -> strings.size() == 4 && strings.contains("error") && strings.contains("exclusion") && strings.contains("wiretap") && strings.contains("replay")),
             Mockito.anyBoolean(), Mockito.isNull(), Mockito.isNull()))
-            .thenReturn(this.getSolrResults(1));
+            .thenAnswer(invocation -> this.getSolrResults(Set.of("testModuleName"), 1));
 
         SolrSearchFilteringGrid solrSearchFilteringGrid = _get(SolrSearchFilteringGrid.class);
         Assertions.assertNotNull(solrSearchFilteringGrid);
@@ -1575,12 +1575,12 @@ public class SolrSearchFilteringGridTest extends UITest {
         Mockito.doCallRealMethod().when(this.roleModules).forEach((any(Consumer.class)));
         Mockito.when(this.roleModules.iterator()).thenReturn(Set.of(roleModule).iterator(), Set.of(roleModule).iterator());
         Mockito.when(this.roleModule.getModuleName()).thenReturn("testModuleName");
-        Mockito.when(this.solrSearchService.search(argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("testModuleName")),
+        Mockito.when(this.solrSearchService.search(Mockito.isNull(),
             argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("*test*")), Mockito.isNull(), Mockito.isNull(),
             Mockito.anyString(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(),
             argThat(strings -> strings.size() == 4 && strings.contains("error") && strings.contains("exclusion") && strings.contains("wiretap") && strings.contains("replay")), Mockito.anyBoolean(),
             Mockito.isNull(), Mockito.isNull()))
-            .thenReturn(this.getSolrResults(1));
+            .thenAnswer(invocation -> this.getSolrResults(Set.of("testModuleName"), 1));
 
         SolrSearchFilteringGrid solrSearchFilteringGrid = _get(SolrSearchFilteringGrid.class);
         Assertions.assertNotNull(solrSearchFilteringGrid);
@@ -1653,12 +1653,12 @@ public class SolrSearchFilteringGridTest extends UITest {
         Mockito.doCallRealMethod().when(this.roleModules).forEach((any(Consumer.class)));
         Mockito.when(this.roleModules.iterator()).thenReturn(Set.of(roleModule).iterator(), Set.of(roleModule).iterator());
         Mockito.when(this.roleModule.getModuleName()).thenReturn("testModuleName");
-        Mockito.when(this.solrSearchService.search(argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("testModuleName")),
+        Mockito.when(this.solrSearchService.search(Mockito.isNull(),
             Mockito.isNull(), argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("*test*")), Mockito.isNull(),
             Mockito.anyString(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(),
             argThat(strings -> strings.size() == 4 && strings.contains("error") && strings.contains("exclusion") && strings.contains("wiretap") && strings.contains("replay")), Mockito.anyBoolean(),
             Mockito.isNull(), Mockito.isNull()))
-            .thenReturn(this.getSolrResults(1));
+            .thenAnswer(invocation -> this.getSolrResults(Set.of("testModuleName"), 1));
 
         SolrSearchFilteringGrid solrSearchFilteringGrid = _get(SolrSearchFilteringGrid.class);
         Assertions.assertNotNull(solrSearchFilteringGrid);
@@ -1731,12 +1731,12 @@ public class SolrSearchFilteringGridTest extends UITest {
         Mockito.doCallRealMethod().when(this.roleModules).forEach((any(Consumer.class)));
         Mockito.when(this.roleModules.iterator()).thenReturn(Set.of(roleModule).iterator(), Set.of(roleModule).iterator());
         Mockito.when(this.roleModule.getModuleName()).thenReturn("testModuleName");
-        Mockito.when(this.solrSearchService.search(argThat(strings -> strings.size() == 1 && strings.stream().findFirst().get().equals("testModuleName")),
+        Mockito.when(this.solrSearchService.search(Mockito.isNull(),
             Mockito.isNull(), Mockito.isNull(), Mockito.isNull(),
             Mockito.anyString(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(),
             argThat(strings -> strings.size() == 4 && strings.contains("error") && strings.contains("exclusion") && strings.contains("wiretap") && strings.contains("replay")), Mockito.anyBoolean(),
             Mockito.isNull(), Mockito.isNull()))
-            .thenReturn(this.getSolrResults(1));
+            .thenAnswer(invocation -> this.getSolrResults(Set.of("testModuleName"), 1));
 
         SolrSearchFilteringGrid solrSearchFilteringGrid = _get(SolrSearchFilteringGrid.class);
         Assertions.assertNotNull(solrSearchFilteringGrid);
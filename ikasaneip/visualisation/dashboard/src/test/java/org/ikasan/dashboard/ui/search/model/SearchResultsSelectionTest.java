@@ -0,0 +1,95 @@
+package org.ikasan.dashboard.ui.search.model;
+
+import org.ikasan.solr.model.IkasanSolrDocument;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+public class SearchResultsSelectionTest
+{
+    private SearchResultsSelection selection = new SearchResultsSelection();
+
+    @Test
+    public void test_individual_selection()
+    {
+        this.selection.setSelected(document("1"), true);
+        this.selection.setSelected(document("2"), true);
+        this.selection.setSelected(document("2"), false);
+
+        Assertions.assertTrue(this.selection.isSelected("1"));
+        Assertions.assertFalse(this.selection.isSelected("2"));
+        Assertions.assertFalse(this.selection.isSelected("3"));
+        Assertions.assertEquals(1, this.selection.getNumberSelected(100));
+        Assertions.assertEquals(List.of("1"), ids(this.selection.getSelectedDocuments()));
+    }
+
+    @Test
+    public void test_clear_listeners_told_when_cleared()
+    {
+        AtomicInteger cleared = new AtomicInteger();
+        this.selection.addClearListener(cleared::incrementAndGet);
+
+        this.selection.selectAll();
+        Assertions.assertEquals(0, cleared.get());
+
+        this.selection.clear();
+        Assertions.assertEquals(1, cleared.get());
+        Assertions.assertFalse(this.selection.isAll());
+    }
+
+    @Test
+    public void test_select_all_except_deselected()
+    {
+        this.selection.setSelected(document("1"), true);
+        this.selection.selectAll();
+
+        this.selection.setSelected(document("2"), false);
+
+        Assertions.assertTrue(this.selection.isAll());
+        Assertions.assertTrue(this.selection.isSelected("1"));
+        Assertions.assertFalse(this.selection.isSelected("2"));
+        Assertions.assertTrue(this.selection.isSelected("3"));
+        Assertions.assertEquals(99, this.selection.getNumberSelected(100));
+        Assertions.assertTrue(this.selection.getSelectedDocuments().isEmpty());
+
+        this.selection.setSelected(document("2"), true);
+
+        Assertions.assertEquals(100, this.selection.getNumberSelected(100));
+    }
+
+    @Test
+    public void test_toggle()
+    {
+        Assertions.assertTrue(this.selection.toggle(document("1")));
+        Assertions.assertFalse(this.selection.toggle(document("1")));
+        Assertions.assertEquals(0, this.selection.getNumberSelected(100));
+    }
+
+    @Test
+    public void test_clear()
+    {
+        this.selection.selectAll();
+        this.selection.setSelected(document("1"), false);
+
+        this.selection.clear();
+
+        Assertions.assertFalse(this.selection.isAll());
+        Assertions.assertFalse(this.selection.isSelected("2"));
+        Assertions.assertEquals(0, this.selection.getNumberSelected(100));
+    }
+
+    private static IkasanSolrDocument document(String id)
+    {
+        IkasanSolrDocument document = new IkasanSolrDocument();
+        document.setId(id);
+        return document;
+    }
+
+    private static List<String> ids(List<IkasanSolrDocument> documents)
+    {
+        return documents.stream().map(IkasanSolrDocument::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,258 @@
+package org.ikasan.dashboard.ui.util;
+
+import org.ikasan.dashboard.ingest.IngestSpool;
+import org.ikasan.security.service.authentication.IkasanAuthentication;
+import org.ikasan.spec.systemevent.SystemEvent;
+import org.ikasan.spec.systemevent.SystemEventDao;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SystemEventLoggerTest
+{
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private SystemEventDao systemEventDao;
+    private SystemEventLogger systemEventLogger;
+
+    @Before
+    public void setup()
+    {
+        IkasanAuthentication authentication = Mockito.mock(IkasanAuthentication.class);
+        Mockito.when(authentication.getName()).thenReturn("admin");
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        this.systemEventDao = Mockito.mock(SystemEventDao.class);
+        this.systemEventLogger = new SystemEventLogger(this.systemEventDao, 60L);
+    }
+
+    @After
+    public void teardown()
+    {
+        this.systemEventLogger.close();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_exception_null_system_event_dao()
+    {
+        new SystemEventLogger(null, 60L);
+    }
+
+    @Test
+    public void test_event_written_synchronously_when_not_started()
+    {
+        this.systemEventLogger.logEvent(SystemEventConstants.DASHBOARD_LOGIN_CONSTANTS, "Login", null);
+
+        Mockito.verify(this.systemEventDao).save(event(SystemEventConstants.DASHBOARD_LOGIN_CONSTANTS
+            , "Login - Performed by [admin]", "admin"));
+    }
+
+    @Test
+    public void test_event_written_from_background_thread_when_started() throws Exception
+    {
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> release.await()).when(this.systemEventDao)
+            .save(subject(SystemEventConstants.DASHBOARD_SESSION_EXPIRED_CONSTANTS));
+
+        this.systemEventLogger.setFlushIntervalMillis(10);
+        this.systemEventLogger.start();
+
+        // a slow database does not hold up the user
+        this.systemEventLogger.logEvent(SystemEventConstants.DASHBOARD_SESSION_EXPIRED_CONSTANTS, "Expired", null);
+        this.systemEventLogger.logEvent("Flow started", "Start", "user");
+        release.countDown();
+
+        InOrder inOrder = Mockito.inOrder(this.systemEventDao);
+        inOrder.verify(this.systemEventDao, Mockito.timeout(5000)).save(event(SystemEventConstants.DASHBOARD_SESSION_EXPIRED_CONSTANTS
+            , "Expired - Performed by [admin]", "admin"));
+        inOrder.verify(this.systemEventDao, Mockito.timeout(5000)).save(event("Flow started"
+            , "Start - Performed by [admin]", "user"));
+    }
+
+    @Test
+    public void test_security_critical_event_written_synchronously_when_started()
+    {
+        this.systemEventLogger.setFlushIntervalMillis(60000);
+        this.systemEventLogger.start();
+
+        this.systemEventLogger.logEvent(SystemEventConstants.NEW_USER_CREATED, "New user", null);
+        this.systemEventLogger.logEvent(SystemEventConstants.DASHBOARD_LOGIN_CONSTANTS, "Login", null);
+        this.systemEventLogger.logEvent(SystemEventConstants.DASHBOARD_ROLE_DELETED, "Role", null);
+
+        Mockito.verify(this.systemEventDao).save(event(SystemEventConstants.NEW_USER_CREATED
+            , "New user - Performed by [admin]", "admin"));
+        Mockito.verify(this.systemEventDao).save(event(SystemEventConstants.DASHBOARD_LOGIN_CONSTANTS
+            , "Login - Performed by [admin]", "admin"));
+        Mockito.verify(this.systemEventDao).save(event(SystemEventConstants.DASHBOARD_ROLE_DELETED
+            , "Role - Performed by [admin]", "admin"));
+    }
+
+    @Test
+    public void test_event_written_synchronously_when_queue_full()
+    {
+        this.systemEventLogger.setCapacity(1);
+        this.systemEventLogger.setFlushIntervalMillis(60000);
+        this.systemEventLogger.setBatchSize(1);
+
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> release.await()).when(this.systemEventDao)
+            .save(subject("first"));
+        this.systemEventLogger.start();
+
+        try
+        {
+            // the first event holds up the background thread and the second fills the queue
+            this.systemEventLogger.logEvent("first", "action", null);
+            Mockito.verify(this.systemEventDao, Mockito.timeout(5000)).save(event("first"
+                , "action - Performed by [admin]", "admin"));
+            this.systemEventLogger.logEvent("second", "action", null);
+            this.systemEventLogger.logEvent("third", "action", null);
+
+            Mockito.verify(this.systemEventDao).save(event("third", "action - Performed by [admin]", "admin"));
+            Mockito.verify(this.systemEventDao, Mockito.never()).save(subject("second"));
+        }
+        finally
+        {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void test_queued_events_written_on_close()
+    {
+        this.systemEventLogger.setFlushIntervalMillis(60000);
+        this.systemEventLogger.setBatchSize(100);
+        this.systemEventLogger.start();
+
+        this.systemEventLogger.logEvent(SystemEventConstants.DASHBOARD_SESSION_EXPIRED_CONSTANTS, "Expired", null);
+        this.systemEventLogger.close();
+
+        Mockito.verify(this.systemEventDao).save(event(SystemEventConstants.DASHBOARD_SESSION_EXPIRED_CONSTANTS
+            , "Expired - Performed by [admin]", "admin"));
+        Assertions.assertEquals(0, this.systemEventLogger.getQueued());
+    }
+
+    @Test
+    public void test_rejected_event_dead_lettered_and_later_events_written() throws Exception
+    {
+        IngestSpool deadLetterSpool = new IngestSpool(this.temporaryFolder.getRoot().toPath(), false);
+        Mockito.doThrow(new DataIntegrityViolationException("value too long")).when(this.systemEventDao)
+            .save(subject("rejected"));
+
+        this.systemEventLogger.setFlushIntervalMillis(10);
+        this.systemEventLogger.setDeadLetterSpool(deadLetterSpool);
+        this.systemEventLogger.start();
+
+        this.systemEventLogger.logEvent("first", "action", null);
+        this.systemEventLogger.logEvent("rejected", "action", null);
+        this.systemEventLogger.logEvent("third", "action", null);
+
+        Mockito.verify(this.systemEventDao, Mockito.timeout(5000)).save(event("first"
+            , "action - Performed by [admin]", "admin"));
+        Mockito.verify(this.systemEventDao, Mockito.timeout(5000)).save(event("third"
+            , "action - Performed by [admin]", "admin"));
+        waitFor(() -> deadLetterSpool.listDeadLetters().size() == 1);
+        Assertions.assertEquals(1, deadLetterSpool.read(deadLetterSpool.listDeadLetters().get(0)).size());
+    }
+
+    @Test
+    public void test_queued_event_keeps_time_it_was_logged() throws Exception
+    {
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> release.await()).when(this.systemEventDao).save(subject("first"));
+
+        this.systemEventLogger.setFlushIntervalMillis(10);
+        this.systemEventLogger.setBatchSize(1);
+        this.systemEventLogger.start();
+
+        this.systemEventLogger.logEvent("first", "action", null);
+        long before = System.currentTimeMillis();
+        this.systemEventLogger.logEvent("second", "action", null);
+        long after = System.currentTimeMillis();
+
+        // the second event is written well after it was logged
+        Thread.sleep(200);
+        release.countDown();
+
+        ArgumentCaptor<SystemEvent> written = ArgumentCaptor.forClass(SystemEvent.class);
+        Mockito.verify(this.systemEventDao, Mockito.timeout(5000).times(2)).save(written.capture());
+        SystemEvent systemEvent = written.getAllValues().get(1);
+        Assertions.assertEquals("second", systemEvent.getSubject());
+        Assertions.assertTrue(systemEvent.getTimestamp().getTime() >= before
+            && systemEvent.getTimestamp().getTime() <= after);
+        Assertions.assertEquals(systemEvent.getTimestamp().getTime() + TimeUnit.MINUTES.toMillis(60)
+            , systemEvent.getExpiry().getTime());
+    }
+
+    @Test
+    public void test_unavailable_database_retried_without_dead_lettering() throws Exception
+    {
+        IngestSpool deadLetterSpool = new IngestSpool(this.temporaryFolder.getRoot().toPath(), false);
+        AtomicInteger failures = new AtomicInteger(5);
+        Mockito.doAnswer(invocation ->
+        {
+            if(failures.getAndDecrement() > 0)
+            {
+                throw new RuntimeException("database unavailable");
+            }
+            return null;
+        }).when(this.systemEventDao).save(Mockito.any());
+
+        this.systemEventLogger.setFlushIntervalMillis(1);
+        this.systemEventLogger.setBatchSize(2);
+        this.systemEventLogger.setDeadLetterSpool(deadLetterSpool);
+        this.systemEventLogger.start();
+
+        this.systemEventLogger.logEvent("failing", "action", null);
+        this.systemEventLogger.logEvent("next", "action", null);
+
+        Mockito.verify(this.systemEventDao, Mockito.timeout(5000)).save(event("next"
+            , "action - Performed by [admin]", "admin"));
+        Mockito.verify(this.systemEventDao, Mockito.times(6)).save(event("failing"
+            , "action - Performed by [admin]", "admin"));
+        Assertions.assertTrue(deadLetterSpool.listDeadLetters().isEmpty());
+    }
+
+    private static SystemEvent subject(String subject)
+    {
+        return Mockito.argThat(systemEvent -> systemEvent != null && subject.equals(systemEvent.getSubject()));
+    }
+
+    private static SystemEvent event(String subject, String action, String actor)
+    {
+        return Mockito.argThat(systemEvent -> systemEvent != null && subject.equals(systemEvent.getSubject())
+            && action.equals(systemEvent.getAction()) && actor.equals(systemEvent.getActor()));
+    }
+
+    private static void waitFor(Condition condition) throws Exception
+    {
+        long deadline = System.currentTimeMillis() + 5000;
+        while(!condition.met())
+        {
+            if(System.currentTimeMillis() > deadline)
+            {
+                Assertions.fail("Timed out waiting for condition");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private interface Condition
+    {
+        boolean met() throws Exception;
+    }
+}
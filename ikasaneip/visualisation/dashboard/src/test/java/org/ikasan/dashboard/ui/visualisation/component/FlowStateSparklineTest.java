@@ -0,0 +1,46 @@
+package org.ikasan.dashboard.ui.visualisation.component;
+
+import org.ikasan.dashboard.broadcast.State;
+import org.ikasan.dashboard.cache.FlowStateHistory;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+
+public class FlowStateSparklineTest
+{
+    @Test
+    public void test_sparkline_drawn_as_one_image()
+    {
+        long from = 0;
+        long to = FlowStateSparkline.WINDOW_MILLIS;
+        long bar = to / FlowStateSparkline.BARS;
+
+        FlowStateHistory flowStateHistory = new FlowStateHistory(16, 1024 * 1024);
+        flowStateHistory.append("module", "flow", State.RUNNING_STATE, bar * 10);
+        flowStateHistory.append("module", "flow", State.STOPPED_IN_ERROR_STATE, bar * 30);
+
+        String image = FlowStateSparkline.toImage(flowStateHistory.get("module", "flow"), from, to);
+
+        Assertions.assertTrue(image.startsWith("data:image/svg+xml,%3Csvg"));
+        Assertions.assertFalse(image.contains("<") || image.contains(">") || image.contains(" "));
+
+        String svg = URLDecoder.decode(image.substring(image.indexOf(',') + 1), StandardCharsets.UTF_8);
+        Assertions.assertEquals(FlowStateSparkline.BARS, svg.split("<rect ", -1).length - 1);
+        Assertions.assertEquals(9, svg.split("fill='rgb\\(220,220,220\\)'", -1).length - 1);
+        Assertions.assertEquals(20, svg.split("fill='" + State.RUNNING_COLOUR.replace("(", "\\(")
+            .replace(")", "\\)") + "'", -1).length - 1);
+        Assertions.assertTrue(svg.endsWith("</svg>"));
+    }
+
+    @Test
+    public void test_sparkline_without_history()
+    {
+        String image = FlowStateSparkline.toImage(new FlowStateHistory(16, 1024 * 1024).get("module", "flow")
+            , 0, FlowStateSparkline.WINDOW_MILLIS);
+
+        String svg = URLDecoder.decode(image.substring(image.indexOf(',') + 1), StandardCharsets.UTF_8);
+        Assertions.assertEquals(FlowStateSparkline.BARS, svg.split("fill='rgb\\(220,220,220\\)'", -1).length - 1);
+    }
+}
@@ -3,6 +3,7 @@ package org.ikasan.dashboard.ui.visualisation.view;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.data.provider.Query;
 import org.apache.commons.io.IOUtils;
+import org.ikasan.dashboard.cache.FlowConfigurationCache;
 import org.ikasan.dashboard.ui.UITest;
 import org.ikasan.spec.metadata.ConfigurationMetaData;
 import org.ikasan.spec.metadata.ConfigurationMetaDataService;
@@ -55,7 +56,7 @@ public class BusinessStreamViewTest extends UITest
 
     @Override
     public void setup_expectations() {
-
+        FlowConfigurationCache.instance().invalidateAll();
     }
 
     @Test